@@ -0,0 +1,52 @@
+package com.app.dooribankbe.controller.dto;
+
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 결제/이체 요청·응답 JSON 변환 비용 (Spring 과 같은 방식으로 만든 ObjectMapper)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private PaymentResponse paymentResponse;
+    private TransferResponse transferResponse;
+    private byte[] paymentRequestJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        paymentResponse = new PaymentResponse(1_234_567_890_123L, 995_500L);
+        transferResponse = new TransferResponse(1_234_567_890_123L, 1_234_567_890_124L, 900_000L, 1_100_000L);
+        paymentRequestJson = objectMapper.writeValueAsBytes(
+                new PaymentRequest("1002-000-0001", "1234", 4_500L, HistoryCategory.CAFE, "두리카페"));
+    }
+
+    @Benchmark
+    public byte[] writePaymentResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(paymentResponse);
+    }
+
+    @Benchmark
+    public byte[] writeTransferResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(transferResponse);
+    }
+
+    @Benchmark
+    public PaymentRequest readPaymentRequest() throws Exception {
+        return objectMapper.readValue(paymentRequestJson, PaymentRequest.class);
+    }
+}
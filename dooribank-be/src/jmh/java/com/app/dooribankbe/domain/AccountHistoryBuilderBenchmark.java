@@ -0,0 +1,67 @@
+package com.app.dooribankbe.domain;
+
+import com.app.dooribankbe.domain.entity.AccountHistory;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 결제/이체마다 만드는 AccountHistory 빌더 비용
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountHistoryBuilderBenchmark {
+
+    private MemberAccount account;
+    private long amount;
+    private String merchantName;
+    private String transferTarget;
+
+    @Setup
+    public void setUp() {
+        account = MemberAccount.builder()
+                .accountNumber("1002-000-0001")
+                .accountPassword("1234")
+                .balance(1_000_000L)
+                .build();
+        amount = 4_500L;
+        merchantName = "두리카페";
+        transferTarget = "1002-000-0002";
+    }
+
+    @Benchmark
+    public AccountHistory payment() {
+        return AccountHistory.builder()
+                .account(account)
+                .historyPrice(amount)
+                .historyStatus(TransactionType.PAYMENT)
+                .historyCategory(HistoryCategory.CAFE)
+                .historyName(merchantName)
+                .historyTransferTarget(null)
+                .build();
+    }
+
+    @Benchmark
+    public AccountHistory transferOut() {
+        return AccountHistory.builder()
+                .account(account)
+                .historyDate(LocalDateTime.now())
+                .historyPrice(amount)
+                .historyStatus(TransactionType.TRANSFER_OUT)
+                .historyCategory(HistoryCategory.TRANSFER)
+                .historyName("계좌이체 출금")
+                .historyTransferTarget(transferTarget)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.app.dooribankbe.domain;
+
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberAccount 잔액 변경/비밀번호 검증 비용
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MemberAccountBenchmark {
+
+    private MemberAccount account;
+    private MemberAccount emptyAccount;
+    private String password;
+    private String wrongPassword;
+    private long amount;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = MemberAccount.builder()
+                .accountNumber("1002-000-0001")
+                .accountPassword("1234")
+                .balance(1_000_000_000L)
+                .build();
+        emptyAccount = MemberAccount.builder()
+                .accountNumber("1002-000-0002")
+                .accountPassword("1234")
+                .balance(0L)
+                .build();
+        password = new String("1234");
+        wrongPassword = new String("4321");
+        amount = 1_000L;
+    }
+
+    @Benchmark
+    public long withdrawThenDeposit() {
+        account.withdraw(amount);
+        account.deposit(amount);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public void withdrawInsufficientBalance(Blackhole blackhole) {
+        try {
+            emptyAccount.withdraw(amount);
+        } catch (IllegalStateException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public boolean matchPassword() {
+        return account.matchPassword(password);
+    }
+
+    @Benchmark
+    public boolean matchPasswordMismatch() {
+        return account.matchPassword(wrongPassword);
+    }
+}
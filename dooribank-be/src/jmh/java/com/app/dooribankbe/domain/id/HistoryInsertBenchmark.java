@@ -0,0 +1,121 @@
+package com.app.dooribankbe.domain.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IDENTITY 와 시간순 ID 의 history INSERT 비용 비교 (H2 메모리 DB)
+ *
+ * - identity: Hibernate 의 IDENTITY 처럼 행마다 INSERT 를 실행하고 생성된 키를 읽습니다.
+ * - timeOrdered: ID 를 JVM 에서 발급해 JDBC 배치 하나로 보냅니다.
+ * rows=2 는 이체 한 건(출금·입금 history), rows=1000 은 대량 적재 한 묶음입니다. 한 번의 호출이 트랜잭션 하나입니다.
+ * 메모리 DB 에는 네트워크 왕복이 없으므로, MySQL 에서는 차이가 이보다 큽니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistoryInsertBenchmark {
+
+    private static final String COLUMNS =
+            "account_id, history_date, history_price, history_status, history_category, history_name";
+
+    @Param({"2", "1000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement identityInsert;
+    private PreparedStatement timeOrderedInsert;
+
+    @Setup(Level.Trial)
+    public void start() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:history-insert-" + System.nanoTime() + ";MODE=MySQL", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE history_identity (id BIGINT AUTO_INCREMENT PRIMARY KEY, account_id BIGINT NOT NULL, "
+                    + "history_date TIMESTAMP NOT NULL, history_price BIGINT NOT NULL, history_status VARCHAR(20) NOT NULL, "
+                    + "history_category VARCHAR(30) NOT NULL, history_name VARCHAR(100) NOT NULL)");
+            statement.execute("CREATE TABLE history_time_ordered (id BIGINT PRIMARY KEY, account_id BIGINT NOT NULL, "
+                    + "history_date TIMESTAMP NOT NULL, history_price BIGINT NOT NULL, history_status VARCHAR(20) NOT NULL, "
+                    + "history_category VARCHAR(30) NOT NULL, history_name VARCHAR(100) NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+        identityInsert = connection.prepareStatement(
+                "INSERT INTO history_identity (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+        timeOrderedInsert = connection.prepareStatement(
+                "INSERT INTO history_time_ordered (id, " + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)");
+    }
+
+    /**
+     * 테이블이 계속 커지면 뒤쪽 반복일수록 느려지므로 반복마다 비웁니다.
+     */
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE history_identity");
+            statement.execute("TRUNCATE TABLE history_time_ordered");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long identity() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long lastId = 0;
+        for (int i = 0; i < rows; i++) {
+            bind(identityInsert, 1, i, now);
+            identityInsert.executeUpdate();
+            try (ResultSet keys = identityInsert.getGeneratedKeys()) {
+                keys.next();
+                lastId = keys.getLong(1);
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    public long timeOrdered() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long lastId = 0;
+        for (int i = 0; i < rows; i++) {
+            lastId = TimeOrderedIdSource.next();
+            timeOrderedInsert.setLong(1, lastId);
+            bind(timeOrderedInsert, 2, i, now);
+            timeOrderedInsert.addBatch();
+        }
+        timeOrderedInsert.executeBatch();
+        connection.commit();
+        return lastId;
+    }
+
+    private static void bind(PreparedStatement statement, int first, int row, Timestamp now) throws SQLException {
+        statement.setLong(first, row % 100);
+        statement.setTimestamp(first + 1, now);
+        statement.setLong(first + 2, 1_000L + row);
+        statement.setString(first + 3, "PAYMENT");
+        statement.setString(first + 4, "CAFE");
+        statement.setString(first + 5, "두리카페");
+    }
+}
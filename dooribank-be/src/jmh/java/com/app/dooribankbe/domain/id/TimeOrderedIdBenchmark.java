@@ -0,0 +1,30 @@
+package com.app.dooribankbe.domain.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시간순 ID 발급 비용. 여러 스레드가 하나의 CAS 상태를 두고 경쟁할 때의 처리량도 봅니다.
+ * (한 밀리초에 4096개를 넘으면 다음 밀리초까지 기다리므로 처리량 상한이 약 4M/s 입니다.)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimeOrderedIdBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public long nextSingleThread() {
+        return TimeOrderedIdSource.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextContended() {
+        return TimeOrderedIdSource.next();
+    }
+}
@@ -0,0 +1,156 @@
+package com.app.dooribankbe.service;
+
+import com.app.dooribankbe.DooribankBeApplication;
+import com.app.dooribankbe.controller.dto.BatchPaymentResponse;
+import com.app.dooribankbe.controller.dto.PaymentRequest;
+import com.app.dooribankbe.controller.dto.PaymentResponse;
+import com.app.dooribankbe.controller.dto.TransferRequest;
+import com.app.dooribankbe.controller.dto.TransferResponse;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.entity.SyncOutbox;
+import com.app.dooribankbe.domain.repository.MemberAccountRepository;
+import com.app.dooribankbe.domain.repository.MemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountService 결제/이체 처리량 (H2 메모리 DB, 우리두리 동기화는 스텁)
+ * 잠금·JPA·내역 INSERT·집계 upsert·outbox 저장까지 실제 경로를 그대로 탑니다.
+ * processPayments 는 같은 계좌 50건을 한 번에 처리해 JDBC 배치 효과를 봅니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccountServiceBenchmark {
+
+    private static final String PASSWORD = "1234";
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"1000"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private List<String> accountNumbers;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(DooribankBeApplication.class, StubSyncConfig.class)
+                .profiles("jmh")
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run();
+        accountService = context.getBean(AccountService.class);
+        accountNumbers = seed(accounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public PaymentResponse processPayment() {
+        return accountService.processPayment(
+                new PaymentRequest(randomAccount(), PASSWORD, 4_500L, HistoryCategory.CAFE, "두리카페"));
+    }
+
+    @Benchmark
+    public TransferResponse transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountNumbers.size());
+        int to = (from + 1 + random.nextInt(accountNumbers.size() - 1)) % accountNumbers.size();
+        return accountService.transfer(new TransferRequest(
+                accountNumbers.get(from), PASSWORD, accountNumbers.get(to), 1_000L, null));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchPaymentResponse processPayments() {
+        String accountNumber = randomAccount();
+        List<PaymentRequest> payments = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            payments.add(new PaymentRequest(accountNumber, PASSWORD, 100L, HistoryCategory.SHOPPING, "두리마트"));
+        }
+        return accountService.processPayments(payments);
+    }
+
+    private String randomAccount() {
+        return accountNumbers.get(ThreadLocalRandom.current().nextInt(accountNumbers.size()));
+    }
+
+    private List<String> seed(int count) {
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+        MemberAccountRepository memberAccountRepository = context.getBean(MemberAccountRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        List<String> numbers = new ArrayList<>(count);
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = memberRepository.save(Member.builder()
+                    .name("벤치마크")
+                    .phone("010-0000-0000")
+                    .memberRegistNum("000000-0000000")
+                    .build());
+            List<MemberAccount> created = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String accountNumber = String.format("1002-%03d-%06d", i / 1_000_000, i);
+                numbers.add(accountNumber);
+                created.add(MemberAccount.builder()
+                        .member(member)
+                        .accountNumber(accountNumber)
+                        .accountPassword(PASSWORD)
+                        .balance(1_000_000_000_000L)
+                        .build());
+            }
+            memberAccountRepository.saveAll(created);
+        });
+        return numbers;
+    }
+
+    /**
+     * 우리두리 서버 대신 항상 성공으로 응답하는 동기화 스텁
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class StubSyncConfig {
+
+        @Bean
+        @Primary
+        WooriDooriSyncService stubWooriDooriSyncService(MeterRegistry meterRegistry) {
+            return new WooriDooriSyncService(null, null, meterRegistry) {
+                @Override
+                public boolean sync(SyncOutbox event) {
+                    return true;
+                }
+
+                @Override
+                public List<Boolean> syncAll(List<SyncOutbox> events) {
+                    return Collections.nCopies(events.size(), true);
+                }
+            };
+        }
+    }
+}
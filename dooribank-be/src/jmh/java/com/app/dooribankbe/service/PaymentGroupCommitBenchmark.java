@@ -0,0 +1,79 @@
+package com.app.dooribankbe.service;
+
+import com.app.dooribankbe.DooribankBeApplication;
+import com.app.dooribankbe.controller.dto.PaymentRequest;
+import com.app.dooribankbe.controller.dto.PaymentResponse;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.repository.MemberAccountRepository;
+import com.app.dooribankbe.domain.repository.MemberRepository;
+import com.app.dooribankbe.service.groupcommit.PaymentGroupCommitter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 계좌로 16개 스레드가 동시에 결제할 때의 처리량. 그룹 커밋을 켜고 끈 결과를 비교합니다. (H2 메모리 DB)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PaymentGroupCommitBenchmark {
+
+    private static final String ACCOUNT = "1002-999-000000";
+    private static final String PASSWORD = "1234";
+
+    @Param({"false", "true"})
+    public boolean groupCommit;
+
+    private ConfigurableApplicationContext context;
+    private PaymentGroupCommitter paymentGroupCommitter;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(DooribankBeApplication.class, AccountServiceBenchmark.StubSyncConfig.class)
+                .profiles("jmh")
+                .properties("dooribank.group-commit.enabled=" + groupCommit)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run();
+        paymentGroupCommitter = context.getBean(PaymentGroupCommitter.class);
+        Member member = context.getBean(MemberRepository.class).save(Member.builder()
+                .name("벤치마크")
+                .phone("010-0000-0000")
+                .memberRegistNum("000000-0000000")
+                .build());
+        context.getBean(MemberAccountRepository.class).save(MemberAccount.builder()
+                .member(member)
+                .accountNumber(ACCOUNT)
+                .accountPassword(PASSWORD)
+                .balance(1_000_000_000_000L)
+                .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public PaymentResponse processPaymentHotAccount() {
+        return paymentGroupCommitter.processPayment(
+                new PaymentRequest(ACCOUNT, PASSWORD, 100L, HistoryCategory.CAFE, "두리카페"));
+    }
+}
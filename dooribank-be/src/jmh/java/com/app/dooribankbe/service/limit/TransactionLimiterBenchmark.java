@@ -0,0 +1,64 @@
+package com.app.dooribankbe.service.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 결제/이체 한 건이 한도 확인에 쓰는 시간. 한도는 걸리지 않을 만큼 크게 둡니다.
+ * 여러 스레드가 같은 계좌들을 두고 CAS 로 경쟁할 때도 봅니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionLimiterBenchmark {
+
+    @Param({"100000"})
+    public int accounts;
+
+    private TransactionLimiter limiter;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        limiter = new TransactionLimiter(null, new SimpleMeterRegistry(), true, 10, 1, Long.MAX_VALUE);
+        accountNumbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountNumbers[i] = String.format("1002-000-%06d", i);
+            limiter.acquirePayment(accountNumbers[i]);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void acquirePayment() {
+        limiter.acquirePayment(randomAccount());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void acquirePaymentContended() {
+        limiter.acquirePayment(randomAccount());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean reserveTransferOut() {
+        return limiter.reserveTransferOut(randomAccount(), 1L);
+    }
+
+    private String randomAccount() {
+        return accountNumbers[ThreadLocalRandom.current().nextInt(accountNumbers.length)];
+    }
+}
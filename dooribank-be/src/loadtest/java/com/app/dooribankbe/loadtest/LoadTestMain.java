@@ -0,0 +1,354 @@
+package com.app.dooribankbe.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 결제/이체 API 부하 발생기
+ *
+ * /api/test/members/stream 으로 계좌 목록을 받아 온 뒤, 설정한 비율·동시성·계좌 쏠림(Zipf)으로
+ * /api/transactions/payment, /transfer 를 호출하고 처리량, p50/p99/p999 지연 시간, 오류 사유별 건수를 출력합니다.
+ * --rate 를 주면 요청을 예정 시각에 맞춰 보내고, 지연 시간은 예정 시각부터 잽니다. (coordinated omission 보정)
+ *
+ * 앱은 loadtest 프로파일로 실행하면 계좌를 미리 만들어 둡니다. (H2: --spring.profiles.active=loadtest,h2)
+ */
+public final class LoadTestMain {
+
+    static final String PAYMENT = "payment";
+    static final String TRANSFER = "transfer";
+
+    private static final String[] CATEGORIES = {"CAFE", "FOOD", "CONVENIENCE_STORE", "SHOPPING", "TRANSPORTATION", "ETC"};
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+
+    private LoadTestMain(LoadTestOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, options.concurrency() / 4)))
+                .build();
+        options.mix().keySet().forEach(operation -> stats.put(operation, new OperationStats(operation)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        WooriDooriStub stub = options.stubPort() >= 0 ? new WooriDooriStub(options.stubPort(), options.stubDelayMillis()) : null;
+        if (stub != null) {
+            System.out.printf("우리두리 스텁 실행 중: http://localhost:%d (앱의 WOORIDOORI_API_URL 로 지정)%n", stub.port());
+        }
+        if (options.stubOnly()) {
+            if (stub == null) {
+                throw new IllegalArgumentException("--stub-only 는 --stub-port 와 함께 써야 합니다.");
+            }
+            Thread.currentThread().join();
+        }
+        try {
+            new LoadTestMain(options).run(stub);
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private void run(WooriDooriStub stub) throws Exception {
+        List<Account> accounts = discoverAccounts();
+        if (accounts.size() < 2) {
+            throw new IllegalStateException("계좌가 2개 이상 필요합니다. 앱을 loadtest 프로파일로 실행했는지 확인하세요.");
+        }
+        // 계좌 순서를 섞어 Zipf 상위 순위(핫 계좌)가 특정 회원에 몰리지 않게 합니다.
+        Collections.shuffle(accounts, new Random(options.seed()));
+        ZipfSampler sampler = new ZipfSampler(accounts.size(), options.zipfExponent());
+        System.out.printf("계좌 %d개, 동시성 %d, 워밍업 %ds, 측정 %ds, mix=%s, zipf=%.2f (상위 1%% 계좌가 요청의 %.1f%%), rate=%s%n",
+                accounts.size(), options.concurrency(), options.warmupSeconds(), options.durationSeconds(), options.mix(),
+                options.zipfExponent(), sampler.headShare(0.01) * 100,
+                options.rate() > 0 ? options.rate() + "/s" : "closed-loop");
+
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        // 작업자 한 명이 보내는 요청 간격 (rate 모드)
+        long intervalNanos = options.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * options.concurrency() / options.rate()) : 0;
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+        CountDownLatch done = new CountDownLatch(options.concurrency());
+        for (int worker = 0; worker < options.concurrency(); worker++) {
+            SplittableRandom random = new SplittableRandom(options.seed() * 31 + worker);
+            long firstSlot = startedAt + (intervalNanos * worker / options.concurrency());
+            workers.execute(() -> {
+                try {
+                    drive(accounts, sampler, random, measureFrom, deadline, firstSlot, intervalNanos);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        while (!done.await(5, TimeUnit.SECONDS)) {
+            printProgress(startedAt, measureFrom);
+        }
+        workers.shutdown();
+
+        Map<String, Object> report = report(stub);
+        if (options.reportPath() != null) {
+            Path path = Path.of(options.reportPath());
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+            System.out.println("결과 저장: " + path.toAbsolutePath());
+        }
+    }
+
+    private void drive(List<Account> accounts, ZipfSampler sampler, SplittableRandom random,
+                       long measureFrom, long deadline, long firstSlot, long intervalNanos) {
+        long intendedStart = firstSlot;
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNanos > 0) {
+                if (intendedStart > now) {
+                    sleepNanos(intendedStart - now);
+                }
+            } else {
+                intendedStart = now;
+            }
+            if (intendedStart >= deadline) {
+                return;
+            }
+
+            String operation = pickOperation(random);
+            HttpRequest request = operation.equals(PAYMENT)
+                    ? paymentRequest(accounts.get(sampler.sample(random)), random)
+                    : transferRequest(accounts, sampler, random);
+            String failure = send(request);
+            long latency = System.nanoTime() - intendedStart;
+
+            if (intendedStart >= measureFrom) {
+                OperationStats operationStats = stats.get(operation);
+                if (failure == null) {
+                    operationStats.recordSuccess(latency);
+                } else {
+                    operationStats.recordFailure(latency, failure);
+                }
+            }
+            intendedStart += intervalNanos;
+        }
+    }
+
+    /**
+     * @return 성공이면 null, 실패면 "상태코드 사유" 또는 예외 이름
+     */
+    private String send(HttpRequest request) {
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() / 100 == 2) {
+                return null;
+            }
+            return response.statusCode() + " " + errorReason(response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        } catch (Exception e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    private String errorReason(byte[] body) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            if (node.hasNonNull("message") && !node.get("message").asText().isBlank()) {
+                return node.get("message").asText();
+            }
+            return node.path("error").asText("");
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    private String pickOperation(SplittableRandom random) {
+        int total = options.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int pick = random.nextInt(total);
+        for (Map.Entry<String, Integer> entry : options.mix().entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        return PAYMENT;
+    }
+
+    private HttpRequest paymentRequest(Account account, SplittableRandom random) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("accountNumber", account.accountNumber())
+                .put("password", account.password())
+                .put("amount", 1_000L + random.nextInt(500) * 100L)
+                .put("category", CATEGORIES[random.nextInt(CATEGORIES.length)])
+                .put("merchantName", "부하테스트가맹점");
+        return post("/api/transactions/payment", body);
+    }
+
+    private HttpRequest transferRequest(List<Account> accounts, ZipfSampler sampler, SplittableRandom random) {
+        int from = sampler.sample(random);
+        int to = (from + 1 + random.nextInt(accounts.size() - 1)) % accounts.size();
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("fromAccountNumber", accounts.get(from).accountNumber())
+                .put("password", accounts.get(from).password())
+                .put("toAccountNumber", accounts.get(to).accountNumber())
+                .put("amount", 1_000L + random.nextInt(1_000) * 100L)
+                .put("memo", "부하테스트");
+        return post("/api/transactions/transfer", body);
+    }
+
+    private HttpRequest post(String path, ObjectNode body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.target() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+        if (options.idempotencyKeys()) {
+            builder.header("Idempotency-Key", UUID.randomUUID().toString());
+        }
+        return builder.build();
+    }
+
+    private List<Account> discoverAccounts() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.target() + "/api/test/members/stream?format=ndjson"))
+                .timeout(Duration.ofMinutes(5))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("계좌 목록 조회 실패: status=" + response.statusCode());
+        }
+        List<Account> accounts = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode member = objectMapper.readTree(line);
+                if (member.hasNonNull("accountNumber") && member.hasNonNull("accountPassword")) {
+                    accounts.add(new Account(member.get("accountNumber").asText(), member.get("accountPassword").asText()));
+                }
+                if (options.accountLimit() > 0 && accounts.size() >= options.accountLimit()) {
+                    break;
+                }
+            }
+        }
+        return accounts;
+    }
+
+    private void printProgress(long startedAt, long measureFrom) {
+        long now = System.nanoTime();
+        long total = stats.values().stream().mapToLong(s -> s.succeeded() + s.failed()).sum();
+        if (now < measureFrom) {
+            System.out.printf("[%3ds] 워밍업 중%n", TimeUnit.NANOSECONDS.toSeconds(now - startedAt));
+            return;
+        }
+        double seconds = (now - measureFrom) / 1e9;
+        System.out.printf("[%3ds] %d건, %.0f ops/s%n", TimeUnit.NANOSECONDS.toSeconds(now - startedAt), total, total / seconds);
+    }
+
+    private Map<String, Object> report(WooriDooriStub stub) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("target", options.target());
+        report.put("concurrency", options.concurrency());
+        report.put("durationSeconds", options.durationSeconds());
+        report.put("mix", options.mix());
+        report.put("zipf", options.zipfExponent());
+        report.put("rate", options.rate());
+
+        System.out.println();
+        System.out.printf("%-10s %10s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "ops/s", "ok", "failed", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        Histogram all = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+        long allCount = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (OperationStats operationStats : stats.values()) {
+            Histogram histogram = operationStats.snapshot();
+            all.add(histogram);
+            long count = operationStats.succeeded() + operationStats.failed();
+            allCount += count;
+            operations.put(operationStats.name(), summary(histogram, operationStats.succeeded(), operationStats.failed(),
+                    operationStats.errors()));
+            printRow(operationStats.name(), histogram, count, operationStats.succeeded(), operationStats.failed());
+        }
+        long allFailed = stats.values().stream().mapToLong(OperationStats::failed).sum();
+        printRow("total", all, allCount, allCount - allFailed, allFailed);
+        report.put("operations", operations);
+        report.put("total", summary(all, allCount - allFailed, allFailed, Map.of()));
+
+        stats.values().forEach(operationStats -> operationStats.errors().forEach((reason, count) ->
+                System.out.printf("  %-8s %8d  %s%n", operationStats.name(), count, reason)));
+        if (stub != null) {
+            System.out.printf("우리두리 스텁 수신: 단건 %d, bulk %d%n", stub.singleRequests(), stub.bulkRequests());
+            report.put("stub", Map.of("single", stub.singleRequests(), "bulk", stub.bulkRequests()));
+        }
+        return report;
+    }
+
+    private void printRow(String name, Histogram histogram, long count, long succeeded, long failed) {
+        System.out.printf("%-10s %10.1f %10d %10d %10.2f %10.2f %10.2f %10.2f%n",
+                name, count / (double) options.durationSeconds(), succeeded, failed,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+    }
+
+    private Map<String, Object> summary(Histogram histogram, long succeeded, long failed, Map<String, Long> errors) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("throughput", (succeeded + failed) / (double) options.durationSeconds());
+        summary.put("succeeded", succeeded);
+        summary.put("failed", failed);
+        summary.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        summary.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(histogram.getMaxValue()));
+        summary.put("errors", errors);
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static void sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Account(String accountNumber, String password) {
+    }
+}
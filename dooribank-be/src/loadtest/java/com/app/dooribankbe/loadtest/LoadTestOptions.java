@@ -0,0 +1,96 @@
+package com.app.dooribankbe.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 부하 발생기 옵션. --key=value 형태로 받습니다.
+ */
+record LoadTestOptions(
+        String target,
+        int concurrency,
+        int durationSeconds,
+        int warmupSeconds,
+        Map<String, Integer> mix,
+        double zipfExponent,
+        double rate,
+        int accountLimit,
+        int stubPort,
+        long stubDelayMillis,
+        boolean stubOnly,
+        boolean idempotencyKeys,
+        String reportPath,
+        long seed
+) {
+
+    static final String USAGE = """
+            사용법: ./gradlew loadTest -PloadArgs="--target=http://localhost:8081 --concurrency=64 --duration=60"
+              --target=URL           두리뱅크 서버 주소 (기본 http://localhost:8081, loadtest 프로파일 포트)
+              --concurrency=N        동시 요청 수(작업 스레드 수) (기본 32)
+              --duration=SEC         측정 시간 (기본 30)
+              --warmup=SEC           측정 전 워밍업 시간 (기본 5)
+              --mix=payment:80,transfer:20   거래 종류별 비율
+              --zipf=S               계좌 선택 Zipf 지수, 0 이면 균등 (기본 0.99)
+              --rate=RPS             목표 초당 요청 수. 0 이면 응답을 받는 즉시 다음 요청(closed loop) (기본 0)
+              --accounts=N           사용할 계좌 수 상한, 0 이면 전체 (기본 0)
+              --stub-port=PORT       우리두리 스텁 포트, -1 이면 띄우지 않음 (기본 -1)
+              --stub-delay-ms=MS     스텁 응답 지연 (기본 0)
+              --stub-only            스텁만 띄우고 종료될 때까지 대기
+              --idempotency          요청마다 Idempotency-Key 헤더 전송
+              --report=PATH          결과를 JSON 으로 저장
+              --seed=N               난수 시드 (기본 42)
+            """;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("알 수 없는 인자: " + arg + "\n" + USAGE);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        if (values.containsKey("help")) {
+            System.out.println(USAGE);
+            System.exit(0);
+        }
+        return new LoadTestOptions(
+                stripTrailingSlash(values.getOrDefault("target", "http://localhost:8081")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Integer.parseInt(values.getOrDefault("duration", "30")),
+                Integer.parseInt(values.getOrDefault("warmup", "5")),
+                parseMix(values.getOrDefault("mix", "payment:80,transfer:20")),
+                Double.parseDouble(values.getOrDefault("zipf", "0.99")),
+                Double.parseDouble(values.getOrDefault("rate", "0")),
+                Integer.parseInt(values.getOrDefault("accounts", "0")),
+                Integer.parseInt(values.getOrDefault("stub-port", "-1")),
+                Long.parseLong(values.getOrDefault("stub-delay-ms", "0")),
+                Boolean.parseBoolean(values.getOrDefault("stub-only", "false")),
+                Boolean.parseBoolean(values.getOrDefault("idempotency", "false")),
+                values.get("report"),
+                Long.parseLong(values.getOrDefault("seed", "42"))
+        );
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            String operation = pair[0].trim().toLowerCase();
+            if (!operation.equals(LoadTestMain.PAYMENT) && !operation.equals(LoadTestMain.TRANSFER)) {
+                throw new IllegalArgumentException("지원하지 않는 거래 종류: " + operation);
+            }
+            mix.put(operation, Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
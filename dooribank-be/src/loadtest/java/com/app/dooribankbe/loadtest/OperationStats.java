@@ -0,0 +1,71 @@
+package com.app.dooribankbe.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 거래 종류별 지연 시간 히스토그램과 결과 집계
+ * 지연 시간은 마이크로초 단위로 기록합니다. (최대 1분)
+ */
+final class OperationStats {
+
+    private final String name;
+    private final Recorder recorder = new Recorder(TimeUnit.MINUTES.toMicros(1), 3);
+    private final Histogram total = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder succeeded = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void recordSuccess(long latencyNanos) {
+        record(latencyNanos);
+        succeeded.increment();
+    }
+
+    /**
+     * @param reason "400 계좌 잔액이 부족합니다." 처럼 상태 코드와 사유, 또는 예외 이름
+     */
+    void recordFailure(long latencyNanos, String reason) {
+        record(latencyNanos);
+        errors.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * 지금까지 기록된 구간 히스토그램을 누적 히스토그램에 합치고 누적 결과를 돌려줍니다.
+     */
+    synchronized Histogram snapshot() {
+        total.add(recorder.getIntervalHistogram());
+        return total.copy();
+    }
+
+    long succeeded() {
+        return succeeded.sum();
+    }
+
+    long failed() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    Map<String, Long> errors() {
+        Map<String, Long> result = new TreeMap<>();
+        errors.forEach((reason, count) -> result.put(reason, count.sum()));
+        return result;
+    }
+
+    private void record(long latencyNanos) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        recorder.recordValue(Math.min(micros, TimeUnit.MINUTES.toMicros(1)));
+    }
+}
@@ -0,0 +1,245 @@
+package com.app.dooribankbe.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 기동 시간 벤치마크
+ *
+ * --command 로 앱을 runs 번 새로 띄우고, 프로세스 시작부터 (1) 첫 HTTP 응답 (2) 첫 결제 성공까지의 시간을 잽니다.
+ * 결제 계좌를 주지 않으면 /api/test/members/stream 의 첫 계좌를 씁니다. (loadtest 프로파일이 만든 계좌)
+ * 실행마다 앱 로그는 log-dir/run-N.log 에 남습니다.
+ *
+ * 예) AOT + CDS 이미지와 일반 이미지 비교
+ *   ./gradlew startupBenchmark -PstartupCommand="docker run --rm -p 8081:80 --env-file .env dooribank-be" -PstartupArgs="--runs=5"
+ */
+public final class StartupBenchmark {
+
+    static final String USAGE = """
+            사용법: ./gradlew startupBenchmark -PstartupCommand="java -jar build/libs/app.jar" -PstartupArgs="--runs=5"
+              --command=CMD          앱 실행 명령 (sh -c 로 실행, 필수)
+              --target=URL           앱 주소 (기본 http://localhost:8081)
+              --runs=N               반복 횟수 (기본 3)
+              --timeout=SEC          한 번의 기동을 기다리는 최대 시간 (기본 120)
+              --account=NUM          결제 계좌번호 (없으면 /api/test/members/stream 의 첫 계좌)
+              --password=PIN         결제 계좌 비밀번호
+              --log-dir=PATH         앱 로그 디렉터리 (기본 build/startup-benchmark)
+              --report=PATH          결과를 JSON 으로 저장
+            """;
+
+    private static final long POLL_MILLIS = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private final Map<String, String> options;
+    private final String target;
+
+    private StartupBenchmark(Map<String, String> options) {
+        this.options = options;
+        String url = options.getOrDefault("target", "http://localhost:8081");
+        this.target = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("알 수 없는 인자: " + arg + "\n" + USAGE);
+            }
+            int separator = arg.indexOf('=');
+            options.put(separator < 0 ? arg.substring(2) : arg.substring(2, separator),
+                    separator < 0 ? "true" : arg.substring(separator + 1));
+        }
+        if (options.containsKey("help") || !options.containsKey("command")) {
+            System.out.println(USAGE);
+            return;
+        }
+        new StartupBenchmark(options).run();
+    }
+
+    private void run() throws Exception {
+        int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+        long timeoutNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("timeout", "120")));
+        Path logDir = Path.of(options.getOrDefault("log-dir", "build/startup-benchmark"));
+        Files.createDirectories(logDir);
+
+        List<Long> firstResponses = new ArrayList<>();
+        List<Long> firstPayments = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            Path log = logDir.resolve("run-" + run + ".log");
+            long[] result = measure(log, timeoutNanos);
+            if (result == null) {
+                System.out.printf("run %d: %d초 안에 결제가 성공하지 않았습니다. (로그: %s)%n",
+                        run, TimeUnit.NANOSECONDS.toSeconds(timeoutNanos), log);
+                continue;
+            }
+            firstResponses.add(result[0]);
+            firstPayments.add(result[1]);
+            System.out.printf("run %d: 첫 응답 %,dms, 첫 결제 성공 %,dms%n", run, result[0], result[1]);
+        }
+        if (firstPayments.isEmpty()) {
+            System.exit(1);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("command", options.get("command"));
+        report.put("runs", runs);
+        report.put("succeeded", firstPayments.size());
+        report.put("firstResponseMillis", summary(firstResponses));
+        report.put("firstPaymentMillis", summary(firstPayments));
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        if (options.containsKey("report")) {
+            Path path = Path.of(options.get("report"));
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+            System.out.println("결과 저장: " + path.toAbsolutePath());
+        }
+    }
+
+    /**
+     * 앱을 한 번 띄워 {첫 응답 ms, 첫 결제 성공 ms} 를 돌려주고 프로세스를 내립니다. 시간 안에 결제가 안 되면 null 입니다.
+     */
+    private long[] measure(Path log, long timeoutNanos) throws IOException, InterruptedException {
+        if (responding()) {
+            throw new IllegalStateException(target + " 에서 이미 다른 프로세스가 응답하고 있습니다.");
+        }
+        String account = options.get("account");
+        String password = options.get("password");
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder("sh", "-c", options.get("command"))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long firstResponse = -1;
+            while (System.nanoTime() - started < timeoutNanos && process.isAlive()) {
+                try {
+                    if (account == null) {
+                        String[] found = findAccount();
+                        firstResponse = firstResponse < 0 ? elapsedMillis(started) : firstResponse;
+                        if (found != null) {
+                            account = found[0];
+                            password = found[1];
+                        }
+                    }
+                    if (account != null) {
+                        int status = pay(account, password);
+                        firstResponse = firstResponse < 0 ? elapsedMillis(started) : firstResponse;
+                        if (status / 100 == 2) {
+                            return new long[]{firstResponse, elapsedMillis(started)};
+                        }
+                    }
+                } catch (IOException e) {
+                    // 아직 포트가 열리지 않았습니다.
+                }
+                Thread.sleep(POLL_MILLIS);
+            }
+            return null;
+        } finally {
+            stop(process);
+        }
+    }
+
+    /**
+     * 결제할 계좌 {계좌번호, 비밀번호}. 아직 계좌가 없으면 null 입니다.
+     */
+    private String[] findAccount() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/test/members/stream?format=ndjson"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        try (Stream<String> lines = response.body()) {
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("계좌 조회 실패: " + response.statusCode());
+            }
+            for (String line : (Iterable<String>) lines::iterator) {
+                JsonNode member = objectMapper.readTree(line);
+                if (member.hasNonNull("accountNumber") && member.hasNonNull("accountPassword")) {
+                    return new String[]{member.get("accountNumber").asText(), member.get("accountPassword").asText()};
+                }
+            }
+        }
+        // 계좌 생성(loadtest 프로파일)이 아직 끝나지 않았습니다.
+        return null;
+    }
+
+    private int pay(String account, String password) throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("accountNumber", account)
+                .put("password", password)
+                .put("amount", 100)
+                .put("category", "CAFE")
+                .put("merchantName", "기동 벤치마크");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/transactions/payment"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * sh 아래의 앱 프로세스까지 모두 끝날 때까지 기다립니다. (다음 실행이 이전 앱의 응답을 재지 않도록)
+     */
+    private static void stop(Process process) {
+        List<ProcessHandle> handles = new ArrayList<>(process.descendants().toList());
+        handles.add(process.toHandle());
+        handles.forEach(ProcessHandle::destroy);
+        for (ProcessHandle handle : handles) {
+            try {
+                handle.onExit().get(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                handle.destroyForcibly();
+            }
+        }
+    }
+
+    private boolean responding() {
+        try {
+            client.send(HttpRequest.newBuilder(URI.create(target + "/")).timeout(Duration.ofSeconds(1)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long elapsedMillis(long started) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+
+    private static Map<String, Long> summary(List<Long> values) {
+        List<Long> sorted = values.stream().sorted().toList();
+        Map<String, Long> summary = new LinkedHashMap<>();
+        summary.put("min", sorted.get(0));
+        summary.put("median", sorted.get(sorted.size() / 2));
+        summary.put("max", sorted.get(sorted.size() - 1));
+        return summary;
+    }
+}
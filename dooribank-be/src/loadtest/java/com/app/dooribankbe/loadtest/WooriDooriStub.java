@@ -0,0 +1,73 @@
+package com.app.dooribankbe.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 우리두리(8080 서버) 동기화 API 스텁. 요청 본문을 읽고 버린 뒤 200 으로 응답합니다.
+ * 앱은 WOORIDOORI_API_URL=http://localhost:{port} 로 이 스텁을 바라보게 실행합니다.
+ */
+final class WooriDooriStub implements AutoCloseable {
+
+    private static final byte[] OK = "{}".getBytes();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LongAdder singleRequests = new LongAdder();
+    private final LongAdder bulkRequests = new LongAdder();
+    private final long delayMillis;
+
+    WooriDooriStub(int port, long delayMillis) throws IOException {
+        this.delayMillis = delayMillis;
+        this.server = HttpServer.create(new InetSocketAddress(port), 256);
+        this.executor = Executors.newFixedThreadPool(16);
+        server.setExecutor(executor);
+        server.createContext("/history/calendar/sync/bulk", exchange -> respond(exchange, bulkRequests));
+        server.createContext("/history/calendar/sync", exchange -> respond(exchange, singleRequests));
+        server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    long singleRequests() {
+        return singleRequests.sum();
+    }
+
+    long bulkRequests() {
+        return bulkRequests.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange, LongAdder counter) throws IOException {
+        counter.increment();
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, OK.length);
+        exchange.getResponseBody().write(OK);
+        exchange.close();
+    }
+}
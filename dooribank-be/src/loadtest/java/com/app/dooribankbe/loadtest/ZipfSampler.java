@@ -0,0 +1,42 @@
+package com.app.dooribankbe.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 0 ~ n-1 순위를 Zipf 분포로 뽑습니다. (s=0 이면 균등 분포)
+ * 누적 분포를 미리 만들어 두고 이분 탐색하므로 한 번 뽑는 데 O(log n) 입니다.
+ */
+final class ZipfSampler {
+
+    private final double[] cdf;
+
+    ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= sum;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cdf.length - 1);
+    }
+
+    /**
+     * 상위 fraction 순위가 차지하는 요청 비율 (예: 상위 1% 계좌가 받는 요청 비율)
+     */
+    double headShare(double fraction) {
+        int head = Math.max(1, (int) Math.ceil(cdf.length * fraction));
+        return cdf[head - 1];
+    }
+}
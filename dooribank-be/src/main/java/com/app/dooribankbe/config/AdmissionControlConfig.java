@@ -0,0 +1,30 @@
+package com.app.dooribankbe.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * /api/* 요청에 {@link DbAdmissionFilter}를 적용합니다. (dooribank.admission.enabled=true 일 때만)
+ * permits 를 0 으로 두면 Hikari 최대 커넥션 수를 그대로 씁니다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "dooribank.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig {
+
+    @Bean
+    public FilterRegistrationBean<DbAdmissionFilter> dbAdmissionFilter(
+            MeterRegistry meterRegistry,
+            @Value("${dooribank.admission.permits:0}") int permits,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${dooribank.admission.acquire-timeout-ms:1000}") long acquireTimeoutMillis) {
+        int size = permits > 0 ? permits : maximumPoolSize;
+        FilterRegistrationBean<DbAdmissionFilter> registration =
+                new FilterRegistrationBean<>(new DbAdmissionFilter(size, acquireTimeoutMillis, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,117 @@
+package com.app.dooribankbe.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DB 커넥션 풀 크기에 맞춘 요청 수락 제한
+ *
+ * 가상 스레드 모드에서는 요청 스레드 수에 사실상 제한이 없어, 커넥션을 기다리는 요청이 Hikari 대기열에 끝없이 쌓입니다.
+ * 동시에 처리하는 API 요청 수를 permits 로 제한하고, acquire-timeout 안에 자리를 얻지 못한 요청은 503 으로 바로 거절합니다.
+ * StreamingResponseBody 처럼 비동기로 이어지는 요청(내역 내보내기, 회원 스트림)은 컨트롤러가 돌아온 뒤에도 DB 커서를 읽으므로,
+ * 비동기 처리가 끝날 때(완료·오류·시간 초과)까지 자리를 잡고 있습니다.
+ */
+@Slf4j
+public class DbAdmissionFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final Counter rejected;
+
+    public DbAdmissionFilter(int permits, long acquireTimeoutMillis, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.rejected = Counter.builder("dooribank.admission.rejected")
+                .description("DB 수락 제한으로 거절한 요청 수")
+                .register(meterRegistry);
+        Gauge.builder("dooribank.admission.waiting", this.permits, Semaphore::getQueueLength)
+                .description("수락 제한에서 대기 중인 요청 수")
+                .register(meterRegistry);
+        Gauge.builder("dooribank.admission.available", this.permits, Semaphore::availablePermits)
+                .description("남은 수락 자리 수")
+                .register(meterRegistry);
+        log.info("DB 수락 제한 활성화: permits={}, acquireTimeoutMs={}", permits, acquireTimeoutMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnAsyncEnd());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * 오류·시간 초과 뒤에도 완료 이벤트가 오므로 한 번만 돌려줍니다.
+     */
+    private final class ReleaseOnAsyncEnd implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 같은 요청에서 비동기를 다시 시작하면 이 리스너를 다시 등록해야 끝을 알 수 있습니다.
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
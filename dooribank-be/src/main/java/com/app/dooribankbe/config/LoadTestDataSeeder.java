@@ -0,0 +1,52 @@
+package com.app.dooribankbe.config;
+
+import com.app.dooribankbe.service.bulk.BulkLoadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 부하 테스트용 회원/계좌/거래 내역 생성 (loadtest 프로파일)
+ * 회원이 한 명도 없을 때만 members 명 × accounts-per-member 개 계좌와 계좌마다 history-per-account 건의 지난 거래를 만듭니다.
+ * 실제 적재는 BulkLoadService 가 병렬 multi-row INSERT 로 합니다.
+ * 부하 발생기(src/loadtest)는 /api/test/members/stream 으로 이 계좌들을 찾아 씁니다.
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BulkLoadService bulkLoadService;
+
+    @Value("${dooribank.loadtest.members:10000}")
+    private int members;
+
+    @Value("${dooribank.loadtest.accounts-per-member:1}")
+    private int accountsPerMember;
+
+    @Value("${dooribank.loadtest.initial-balance:100000000}")
+    private long initialBalance;
+
+    @Value("${dooribank.loadtest.history-per-account:0}")
+    private int historyPerAccount;
+
+    @Value("${dooribank.loadtest.history-days:90}")
+    private int historyDays;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_member", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("부하 테스트 데이터 생성 생략: 회원 {}명이 이미 있습니다.", existing);
+            return;
+        }
+        bulkLoadService.generate(members, accountsPerMember, historyPerAccount, initialBalance, historyDays);
+    }
+}
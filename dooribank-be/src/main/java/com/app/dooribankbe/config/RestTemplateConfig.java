@@ -1,15 +1,72 @@
 package com.app.dooribankbe.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${wooridoori.http.max-total:50}")
+    private int maxTotal;
+
+    @Value("${wooridoori.http.max-per-route:50}")
+    private int maxPerRoute;
+
+    @Value("${wooridoori.http.connect-timeout-ms:1000}")
+    private long connectTimeoutMillis;
+
+    @Value("${wooridoori.http.read-timeout-ms:3000}")
+    private long readTimeoutMillis;
+
+    @Value("${wooridoori.http.idle-evict-ms:30000}")
+    private long idleEvictMillis;
+
+    /**
+     * 우리두리 동기화용 RestTemplate. 커넥션 풀(keep-alive 재사용)과 연결/응답 타임아웃을 둡니다.
+     */
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        return new RestTemplate(pooledRequestFactory(maxTotal, maxPerRoute,
+                Duration.ofMillis(connectTimeoutMillis), Duration.ofMillis(readTimeoutMillis),
+                Duration.ofMillis(idleEvictMillis)));
     }
-}
 
+    public static HttpComponentsClientHttpRequestFactory pooledRequestFactory(
+            int maxTotal, int maxPerRoute, Duration connectTimeout, Duration readTimeout, Duration idleEvict) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // 풀에서 커넥션을 기다리는 시간도 연결 타임아웃으로 제한합니다.
+                        .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEvict))
+                .build();
+
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+}
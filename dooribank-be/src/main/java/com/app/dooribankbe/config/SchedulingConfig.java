@@ -0,0 +1,40 @@
+package com.app.dooribankbe.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * 스케줄러를 둘로 나눕니다. 짧게 자주 도는 작업(원장 write-behind, outbox 전송, replica 지연 확인 등)은 기본 스케줄러에서,
+ * 오래 걸리는 새벽 배치(아카이브, 파티션 관리, 명세서, 대사)는 {@link #BATCH_SCHEDULER} 에서 돌아
+ * 배치가 스레드를 모두 잡고 있어도 짧은 작업이 밀리지 않습니다.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * 새벽 배치용 스케줄러 빈 이름. 배치 작업은 {@code @Scheduled(scheduler = SchedulingConfig.BATCH_SCHEDULER)} 로 지정합니다.
+     */
+    public static final String BATCH_SCHEDULER = "batchScheduler";
+
+    /**
+     * 이름 없는 @Scheduled 작업이 쓰는 기본 스케줄러. 크기는 spring.task.scheduling.pool.size 입니다.
+     * (TaskScheduler 빈을 직접 두면 Boot 자동 구성이 빠지므로 같은 설정으로 여기서 만듭니다)
+     */
+    @Bean
+    @Primary
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(BATCH_SCHEDULER)
+    public ThreadPoolTaskScheduler batchScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                  @Value("${dooribank.scheduling.batch-pool-size:4}") int poolSize) {
+        return builder.poolSize(poolSize).threadNamePrefix("batch-").build();
+    }
+}
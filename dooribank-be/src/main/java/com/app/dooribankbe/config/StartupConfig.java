@@ -0,0 +1,54 @@
+package com.app.dooribankbe.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * 기동 시간 설정
+ * dooribank.startup.lazy-packages 에 속한 패키지/클래스의 빈(API 문서 등)은 기동 때 만들지 않고 처음 쓰일 때 만듭니다.
+ * 전역 spring.main.lazy-initialization 과 달리 결제 경로의 빈은 그대로 기동 때 만들어 첫 결제가 느려지지 않습니다.
+ * AOT 빌드에서는 빌드 때 정한 lazy 여부가 생성된 빈 정의에 그대로 남습니다.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static BeanFactoryPostProcessor lazyPackagesPostProcessor(Environment environment) {
+        List<String> packages = Binder.get(environment)
+                .bind("dooribank.startup.lazy-packages", Bindable.listOf(String.class))
+                .orElse(List.of());
+        return beanFactory -> {
+            if (packages.isEmpty()) {
+                return;
+            }
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String className = declaringClassName(definition);
+                if (className != null && packages.stream().anyMatch(prefix -> matches(className, prefix))) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // 패키지 또는 클래스(중첩 클래스 포함) 이름
+    private static boolean matches(String className, String prefix) {
+        return className.equals(prefix) || className.startsWith(prefix + ".") || className.startsWith(prefix + "$");
+    }
+
+    // @Bean 메서드로 등록된 빈은 빈 클래스 대신 메서드를 선언한 설정 클래스로 판단합니다.
+    private static String declaringClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName();
+    }
+}
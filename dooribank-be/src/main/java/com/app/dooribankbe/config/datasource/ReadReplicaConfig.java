@@ -0,0 +1,88 @@
+package com.app.dooribankbe.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 복제본 라우팅 (dooribank.datasource.replicas[0].url 이 있을 때만)
+ *
+ * 기본 DB 풀은 spring.datasource(.hikari) 설정을 그대로 쓰고, 복제본마다 Hikari 풀을 따로 만듭니다.
+ * 애플리케이션이 쓰는 DataSource 는 LazyConnectionDataSourceProxy 로, 실제 커넥션을 첫 쿼리 시점에 가져오기 때문에
+ * {@code @Transactional(readOnly = true)} 트랜잭션은 복제본으로, 나머지는 기본 DB 로 갑니다.
+ * 복제본은 지연(초)을 주기적으로 확인해 maxLagSeconds 를 넘거나 확인에 실패하면 제외하고, 모두 제외되면 기본 DB 로 읽습니다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "dooribank.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+@Slf4j
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            ReplicaDataSourceProperties properties,
+            MeterRegistry meterRegistry) {
+        List<ReplicaRoutingDataSource.ReplicaNode> nodes = new ArrayList<>();
+        List<ReplicaDataSourceProperties.Replica> replicas = properties.replicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaDataSourceProperties.Replica replica = replicas.get(i);
+            String name = replica.name() != null ? replica.name() : "replica-" + i;
+            nodes.add(new ReplicaRoutingDataSource.ReplicaNode(name,
+                    replicaPool(name, replica, primaryDataSource, meterRegistry)));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, nodes,
+                properties.maxLagSeconds(), properties.lagQuery(), meterRegistry);
+        // 첫 확인 전까지는 모든 복제본이 제외된 상태이므로 시작 시 한 번 확인합니다.
+        routing.refreshLag();
+        log.info("읽기 전용 복제본 {}개 사용 (maxLagSeconds={})", nodes.size(), properties.maxLagSeconds());
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+
+    private static HikariDataSource replicaPool(String name, ReplicaDataSourceProperties.Replica replica,
+                                                HikariDataSource primary, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(replica.url());
+        dataSource.setUsername(replica.username() != null ? replica.username() : primary.getUsername());
+        dataSource.setPassword(replica.password() != null ? replica.password() : primary.getPassword());
+        dataSource.setMaximumPoolSize(replica.maximumPoolSize() > 0 ? replica.maximumPoolSize() : primary.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(primary.getConnectionTimeout());
+        dataSource.setDataSourceProperties(primary.getDataSourceProperties());
+        dataSource.setReadOnly(true);
+        dataSource.setMetricRegistry(meterRegistry);
+        return dataSource;
+    }
+}
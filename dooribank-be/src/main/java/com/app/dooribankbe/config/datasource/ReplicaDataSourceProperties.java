@@ -0,0 +1,33 @@
+package com.app.dooribankbe.config.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * 읽기 전용 복제본 설정 (dooribank.datasource.*)
+ *
+ * @param replicas 복제본 목록. 비어 있으면 모든 트랜잭션이 기본(primary) DB를 씁니다.
+ * @param maxLagSeconds 이보다 많이 뒤처진 복제본으로는 보내지 않습니다.
+ * @param lagQuery 복제 지연(초)을 읽는 쿼리. Seconds_Behind_Source(또는 Seconds_Behind_Master) 컬럼이 있으면 그 값을,
+ *                 없으면 첫 번째 컬럼을 씁니다. 결과가 없거나 NULL 이면 복제가 멈춘 것으로 봅니다.
+ */
+@ConfigurationProperties("dooribank.datasource")
+public record ReplicaDataSourceProperties(
+        List<Replica> replicas,
+        Long maxLagSeconds,
+        String lagQuery
+) {
+
+    public ReplicaDataSourceProperties {
+        replicas = replicas == null ? List.of() : List.copyOf(replicas);
+        maxLagSeconds = maxLagSeconds == null ? 5L : maxLagSeconds;
+        lagQuery = lagQuery == null ? "SHOW REPLICA STATUS" : lagQuery;
+    }
+
+    /**
+     * @param maximumPoolSize 0 이면 기본 DB 풀 크기와 같게 만듭니다.
+     */
+    public record Replica(String name, String url, String username, String password, int maximumPoolSize) {
+    }
+}
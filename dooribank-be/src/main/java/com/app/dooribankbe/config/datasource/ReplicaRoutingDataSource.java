@@ -0,0 +1,180 @@
+package com.app.dooribankbe.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션용 DataSource
+ *
+ * 복제 지연이 maxLagSeconds 이하인 복제본을 돌아가며 고르고, 쓸 수 있는 복제본이 없거나 연결에 실패하면 기본 DB 커넥션을 돌려줍니다.
+ * LazyConnectionDataSourceProxy 의 readOnlyDataSource 로 쓰이므로 readOnly 트랜잭션만 이곳을 거칩니다.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<ReplicaNode> replicas;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaNode> replicas, long maxLagSeconds, String lagQuery,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.fallbacks = Counter.builder("dooribank.datasource.replica.fallbacks")
+                .description("쓸 수 있는 복제본이 없어 읽기 전용 트랜잭션을 기본 DB로 보낸 횟수")
+                .register(meterRegistry);
+        for (ReplicaNode replica : this.replicas) {
+            Gauge.builder("dooribank.datasource.replica.lag", replica, ReplicaNode::lagSeconds)
+                    .description("복제본 지연 (복제가 멈췄거나 확인 실패 시 -1)")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name())
+                    .register(meterRegistry);
+            Gauge.builder("dooribank.datasource.replica.available", replica, node -> isUsable(node) ? 1 : 0)
+                    .tag("replica", replica.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaNode replica = replicas.get((start + i) % size);
+            if (!isUsable(replica)) {
+                continue;
+            }
+            try {
+                return replica.dataSource().getConnection();
+            } catch (SQLException e) {
+                log.warn("복제본 연결 실패, 다음 확인 전까지 제외: replica={}", replica.name(), e);
+                replica.markUnavailable();
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("복제본 라우팅은 설정된 계정만 사용합니다.");
+    }
+
+    /**
+     * 모든 복제본의 지연을 다시 확인합니다.
+     */
+    @Scheduled(fixedDelayString = "${dooribank.datasource.lag-check-interval-ms:5000}")
+    public void refreshLag() {
+        for (ReplicaNode replica : replicas) {
+            long lag = readLag(replica);
+            boolean wasUsable = isUsable(replica);
+            replica.updateLag(lag);
+            if (wasUsable != isUsable(replica)) {
+                log.info("복제본 상태 변경: replica={}, lagSeconds={}, usable={}", replica.name(), lag, isUsable(replica));
+            }
+        }
+    }
+
+    /**
+     * 복제본 풀을 닫습니다. (기본 DB 풀은 빈으로 따로 관리됩니다)
+     */
+    @Override
+    public void close() {
+        for (ReplicaNode replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("복제본 풀 종료 실패: replica={}", replica.name(), e);
+                }
+            }
+        }
+    }
+
+    private boolean isUsable(ReplicaNode replica) {
+        long lag = replica.lagSeconds();
+        return lag >= 0 && lag <= maxLagSeconds;
+    }
+
+    private long readLag(ReplicaNode replica) {
+        try (Connection connection = replica.dataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+            ResultSet rs = statement.executeQuery(lagQuery);
+            if (!rs.next()) {
+                return -1;
+            }
+            int column = lagColumn(rs.getMetaData());
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? -1 : lag;
+        } catch (SQLException e) {
+            log.warn("복제본 지연 확인 실패: replica={}, {}", replica.name(), e.getMessage());
+            return -1;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String label = metaData.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(label) || "Seconds_Behind_Master".equalsIgnoreCase(label)) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * 복제본 하나. lagSeconds 가 -1 이면 복제가 멈췄거나 확인에 실패한 상태입니다.
+     */
+    public static final class ReplicaNode {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long lagSeconds = -1;
+
+        public ReplicaNode(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public long lagSeconds() {
+            return lagSeconds;
+        }
+
+        void updateLag(long lagSeconds) {
+            this.lagSeconds = lagSeconds;
+        }
+
+        void markUnavailable() {
+            this.lagSeconds = -1;
+        }
+    }
+}
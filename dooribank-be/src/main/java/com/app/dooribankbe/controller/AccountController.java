@@ -0,0 +1,58 @@
+package com.app.dooribankbe.controller;
+
+import com.app.dooribankbe.controller.dto.AccountHistoryPageResponse;
+import com.app.dooribankbe.controller.dto.SpendingSummaryResponse;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.RollupPeriod;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.service.AccountHistoryService;
+import com.app.dooribankbe.service.rollup.SpendingRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/accounts")
+@Tag(name = "계좌", description = "계좌 거래 내역·지출 집계 조회 API")
+public class AccountController {
+
+    private final AccountHistoryService accountHistoryService;
+    private final SpendingRollupService spendingRollupService;
+
+    @GetMapping("/{accountNumber}/history")
+    @Operation(summary = "거래 내역 조회",
+               description = "계좌의 거래 내역을 최신순으로 조회합니다. 다음 페이지는 응답의 nextCursorDate, nextCursorId 를 넘겨 조회합니다.")
+    public ResponseEntity<AccountHistoryPageResponse> getHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) HistoryCategory category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorDate,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(accountHistoryService.getHistory(accountNumber, type, category, cursorDate, cursorId, size));
+    }
+
+    @GetMapping("/{accountNumber}/spending")
+    @Operation(summary = "카테고리별 지출 집계 조회",
+               description = "결제·이체 출금 금액을 일(DAY) 또는 월(MONTH) 단위, 카테고리별로 집계해 조회합니다. 기간을 생략하면 오늘(이번 달)만 조회합니다.")
+    public ResponseEntity<SpendingSummaryResponse> getSpending(
+            @PathVariable String accountNumber,
+            @RequestParam(defaultValue = "MONTH") RollupPeriod period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end;
+        return ResponseEntity.ok(spendingRollupService.getSummary(accountNumber, period, start, end));
+    }
+}
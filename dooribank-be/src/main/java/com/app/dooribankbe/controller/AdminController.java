@@ -0,0 +1,151 @@
+package com.app.dooribankbe.controller;
+
+import com.app.dooribankbe.controller.dto.BulkLoadResponse;
+import com.app.dooribankbe.controller.dto.ReconciliationMismatchDto;
+import com.app.dooribankbe.controller.dto.ReconciliationRunResponse;
+import com.app.dooribankbe.controller.dto.StatementRunResponse;
+import com.app.dooribankbe.service.balance.StripedBalanceService;
+import com.app.dooribankbe.service.bulk.BulkLoadService;
+import com.app.dooribankbe.service.history.HistoryExportService;
+import com.app.dooribankbe.service.reconciliation.BalanceReconciliationService;
+import com.app.dooribankbe.service.rollup.SpendingRollupService;
+import com.app.dooribankbe.service.statement.StatementService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 운영용 컨트롤러
+ * 집계 재계산 같은 백필 작업을 수동으로 실행합니다.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin")
+@Tag(name = "운영", description = "운영/백필 작업 API")
+public class AdminController {
+
+    private final SpendingRollupService spendingRollupService;
+    private final StripedBalanceService stripedBalanceService;
+    private final StatementService statementService;
+    private final BalanceReconciliationService balanceReconciliationService;
+    private final BulkLoadService bulkLoadService;
+    private final HistoryExportService historyExportService;
+
+    @PostMapping("/spending-rollups/rebuild")
+    @Operation(summary = "지출 집계 재계산",
+               description = "거래 내역에서 일/월 카테고리별 지출 집계를 다시 계산합니다. accountNumber 를 생략하면 모든 계좌를 계좌 단위로 순서대로 처리합니다.")
+    public ResponseEntity<Map<String, Object>> rebuildSpendingRollups(
+            @RequestParam(required = false) String accountNumber,
+            @RequestParam(defaultValue = "500") int pageSize) {
+        if (accountNumber != null) {
+            spendingRollupService.rebuild(accountNumber);
+            return ResponseEntity.ok(Map.of("accounts", 1));
+        }
+        return ResponseEntity.ok(Map.of("accounts", spendingRollupService.rebuildAll(Math.max(1, pageSize))));
+    }
+
+    @PutMapping("/accounts/{accountNumber}/balance-slots")
+    @Operation(summary = "잔액 슬롯 설정",
+               description = "입금이 몰리는 계좌의 입금을 slots 개의 잔액 슬롯으로 나눠 받습니다. 0 이면 슬롯 잔액을 계좌 잔액으로 모으고 슬롯을 끕니다.")
+    public ResponseEntity<Map<String, Object>> configureBalanceSlots(
+            @PathVariable String accountNumber,
+            @RequestParam int slots) {
+        stripedBalanceService.configure(accountNumber, slots);
+        return ResponseEntity.ok(Map.of("accountNumber", accountNumber, "slots", slots));
+    }
+
+    @PostMapping("/statements")
+    @Operation(summary = "일별 거래명세서 생성",
+               description = "date(기본: 어제)의 계좌별 거래명세서 파일을 만듭니다. 이미 완료된 파티션은 건너뛰므로 실패 후 다시 호출하면 이어서 처리합니다.")
+    public ResponseEntity<StatementRunResponse> generateStatements(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(statementService.generate(date != null ? date : LocalDate.now().minusDays(1)));
+    }
+
+    @PostMapping("/reconciliation")
+    @Operation(summary = "잔액 대사 실행",
+               description = "모든 계좌의 잔액이 거래 내역 합계와 맞는지 확인합니다. 계좌마다 마지막으로 확인한 위치 이후의 내역만 읽습니다.")
+    public ResponseEntity<ReconciliationRunResponse> runReconciliation() {
+        return ResponseEntity.ok(balanceReconciliationService.reconcile());
+    }
+
+    @GetMapping("/reconciliation/mismatches")
+    @Operation(summary = "잔액 불일치 조회",
+               description = "마지막 대사에서 잔액이 거래 내역 합계와 맞지 않은 계좌를 조회합니다. (difference = 실제 잔액 - 내역 기준 잔액)")
+    public ResponseEntity<List<ReconciliationMismatchDto>> findReconciliationMismatches(
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(balanceReconciliationService.findMismatches(Math.min(Math.max(1, limit), 1000)));
+    }
+
+    @PostMapping("/bulk-load")
+    @Operation(summary = "회원/계좌/거래 내역 대량 생성",
+               description = "members 명 × accountsPerMember 개 계좌와 계좌마다 지난 historyDays 일의 거래 historyPerAccount 건을 병렬 multi-row INSERT 로 만듭니다. (dooribank.bulk-load.enabled 필요)")
+    public ResponseEntity<BulkLoadResponse> bulkLoad(
+            @RequestParam int members,
+            @RequestParam(defaultValue = "1") int accountsPerMember,
+            @RequestParam(defaultValue = "0") int historyPerAccount,
+            @RequestParam(defaultValue = "100000000") long initialBalance,
+            @RequestParam(defaultValue = "90") int historyDays) {
+        return ResponseEntity.ok(bulkLoadService.generate(members, accountsPerMember, historyPerAccount, initialBalance, historyDays));
+    }
+
+    @PostMapping("/bulk-load/history-csv")
+    @Operation(summary = "거래 내역 CSV 적재",
+               description = "서버 import 디렉터리(dooribank.bulk-load.import-directory) 안의 CSV 파일(account_num,history_date,history_status,history_category,history_price,history_name,history_transfer_target)을 흘려 읽어 거래 내역으로 적재하고 계좌 잔액에 반영합니다. path 는 디렉터리 기준 상대 경로입니다. 실패하면 오류 메시지의 커밋된 행 구간을 skipRows 로 넘겨 다시 호출하면 이어서 적재합니다.")
+    public ResponseEntity<BulkLoadResponse> bulkLoadHistoryCsv(
+            @RequestParam String path,
+            @RequestParam(required = false) String skipRows) {
+        return ResponseEntity.ok(bulkLoadService.loadHistoryCsv(path, skipRows));
+    }
+
+    @PostMapping("/bulk-load/restore-indexes")
+    @Operation(summary = "적재 중 지운 인덱스 복구",
+               description = "대량 적재가 중간에 멈춰 account_history 보조 인덱스가 빠진 채 남았으면 다시 만듭니다. (기동 때도 자동으로 실행)")
+    public ResponseEntity<Map<String, Object>> restoreHistoryIndexes() {
+        return ResponseEntity.ok(Map.of("restored", bulkLoadService.restoreHistoryIndexes()));
+    }
+
+    @GetMapping("/history/export")
+    @Operation(summary = "거래 내역 내보내기",
+               description = "계좌(생략하면 모든 계좌)의 [from, to) 거래 내역을 보관된 달까지 포함해 계좌·시간 순으로 흘려 씁니다. format=csv(기본) 또는 ndjson. Accept-Encoding 에 gzip 이 있으면 gzip 으로 압축합니다.")
+    public ResponseEntity<StreamingResponseBody> exportHistory(
+            @RequestParam(required = false) String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Long accountId = historyExportService.prepare(accountNumber, from, to);
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> historyExportService.export(accountId, from, to, ndjson, gzip, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("history-" + (accountNumber != null ? accountNumber : "all") + (ndjson ? ".ndjson" : ".csv"))
+                        .build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -11,11 +11,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -40,6 +42,17 @@ public class TestController {
         return ResponseEntity.ok(members);
     }
 
+    @GetMapping("/members/stream")
+    @Operation(summary = "두리뱅크 회원 목록 스트리밍 조회",
+               description = "모든 회원 정보를 페이지 단위로 읽어 바로 응답에 씁니다. format=ndjson(기본) 또는 json. 부하 테스트용입니다.")
+    public ResponseEntity<StreamingResponseBody> streamMembers(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean ndjson = !"json".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> accountService.exportMembers(out, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @GetMapping("/member-accounts")
     @Operation(summary = "회원의 모든 계좌 조회", 
                description = "회원 이름으로 해당 회원의 모든 계좌 정보를 반환합니다. 부하 테스트용입니다.")
@@ -1,6 +1,11 @@
 package com.app.dooribankbe.controller;
 
+import com.app.dooribankbe.controller.dto.BatchPaymentRequest;
+import com.app.dooribankbe.controller.dto.BatchPaymentResponse;
 import com.app.dooribankbe.service.AccountService;
+import com.app.dooribankbe.service.groupcommit.PaymentGroupCommitter;
+import com.app.dooribankbe.service.idempotency.IdempotencyService;
+import com.app.dooribankbe.service.metrics.TransactionMetrics;
 import com.app.dooribankbe.controller.dto.PaymentRequest;
 import com.app.dooribankbe.controller.dto.PaymentResponse;
 import com.app.dooribankbe.controller.dto.TransferRequest;
@@ -13,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -24,17 +30,38 @@ import org.springframework.web.bind.annotation.RestController;
 public class TransactionController {
 
     private final AccountService accountService;
+    private final PaymentGroupCommitter paymentGroupCommitter;
+    private final IdempotencyService idempotencyService;
+    private final TransactionMetrics transactionMetrics;
 
     @PostMapping("/payment")
-    @Operation(summary = "결제 처리", description = "카드 결제를 처리하고 거래 내역을 생성합니다.")
-    public ResponseEntity<PaymentResponse> payment(@Valid @RequestBody PaymentRequest request) {
-        return ResponseEntity.ok(accountService.processPayment(request));
+    @Operation(summary = "결제 처리",
+               description = "카드 결제를 처리하고 거래 내역을 생성합니다. Idempotency-Key 헤더를 보내면 같은 키의 재시도는 처음 응답을 그대로 돌려줍니다.")
+    public ResponseEntity<PaymentResponse> payment(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody PaymentRequest request) {
+        return ResponseEntity.ok(transactionMetrics.record("payment", () ->
+                idempotencyService.execute(idempotencyKey, "PAYMENT", request, PaymentResponse.class,
+                        () -> paymentGroupCommitter.processPayment(request))));
+    }
+
+    @PostMapping("/payments:batch")
+    @Operation(summary = "일괄 결제 처리",
+               description = "여러 결제를 계좌별로 묶어 처리합니다. 일부 건이 실패해도 나머지는 처리되며, 요청 순서대로 건별 결과를 반환합니다.")
+    public ResponseEntity<BatchPaymentResponse> paymentBatch(@Valid @RequestBody BatchPaymentRequest request) {
+        return ResponseEntity.ok(transactionMetrics.record("batch_payment",
+                () -> accountService.processPayments(request.payments())));
     }
 
     @PostMapping("/transfer")
-    @Operation(summary = "계좌 이체", description = "출금 계좌의 비밀번호를 검증한 뒤, 다른 계좌로 금액을 이체합니다.")
-    public ResponseEntity<TransferResponse> transfer(@Valid @RequestBody TransferRequest request) {
-        return ResponseEntity.ok(accountService.transfer(request));
+    @Operation(summary = "계좌 이체",
+               description = "출금 계좌의 비밀번호를 검증한 뒤, 다른 계좌로 금액을 이체합니다. Idempotency-Key 헤더를 보내면 같은 키의 재시도는 처음 응답을 그대로 돌려줍니다.")
+    public ResponseEntity<TransferResponse> transfer(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TransferRequest request) {
+        return ResponseEntity.ok(transactionMetrics.record("transfer", () ->
+                idempotencyService.execute(idempotencyKey, "TRANSFER", request, TransferResponse.class,
+                        () -> accountService.transfer(request))));
     }
 }
 
@@ -0,0 +1,17 @@
+package com.app.dooribankbe.controller.dto;
+
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.TransactionType;
+
+import java.time.LocalDateTime;
+
+public record AccountHistoryDto(
+        Long historyId,
+        LocalDateTime historyDate,
+        Long historyPrice,
+        TransactionType historyStatus,
+        HistoryCategory historyCategory,
+        String historyName,
+        String historyTransferTarget
+) {
+}
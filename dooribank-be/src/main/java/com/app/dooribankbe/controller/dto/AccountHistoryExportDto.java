@@ -0,0 +1,27 @@
+package com.app.dooribankbe.controller.dto;
+
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 내역 내보내기 한 행 (NDJSON 한 줄, CSV 한 줄)
+ */
+public record AccountHistoryExportDto(
+        String accountNumber,
+        Long historyId,
+        LocalDateTime historyDate,
+        TransactionType historyStatus,
+        HistoryCategory historyCategory,
+        Long historyPrice,
+        String historyName,
+        String historyTransferTarget
+) {
+
+    public static AccountHistoryExportDto of(String accountNumber, AccountHistoryDto history) {
+        return new AccountHistoryExportDto(accountNumber, history.historyId(), history.historyDate(),
+                history.historyStatus(), history.historyCategory(), history.historyPrice(),
+                history.historyName(), history.historyTransferTarget());
+    }
+}
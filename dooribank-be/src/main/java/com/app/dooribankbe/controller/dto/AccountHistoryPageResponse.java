@@ -0,0 +1,15 @@
+package com.app.dooribankbe.controller.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 거래 내역 한 페이지. 다음 페이지는 nextCursorDate, nextCursorId 를 그대로 넘겨 조회합니다.
+ */
+public record AccountHistoryPageResponse(
+        List<AccountHistoryDto> items,
+        boolean hasNext,
+        LocalDateTime nextCursorDate,
+        Long nextCursorId
+) {
+}
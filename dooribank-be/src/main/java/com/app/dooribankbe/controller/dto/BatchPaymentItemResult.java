@@ -0,0 +1,23 @@
+package com.app.dooribankbe.controller.dto;
+
+/**
+ * 일괄 결제의 건별 결과. 실패한 건은 historyId, balance 가 null 이고 status/message 에 사유가 담깁니다.
+ */
+public record BatchPaymentItemResult(
+        int index,
+        String accountNumber,
+        boolean success,
+        Long historyId,
+        Long balance,
+        int status,
+        String message
+) {
+
+    public static BatchPaymentItemResult success(int index, String accountNumber, Long historyId, Long balance) {
+        return new BatchPaymentItemResult(index, accountNumber, true, historyId, balance, 200, null);
+    }
+
+    public static BatchPaymentItemResult failure(int index, String accountNumber, int status, String message) {
+        return new BatchPaymentItemResult(index, accountNumber, false, null, null, status, message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.app.dooribankbe.controller.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record BatchPaymentRequest(
+        @NotEmpty(message = "결제 요청 목록이 비어 있습니다.")
+        List<@Valid PaymentRequest> payments
+) {
+}
@@ -0,0 +1,10 @@
+package com.app.dooribankbe.controller.dto;
+
+import java.util.List;
+
+public record BatchPaymentResponse(
+        int succeeded,
+        int failed,
+        List<BatchPaymentItemResult> results
+) {
+}
@@ -0,0 +1,10 @@
+package com.app.dooribankbe.controller.dto;
+
+public record BulkLoadResponse(
+        long members,
+        long accounts,
+        long historyRows,
+        long elapsedMillis,
+        long rowsPerSecond
+) {
+}
@@ -0,0 +1,13 @@
+package com.app.dooribankbe.controller.dto;
+
+import java.time.LocalDateTime;
+
+public record ReconciliationMismatchDto(
+        String accountNumber,
+        Long expectedBalance,
+        Long actualBalance,
+        Long difference,
+        Long verifiedThroughId,
+        LocalDateTime checkedAt
+) {
+}
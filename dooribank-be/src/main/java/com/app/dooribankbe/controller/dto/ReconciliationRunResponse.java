@@ -0,0 +1,17 @@
+package com.app.dooribankbe.controller.dto;
+
+/**
+ * 잔액 대사 실행 결과
+ *
+ * @param newHistoryRows 이번 실행에서 새로 확인한 history 행 수
+ * @param mismatches 실행 후 불일치 상태인 계좌 수 (이전 실행에서 발견된 것 포함)
+ */
+public record ReconciliationRunResponse(
+        int chunks,
+        int failedChunks,
+        long accounts,
+        long newHistoryRows,
+        long mismatches,
+        long elapsedMillis
+) {
+}
@@ -0,0 +1,13 @@
+package com.app.dooribankbe.controller.dto;
+
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+
+import java.time.LocalDate;
+
+public record SpendingRollupDto(
+        LocalDate periodStart,
+        HistoryCategory category,
+        long count,
+        long totalAmount
+) {
+}
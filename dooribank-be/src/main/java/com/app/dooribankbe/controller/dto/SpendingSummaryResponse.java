@@ -0,0 +1,17 @@
+package com.app.dooribankbe.controller.dto;
+
+import com.app.dooribankbe.domain.entity.RollupPeriod;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record SpendingSummaryResponse(
+        String accountNumber,
+        RollupPeriod period,
+        LocalDate from,
+        LocalDate to,
+        List<SpendingRollupDto> items,
+        long totalCount,
+        long totalAmount
+) {
+}
@@ -0,0 +1,20 @@
+package com.app.dooribankbe.controller.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 일별 거래명세서 생성 결과
+ *
+ * @param partitions 전체 파티션 수
+ * @param generated 이번 실행에서 새로 만든 파티션 수 (나머지는 이전 실행에서 이미 완료)
+ */
+public record StatementRunResponse(
+        LocalDate statementDate,
+        String directory,
+        int partitions,
+        int generated,
+        long accounts,
+        long entries,
+        long elapsedMillis
+) {
+}
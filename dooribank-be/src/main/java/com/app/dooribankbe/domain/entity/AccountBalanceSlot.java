@@ -0,0 +1,27 @@
+package com.app.dooribankbe.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 입금이 몰리는 계좌의 잔액 슬롯
+ * 슬롯을 쓰는 계좌(MemberAccount.balanceSlots > 0)의 입금은 슬롯 중 하나에만 더해지므로 입금끼리 같은 행 잠금을 기다리지 않습니다.
+ * 실제 잔액은 tbl_member_account.balance 와 모든 슬롯의 합입니다. (StripedBalanceService)
+ */
+@Entity
+@Table(name = "account_balance_slot")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class AccountBalanceSlot {
+
+    @EmbeddedId
+    private AccountBalanceSlotId id;
+
+    @Column(nullable = false)
+    private Long balance;
+}
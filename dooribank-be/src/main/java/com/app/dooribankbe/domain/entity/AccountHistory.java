@@ -1,13 +1,15 @@
 package com.app.dooribankbe.domain.entity;
 
+import com.app.dooribankbe.domain.id.TimeOrderedId;
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -21,7 +23,8 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "account_history")
+@Table(name = "account_history",
+        indexes = @Index(name = "idx_account_history_account_date_id", columnList = "account_id, history_date, id"))
 @Getter
 @Builder
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -29,11 +32,12 @@ import java.time.LocalDateTime;
 public class AccountHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
+    // MySQL 파티션 테이블은 외래 키를 지원하지 않으므로 FK 제약을 만들지 않습니다. (HistoryPartitionManager)
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "account_id")
+    @JoinColumn(name = "account_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private MemberAccount account;
 
     @Column(name = "history_date", nullable = false)
@@ -0,0 +1,52 @@
+package com.app.dooribankbe.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 계좌별 잔액 대사 체크포인트 (BalanceReconciliationService)
+ * verifiedThroughId 보다 작은 ID의 history 까지 확인했고, 그 시점에 history 로 계산한 잔액이 verifiedBalance 입니다.
+ * 다음 대사는 verifiedThroughId 이후의 history 만 더해 비교합니다.
+ */
+@Entity
+@Table(name = "balance_reconciliation",
+        indexes = @Index(name = "idx_balance_reconciliation_status", columnList = "status, account_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BalanceReconciliation {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "verified_through_id", nullable = false)
+    private Long verifiedThroughId;
+
+    // history 로 계산한 잔액 (첫 대사 때는 그 시점의 실제 잔액이 기준)
+    @Column(name = "verified_balance", nullable = false)
+    private Long verifiedBalance;
+
+    @Column(name = "actual_balance", nullable = false)
+    private Long actualBalance;
+
+    // actualBalance - verifiedBalance. 첫 대사 때는 history 로 설명되지 않는 시작 잔액이 음수인 경우 그 값
+    @Column(nullable = false)
+    private Long difference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ReconciliationStatus status;
+
+    @Column(name = "checked_at", nullable = false)
+    private LocalDateTime checkedAt;
+}
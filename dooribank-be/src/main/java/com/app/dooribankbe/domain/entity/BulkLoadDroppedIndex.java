@@ -0,0 +1,34 @@
+package com.app.dooribankbe.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 대량 적재 동안 지운 account_history 보조 인덱스의 정의 (BulkLoadService)
+ * 인덱스를 지우기 전에 남기고 다시 만든 뒤 지웁니다. 적재 중에 멈춰 행이 남으면 다음 기동 때나
+ * /api/admin/bulk-load/restore-indexes 로 다시 만듭니다. (BulkLoadService 가 JdbcTemplate 으로 읽고 씁니다)
+ */
+@Entity
+@Table(name = "bulk_load_dropped_index")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BulkLoadDroppedIndex {
+
+    @Id
+    @Column(name = "index_name", length = 64)
+    private String indexName;
+
+    // 인덱스 컬럼, 순서대로 쉼표로 구분
+    @Column(name = "column_list", nullable = false, length = 1000)
+    private String columnList;
+
+    @Column(name = "dropped_at", nullable = false)
+    private LocalDateTime droppedAt;
+}
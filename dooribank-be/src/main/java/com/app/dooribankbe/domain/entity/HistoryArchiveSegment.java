@@ -0,0 +1,57 @@
+package com.app.dooribankbe.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * account_history 에서 세그먼트 파일로 옮긴 달 (HistoryArchiveService)
+ * 세그먼트는 [idFrom, idTo) 구간의 모든 행을 담으며, 달끼리 구간이 이어져 있습니다.
+ */
+@Entity
+@Table(name = "account_history_archive")
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class HistoryArchiveSegment {
+
+    // 보관한 달의 1일
+    @Id
+    @Column(name = "month_start")
+    private LocalDate monthStart;
+
+    @Column(name = "file_name", nullable = false, length = 100)
+    private String fileName;
+
+    @Column(name = "id_from", nullable = false)
+    private Long idFrom;
+
+    @Column(name = "id_to", nullable = false)
+    private Long idTo;
+
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+
+    // 세그먼트에 든 account_id 범위. 이 범위 밖의 계좌는 파일을 열지 않고 건너뜁니다. (범위를 기록하기 전에 만든 세그먼트는 NULL)
+    @Column(name = "min_account_id")
+    private Long minAccountId;
+
+    @Column(name = "max_account_id")
+    private Long maxAccountId;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,54 @@
+package com.app.dooribankbe.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key 로 받은 결제/이체 요청 기록
+ * 키를 먼저 선점(claim)하고, 거래와 같은 트랜잭션에서 응답을 저장합니다. (IdempotencyService)
+ */
+@Entity
+@Table(name = "idempotency_key",
+        indexes = @Index(name = "idx_idempotency_key_created", columnList = "created_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 20)
+    private String operation;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    // 선점할 때마다 새로 발급합니다. 응답 저장과 선점 해제는 이 값이 맞을 때만 반영됩니다. (stale 재선점 뒤 늦게 끝난 요청 차단)
+    @Column(name = "claim_token", nullable = false, length = 36)
+    private String claimToken;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+}
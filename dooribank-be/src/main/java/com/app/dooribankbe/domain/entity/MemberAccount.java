@@ -1,10 +1,9 @@
 package com.app.dooribankbe.domain.entity;
 
+import com.app.dooribankbe.domain.id.TimeOrderedId;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -27,7 +26,7 @@ import java.time.LocalDate;
 public class MemberAccount {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -46,6 +45,14 @@ public class MemberAccount {
     @Column(nullable = false)
     private Long balance;
 
+    // 인메모리 원장(BalanceLedger)이 이 잔액에 마지막으로 반영한 AccountHistory ID. 원장을 쓰지 않으면 NULL
+    @Column(name = "ledger_history_id")
+    private Long ledgerHistoryId;
+
+    // 입금을 나눠 받을 잔액 슬롯 수 (account_balance_slot). NULL 이면 슬롯을 쓰지 않습니다.
+    @Column(name = "balance_slots")
+    private Integer balanceSlots;
+
     @PrePersist
     void onCreate() {
         if (accountCreateAt == null) {
@@ -73,6 +80,10 @@ public class MemberAccount {
         balance += amount;
     }
 
+    public void changeBalanceSlots(Integer balanceSlots) {
+        this.balanceSlots = balanceSlots;
+    }
+
     public boolean matchPassword(String password) {
         return this.accountPassword.equals(password);
     }
@@ -0,0 +1,6 @@
+package com.app.dooribankbe.domain.entity;
+
+public enum ReconciliationStatus {
+    OK,
+    MISMATCH
+}
@@ -0,0 +1,29 @@
+package com.app.dooribankbe.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 계좌·기간·카테고리별 지출(PAYMENT, TRANSFER_OUT) 집계
+ * AccountHistory 저장과 같은 트랜잭션에서 upsert 로 누적됩니다. (SpendingRollupService)
+ */
+@Entity
+@Table(name = "account_spending_rollup")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SpendingRollup {
+
+    @EmbeddedId
+    private SpendingRollupId id;
+
+    @Column(name = "txn_count", nullable = false)
+    private Long txnCount;
+
+    @Column(name = "total_amount", nullable = false)
+    private Long totalAmount;
+}
@@ -0,0 +1,58 @@
+package com.app.dooribankbe.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 일별 거래명세서 생성 계획과 진행 상황 (StatementService)
+ * 첫 실행 때 계좌 ID 구간별 파티션을 모두 저장해 두고, 파티션 파일을 다 쓰면 completedAt 을 남깁니다.
+ * 다시 실행하면 completedAt 이 없는 파티션만 처리합니다.
+ */
+@Entity
+@Table(name = "statement_checkpoint")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StatementCheckpoint {
+
+    @EmbeddedId
+    private StatementCheckpointId id;
+
+    // 계좌 ID 구간 [idFrom, idTo)
+    @Column(name = "id_from", nullable = false)
+    private Long idFrom;
+
+    @Column(name = "id_to", nullable = false)
+    private Long idTo;
+
+    @Column(name = "account_count")
+    private Integer accountCount;
+
+    @Column(name = "entry_count")
+    private Long entryCount;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public StatementCheckpoint(StatementCheckpointId id, long idFrom, long idTo) {
+        this.id = id;
+        this.idFrom = idFrom;
+        this.idTo = idTo;
+    }
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+
+    public void complete(int accountCount, long entryCount, LocalDateTime completedAt) {
+        this.accountCount = accountCount;
+        this.entryCount = entryCount;
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,26 @@
+package com.app.dooribankbe.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class StatementCheckpointId implements Serializable {
+
+    @Column(name = "statement_date", nullable = false)
+    private LocalDate statementDate;
+
+    @Column(name = "partition_no", nullable = false)
+    private Integer partitionNo;
+}
@@ -0,0 +1,105 @@
+package com.app.dooribankbe.domain.entity;
+
+import com.app.dooribankbe.domain.id.TimeOrderedId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 우리두리(8080 서버) 동기화 대기열. AccountHistory 와 같은 트랜잭션에서 저장되고, 백그라운드에서 전송됩니다.
+ */
+@Entity
+@Table(name = "wooridoori_sync_outbox",
+        indexes = @Index(name = "idx_sync_outbox_pending", columnList = "dispatched_at, next_attempt_at, id"))
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SyncOutbox {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(name = "history_id", nullable = false)
+    private Long historyId;
+
+    @Column(name = "account_num", nullable = false, length = 20)
+    private String accountNumber;
+
+    @Column(name = "history_date", nullable = false)
+    private LocalDateTime historyDate;
+
+    @Column(name = "history_price", nullable = false)
+    private Long historyPrice;
+
+    @Column(name = "history_status", nullable = false, length = 20)
+    private String historyStatus;
+
+    @Column(name = "history_category", nullable = false, length = 30)
+    private String historyCategory;
+
+    @Column(name = "history_name", nullable = false, length = 100)
+    private String historyName;
+
+    @Column(name = "history_transfer_target")
+    private String historyTransferTarget;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    public static SyncOutbox from(AccountHistory history, String accountNumber) {
+        LocalDateTime now = LocalDateTime.now();
+        return SyncOutbox.builder()
+                .historyId(history.getId())
+                .accountNumber(accountNumber)
+                .historyDate(history.getHistoryDate())
+                .historyPrice(history.getHistoryPrice())
+                .historyStatus(history.getHistoryStatus().name())
+                .historyCategory(history.getHistoryCategory().name())
+                .historyName(history.getHistoryName())
+                .historyTransferTarget(history.getHistoryTransferTarget())
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    /**
+     * 전송하는 동안 다른 디스패처가 가져가지 않도록 다음 시도 시각을 미룹니다.
+     */
+    public void claim(LocalDateTime leaseUntil) {
+        this.nextAttemptAt = leaseUntil;
+    }
+
+    public void markDispatched(LocalDateTime now) {
+        this.dispatchedAt = now;
+        this.lastError = null;
+    }
+
+    public void markFailed(String error, LocalDateTime nextAttemptAt) {
+        this.attempts++;
+        this.nextAttemptAt = nextAttemptAt;
+        this.lastError = error != null && error.length() > 255 ? error.substring(0, 255) : error;
+    }
+}
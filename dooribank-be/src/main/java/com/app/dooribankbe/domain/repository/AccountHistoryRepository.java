@@ -1,8 +1,49 @@
 package com.app.dooribankbe.domain.repository;
 
+import com.app.dooribankbe.controller.dto.AccountHistoryDto;
 import com.app.dooribankbe.domain.entity.AccountHistory;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface AccountHistoryRepository extends JpaRepository<AccountHistory, Long> {
-}
 
+    /**
+     * 최신순 첫 페이지. (account_id, history_date, id) 인덱스를 역순으로 읽습니다.
+     */
+    @Query("select new com.app.dooribankbe.controller.dto.AccountHistoryDto("
+            + "h.id, h.historyDate, h.historyPrice, h.historyStatus, h.historyCategory, h.historyName, h.historyTransferTarget) "
+            + "from AccountHistory h "
+            + "where h.account.id = :accountId "
+            + "and (:status is null or h.historyStatus = :status) "
+            + "and (:category is null or h.historyCategory = :category) "
+            + "order by h.historyDate desc, h.id desc")
+    List<AccountHistoryDto> findFirstPage(@Param("accountId") Long accountId,
+                                          @Param("status") TransactionType status,
+                                          @Param("category") HistoryCategory category,
+                                          Limit limit);
+
+    /**
+     * (cursorDate, cursorId) 다음부터 최신순으로 읽습니다. 앞 페이지를 건너뛰지 않으므로 몇 번째 페이지든 비용이 같습니다.
+     */
+    @Query("select new com.app.dooribankbe.controller.dto.AccountHistoryDto("
+            + "h.id, h.historyDate, h.historyPrice, h.historyStatus, h.historyCategory, h.historyName, h.historyTransferTarget) "
+            + "from AccountHistory h "
+            + "where h.account.id = :accountId "
+            + "and (h.historyDate < :cursorDate or (h.historyDate = :cursorDate and h.id < :cursorId)) "
+            + "and (:status is null or h.historyStatus = :status) "
+            + "and (:category is null or h.historyCategory = :category) "
+            + "order by h.historyDate desc, h.id desc")
+    List<AccountHistoryDto> findPageAfter(@Param("accountId") Long accountId,
+                                          @Param("cursorDate") LocalDateTime cursorDate,
+                                          @Param("cursorId") Long cursorId,
+                                          @Param("status") TransactionType status,
+                                          @Param("category") HistoryCategory category,
+                                          Limit limit);
+}
@@ -0,0 +1,10 @@
+package com.app.dooribankbe.domain.repository;
+
+import com.app.dooribankbe.domain.entity.BalanceReconciliation;
+import com.app.dooribankbe.domain.entity.ReconciliationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BalanceReconciliationRepository extends JpaRepository<BalanceReconciliation, Long> {
+
+    long countByStatus(ReconciliationStatus status);
+}
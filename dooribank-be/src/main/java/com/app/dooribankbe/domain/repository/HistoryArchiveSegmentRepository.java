@@ -0,0 +1,28 @@
+package com.app.dooribankbe.domain.repository;
+
+import com.app.dooribankbe.domain.entity.HistoryArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface HistoryArchiveSegmentRepository extends JpaRepository<HistoryArchiveSegment, LocalDate> {
+
+    List<HistoryArchiveSegment> findAllByOrderByMonthStartDesc();
+
+    Optional<HistoryArchiveSegment> findFirstByOrderByMonthStartDesc();
+
+    /**
+     * 계좌의 행이 있을 수 있는, monthStart 가 notAfter 이하인 달을 최신순으로 찾습니다.
+     * 빈 달과 account_id 범위 밖의 달은 빼고, 범위를 기록하지 않은 옛 세그먼트는 포함합니다.
+     */
+    @Query("select s from HistoryArchiveSegment s "
+            + "where s.monthStart <= :notAfter and s.rowCount > 0 "
+            + "and (s.minAccountId is null or (s.minAccountId <= :accountId and s.maxAccountId >= :accountId)) "
+            + "order by s.monthStart desc")
+    List<HistoryArchiveSegment> findCandidatesNewestFirst(@Param("accountId") Long accountId,
+                                                          @Param("notAfter") LocalDate notAfter);
+}
@@ -0,0 +1,58 @@
+package com.app.dooribankbe.domain.repository;
+
+import com.app.dooribankbe.domain.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * 키를 선점합니다. 이미 있는 키면 DataIntegrityViolationException 이 발생합니다.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (idempotency_key, operation, request_hash, created_at, claimed_at, claim_token) "
+            + "VALUES (:key, :operation, :requestHash, :now, :now, :claimToken)", nativeQuery = true)
+    int insertClaim(@Param("key") String key,
+                    @Param("operation") String operation,
+                    @Param("requestHash") String requestHash,
+                    @Param("claimToken") String claimToken,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * 선점 후 응답을 남기지 못한(처리 중 종료된) 키를 새 토큰으로 다시 선점합니다.
+     * 앞선 요청이 실제로는 아직 처리 중이었더라도 토큰이 바뀌었으므로 그 요청의 응답 저장(complete)은 반영되지 않습니다.
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r set r.claimedAt = :now, r.claimToken = :claimToken "
+            + "where r.idempotencyKey = :key and r.requestHash = :requestHash "
+            + "and r.completedAt is null and r.claimedAt < :staleBefore")
+    int reclaimStale(@Param("key") String key,
+                     @Param("requestHash") String requestHash,
+                     @Param("claimToken") String claimToken,
+                     @Param("now") LocalDateTime now,
+                     @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * 선점한 토큰이 그대로일 때만 응답을 저장합니다. 0 이면 다른 요청이 키를 다시 선점한 것입니다.
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r set r.responseBody = :responseBody, r.completedAt = :now "
+            + "where r.idempotencyKey = :key and r.claimToken = :claimToken and r.completedAt is null")
+    int complete(@Param("key") String key,
+                 @Param("claimToken") String claimToken,
+                 @Param("responseBody") String responseBody,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r "
+            + "where r.idempotencyKey = :key and r.claimToken = :claimToken and r.completedAt is null")
+    int releaseClaim(@Param("key") String key, @Param("claimToken") String claimToken);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -2,7 +2,12 @@ package com.app.dooribankbe.domain.repository;
 
 import com.app.dooribankbe.domain.entity.Member;
 import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.service.cache.AccountMetadata;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,6 +15,20 @@ import java.util.Optional;
 public interface MemberAccountRepository extends JpaRepository<MemberAccount, Long> {
 
     Optional<MemberAccount> findByAccountNumber(String accountNumber);
+
+    @Query("select new com.app.dooribankbe.service.cache.AccountMetadata("
+            + "a.id, a.accountNumber, a.accountPassword, a.member.id, coalesce(a.balanceSlots, 0)) "
+            + "from MemberAccount a where a.accountNumber = :accountNumber")
+    Optional<AccountMetadata> findMetadataByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * 잔액을 바꾸기 전에 계좌 행을 잠그며 읽습니다. (SELECT ... FOR UPDATE)
+     * 잠금 읽기는 트랜잭션의 스냅숏이 아니라 마지막으로 커밋된 행을 읽으므로, 같은 트랜잭션에서 먼저 다른 조회를 했더라도
+     * 앞선 트랜잭션이 커밋한 잔액 위에 씁니다. (REPEATABLE READ)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from MemberAccount a where a.id = :id")
+    Optional<MemberAccount> findByIdForUpdate(@Param("id") Long id);
     
     List<MemberAccount> findByMember(Member member);
 }
@@ -0,0 +1,51 @@
+package com.app.dooribankbe.domain.repository;
+
+import com.app.dooribankbe.controller.dto.MemberInfoDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 회원 목록 조회 전용 JDBC 쿼리
+ * 회원과 첫 번째 계좌를 한 번의 조인으로 읽고, 회원 ID 기준 keyset 페이지로 나눠 읽습니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberQueryRepository {
+
+    private static final String MEMBER_PAGE_SQL = """
+            SELECT m.id, m.name, m.phone, m.member_regist_num, a.account_num, a.account_password
+            FROM tbl_member m
+            LEFT JOIN tbl_member_account a
+                   ON a.id = (SELECT MIN(a2.id) FROM tbl_member_account a2 WHERE a2.member_id = m.id)
+            WHERE m.id > ?
+            ORDER BY m.id
+            LIMIT ?
+            """;
+
+    private static final RowMapper<MemberInfoDto> MEMBER_INFO_MAPPER = (rs, rowNum) -> {
+        MemberInfoDto dto = new MemberInfoDto();
+        dto.setId(rs.getLong("id"));
+        dto.setName(rs.getString("name"));
+        dto.setPhone(rs.getString("phone"));
+        dto.setMemberRegistNum(rs.getString("member_regist_num"));
+        dto.setAccountNumber(rs.getString("account_num"));
+        dto.setAccountPassword(rs.getString("account_password"));
+        return dto;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * afterId 보다 큰 회원 ID를 가진 회원을 최대 limit 명까지 ID 순으로 조회합니다.
+     * 내보내기처럼 트랜잭션 없이 호출해도 페이지마다 읽기 전용 트랜잭션으로 묶여 복제본에서 읽습니다.
+     */
+    @Transactional(readOnly = true)
+    public List<MemberInfoDto> findMemberInfoPage(long afterId, int limit) {
+        return jdbcTemplate.query(MEMBER_PAGE_SQL, MEMBER_INFO_MAPPER, afterId, limit);
+    }
+}
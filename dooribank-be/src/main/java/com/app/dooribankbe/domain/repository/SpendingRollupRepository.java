@@ -0,0 +1,23 @@
+package com.app.dooribankbe.domain.repository;
+
+import com.app.dooribankbe.domain.entity.RollupPeriod;
+import com.app.dooribankbe.domain.entity.SpendingRollup;
+import com.app.dooribankbe.domain.entity.SpendingRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SpendingRollupRepository extends JpaRepository<SpendingRollup, SpendingRollupId> {
+
+    @Query("select r from SpendingRollup r "
+            + "where r.id.accountId = :accountId and r.id.periodType = :periodType "
+            + "and r.id.periodStart between :from and :to "
+            + "order by r.id.periodStart, r.id.historyCategory")
+    List<SpendingRollup> findRange(@Param("accountId") Long accountId,
+                                   @Param("periodType") RollupPeriod periodType,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+}
@@ -0,0 +1,13 @@
+package com.app.dooribankbe.domain.repository;
+
+import com.app.dooribankbe.domain.entity.StatementCheckpoint;
+import com.app.dooribankbe.domain.entity.StatementCheckpointId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StatementCheckpointRepository extends JpaRepository<StatementCheckpoint, StatementCheckpointId> {
+
+    List<StatementCheckpoint> findByIdStatementDateOrderByIdPartitionNo(LocalDate statementDate);
+}
@@ -0,0 +1,35 @@
+package com.app.dooribankbe.domain.repository;
+
+import com.app.dooribankbe.domain.entity.SyncOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface SyncOutboxRepository extends JpaRepository<SyncOutbox, Long> {
+
+    /**
+     * 전송할 차례가 된 대기 건을 잠그며 가져옵니다. 다른 인스턴스가 잡은 행은 건너뜁니다. (SKIP LOCKED)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from SyncOutbox o where o.dispatchedAt is null and o.nextAttemptAt <= :now order by o.id")
+    List<SyncOutbox> claimPending(@Param("now") LocalDateTime now, Pageable pageable);
+
+    Optional<SyncOutbox> findFirstByDispatchedAtIsNullOrderByIdAsc();
+
+    long countByDispatchedAtIsNull();
+
+    @Modifying
+    @Query("delete from SyncOutbox o where o.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,88 @@
+package com.app.dooribankbe.service;
+
+import com.app.dooribankbe.controller.dto.AccountHistoryDto;
+import com.app.dooribankbe.controller.dto.AccountHistoryPageResponse;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.repository.AccountHistoryRepository;
+import com.app.dooribankbe.service.cache.AccountMetadata;
+import com.app.dooribankbe.service.cache.AccountMetadataCache;
+import com.app.dooribankbe.service.history.HistoryArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final AccountHistoryRepository accountHistoryRepository;
+    private final AccountMetadataCache accountMetadataCache;
+    private final HistoryArchiveService historyArchiveService;
+
+    /**
+     * 계좌 거래 내역을 최신순으로 한 페이지 조회합니다. (keyset 페이지네이션)
+     * account_history 에서 모자란 만큼은 보관된 세그먼트에서 이어 읽습니다. 보관된 행은 모두 남아 있는 행보다 오래되었습니다.
+     * 세그먼트는 account_history 쪽 조회가 끝까지 간(size+1 건을 채우지 못한) 페이지에서만 보고,
+     * 그때도 마지막 행(없으면 커서) 이전 달 중 계좌 범위에 드는 세그먼트만 엽니다.
+     *
+     * @param accountNumber 계좌번호
+     * @param status 거래 상태 필터 (없으면 전체)
+     * @param category 카테고리 필터 (없거나 ALL 이면 전체)
+     * @param cursorDate 이전 페이지의 nextCursorDate (첫 페이지면 null)
+     * @param cursorId 이전 페이지의 nextCursorId (첫 페이지면 null)
+     * @param size 페이지 크기 (1 ~ 100)
+     */
+    @Transactional(readOnly = true)
+    public AccountHistoryPageResponse getHistory(String accountNumber, TransactionType status, HistoryCategory category,
+                                                 LocalDateTime cursorDate, Long cursorId, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "페이지 크기는 1~" + MAX_PAGE_SIZE + " 사이여야 합니다.");
+        }
+        if ((cursorDate == null) != (cursorId == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cursorDate 와 cursorId 는 함께 전달해야 합니다.");
+        }
+        AccountMetadata account = accountMetadataCache.get(accountNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "계좌를 찾을 수 없습니다."));
+        HistoryCategory categoryFilter = category == HistoryCategory.ALL ? null : category;
+
+        // 한 건 더 읽어 다음 페이지 존재 여부를 판단합니다.
+        Limit limit = Limit.of(size + 1);
+        List<AccountHistoryDto> rows = cursorDate == null
+                ? accountHistoryRepository.findFirstPage(account.id(), status, categoryFilter, limit)
+                : accountHistoryRepository.findPageAfter(account.id(), cursorDate, cursorId, status, categoryFilter, limit);
+        if (rows.size() <= size) {
+            // account_history 의 행을 다 읽었으므로 이후 행은 hotFrom 이전, 즉 보관된 달에만 있습니다.
+            AccountHistoryDto lastHot = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+            List<AccountHistoryDto> archived = historyArchiveService.readNewestFirst(account.id(),
+                    lastHot != null ? lastHot.historyDate() : cursorDate,
+                    lastHot != null ? lastHot.historyId() : cursorId,
+                    status, categoryFilter, size + 1 - rows.size());
+            if (!archived.isEmpty()) {
+                rows = new ArrayList<>(rows);
+                rows.addAll(archived);
+            }
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<AccountHistoryDto> items = hasNext ? rows.subList(0, size) : rows;
+        AccountHistoryDto last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return new AccountHistoryPageResponse(
+                List.copyOf(items),
+                hasNext,
+                hasNext ? last.historyDate() : null,
+                hasNext ? last.historyId() : null
+        );
+    }
+}
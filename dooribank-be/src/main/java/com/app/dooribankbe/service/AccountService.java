@@ -6,20 +6,47 @@ import com.app.dooribankbe.domain.entity.MemberAccount;
 import com.app.dooribankbe.domain.repository.MemberAccountRepository;
 import com.app.dooribankbe.domain.entity.AccountHistory;
 import com.app.dooribankbe.domain.repository.AccountHistoryRepository;
+import com.app.dooribankbe.domain.repository.MemberQueryRepository;
 import com.app.dooribankbe.domain.repository.MemberRepository;
 import com.app.dooribankbe.domain.entity.HistoryCategory;
 import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.service.balance.StripedBalanceService;
+import com.app.dooribankbe.service.cache.AccountMetadata;
+import com.app.dooribankbe.service.cache.AccountMetadataCache;
+import com.app.dooribankbe.service.ledger.BalanceLedger;
+import com.app.dooribankbe.service.ledger.LedgerPosting;
+import com.app.dooribankbe.service.limit.TransactionLimiter;
+import com.app.dooribankbe.service.lock.AccountLockManager;
+import com.app.dooribankbe.service.lock.AccountLocks;
+import com.app.dooribankbe.service.metrics.TransactionMetrics;
+import com.app.dooribankbe.service.metrics.TransactionOutcome;
+import com.app.dooribankbe.service.rollup.SpendingRollupService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDateTime;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,13 +57,36 @@ public class AccountService {
     private final MemberAccountRepository memberAccountRepository;
     private final AccountHistoryRepository accountHistoryRepository;
     private final MemberRepository memberRepository;
-    private final WooriDooriSyncService wooriDooriSyncService;
+    private final MemberQueryRepository memberQueryRepository;
+    private final ObjectMapper objectMapper;
+    private final SyncOutboxService syncOutboxService;
+    private final BalanceLedger balanceLedger;
+    private final AccountLockManager accountLockManager;
+    private final AccountMetadataCache accountMetadataCache;
+    private final SpendingRollupService spendingRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionMetrics transactionMetrics;
+    private final StripedBalanceService stripedBalanceService;
+    private final TransactionLimiter transactionLimiter;
+
+    @Value("${dooribank.export.page-size:1000}")
+    private int exportPageSize;
+
+    @Value("${dooribank.batch.max-payments:5000}")
+    private int maxBatchPayments;
 
     @Transactional
     public PaymentResponse processPayment(PaymentRequest request) {
-        MemberAccount account = getAccountByNumber(request.accountNumber());
-        validatePassword(account, request.password());
-        withdraw(account, request.amount());
+        AccountMetadata metadata = getAccountMetadata(request.accountNumber());
+        validatePassword(metadata, request.password());
+        transactionLimiter.acquirePayment(request.accountNumber());
+
+        lockAccounts(request.accountNumber());
+        MemberAccount account = loadAccount(metadata);
+        LedgerPosting posting = balanceLedger.isEnabled() ? debitLedger(request.accountNumber(), request.amount()) : null;
+        if (posting == null) {
+            withdraw(account, request.amount());
+        }
 
         AccountHistory history = accountHistoryRepository.save(AccountHistory.builder()
                 .account(account)
@@ -47,43 +97,50 @@ public class AccountService {
                 .historyTransferTarget(null)
                 .build());
 
-        accountHistoryRepository.flush();
-
-        if (history != null && history.getId() != null) {
-            final Long historyId = history.getId();
-            final String accountNumber = history.getAccount().getAccountNumber();
-            final LocalDateTime historyDate = history.getHistoryDate();
-            final Long historyPrice = history.getHistoryPrice();
-            final String historyStatus = history.getHistoryStatus().name();
-            final String historyCategory = history.getHistoryCategory().name();
-            final String historyName = history.getHistoryName();
-            final String historyTransferTarget = history.getHistoryTransferTarget();
-
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    wooriDooriSyncService.syncToWooriDoori(
-                            historyId, accountNumber, historyDate, historyPrice,
-                            historyStatus, historyCategory, historyName, historyTransferTarget
-                    );
-                }
-            });
+        if (posting != null) {
+            posting.attach(history.getId());
         }
 
-        return new PaymentResponse(history.getId(), account.getBalance());
+        spendingRollupService.record(metadata.id(), history);
+        syncOutboxService.enqueue(history, request.accountNumber());
+
+        return new PaymentResponse(history.getId(), posting != null ? posting.getBalanceAfter() : currentBalance(account));
     }
 
     @Transactional
     public TransferResponse transfer(TransferRequest request) {
-        MemberAccount fromAccount = getAccountByNumber(request.fromAccountNumber());
-        if (fromAccount.getAccountNumber().equals(request.toAccountNumber())) {
+        AccountMetadata fromMetadata = getAccountMetadata(request.fromAccountNumber());
+        if (fromMetadata.accountNumber().equals(request.toAccountNumber())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "같은 계좌로는 이체할 수 없습니다.");
         }
-        MemberAccount toAccount = getAccountByNumber(request.toAccountNumber());
-
-        validatePassword(fromAccount, request.password());
-        withdraw(fromAccount, request.amount());
-        deposit(toAccount, request.amount());
+        AccountMetadata toMetadata = getAccountMetadata(request.toAccountNumber());
+        validatePassword(fromMetadata, request.password());
+        reserveTransferOut(request.fromAccountNumber(), request.amount());
+
+        // 잔액 슬롯을 쓰는 계좌로의 입금은 슬롯 행만 갱신하므로 받는 계좌는 잠그지 않습니다.
+        // 단, 보내는 계좌도 슬롯을 쓰면 출금 중 자기 슬롯을 잠근 채 받는 계좌 슬롯을 기다릴 수 있으므로
+        // (반대 방향 이체와 교착) 두 계좌를 모두 정해진 순서로 잠급니다.
+        boolean creditToSlot = !balanceLedger.isEnabled() && toMetadata.usesBalanceSlots();
+        if (creditToSlot && !fromMetadata.usesBalanceSlots()) {
+            lockAccounts(request.fromAccountNumber());
+        } else {
+            lockAccounts(request.fromAccountNumber(), request.toAccountNumber());
+        }
+        MemberAccount fromAccount = loadAccount(fromMetadata);
+        MemberAccount toAccount = loadAccount(toMetadata);
+
+        LedgerPosting withdrawPosting = null;
+        LedgerPosting depositPosting = null;
+        if (balanceLedger.isEnabled()) {
+            withdrawPosting = debitLedger(request.fromAccountNumber(), request.amount());
+            depositPosting = creditLedger(request.toAccountNumber(), request.amount());
+        } else if (creditToSlot) {
+            withdraw(fromAccount, request.amount());
+            creditSlot(toMetadata, request.amount());
+        } else {
+            withdraw(fromAccount, request.amount());
+            deposit(toAccount, request.amount());
+        }
 
         AccountHistory withdrawHistory = accountHistoryRepository.save(AccountHistory.builder()
                 .account(fromAccount)
@@ -91,7 +148,7 @@ public class AccountService {
                 .historyStatus(TransactionType.TRANSFER_OUT)
                 .historyCategory(HistoryCategory.TRANSFER)
                 .historyName(request.memo() != null ? request.memo() : "계좌이체 출금")
-                .historyTransferTarget(toAccount.getAccountNumber())
+                .historyTransferTarget(request.toAccountNumber())
                 .build());
 
         AccountHistory depositHistory = accountHistoryRepository.save(AccountHistory.builder()
@@ -100,54 +157,156 @@ public class AccountService {
                 .historyStatus(TransactionType.TRANSFER_IN)
                 .historyCategory(HistoryCategory.TRANSFER)
                 .historyName(request.memo() != null ? request.memo() : "계좌이체 입금")
-                .historyTransferTarget(fromAccount.getAccountNumber())
+                .historyTransferTarget(request.fromAccountNumber())
                 .build());
 
-        accountHistoryRepository.flush();
-
-        if (withdrawHistory != null && withdrawHistory.getId() != null) {
-            final Long historyId = withdrawHistory.getId();
-            final String accountNumber = withdrawHistory.getAccount().getAccountNumber();
-            final LocalDateTime historyDate = withdrawHistory.getHistoryDate();
-            final Long historyPrice = withdrawHistory.getHistoryPrice();
-            final String historyStatus = withdrawHistory.getHistoryStatus().name();
-            final String historyCategory = withdrawHistory.getHistoryCategory().name();
-            final String historyName = withdrawHistory.getHistoryName();
-            final String historyTransferTarget = withdrawHistory.getHistoryTransferTarget();
-
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    wooriDooriSyncService.syncToWooriDoori(
-                            historyId, accountNumber, historyDate, historyPrice,
-                            historyStatus, historyCategory, historyName, historyTransferTarget
-                    );
-                }
-            });
+        if (withdrawPosting != null) {
+            withdrawPosting.attach(withdrawHistory.getId());
+            depositPosting.attach(depositHistory.getId());
         }
 
+        spendingRollupService.record(fromMetadata.id(), withdrawHistory);
+        syncOutboxService.enqueue(withdrawHistory, request.fromAccountNumber());
+
         return new TransferResponse(
                 withdrawHistory.getId(),
                 depositHistory.getId(),
-                fromAccount.getBalance(),
-                toAccount.getBalance()
+                withdrawPosting != null ? withdrawPosting.getBalanceAfter() : currentBalance(fromAccount),
+                depositPosting != null ? depositPosting.getBalanceAfter() : currentBalance(toAccount)
         );
     }
 
+    /**
+     * 여러 결제를 계좌별로 묶어 처리합니다. (일괄 결제)
+     * 계좌마다 잠금을 한 번만 잡고, 한 트랜잭션 안에서 요청 순서대로 출금한 뒤 내역을 배치로 저장합니다.
+     * 비밀번호 불일치·잔액 부족 같은 건별 실패는 그 건만 실패로 돌려주고,
+     * 계좌를 찾을 수 없거나 잠금 대기 시간을 넘긴 경우처럼 계좌 단위로 실패하면 그 계좌의 모든 건이 실패합니다.
+     *
+     * @return 요청 순서와 같은 순서의 건별 결과
+     */
+    public BatchPaymentResponse processPayments(List<PaymentRequest> requests) {
+        if (requests.size() > maxBatchPayments) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "일괄 결제는 한 번에 최대 " + maxBatchPayments + "건까지 가능합니다.");
+        }
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            groups.computeIfAbsent(requests.get(i).accountNumber(), key -> new ArrayList<>()).add(i);
+        }
+
+        BatchPaymentItemResult[] results = new BatchPaymentItemResult[requests.size()];
+        groups.forEach((accountNumber, indexes) -> {
+            List<PaymentRequest> payments = indexes.stream().map(requests::get).toList();
+            for (BatchPaymentItemResult result : applyPaymentGroup(accountNumber, indexes, payments)) {
+                results[result.index()] = result;
+            }
+        });
+
+        int succeeded = 0;
+        for (BatchPaymentItemResult result : results) {
+            if (result.success()) {
+                succeeded++;
+            }
+        }
+        return new BatchPaymentResponse(succeeded, results.length - succeeded, List.of(results));
+    }
+
+    /**
+     * 같은 계좌의 결제 묶음을 한 트랜잭션으로 적용합니다. 결과는 payments 와 같은 순서입니다.
+     * 커밋에 실패하면 묶음 전체가 롤백되므로 모든 건을 실패로 돌려줍니다.
+     *
+     * @param indexes 각 결제의 원래 요청 위치 (결과의 index)
+     */
+    public List<BatchPaymentItemResult> applyPaymentGroup(String accountNumber, List<Integer> indexes, List<PaymentRequest> payments) {
+        try {
+            List<PaymentResult> applied = processPaymentGroup(accountNumber, payments);
+            List<BatchPaymentItemResult> results = new ArrayList<>(applied.size());
+            int succeeded = 0;
+            for (int i = 0; i < applied.size(); i++) {
+                PaymentResult result = applied.get(i);
+                if (result.success()) {
+                    succeeded++;
+                    results.add(BatchPaymentItemResult.success(indexes.get(i), accountNumber,
+                            result.response().historyId(), result.response().balance()));
+                } else {
+                    transactionMetrics.recordBatchItems(TransactionOutcome.of(result.error()), 1);
+                    results.add(BatchPaymentItemResult.failure(indexes.get(i), accountNumber,
+                            result.error().getStatusCode().value(), result.error().getReason()));
+                }
+            }
+            transactionMetrics.recordBatchItems(TransactionOutcome.SUCCESS, succeeded);
+            return results;
+        } catch (ResponseStatusException e) {
+            transactionMetrics.recordBatchItems(TransactionOutcome.of(e), indexes.size());
+            return failAll(accountNumber, indexes, e.getStatusCode().value(), e.getReason());
+        } catch (RuntimeException e) {
+            log.error("일괄 결제 처리 실패: accountNumber={}, count={}", accountNumber, payments.size(), e);
+            transactionMetrics.recordBatchItems(TransactionOutcome.ERROR, indexes.size());
+            return failAll(accountNumber, indexes, HttpStatus.INTERNAL_SERVER_ERROR.value(), "결제 처리 중 오류가 발생했습니다.");
+        }
+    }
+
+    /**
+     * 같은 계좌의 결제들을 한 트랜잭션으로 적용합니다. 계좌 잠금은 한 번, 잔액 UPDATE 는 한 번이고 내역은 배치로 INSERT 합니다.
+     * 결과는 payments 와 같은 순서이며, 건마다 그 시점의 잔액을 담습니다.
+     * 계좌를 찾을 수 없거나 잠금 대기 시간을 넘기거나 커밋에 실패하면 예외를 던집니다. (모든 건 실패)
+     */
+    public List<PaymentResult> processPaymentGroup(String accountNumber, List<PaymentRequest> payments) {
+        return transactionTemplate.execute(status -> debitGroup(accountNumber, payments));
+    }
+
     // ========== 테스트용 메서드 ==========
 
     /**
      * 모든 회원 정보 조회 (계좌 정보 포함)
+     * 회원과 첫 번째 계좌를 조인 쿼리 한 번으로 페이지 단위 조회합니다. (회원별 계좌 조회 N+1 제거)
      */
     @Transactional(readOnly = true)
     public List<MemberInfoDto> getAllMembers() {
         log.info("모든 회원 정보 조회 시작");
-        List<Member> members = memberRepository.findAll();
+        List<MemberInfoDto> members = new ArrayList<>();
+        forEachMemberPage(members::addAll);
         log.info("총 {}명의 회원 조회 완료", members.size());
+        return members;
+    }
 
-        return members.stream()
-                .map(this::convertToMemberInfoDto)
-                .collect(Collectors.toList());
+    /**
+     * 모든 회원 정보를 페이지 단위로 읽으면서 바로 출력 스트림에 씁니다.
+     * 한 번에 한 페이지만 메모리에 올리므로 회원 수와 무관하게 메모리 사용량이 일정합니다.
+     *
+     * @param out 응답 출력 스트림
+     * @param ndjson true 면 한 줄에 회원 하나(NDJSON), false 면 JSON 배열
+     */
+    public void exportMembers(OutputStream out, boolean ndjson) throws IOException {
+        // 행마다 스트림을 닫거나 flush 하지 않도록 끕니다. (flush 는 페이지 단위)
+        ObjectWriter writer = objectMapper.writerFor(MemberInfoDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        boolean[] first = {true};
+        if (!ndjson) {
+            buffered.write('[');
+        }
+        forEachMemberPage(page -> {
+            try {
+                for (MemberInfoDto member : page) {
+                    if (!ndjson && !first[0]) {
+                        buffered.write(',');
+                    }
+                    first[0] = false;
+                    writer.writeValue(buffered, member);
+                    if (ndjson) {
+                        buffered.write('\n');
+                    }
+                }
+                buffered.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (!ndjson) {
+            buffered.write(']');
+        }
+        buffered.flush();
     }
 
     /**
@@ -179,50 +338,160 @@ public class AccountService {
         return accounts;
     }
 
-    private MemberInfoDto convertToMemberInfoDto(Member member) {
-        MemberInfoDto dto = new MemberInfoDto();
-        dto.setId(member.getId());
-        dto.setName(member.getName());
-        dto.setPhone(member.getPhone());
-        dto.setMemberRegistNum(member.getMemberRegistNum());
-
-        List<MemberAccount> accounts = memberAccountRepository.findByMember(member);
-        if (accounts != null && !accounts.isEmpty()) {
-            MemberAccount account = accounts.get(0);
-            dto.setAccountNumber(account.getAccountNumber());
-            dto.setAccountPassword(account.getAccountPassword());
-        }
-
-        return dto;
+    private void forEachMemberPage(Consumer<List<MemberInfoDto>> consumer) {
+        long lastId = 0;
+        List<MemberInfoDto> page;
+        do {
+            page = memberQueryRepository.findMemberInfoPage(lastId, exportPageSize);
+            if (!page.isEmpty()) {
+                consumer.accept(page);
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == exportPageSize);
     }
 
     private AccountInfoDto convertToAccountInfoDto(MemberAccount account) {
         AccountInfoDto dto = new AccountInfoDto();
         dto.setAccountNumber(account.getAccountNumber());
         dto.setAccountPassword(account.getAccountPassword());
-        dto.setBalance(account.getBalance());
+        dto.setBalance(currentBalance(account));
         dto.setAccountCreateAt(account.getAccountCreateAt());
         return dto;
     }
 
     // ========== Private 헬퍼 메서드 ==========
 
-    private MemberAccount getAccountByNumber(String accountNumber) {
-        return memberAccountRepository.findByAccountNumber(accountNumber)
+    private List<PaymentResult> debitGroup(String accountNumber, List<PaymentRequest> payments) {
+        AccountMetadata metadata = getAccountMetadata(accountNumber);
+        lockAccounts(accountNumber);
+        MemberAccount account = loadAccount(metadata);
+
+        PaymentResult[] results = new PaymentResult[payments.size()];
+        List<Integer> applied = new ArrayList<>();
+        List<AccountHistory> histories = new ArrayList<>();
+        List<LedgerPosting> postings = new ArrayList<>();
+        List<Long> balances = new ArrayList<>();
+        for (int i = 0; i < payments.size(); i++) {
+            PaymentRequest payment = payments.get(i);
+            if (!metadata.matchPassword(payment.password())) {
+                results[i] = PaymentResult.failure(
+                        new ResponseStatusException(HttpStatus.UNAUTHORIZED, "계좌 비밀번호가 일치하지 않습니다."));
+                continue;
+            }
+            LedgerPosting posting = null;
+            try {
+                transactionLimiter.acquirePayment(accountNumber);
+                if (balanceLedger.isEnabled()) {
+                    posting = debitLedger(accountNumber, payment.amount());
+                } else {
+                    withdraw(account, payment.amount());
+                }
+            } catch (ResponseStatusException e) {
+                results[i] = PaymentResult.failure(e);
+                continue;
+            }
+            applied.add(i);
+            postings.add(posting);
+            balances.add(posting != null ? posting.getBalanceAfter() : currentBalance(account));
+            histories.add(AccountHistory.builder()
+                    .account(account)
+                    .historyPrice(payment.amount())
+                    .historyStatus(TransactionType.PAYMENT)
+                    .historyCategory(payment.category())
+                    .historyName(payment.merchantName())
+                    .historyTransferTarget(null)
+                    .build());
+        }
+
+        // ID가 JVM 에서 발급되므로 INSERT 는 flush 시점에 JDBC 배치로 묶입니다.
+        accountHistoryRepository.saveAll(histories);
+        spendingRollupService.recordAll(metadata.id(), histories);
+        for (int j = 0; j < histories.size(); j++) {
+            AccountHistory history = histories.get(j);
+            if (postings.get(j) != null) {
+                postings.get(j).attach(history.getId());
+            }
+            syncOutboxService.enqueue(history, accountNumber);
+            results[applied.get(j)] = PaymentResult.success(new PaymentResponse(history.getId(), balances.get(j)));
+        }
+        return List.of(results);
+    }
+
+    private static List<BatchPaymentItemResult> failAll(String accountNumber, List<Integer> indexes, int status, String message) {
+        return indexes.stream()
+                .map(index -> BatchPaymentItemResult.failure(index, accountNumber, status, message))
+                .toList();
+    }
+
+    /**
+     * 계좌 잠금은 커밋(또는 롤백)이 끝난 뒤에 풀어야 다음 트랜잭션이 갱신된 잔액을 읽습니다.
+     */
+    private void lockAccounts(String... accountNumbers) {
+        AccountLocks locks = accountLockManager.lock(accountNumbers);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.close();
+            }
+        });
+    }
+
+    /**
+     * 하루 이체 한도에 더한 금액은 거래가 롤백되면 돌려놓습니다.
+     */
+    private void reserveTransferOut(String accountNumber, Long amount) {
+        if (!transactionLimiter.reserveTransferOut(accountNumber, amount)) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    transactionLimiter.releaseTransferOut(accountNumber, amount);
+                }
+            }
+        });
+    }
+
+    private AccountMetadata getAccountMetadata(String accountNumber) {
+        return accountMetadataCache.get(accountNumber)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "계좌를 찾을 수 없습니다."));
     }
 
-    private void validatePassword(MemberAccount account, String password) {
+    private void validatePassword(AccountMetadata account, String password) {
         if (!account.matchPassword(password)) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "계좌 비밀번호가 일치하지 않습니다.");
         }
     }
 
+    /**
+     * 잔액을 원장이 관리하면 엔티티를 읽을 필요가 없으므로 프록시만 만듭니다. (history FK 용)
+     * 그 외에는 계좌 잠금을 잡은 뒤 PK로 잠그며 읽어 잔액을 변경합니다.
+     * 캐시 미스로 계좌 정보를 이 트랜잭션에서 먼저 조회했다면 MySQL(REPEATABLE READ)의 스냅숏이 그때 정해지므로,
+     * 일반 SELECT 로는 앞선 트랜잭션이 커밋한 잔액을 보지 못하고 덮어쓸 수 있습니다.
+     */
+    private MemberAccount loadAccount(AccountMetadata metadata) {
+        if (balanceLedger.isEnabled()) {
+            return memberAccountRepository.getReferenceById(metadata.id());
+        }
+        return memberAccountRepository.findByIdForUpdate(metadata.id())
+                .orElseThrow(() -> {
+                    accountMetadataCache.invalidate(metadata.accountNumber());
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "계좌를 찾을 수 없습니다.");
+                });
+    }
+
+    /**
+     * 잔액 슬롯을 쓰는 계좌는 계좌 잔액이 모자라면 슬롯 잔액을 먼저 모은 뒤 출금합니다.
+     */
     private void withdraw(MemberAccount account, Long amount) {
         try {
+            if (account.getBalanceSlots() != null && account.getBalance() < amount) {
+                stripedBalanceService.sweep(account);
+            }
             account.withdraw(amount);
         } catch (IllegalArgumentException | IllegalStateException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         }
     }
 
@@ -230,7 +499,70 @@ public class AccountService {
         try {
             account.deposit(amount);
         } catch (IllegalArgumentException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private void creditSlot(AccountMetadata account, Long amount) {
+        boolean credited;
+        try {
+            credited = stripedBalanceService.credit(account, amount);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        if (!credited) {
+            // 캐시된 슬롯 수가 오래된 경우 (슬롯 사용을 끈 직후). 다음 요청은 새 계좌 정보로 처리됩니다.
+            accountMetadataCache.invalidate(account.accountNumber());
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "계좌 설정이 변경되었습니다. 다시 시도해주세요.");
+        }
+    }
+
+    /**
+     * 잔액 슬롯을 쓰는 계좌는 계좌 잔액과 아직 모으지 않은 슬롯 잔액의 합이 실제 잔액입니다.
+     */
+    private long currentBalance(MemberAccount account) {
+        if (account.getBalanceSlots() == null) {
+            return account.getBalance();
+        }
+        return account.getBalance() + stripedBalanceService.slotTotal(account.getId());
+    }
+
+    private LedgerPosting debitLedger(String accountNumber, Long amount) {
+        try {
+            return registerLedgerCompletion(balanceLedger.debit(accountNumber, amount));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    private LedgerPosting creditLedger(String accountNumber, Long amount) {
+        try {
+            return registerLedgerCompletion(balanceLedger.credit(accountNumber, amount));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
         }
     }
+
+    /**
+     * 원장 변경은 트랜잭션 결과에 따라 확정(커밋) 또는 취소(롤백)되어야 합니다.
+     * 먼저 등록된 계좌 잠금 해제보다 앞서 실행되도록 순서를 당깁니다. (롤백된 입금을 다음 트랜잭션이 보지 않도록)
+     */
+    private LedgerPosting registerLedgerCompletion(LedgerPosting posting) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                balanceLedger.complete(posting, status == STATUS_COMMITTED);
+            }
+        });
+        return posting;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.app.dooribankbe.service;
+
+import com.app.dooribankbe.controller.dto.PaymentResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 묶음으로 처리한 결제 한 건의 결과. 성공하면 response, 실패하면 processPayment 가 던졌을 예외(error)를 담습니다.
+ */
+public record PaymentResult(
+        PaymentResponse response,
+        ResponseStatusException error
+) {
+
+    public static PaymentResult success(PaymentResponse response) {
+        return new PaymentResult(response, null);
+    }
+
+    public static PaymentResult failure(ResponseStatusException error) {
+        return new PaymentResult(null, error);
+    }
+
+    public boolean success() {
+        return error == null;
+    }
+}
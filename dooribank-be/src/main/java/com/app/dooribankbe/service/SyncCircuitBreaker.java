@@ -0,0 +1,83 @@
+package com.app.dooribankbe.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * 우리두리 동기화 호출용 서킷 브레이커
+ *
+ * 실패나 느린 응답이 연속으로 쌓이면 OPEN 으로 바뀌어 일정 시간 호출을 차단합니다.
+ * 차단 시간이 지나면 HALF_OPEN 에서 한 번만 시험 호출을 허용하고, 결과에 따라 닫거나 다시 엽니다.
+ */
+@Slf4j
+public class SyncCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public SyncCircuitBreaker(int failureThreshold, Duration slowCallThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * 호출해도 되는지 확인합니다. false 면 호출하지 않고 바로 실패로 처리해야 합니다.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * 호출 결과를 기록합니다. 성공했더라도 느린 응답은 실패로 셉니다.
+     */
+    public synchronized void record(boolean success, long elapsedNanos) {
+        boolean healthy = success && elapsedNanos < slowCallNanos;
+        if (healthy) {
+            if (state != State.CLOSED) {
+                log.info("우리두리 동기화 서킷 CLOSED 전환");
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            probeInFlight = false;
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("우리두리 동기화 서킷 OPEN 전환: consecutiveFailures={}", consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
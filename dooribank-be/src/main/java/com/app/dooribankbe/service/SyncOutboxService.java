@@ -0,0 +1,163 @@
+package com.app.dooribankbe.service;
+
+import com.app.dooribankbe.domain.entity.AccountHistory;
+import com.app.dooribankbe.domain.entity.SyncOutbox;
+import com.app.dooribankbe.domain.repository.SyncOutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 우리두리 동기화 outbox
+ *
+ * 결제/이체 트랜잭션은 outbox 행만 함께 저장하고 바로 응답합니다.
+ * 백그라운드 디스패처가 대기 건을 배치로 가져와 전송하고, 실패하면 지수 백오프로 다시 시도합니다.
+ *
+ * 배치는 (1) 행을 잡아 claim-lease-ms 동안 다른 디스패처가 못 가져가게 표시하고 커밋 (2) 트랜잭션 밖에서 전송
+ * (3) 결과(dispatched_at 또는 다음 시도 시각)를 기록하고 커밋, 순서로 처리합니다. HTTP 호출 동안 행 잠금을 잡고 있지 않습니다.
+ * 전달은 at-least-once 입니다. 전송은 성공했는데 (3)이 실패하거나 인스턴스가 죽으면, 잡아 둔 기간이 지난 뒤 같은 건을 다시 보냅니다.
+ * 우리두리 쪽은 historyId 로 중복을 걸러야 합니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SyncOutboxService {
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final SyncOutboxRepository syncOutboxRepository;
+    private final WooriDooriSyncService wooriDooriSyncService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    @Value("${dooribank.sync.outbox.enabled:true}")
+    private boolean dispatchEnabled;
+
+    @Value("${dooribank.sync.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${dooribank.sync.outbox.base-backoff-ms:1000}")
+    private long baseBackoffMillis;
+
+    @Value("${dooribank.sync.outbox.claim-lease-ms:300000}")
+    private long claimLeaseMillis;
+
+    @Value("${dooribank.sync.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("dooribank.sync.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("가장 오래된 미전송 동기화 건의 대기 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("dooribank.sync.outbox.pending", pendingCount, AtomicLong::get)
+                .description("미전송 동기화 건 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 호출한 트랜잭션 안에서 동기화 대기 건을 저장합니다.
+     * 계좌번호는 history 의 계좌 프록시를 초기화하지 않도록 따로 받습니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(AccountHistory history, String accountNumber) {
+        syncOutboxRepository.save(SyncOutbox.from(history, accountNumber));
+    }
+
+    /**
+     * 대기 건을 배치 단위로 전송합니다. 배치가 가득 차 있으면 바로 다음 배치를 이어서 처리합니다.
+     */
+    @Scheduled(fixedDelayString = "${dooribank.sync.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        if (!dispatchEnabled) {
+            return;
+        }
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched >= batchSize);
+        refreshLag();
+    }
+
+    @Scheduled(fixedDelayString = "${dooribank.sync.outbox.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeDispatched() {
+        int deleted = syncOutboxRepository.deleteDispatchedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.info("전송 완료된 동기화 outbox {}건 삭제", deleted);
+        }
+    }
+
+    private int dispatchBatch() {
+        List<SyncOutbox> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Boolean> results = wooriDooriSyncService.syncAll(batch);
+        transactionTemplate.executeWithoutResult(status -> recordResults(batch, results));
+        return batch.size();
+    }
+
+    /**
+     * 대기 건을 잠그며 가져와 claim-lease-ms 뒤로 다음 시도 시각을 미룹니다. 커밋하면 잠금은 풀리고 표시만 남습니다.
+     */
+    private List<SyncOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<SyncOutbox> batch = syncOutboxRepository.claimPending(now, PageRequest.of(0, batchSize));
+        LocalDateTime leaseUntil = now.plus(Duration.ofMillis(claimLeaseMillis));
+        batch.forEach(event -> event.claim(leaseUntil));
+        return batch;
+    }
+
+    private void recordResults(List<SyncOutbox> batch, List<Boolean> results) {
+        Map<Long, SyncOutbox> rows = syncOutboxRepository.findAllById(batch.stream().map(SyncOutbox::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(SyncOutbox::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            SyncOutbox event = rows.get(batch.get(i).getId());
+            if (event == null) {
+                continue;
+            }
+            if (results.get(i)) {
+                event.markDispatched(now);
+            } else {
+                event.markFailed("동기화 실패 (circuit=" + wooriDooriSyncService.getCircuitState() + ")",
+                        now.plus(backoff(event.getAttempts())));
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        long millis = baseBackoffMillis << Math.min(attempts, 20);
+        return millis <= 0 || millis > MAX_BACKOFF.toMillis() ? MAX_BACKOFF : Duration.ofMillis(millis);
+    }
+
+    private void refreshLag() {
+        pendingCount.set(syncOutboxRepository.countByDispatchedAtIsNull());
+        lagSeconds.set(syncOutboxRepository.findFirstByDispatchedAtIsNullOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toSeconds())
+                .orElse(0L));
+    }
+}
@@ -1,8 +1,20 @@
 package com.app.dooribankbe.service;
 
+import com.app.dooribankbe.domain.entity.SyncOutbox;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -10,25 +22,190 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WooriDooriSyncService {
 
+    /**
+     * outbox 배치를 보내는 방식
+     * SINGLE: 한 건씩 순서대로, ASYNC: 동기화 전용 스레드 풀에서 동시에, BULK: 한 번의 bulk POST 로
+     */
+    public enum DispatchMode {
+        SINGLE, ASYNC, BULK
+    }
+
     private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
     @Value("${wooridoori.api.url:http://localhost:8080}")
     private String wooriDooriApiUrl;
 
+    @Value("${wooridoori.sync.dispatch-mode:SINGLE}")
+    private DispatchMode dispatchMode;
+
+    @Value("${wooridoori.sync.bulk-path:/history/calendar/sync/bulk}")
+    private String bulkPath;
+
+    @Value("${wooridoori.sync.gzip:false}")
+    private boolean gzip;
+
+    @Value("${wooridoori.sync.async.threads:8}")
+    private int asyncThreads;
+
+    @Value("${wooridoori.sync.async.queue-capacity:1000}")
+    private int asyncQueueCapacity;
+
+    /**
+     * true 면 ASYNC 전송을 요청마다 가상 스레드로 실행합니다. (Java 21 이상, virtual 프로파일)
+     * 동시 전송 수는 HTTP 커넥션 풀(wooridoori.http.max-per-route)이 제한합니다.
+     */
+    @Value("${wooridoori.sync.async.virtual-threads:false}")
+    private boolean asyncVirtualThreads;
+
+    @Value("${wooridoori.sync.circuit.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${wooridoori.sync.circuit.slow-call-ms:2000}")
+    private long circuitSlowCallMillis;
+
+    @Value("${wooridoori.sync.circuit.open-ms:10000}")
+    private long circuitOpenMillis;
+
+    private SyncCircuitBreaker circuitBreaker;
+    private Executor asyncExecutor;
+    private Meter.MeterProvider<Timer> requestTimer;
+    private Counter eventsSucceeded;
+    private Counter eventsFailed;
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = new SyncCircuitBreaker(circuitFailureThreshold,
+                Duration.ofMillis(circuitSlowCallMillis), Duration.ofMillis(circuitOpenMillis));
+        registerMetrics();
+        if (asyncVirtualThreads) {
+            asyncExecutor = new VirtualThreadTaskExecutor("wooridoori-sync-");
+            return;
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        asyncExecutor = new ThreadPoolExecutor(asyncThreads, asyncThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(asyncQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "wooridoori-sync-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (asyncExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * outbox 에 쌓인 동기화 건을 전송합니다.
+     * 같은 건이 다시 전송될 수 있으므로 (at-least-once) 우리두리 쪽은 historyId 로 중복을 걸러야 합니다.
+     *
+     * @param event 동기화 대기 건
+     * @return 동기화 성공 여부
+     */
+    public boolean sync(SyncOutbox event) {
+        return syncToWooriDoori(
+                event.getHistoryId(), event.getAccountNumber(), event.getHistoryDate(), event.getHistoryPrice(),
+                event.getHistoryStatus(), event.getHistoryCategory(), event.getHistoryName(), event.getHistoryTransferTarget()
+        );
+    }
+
+    /**
+     * 동기화 전용 스레드 풀에서 전송합니다. 호출한 스레드는 기다리지 않습니다.
+     * 풀 대기열이 가득 차면 바로 실패(false)로 완료됩니다.
+     */
+    public CompletableFuture<Boolean> syncAsync(SyncOutbox event) {
+        try {
+            return CompletableFuture.supplyAsync(() -> sync(event), asyncExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("우리두리 동기화 스레드 풀 포화: historyId={}", event.getHistoryId());
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * 설정된 방식(dispatch-mode)으로 여러 건을 전송하고, 건별 성공 여부를 같은 순서로 돌려줍니다.
+     */
+    public List<Boolean> syncAll(List<SyncOutbox> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        List<Boolean> results = switch (dispatchMode) {
+            case SINGLE -> events.stream().map(this::sync).toList();
+            case ASYNC -> events.stream().map(this::syncAsync).toList()
+                    .stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+            case BULK -> Collections.nCopies(events.size(), syncBulk(events));
+        };
+        long succeeded = results.stream().filter(Boolean::booleanValue).count();
+        eventsSucceeded.increment(succeeded);
+        eventsFailed.increment(results.size() - succeeded);
+        return results;
+    }
+
+    /**
+     * 여러 동기화 건을 JSON 배열 하나로 묶어 bulk 엔드포인트에 보냅니다. (wooridoori.sync.gzip=true 이면 gzip 압축)
+     * 우리두리 쪽은 historyId 로 중복을 걸러야 합니다.
+     *
+     * @return 모든 건의 동기화 성공 여부
+     */
+    public boolean syncBulk(List<SyncOutbox> events) {
+        String url = wooriDooriApiUrl + bulkPath;
+        List<Map<String, Object>> body = new ArrayList<>(events.size());
+        for (SyncOutbox event : events) {
+            body.add(toRequestBody(
+                    event.getHistoryId(), event.getAccountNumber(), event.getHistoryDate(), event.getHistoryPrice(),
+                    event.getHistoryStatus(), event.getHistoryCategory(), event.getHistoryName(), event.getHistoryTransferTarget()
+            ));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        byte[] payload = toJson(body);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            payload = gzip(payload);
+        }
+
+        log.info("8080 서버로 bulk 동기화 요청 전송: count={}, bytes={}, url={}", events.size(), payload.length, url);
+        return post(url, new HttpEntity<>(payload, headers), "bulk", "bulk(" + events.size() + ")");
+    }
+
     /**
      * 8080 서버(WooriDoori-BE)에 Payment/Transfer 동기화 요청을 보냅니다.
      * 트랜잭션 커밋 후 호출되므로 필요한 데이터를 파라미터로 받습니다.
-     * 
+     *
      * @param historyId AccountHistory ID
      * @param accountNumber 계좌번호
      * @param historyDate 거래 일시
@@ -49,41 +226,114 @@ public class WooriDooriSyncService {
             String historyName,
             String historyTransferTarget
     ) {
+        String url = wooriDooriApiUrl + "/history/calendar/sync";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> requestBody = toRequestBody(historyId, accountNumber, historyDate, historyPrice,
+                historyStatus, historyCategory, historyName, historyTransferTarget);
+
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+
+        log.info("8080 서버로 동기화 요청 전송: accountNumber={}, historyId={}, historyName={}, url={}",
+                accountNumber, historyId, historyName, url);
+
+        return post(url, request, "single", "accountNumber=" + accountNumber + ", historyId=" + historyId);
+    }
+
+    public SyncCircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    private boolean post(String url, HttpEntity<?> request, String kind, String target) {
+        if (!circuitBreaker.tryAcquire()) {
+            log.warn("우리두리 동기화 서킷 OPEN, 요청 생략: {}", target);
+            requestTimer.withTags(Tags.of("kind", kind, "outcome", "circuit_open")).record(Duration.ZERO);
+            return false;
+        }
+        long startedAt = System.nanoTime();
+        boolean success = false;
         try {
-            String url = wooriDooriApiUrl + "/history/calendar/sync";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("accountNumber", accountNumber);
-            requestBody.put("historyId", historyId);
-            requestBody.put("historyDate", historyDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            requestBody.put("historyPrice", historyPrice);
-            requestBody.put("historyStatus", historyStatus);
-            requestBody.put("historyCategory", historyCategory);
-            requestBody.put("historyName", historyName);
-            requestBody.put("historyTransferTarget", historyTransferTarget);
-            
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-            
-            log.info("8080 서버로 동기화 요청 전송: accountNumber={}, historyId={}, historyName={}, url={}", 
-                    accountNumber, historyId, historyName, url);
-            
             ResponseEntity<?> response = restTemplate.postForEntity(url, request, Object.class);
-            
+
             if (response.getStatusCode().is2xxSuccessful()) {
-                log.info("8080 서버 동기화 성공: accountNumber={}, historyId={}", accountNumber, historyId);
-                return true;
+                log.info("8080 서버 동기화 성공: {}", target);
+                success = true;
             } else {
-                log.warn("8080 서버 동기화 실패: status={}, accountNumber={}, historyId={}", 
-                        response.getStatusCode(), accountNumber, historyId);
-                return false;
+                log.warn("8080 서버 동기화 실패: status={}, {}", response.getStatusCode(), target);
             }
         } catch (Exception e) {
-            log.error("8080 서버 동기화 중 오류 발생: accountNumber={}, historyId={}", accountNumber, historyId, e);
-            return false;
+            log.error("8080 서버 동기화 중 오류 발생: {}", target, e);
+        } finally {
+            long elapsedNanos = System.nanoTime() - startedAt;
+            circuitBreaker.record(success, elapsedNanos);
+            requestTimer.withTags(Tags.of("kind", kind, "outcome", success ? "success" : "failure"))
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
         }
+        return success;
     }
-}
 
+    /**
+     * dooribank.sync.request (Timer): 우리두리 HTTP 호출 시간, kind=single|bulk, outcome=success|failure|circuit_open
+     * dooribank.sync.events (Counter): 동기화 건별 결과, dooribank.sync.circuit.state (Gauge): 0=CLOSED, 1=OPEN, 2=HALF_OPEN
+     */
+    private void registerMetrics() {
+        requestTimer = Timer.builder("dooribank.sync.request")
+                .description("우리두리 동기화 HTTP 호출 시간")
+                .withRegistry(meterRegistry);
+        eventsSucceeded = Counter.builder("dooribank.sync.events")
+                .description("우리두리 동기화 건별 결과")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        eventsFailed = Counter.builder("dooribank.sync.events")
+                .description("우리두리 동기화 건별 결과")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        Gauge.builder("dooribank.sync.circuit.state", this, service -> service.getCircuitState().ordinal())
+                .description("우리두리 동기화 서킷 상태 (0=CLOSED, 1=OPEN, 2=HALF_OPEN)")
+                .register(meterRegistry);
+    }
+
+    private Map<String, Object> toRequestBody(
+            Long historyId,
+            String accountNumber,
+            LocalDateTime historyDate,
+            Long historyPrice,
+            String historyStatus,
+            String historyCategory,
+            String historyName,
+            String historyTransferTarget
+    ) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("accountNumber", accountNumber);
+        requestBody.put("historyId", historyId);
+        requestBody.put("historyDate", historyDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        requestBody.put("historyPrice", historyPrice);
+        requestBody.put("historyStatus", historyStatus);
+        requestBody.put("historyCategory", historyCategory);
+        requestBody.put("historyName", historyName);
+        requestBody.put("historyTransferTarget", historyTransferTarget);
+        return requestBody;
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("동기화 요청 직렬화 실패", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] payload) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(payload.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
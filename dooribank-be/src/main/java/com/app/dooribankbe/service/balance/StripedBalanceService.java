@@ -0,0 +1,153 @@
+package com.app.dooribankbe.service.balance;
+
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.repository.MemberAccountRepository;
+import com.app.dooribankbe.service.cache.AccountMetadata;
+import com.app.dooribankbe.service.cache.AccountMetadataCache;
+import com.app.dooribankbe.service.ledger.BalanceLedger;
+import com.app.dooribankbe.service.lock.AccountLockManager;
+import com.app.dooribankbe.service.lock.AccountLocks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * 잔액 슬롯 (입금이 몰리는 가맹점·정산 계좌용)
+ *
+ * 슬롯을 쓰는 계좌로의 입금은 계좌 잠금 없이 N개 슬롯 중 하나에 원자적 UPDATE 로 더해집니다.
+ * 입금끼리는 서로 다른 슬롯 행을 잠그므로 한 계좌의 입금 처리량이 슬롯 수만큼 늘어납니다.
+ * 출금은 지금처럼 계좌 잠금을 잡고 계좌 잔액에서 빼고, 모자라면 슬롯을 FOR UPDATE 로 잠가 계좌 잔액으로 모은 뒤 다시 확인하므로
+ * 초과 출금은 생기지 않습니다. 슬롯에 쌓인 금액은 주기적으로도 계좌 잔액으로 모읍니다.
+ * 인메모리 원장(dooribank.ledger.enabled)과는 함께 쓰지 않습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripedBalanceService {
+
+    public static final int MAX_SLOTS = 64;
+
+    private static final String CREDIT_SQL =
+            "UPDATE account_balance_slot SET balance = balance + ? WHERE account_id = ? AND slot_no = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberAccountRepository memberAccountRepository;
+    private final AccountMetadataCache accountMetadataCache;
+    private final AccountLockManager accountLockManager;
+    private final BalanceLedger balanceLedger;
+
+    @Value("${dooribank.balance-slots.consolidate-min-amount:1}")
+    private long consolidateMinAmount;
+
+    /**
+     * 임의의 슬롯 하나에 입금합니다. 계좌 잠금 없이 호출하며, 슬롯 행 잠금은 커밋까지 유지됩니다.
+     *
+     * @return 슬롯이 없어 입금하지 못했으면 false (슬롯 사용을 끈 직후 등)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean credit(AccountMetadata account, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("입금 금액은 0보다 커야 합니다.");
+        }
+        int slot = ThreadLocalRandom.current().nextInt(account.balanceSlots());
+        return jdbcTemplate.update(CREDIT_SQL, amount, account.id(), slot) == 1;
+    }
+
+    /**
+     * 슬롯을 잠그고 슬롯 잔액을 모두 계좌 잔액으로 옮깁니다. 계좌 잠금을 잡은 트랜잭션 안에서 호출해야 합니다.
+     *
+     * @return 옮긴 금액
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long sweep(MemberAccount account) {
+        List<Long> balances = jdbcTemplate.queryForList(
+                "SELECT balance FROM account_balance_slot WHERE account_id = ? FOR UPDATE", Long.class, account.getId());
+        long total = balances.stream().mapToLong(Long::longValue).sum();
+        if (total > 0) {
+            jdbcTemplate.update("UPDATE account_balance_slot SET balance = 0 WHERE account_id = ? AND balance <> 0",
+                    account.getId());
+            account.deposit(total);
+        }
+        return total;
+    }
+
+    /**
+     * 아직 계좌 잔액으로 모으지 않은 슬롯 잔액의 합 (잠그지 않고 읽습니다)
+     */
+    public long slotTotal(Long accountId) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(balance), 0) FROM account_balance_slot WHERE account_id = ?", Long.class, accountId);
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * 계좌의 슬롯 수를 바꿉니다. 0 이면 슬롯 잔액을 계좌 잔액으로 모은 뒤 슬롯을 지웁니다.
+     * 다른 인스턴스의 계좌 정보 캐시에는 TTL 이 지날 때까지 이전 슬롯 수가 남을 수 있으며,
+     * 그동안 없는 슬롯으로 들어온 입금은 409 로 거절됩니다.
+     */
+    public void configure(String accountNumber, int slots) {
+        if (slots < 0 || slots > MAX_SLOTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "슬롯 수는 0 ~ " + MAX_SLOTS + " 사이여야 합니다.");
+        }
+        if (slots > 0 && balanceLedger.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "인메모리 원장을 쓰는 동안에는 잔액 슬롯을 쓸 수 없습니다.");
+        }
+        AccountMetadata metadata = accountMetadataCache.get(accountNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "계좌를 찾을 수 없습니다."));
+        try (AccountLocks ignored = accountLockManager.lock(accountNumber)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                MemberAccount account = memberAccountRepository.findByIdForUpdate(metadata.id())
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "계좌를 찾을 수 없습니다."));
+                sweep(account);
+                jdbcTemplate.update("DELETE FROM account_balance_slot WHERE account_id = ?", account.getId());
+                if (slots > 0) {
+                    jdbcTemplate.batchUpdate(
+                            "INSERT INTO account_balance_slot (account_id, slot_no, balance) VALUES (?, ?, 0)",
+                            IntStream.range(0, slots).boxed().toList(), slots,
+                            (ps, slot) -> {
+                                ps.setLong(1, account.getId());
+                                ps.setInt(2, slot);
+                            });
+                }
+                account.changeBalanceSlots(slots > 0 ? slots : null);
+            });
+        } finally {
+            accountMetadataCache.invalidate(accountNumber);
+        }
+        log.info("잔액 슬롯 변경: accountNumber={}, slots={}", accountNumber, slots);
+    }
+
+    /**
+     * 슬롯에 쌓인 입금을 계좌 잔액으로 모읍니다. 출금 때 모으는 양을 줄이고, 계좌 잔액 컬럼을 실제 잔액에 가깝게 유지합니다.
+     */
+    @Scheduled(fixedDelayString = "${dooribank.balance-slots.consolidate-interval-ms:60000}")
+    public void consolidate() {
+        List<String> accountNumbers = jdbcTemplate.queryForList("""
+                SELECT a.account_num
+                FROM tbl_member_account a
+                WHERE a.balance_slots > 0
+                  AND EXISTS (SELECT 1 FROM account_balance_slot s WHERE s.account_id = a.id AND s.balance >= ?)
+                """, String.class, consolidateMinAmount);
+        for (String accountNumber : accountNumbers) {
+            try (AccountLocks ignored = accountLockManager.lock(accountNumber)) {
+                transactionTemplate.executeWithoutResult(status ->
+                        memberAccountRepository.findByAccountNumber(accountNumber).ifPresent(this::sweep));
+            } catch (RuntimeException e) {
+                log.warn("잔액 슬롯 정리 실패: accountNumber={}", accountNumber, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,1000 @@
+package com.app.dooribankbe.service.bulk;
+
+import com.app.dooribankbe.controller.dto.BulkLoadResponse;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import com.app.dooribankbe.service.cache.AccountMetadataCache;
+import com.app.dooribankbe.service.history.HistoryArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * 회원/계좌/거래 내역 대량 적재 (부하 테스트 데이터, 이관 데이터)
+ *
+ * JPA 를 거치지 않고 ID 를 미리 정해 multi-row INSERT 로 씁니다. 회원 ID 는 MAX(id) 뒤 구간을 한 번에 잡고,
+ * 계좌는 TimeOrderedIdSource, 거래 내역은 거래 시각으로 만든 ID 를 써서 월 파티션/보관/대사가 날짜와 맞게 동작합니다.
+ * 거래 내역 ID 의 노드 자리에는 적재 기간의 기존 내역이 쓰지 않은 값을 골라 넣으므로, 같은 기간을 여러 번 적재해도 ID 가 겹치지 않습니다.
+ * 회원 블록 단위로 작업을 나눠 parallelism 개의 워커가 블록마다 트랜잭션 하나로 씁니다.
+ * MySQL 이고 rebuild-indexes 가 켜져 있으면 account_history 의 보조 인덱스를 지운 뒤 적재하고 마지막에 한 번에 다시 만듭니다.
+ * 지운 인덱스의 정의는 bulk_load_dropped_index 에 남기므로, 중간에 멈춰 인덱스가 빠진 채 남으면 다음 기동 때나
+ * /api/admin/bulk-load/restore-indexes 로 다시 만듭니다.
+ *
+ * CSV 적재는 청크마다 커밋합니다. 청크 하나가 실패하면 더 읽지 않고 아직 시작하지 않은 청크는 쓰지 않으며,
+ * 오류 메시지에 커밋된 행 번호 구간을 알려 줍니다. 그 구간을 skipRows 로 넘겨 다시 적재하면 커밋된 행을 건너뜁니다.
+ *
+ * 보관이 끝난 달(HistoryArchiveService.hotFrom 이전)의 거래는 적재하지 않습니다. 조회/내보내기가 그 달을 세그먼트에서만 읽기 때문입니다.
+ * CSV 로 적재한 행의 ID 가 잔액 대사 체크포인트(verified_through_id)보다 작으면 그 계좌의 체크포인트를 지워,
+ * 다음 대사가 그 계좌를 처음부터 다시 확인하게 합니다.
+ *
+ * 계좌 잔액은 적재한 거래 내역 합계와 맞춥니다. 지출 집계(account_spending_rollup)는 만들지 않으므로
+ * 필요하면 적재 후 /api/admin/spending-rollups/rebuild 를 실행합니다.
+ * 계좌 잠금/인메모리 원장을 거치지 않으므로 거래가 들어오지 않는 DB 에서만 사용합니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkLoadService {
+
+    static final String HISTORY_CSV_HEADER = "account_num,history_date,history_status,history_category,history_price,"
+            + "history_name,history_transfer_target";
+
+    private static final String MEMBER_COLUMNS = "tbl_member (id, name, phone, member_regist_num)";
+    private static final String ACCOUNT_COLUMNS =
+            "tbl_member_account (id, member_id, account_num, account_password, account_create_at, balance)";
+    private static final String HISTORY_COLUMNS = "account_history (id, account_id, history_date, history_price, "
+            + "history_status, history_category, history_name, history_transfer_target)";
+
+    // 블록 하나(트랜잭션 하나)에 쓰는 행 수의 목표치
+    private static final int ROWS_PER_TRANSACTION = 20_000;
+
+    // CSV 적재에서 밀리초별 순번을 기억하는 최대 밀리초 수. 넘으면 새 노드 값으로 바꾸고 비웁니다.
+    private static final int MAX_TRACKED_MILLIS = 200_000;
+
+    private static final HistoryCategory[] SPENDING_CATEGORIES = {
+            HistoryCategory.CAFE, HistoryCategory.FOOD, HistoryCategory.ALCOHOL_ENTERTAINMENT,
+            HistoryCategory.CONVENIENCE_STORE, HistoryCategory.EDUCATION, HistoryCategory.SHOPPING,
+            HistoryCategory.TRANSPORTATION, HistoryCategory.HOUSING, HistoryCategory.HOSPITAL,
+            HistoryCategory.TRAVEL, HistoryCategory.TELECOM, HistoryCategory.ETC
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountMetadataCache accountMetadataCache;
+    private final HistoryArchiveService historyArchiveService;
+
+    @Value("${dooribank.bulk-load.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dooribank.bulk-load.parallelism:4}")
+    private int parallelism;
+
+    // 한 INSERT 문에 담는 행 수
+    @Value("${dooribank.bulk-load.rows-per-statement:500}")
+    private int rowsPerStatement;
+
+    @Value("${dooribank.bulk-load.rebuild-indexes:true}")
+    private boolean rebuildIndexes;
+
+    // CSV 적재에서 한 청크(트랜잭션 하나)에 담는 행 수
+    @Value("${dooribank.bulk-load.csv-chunk-rows:20000}")
+    private int csvChunkRows;
+
+    // CSV 적재는 이 디렉터리 안의 파일만 읽습니다.
+    @Value("${dooribank.bulk-load.import-directory:./data/import}")
+    private String importDirectory;
+
+    /**
+     * members 명 × accountsPerMember 개 계좌와, 계좌마다 지난 historyDays 일에 고르게 퍼진 historyPerAccount 건의 거래를 만듭니다.
+     * 계좌번호는 1002-XXX-XXXXXX 형식으로 기존 계좌 수 다음 번호부터 매깁니다.
+     */
+    public synchronized BulkLoadResponse generate(int members, int accountsPerMember, int historyPerAccount,
+                                                  long initialBalance, int historyDays) {
+        requireEnabled();
+        if (members <= 0 || accountsPerMember <= 0 || historyPerAccount < 0 || initialBalance < 0 || historyDays <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "적재 건수와 기간은 0 보다 커야 합니다.");
+        }
+        long started = System.nanoTime();
+        long baseMemberId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tbl_member", Long.class);
+        long baseAccountSequence = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_member_account", Long.class);
+        LocalDateTime periodEnd = LocalDate.now().atStartOfDay();
+        LocalDateTime periodStart = periodEnd.minusDays(historyDays);
+        LocalDateTime hotFrom = hotFrom();
+        if (historyPerAccount > 0 && hotFrom != null && periodStart.isBefore(hotFrom)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "보관된 달(" + hotFrom.toLocalDate() + " 이전)의 거래는 만들 수 없습니다.");
+        }
+        long periodMillis = Duration.ofDays(historyDays).toMillis();
+        long totalAccounts = (long) members * accountsPerMember;
+        if (totalAccounts * historyPerAccount > periodMillis * TimeOrderedIdSource.SEQUENCES_PER_MILLI) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "기간에 비해 거래 내역이 너무 많습니다. (밀리초당 최대 "
+                    + TimeOrderedIdSource.SEQUENCES_PER_MILLI + "건)");
+        }
+        long node = historyPerAccount > 0 ? freeHistoryNodes(periodStart, periodEnd).removeFirst() : 0;
+        Generation generation = new Generation(baseMemberId, baseAccountSequence, accountsPerMember, historyPerAccount,
+                initialBalance, periodStart, periodMillis, totalAccounts, node);
+
+        Progress progress = new Progress(started);
+        int blockMembers = Math.max(1, ROWS_PER_TRANSACTION / (accountsPerMember * (historyPerAccount + 1)));
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < members; from += blockMembers) {
+            int firstMember = from;
+            int size = Math.min(blockMembers, members - from);
+            tasks.add(() -> {
+                progress.add(transactionTemplate.execute(status -> writeGeneratedBlock(generation, firstMember, size)));
+                return null;
+            });
+        }
+
+        if (historyPerAccount > 0) {
+            dropHistoryIndexes();
+        }
+        try {
+            runAll(tasks);
+        } finally {
+            restoreHistoryIndexesQuietly();
+            accountMetadataCache.invalidateAll();
+        }
+        return progress.finish("생성");
+    }
+
+    public BulkLoadResponse loadHistoryCsv(String fileName) {
+        return loadHistoryCsv(fileName, null);
+    }
+
+    /**
+     * import-directory 안의 HISTORY_CSV_HEADER 형식 CSV 를 읽어 거래 내역을 적재하고, 계좌 잔액에 적재한 금액을 반영합니다.
+     * 먼저 파일 전체를 한 번 읽어 거래 시각을 검사하고 기간을 구한 뒤, 다시 한 줄씩 흘려 읽으며 청크마다 워커에 넘겨 씁니다.
+     * 없는 계좌번호의 행이 있으면 그 청크는 실패하고 적재를 멈춥니다.
+     *
+     * @param skipRows 건너뛸 행 번호 구간 (헤더 다음 행이 1, 예: 1-20000,40001-60000). 실패한 적재를 이어서 할 때 씁니다.
+     */
+    public synchronized BulkLoadResponse loadHistoryCsv(String fileName, String skipRows) {
+        requireEnabled();
+        Path file = resolveImportFile(fileName);
+        RowRanges skipped = RowRanges.parse(skipRows);
+        LocalDateTime[] period = readCsvPeriod(file, skipped);
+        long started = System.nanoTime();
+        Progress progress = new Progress(started);
+        if (period == null) {
+            return progress.finish("CSV");
+        }
+        CsvIds ids = new CsvIds(freeHistoryNodes(period[0], period[1]));
+        int workers = Math.max(1, parallelism);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        // 읽기가 쓰기보다 앞서 나가도 메모리에 쌓이는 청크는 워커 수의 두 배까지입니다.
+        CsvWriters writers = new CsvWriters(executor, workers * 2, skipped, progress);
+        dropHistoryIndexes();
+        Throwable failure = null;
+        try {
+            try {
+                readCsvChunks(file, skipped, ids, writers);
+            } catch (IOException e) {
+                failure = new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            writers.finish(failure != null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "CSV 적재가 중단되었습니다. 쓰던 청크는 커밋되었을 수 있습니다. (확인된 커밋 행: " + writers.committed() + ")", e);
+        } finally {
+            executor.shutdownNow();
+            restoreHistoryIndexesQuietly();
+            accountMetadataCache.invalidateAll();
+        }
+        if (failure == null) {
+            failure = writers.failure();
+        }
+        if (failure != null) {
+            throw csvLoadFailure(failure, writers.committed());
+        }
+        return progress.finish("CSV");
+    }
+
+    /**
+     * bulk_load_dropped_index 에 남은 account_history 인덱스를 다시 만들고 기록을 지웁니다. 이미 있는 인덱스는 기록만 지웁니다.
+     * 적재가 도는 동안에는 끝날 때까지 기다립니다.
+     *
+     * @return 다시 만든 인덱스 수
+     */
+    public synchronized int restoreHistoryIndexes() {
+        Map<String, String> pending = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT index_name, column_list FROM bulk_load_dropped_index ORDER BY dropped_at, index_name",
+                rs -> {
+                    pending.put(rs.getString("index_name"), rs.getString("column_list"));
+                });
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList("""
+                SELECT DISTINCT index_name FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'account_history'
+                """, String.class));
+        List<String> clauses = pending.entrySet().stream()
+                .filter(index -> !existing.contains(index.getKey()))
+                .map(index -> "ADD INDEX " + index.getKey() + " (" + index.getValue().replace(",", ", ") + ")")
+                .toList();
+        if (!clauses.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE account_history " + String.join(", ", clauses));
+        }
+        jdbcTemplate.update("DELETE FROM bulk_load_dropped_index WHERE index_name IN ("
+                + String.join(",", Collections.nCopies(pending.size(), "?")) + ")", pending.keySet().toArray());
+        log.info("account_history 인덱스 재생성 완료: {}개, {}ms", clauses.size(), (System.nanoTime() - started) / 1_000_000);
+        return clauses.size();
+    }
+
+    /**
+     * 적재 중에 멈춰 인덱스가 빠진 채 남았으면 기동 때 다시 만듭니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreHistoryIndexesOnStartup() {
+        restoreHistoryIndexesQuietly();
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "대량 적재가 꺼져 있습니다. (dooribank.bulk-load.enabled)");
+        }
+    }
+
+    /**
+     * fileName 을 import-directory 기준으로 풀어, 디렉터리 안의 읽을 수 있는 파일일 때만 돌려줍니다.
+     * (절대 경로, .. , 심볼릭 링크로 디렉터리 밖을 가리키면 거절합니다)
+     */
+    private Path resolveImportFile(String fileName) {
+        try {
+            Path base = Path.of(importDirectory).toRealPath();
+            Path file = base.resolve(fileName).toRealPath();
+            if (file.startsWith(base) && Files.isRegularFile(file) && Files.isReadable(file)) {
+                return file;
+            }
+        } catch (IOException | InvalidPathException e) {
+            // 아래에서 거절합니다.
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "import 디렉터리(dooribank.bulk-load.import-directory) 안의 읽을 수 있는 파일이 아닙니다: " + fileName);
+    }
+
+    /**
+     * CSV 전체를 읽어 헤더와 거래 시각(지난 시각, 보관되지 않은 달)을 검사하고 가장 이른/늦은 거래 시각을 돌려줍니다.
+     * skipped 의 행은 보지 않습니다. 적재할 행이 없으면 null 입니다.
+     */
+    private LocalDateTime[] readCsvPeriod(Path file, RowRanges skipped) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime hotFrom = hotFrom();
+        LocalDateTime[] period = null;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            readCsvHeader(reader);
+            long row = 0;
+            while (true) {
+                row++;
+                String[] record = readCsvRecord(reader, row);
+                if (record == null) {
+                    break;
+                }
+                if (skipped.contains(row)) {
+                    continue;
+                }
+                LocalDateTime date = parseCsvDate(record, row);
+                if (!date.isBefore(now)) {
+                    throw new IllegalArgumentException(row + "행: 지난 시각의 거래만 적재할 수 있습니다: " + record[1]);
+                }
+                if (hotFrom != null && date.isBefore(hotFrom)) {
+                    throw new IllegalArgumentException(row + "행: 보관된 달(" + hotFrom.toLocalDate() + " 이전)의 거래는 적재할 수 없습니다: " + record[1]);
+                }
+                if (period == null) {
+                    period = new LocalDateTime[]{date, date};
+                } else if (date.isBefore(period[0])) {
+                    period[0] = date;
+                } else if (date.isAfter(period[1])) {
+                    period[1] = date;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV 형식 오류: " + e.getMessage(), e);
+        }
+        return period;
+    }
+
+    /**
+     * CSV 를 다시 처음부터 읽으며 chunk-rows 행씩 writers 에 넘깁니다. 청크가 실패했다는 것을 알게 되면 더 읽지 않습니다.
+     */
+    private void readCsvChunks(Path file, RowRanges skipped, CsvIds ids, CsvWriters writers)
+            throws IOException, InterruptedException {
+        int chunkRows = Math.max(1, csvChunkRows);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            readCsvHeader(reader);
+            List<String[]> chunk = new ArrayList<>(chunkRows);
+            long[] chunkIds = new long[chunkRows];
+            long[] rows = new long[chunkRows];
+            long row = 0;
+            while (writers.failure() == null) {
+                row++;
+                String[] record = readCsvRecord(reader, row);
+                if (record == null) {
+                    break;
+                }
+                if (skipped.contains(row)) {
+                    continue;
+                }
+                // ID 는 읽는 스레드 하나에서 파일 순서대로 정해, 같은 밀리초의 행끼리 순번이 겹치지 않게 합니다.
+                chunkIds[chunk.size()] = ids.next(parseCsvDate(record, row));
+                rows[chunk.size()] = row;
+                chunk.add(record);
+                if (chunk.size() == chunkRows) {
+                    writers.submit(new CsvChunk(chunk, chunkIds, rows));
+                    chunk = new ArrayList<>(chunkRows);
+                    chunkIds = new long[chunkRows];
+                    rows = new long[chunkRows];
+                }
+            }
+            if (writers.failure() == null && !chunk.isEmpty()) {
+                writers.submit(new CsvChunk(chunk, chunkIds, rows));
+            }
+        }
+    }
+
+    private static void readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null || !header.strip().equals(HISTORY_CSV_HEADER)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV 헤더가 다릅니다. (" + HISTORY_CSV_HEADER + ")");
+        }
+    }
+
+    private static String[] readCsvRecord(BufferedReader reader, long row) throws IOException {
+        try {
+            return readCsvRecord(reader);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(row + "행: " + e.getMessage(), e);
+        }
+    }
+
+    private static LocalDateTime parseCsvDate(String[] record, long row) {
+        try {
+            return LocalDateTime.parse(record[1]);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException(row + "행: 거래 시각 형식이 다릅니다: " + record[1], e);
+        }
+    }
+
+    /**
+     * CSV 적재 실패를 응답 오류로 바꿉니다. 커밋된 행 구간을 함께 알려 다시 적재할 때 건너뛸 수 있게 합니다.
+     */
+    private static ResponseStatusException csvLoadFailure(Throwable failure, RowRanges committed) {
+        HttpStatusCode status;
+        String message;
+        if (failure instanceof ResponseStatusException e) {
+            status = e.getStatusCode();
+            message = e.getReason();
+        } else {
+            status = failure instanceof IllegalArgumentException ? HttpStatus.BAD_REQUEST : HttpStatus.INTERNAL_SERVER_ERROR;
+            message = failure.getMessage();
+        }
+        String resume = committed.isEmpty()
+                ? "커밋된 행은 없습니다."
+                : "커밋된 행: " + committed + " (다시 적재할 때 skipRows=" + committed + " 로 넘기면 이 행들을 건너뜁니다)";
+        return new ResponseStatusException(status, "CSV 적재 실패: " + message + " " + resume, failure);
+    }
+
+    /**
+     * [from, to] 에 이미 있는 거래 내역 ID 가 쓰지 않은 노드 자리 값들입니다. 이 인스턴스의 노드 ID 는 항상 뺍니다.
+     * 적재하는 행의 ID 를 이 값으로 만들면, 같은 밀리초의 실제 거래나 이전 적재와 겹치지 않습니다.
+     */
+    private Deque<Long> freeHistoryNodes(LocalDateTime from, LocalDateTime to) {
+        Set<Long> used = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT MOD(FLOOR(id / " + TimeOrderedIdSource.SEQUENCES_PER_MILLI + "), "
+                        + TimeOrderedIdSource.NODE_COUNT + ") FROM account_history WHERE id >= ? AND id < ?",
+                Long.class,
+                TimeOrderedIdSource.minIdAt(from.atZone(ZoneId.systemDefault()).toInstant()),
+                TimeOrderedIdSource.minIdAt(to.atZone(ZoneId.systemDefault()).toInstant().plusMillis(1))));
+        used.add(TimeOrderedIdSource.nodeId());
+        Deque<Long> free = new ArrayDeque<>();
+        for (long node = TimeOrderedIdSource.NODE_COUNT - 1; node >= 0; node--) {
+            if (!used.contains(node)) {
+                free.add(node);
+            }
+        }
+        if (free.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "적재 기간의 거래 내역 ID 에 남은 노드 자리가 없습니다.");
+        }
+        return free;
+    }
+
+    /**
+     * account_history 에 남아 있는 가장 오래된 달의 시작. 보관한 달이 없으면 null 입니다.
+     */
+    private LocalDateTime hotFrom() {
+        return historyArchiveService.hotFrom().map(LocalDate::atStartOfDay).orElse(null);
+    }
+
+    private void runAll(List<Callable<Void>> tasks) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "대량 적재 실패 (다른 블록은 이미 커밋되었을 수 있습니다): " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "대량 적재가 중단되었습니다.", e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 회원 [firstMember, firstMember + size) 의 회원, 계좌, 거래 내역을 만들어 씁니다. 돌려주는 값은 {회원, 계좌, 내역} 수입니다.
+     */
+    private long[] writeGeneratedBlock(Generation generation, int firstMember, int size) {
+        SplittableRandom random = new SplittableRandom(42L ^ firstMember);
+        Date created = Date.valueOf(generation.periodStart().toLocalDate());
+        List<Object[]> memberRows = new ArrayList<>(size);
+        List<Object[]> accountRows = new ArrayList<>(size * generation.accountsPerMember());
+        List<Object[]> historyRows = new ArrayList<>(size * generation.accountsPerMember() * generation.historyPerAccount());
+        for (int m = firstMember; m < firstMember + size; m++) {
+            long memberId = generation.baseMemberId() + m + 1;
+            memberRows.add(new Object[]{
+                    memberId,
+                    "부하테스트" + m,
+                    String.format("010-%04d-%04d", m / 10_000 % 10_000, m % 10_000),
+                    String.format("900101-%07d", m % 10_000_000)
+            });
+            for (int i = 0; i < generation.accountsPerMember(); i++) {
+                long accountIndex = (long) m * generation.accountsPerMember() + i;
+                long accountId = TimeOrderedIdSource.next();
+                long balance = generateHistory(generation, accountId, accountIndex, random, historyRows);
+                long sequence = generation.baseAccountSequence() + accountIndex;
+                accountRows.add(new Object[]{
+                        accountId,
+                        memberId,
+                        String.format("1002-%03d-%06d", sequence / 1_000_000, sequence % 1_000_000),
+                        String.format("%04d", random.nextInt(10_000)),
+                        created,
+                        balance
+                });
+            }
+        }
+        insertRows(MEMBER_COLUMNS, memberRows);
+        insertRows(ACCOUNT_COLUMNS, accountRows);
+        insertRows(HISTORY_COLUMNS, historyRows);
+        return new long[]{memberRows.size(), accountRows.size(), historyRows.size()};
+    }
+
+    /**
+     * 계좌 하나의 거래를 시간순으로 만들고 마지막 잔액을 돌려줍니다. 잔액이 모자란 출금은 입금으로 바꿉니다.
+     * j 번째 거래는 전체 순번 k = j × 계좌 수 + 계좌 순번 으로 기간 안의 시각을 정해, 모든 계좌의 거래가 기간 전체에 고르게 퍼집니다.
+     * 한 밀리초에 드는 k 는 연속이고 SEQUENCES_PER_MILLI 개를 넘지 않으므로(generate 에서 검사) k 의 하위 비트를 순번으로 씁니다.
+     */
+    private long generateHistory(Generation generation, long accountId, long accountIndex, SplittableRandom random,
+                                 List<Object[]> historyRows) {
+        long balance = generation.initialBalance();
+        long totalRows = generation.totalAccounts() * generation.historyPerAccount();
+        for (int j = 0; j < generation.historyPerAccount(); j++) {
+            long k = (long) j * generation.totalAccounts() + accountIndex;
+            long offsetMillis = (long) ((double) k * generation.periodMillis() / totalRows);
+            LocalDateTime date = generation.periodStart().plusNanos(offsetMillis * 1_000_000);
+            Instant instant = date.atZone(ZoneId.systemDefault()).toInstant();
+
+            int dice = random.nextInt(10);
+            TransactionType type = dice < 7 ? TransactionType.PAYMENT : dice < 9 ? TransactionType.TRANSFER_IN : TransactionType.TRANSFER_OUT;
+            long price = (1 + random.nextInt(type == TransactionType.PAYMENT ? 200 : 1_000)) * 100L;
+            if (type != TransactionType.TRANSFER_IN && price > balance) {
+                type = TransactionType.TRANSFER_IN;
+            }
+            balance += type == TransactionType.TRANSFER_IN ? price : -price;
+            boolean transfer = type != TransactionType.PAYMENT;
+            HistoryCategory category = transfer ? HistoryCategory.TRANSFER : SPENDING_CATEGORIES[random.nextInt(SPENDING_CATEGORIES.length)];
+            historyRows.add(new Object[]{
+                    TimeOrderedIdSource.idAt(instant, generation.historyNode(), k % TimeOrderedIdSource.SEQUENCES_PER_MILLI),
+                    accountId,
+                    Timestamp.valueOf(date),
+                    price,
+                    type.name(),
+                    category.name(),
+                    transfer ? "이체" : category.name().toLowerCase() + " 가맹점",
+                    transfer ? String.format("1002-999-%06d", random.nextInt(1_000_000)) : null
+            });
+        }
+        return balance;
+    }
+
+    private long[] writeCsvChunk(CsvChunk chunk) {
+        List<String[]> records = chunk.records();
+        Map<String, Long> accountIds = findAccountIds(records.stream().map(record -> record[0]).distinct().toList());
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        Map<Long, Long> firstIds = new HashMap<>();
+        List<Object[]> historyRows = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            String[] record = records.get(i);
+            long row = chunk.rows()[i];
+            Long accountId = accountIds.get(record[0]);
+            if (accountId == null) {
+                throw new IllegalArgumentException(row + "행: 없는 계좌번호입니다: " + record[0]);
+            }
+            LocalDateTime date = parseCsvDate(record, row);
+            TransactionType type;
+            HistoryCategory category;
+            long price;
+            try {
+                type = TransactionType.valueOf(record[2]);
+                category = HistoryCategory.valueOf(record[3]);
+                price = Long.parseLong(record[4]);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(row + "행: " + e.getMessage(), e);
+            }
+            if (price <= 0) {
+                throw new IllegalArgumentException(row + "행: 금액은 0 보다 커야 합니다: " + record[4]);
+            }
+            deltas.merge(accountId, type == TransactionType.TRANSFER_IN ? price : -price, Long::sum);
+            firstIds.merge(accountId, chunk.ids()[i], Math::min);
+            historyRows.add(new Object[]{
+                    chunk.ids()[i],
+                    accountId,
+                    Timestamp.valueOf(date),
+                    price,
+                    type.name(),
+                    category.name(),
+                    record[5],
+                    record[6] == null || record[6].isEmpty() ? null : record[6]
+            });
+        }
+        insertRows(HISTORY_COLUMNS, historyRows);
+        List<Object[]> balanceUpdates = deltas.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate("UPDATE tbl_member_account SET balance = balance + ? WHERE id = ?", balanceUpdates);
+        // 대사가 이미 지나간 ID 구간에 들어간 행은 증분 대사에 잡히지 않으므로, 그 계좌는 다음 대사에서 처음부터 확인합니다.
+        List<Object[]> staleCheckpoints = firstIds.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                .toList();
+        jdbcTemplate.batchUpdate("DELETE FROM balance_reconciliation WHERE account_id = ? AND verified_through_id > ?",
+                staleCheckpoints);
+        return new long[]{0, 0, historyRows.size()};
+    }
+
+    private Map<String, Long> findAccountIds(List<String> accountNumbers) {
+        Map<String, Long> ids = new HashMap<>();
+        for (int from = 0; from < accountNumbers.size(); from += 1000) {
+            List<String> page = accountNumbers.subList(from, Math.min(from + 1000, accountNumbers.size()));
+            String placeholders = String.join(",", Collections.nCopies(page.size(), "?"));
+            jdbcTemplate.query("SELECT id, account_num FROM tbl_member_account WHERE account_num IN (" + placeholders + ")",
+                    rs -> {
+                        ids.put(rs.getString("account_num"), rs.getLong("id"));
+                    }, page.toArray());
+        }
+        return ids;
+    }
+
+    /**
+     * rows 를 rowsPerStatement 행씩 묶은 INSERT ... VALUES (..), (..) 로 씁니다.
+     */
+    private void insertRows(String tableAndColumns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int columns = rows.get(0).length;
+        String row = "(" + String.join(",", Collections.nCopies(columns, "?")) + ")";
+        String fullSql = null;
+        int batch = Math.max(1, rowsPerStatement);
+        for (int from = 0; from < rows.size(); from += batch) {
+            int count = Math.min(batch, rows.size() - from);
+            String sql;
+            if (count == batch) {
+                if (fullSql == null) {
+                    fullSql = "INSERT INTO " + tableAndColumns + " VALUES " + String.join(",", Collections.nCopies(batch, row));
+                }
+                sql = fullSql;
+            } else {
+                sql = "INSERT INTO " + tableAndColumns + " VALUES " + String.join(",", Collections.nCopies(count, row));
+            }
+            Object[] args = new Object[count * columns];
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(rows.get(from + i), 0, args, i * columns, columns);
+            }
+            jdbcTemplate.update(sql, args);
+        }
+    }
+
+    /**
+     * account_history 의 보조 인덱스를 지웁니다. (MySQL 만)
+     * 지우기 전에 정의를 bulk_load_dropped_index 에 남겨, 적재 중에 멈춰도 restoreHistoryIndexes 로 다시 만들 수 있게 합니다.
+     * 외래키가 쓰고 있어 지울 수 없는 인덱스는 그대로 둡니다.
+     */
+    private void dropHistoryIndexes() {
+        if (!rebuildIndexes || !isMySql()) {
+            return;
+        }
+        Map<String, List<String>> indexes = jdbcTemplate.query("""
+                SELECT index_name, column_name FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'account_history' AND non_unique = 1
+                ORDER BY index_name, seq_in_index
+                """, rs -> {
+            Map<String, List<String>> result = new LinkedHashMap<>();
+            while (rs.next()) {
+                result.computeIfAbsent(rs.getString("index_name"), name -> new ArrayList<>()).add(rs.getString("column_name"));
+            }
+            return result;
+        });
+        indexes.forEach((name, columns) -> {
+            jdbcTemplate.update("REPLACE INTO bulk_load_dropped_index (index_name, column_list, dropped_at) VALUES (?, ?, ?)",
+                    name, String.join(",", columns), Timestamp.valueOf(LocalDateTime.now()));
+            try {
+                jdbcTemplate.execute("ALTER TABLE account_history DROP INDEX " + name);
+                log.info("대량 적재 동안 account_history 인덱스 제거: {}{}", name, columns);
+            } catch (RuntimeException e) {
+                jdbcTemplate.update("DELETE FROM bulk_load_dropped_index WHERE index_name = ?", name);
+                log.warn("account_history 인덱스 {} 를 지우지 못해 유지합니다: {}", name, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 적재가 끝난 뒤(실패했어도)와 기동 때 호출합니다. 실패하면 로그만 남겨 적재의 원래 오류를 가리지 않고,
+     * 기록은 남겨 두어 다음 기동 때나 /api/admin/bulk-load/restore-indexes 로 다시 시도합니다.
+     */
+    private void restoreHistoryIndexesQuietly() {
+        try {
+            restoreHistoryIndexes();
+        } catch (RuntimeException e) {
+            log.error("account_history 인덱스를 다시 만들지 못했습니다. /api/admin/bulk-load/restore-indexes 로 다시 시도하세요.", e);
+        }
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("mysql");
+    }
+
+    /**
+     * CSV 레코드 하나를 읽습니다. 따옴표 안의 쉼표/줄바꿈과 "" 이스케이프를 처리합니다. (StatementService.appendCsv 의 반대)
+     */
+    static String[] readCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        while (line != null && line.isEmpty()) {
+            line = reader.readLine();
+        }
+        if (line == null) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>(7);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                String next = reader.readLine();
+                if (next == null) {
+                    throw new IllegalArgumentException("닫히지 않은 따옴표가 있습니다.");
+                }
+                field.append('\n');
+                line = next;
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        if (fields.size() != 7) {
+            throw new IllegalArgumentException("CSV 열 수가 7 개가 아닙니다: " + fields.size());
+        }
+        return fields.toArray(String[]::new);
+    }
+
+    private record Generation(long baseMemberId, long baseAccountSequence, int accountsPerMember, int historyPerAccount,
+                              long initialBalance, LocalDateTime periodStart, long periodMillis, long totalAccounts,
+                              long historyNode) {
+    }
+
+    /**
+     * records[i] 는 CSV 의 rows[i] 번째 행이고 거래 내역 ID 는 ids[i] 입니다.
+     */
+    private record CsvChunk(List<String[]> records, long[] ids, long[] rows) {
+
+        long firstRow() {
+            return rows[0];
+        }
+
+        long lastRow() {
+            return rows[records.size() - 1];
+        }
+    }
+
+    /**
+     * CSV 청크를 워커에 넘기고 끝난 청크를 모읍니다. submit/finish 는 읽는 스레드에서만 부릅니다.
+     * 청크 하나가 실패하면 그 뒤에 시작하는 청크는 쓰지 않고 건너뛰므로, 이미 쓰고 있던 청크만 더 커밋될 수 있습니다.
+     * 커밋된 청크의 행 구간은 committed 에 모읍니다. (skipRows 로 건너뛴 행도 이미 커밋된 행으로 칩니다)
+     */
+    private final class CsvWriters {
+
+        private final CompletionService<CsvChunk> completion;
+        private final int maxInFlight;
+        private final Progress progress;
+        private final Map<Future<CsvChunk>, CsvChunk> running = new HashMap<>();
+        private final RowRanges committed;
+        private volatile boolean stopped;
+        private Throwable failure;
+
+        CsvWriters(ExecutorService executor, int maxInFlight, RowRanges skipped, Progress progress) {
+            this.completion = new ExecutorCompletionService<>(executor);
+            this.maxInFlight = maxInFlight;
+            this.progress = progress;
+            this.committed = skipped.copy();
+        }
+
+        /**
+         * 청크를 넘기고, 그사이 끝난 청크를 확인합니다. 아직 끝나지 않은 청크가 maxInFlight 개면 하나가 끝날 때까지 기다립니다.
+         */
+        void submit(CsvChunk chunk) throws InterruptedException {
+            running.put(completion.submit(() -> write(chunk)), chunk);
+            Future<CsvChunk> done;
+            while (failure == null
+                    && (done = running.size() >= maxInFlight ? completion.take() : completion.poll()) != null) {
+                collect(done);
+            }
+        }
+
+        /**
+         * 남은 청크가 모두 끝날 때까지 기다립니다. stop 이면 아직 시작하지 않은 청크는 쓰지 않습니다.
+         */
+        void finish(boolean stop) throws InterruptedException {
+            if (stop) {
+                stopped = true;
+            }
+            while (!running.isEmpty()) {
+                collect(completion.take());
+            }
+        }
+
+        Throwable failure() {
+            return failure;
+        }
+
+        RowRanges committed() {
+            return committed;
+        }
+
+        private CsvChunk write(CsvChunk chunk) {
+            if (stopped) {
+                return null;
+            }
+            try {
+                progress.add(transactionTemplate.execute(status -> writeCsvChunk(chunk)));
+                return chunk;
+            } catch (RuntimeException e) {
+                stopped = true;
+                throw e;
+            }
+        }
+
+        private void collect(Future<CsvChunk> done) throws InterruptedException {
+            CsvChunk chunk = running.remove(done);
+            try {
+                if (done.get() != null) {
+                    committed.add(chunk.firstRow(), chunk.lastRow());
+                }
+            } catch (ExecutionException e) {
+                stopped = true;
+                if (failure == null) {
+                    failure = e.getCause();
+                    log.warn("CSV 청크 적재 실패: {}~{}행", chunk.firstRow(), chunk.lastRow(), e.getCause());
+                }
+            }
+        }
+    }
+
+    /**
+     * CSV 행 번호(헤더 다음 행이 1) 구간의 모음. "1-20000,40001-60000" 형식으로 읽고 씁니다.
+     */
+    static final class RowRanges {
+
+        private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+        static RowRanges parse(String text) {
+            RowRanges result = new RowRanges();
+            if (text == null || text.isBlank()) {
+                return result;
+            }
+            for (String part : text.split(",")) {
+                String[] bounds = part.strip().split("-", -1);
+                try {
+                    long from = Long.parseLong(bounds[0].strip());
+                    long to = bounds.length == 1 ? from : Long.parseLong(bounds[1].strip());
+                    if (bounds.length > 2 || from < 1 || to < from) {
+                        throw new NumberFormatException(part);
+                    }
+                    result.add(from, to);
+                } catch (NumberFormatException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "skipRows 형식이 다릅니다. (예: 1-20000,40001-60000): " + part);
+                }
+            }
+            return result;
+        }
+
+        void add(long from, long to) {
+            Map.Entry<Long, Long> before = ranges.floorEntry(from);
+            if (before != null && before.getValue() >= from - 1) {
+                from = before.getKey();
+                to = Math.max(to, before.getValue());
+            }
+            Map.Entry<Long, Long> next;
+            while ((next = ranges.ceilingEntry(from)) != null && next.getKey() <= to + 1) {
+                to = Math.max(to, next.getValue());
+                ranges.remove(next.getKey());
+            }
+            ranges.put(from, to);
+        }
+
+        boolean contains(long row) {
+            Map.Entry<Long, Long> range = ranges.floorEntry(row);
+            return range != null && range.getValue() >= row;
+        }
+
+        boolean isEmpty() {
+            return ranges.isEmpty();
+        }
+
+        RowRanges copy() {
+            RowRanges copy = new RowRanges();
+            copy.ranges.putAll(ranges);
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            return ranges.entrySet().stream()
+                    .map(range -> range.getKey().equals(range.getValue())
+                            ? String.valueOf(range.getKey())
+                            : range.getKey() + "-" + range.getValue())
+                    .collect(Collectors.joining(","));
+        }
+    }
+
+    /**
+     * CSV 행의 거래 내역 ID 를 읽는 순서대로 정합니다. (읽는 스레드 하나에서만 씁니다)
+     * 밀리초마다 현재 노드 값에서 쓴 순번 수를 세고, 한 밀리초의 순번이 다 차거나 기억하는 밀리초가 너무 많아지면
+     * 다음 빈 노드 값으로 바꿔 처음부터 셉니다.
+     */
+    private static final class CsvIds {
+
+        private final Deque<Long> freeNodes;
+        private final Map<Long, Integer> usedSequences = new HashMap<>();
+        private long node;
+
+        CsvIds(Deque<Long> freeNodes) {
+            this.freeNodes = freeNodes;
+            this.node = freeNodes.removeFirst();
+        }
+
+        long next(LocalDateTime date) {
+            Instant instant = date.atZone(ZoneId.systemDefault()).toInstant();
+            int sequence = usedSequences.merge(instant.toEpochMilli(), 1, Integer::sum) - 1;
+            if (sequence == TimeOrderedIdSource.SEQUENCES_PER_MILLI || usedSequences.size() > MAX_TRACKED_MILLIS) {
+                if (freeNodes.isEmpty()) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "적재 기간의 거래 내역 ID 에 남은 노드 자리가 없습니다.");
+                }
+                node = freeNodes.removeFirst();
+                usedSequences.clear();
+                usedSequences.put(instant.toEpochMilli(), 1);
+                sequence = 0;
+            }
+            return TimeOrderedIdSource.idAt(instant, node, sequence);
+        }
+    }
+
+    /**
+     * 워커들이 커밋한 건수를 모아 10초마다 진행 상황과 초당 행 수를 로그로 남깁니다.
+     */
+    private static final class Progress {
+
+        private final long started;
+        private long members;
+        private long accounts;
+        private long history;
+        private long lastLogged;
+
+        Progress(long started) {
+            this.started = started;
+            this.lastLogged = started;
+        }
+
+        synchronized void add(long[] counts) {
+            members += counts[0];
+            accounts += counts[1];
+            history += counts[2];
+            long now = System.nanoTime();
+            if (now - lastLogged > 10_000_000_000L) {
+                lastLogged = now;
+                log.info("대량 적재 진행: 회원 {}, 계좌 {}, 내역 {}, {} rows/s", members, accounts, history, rowsPerSecond(now));
+            }
+        }
+
+        synchronized BulkLoadResponse finish(String source) {
+            long now = System.nanoTime();
+            long elapsed = (now - started) / 1_000_000;
+            long rate = rowsPerSecond(now);
+            log.info("대량 적재 완료({}): 회원 {}, 계좌 {}, 내역 {}, {}ms, {} rows/s", source, members, accounts, history, elapsed, rate);
+            return new BulkLoadResponse(members, accounts, history, elapsed, rate);
+        }
+
+        private long rowsPerSecond(long now) {
+            long elapsedNanos = Math.max(1, now - started);
+            return (members + accounts + history) * 1_000_000_000L / elapsedNanos;
+        }
+    }
+}
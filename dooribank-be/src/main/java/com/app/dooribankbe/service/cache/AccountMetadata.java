@@ -0,0 +1,23 @@
+package com.app.dooribankbe.service.cache;
+
+/**
+ * 거래 중 바뀌지 않는 계좌 정보 (잔액 제외)
+ *
+ * @param balanceSlots 잔액 슬롯 수. 0 이면 슬롯을 쓰지 않습니다.
+ */
+public record AccountMetadata(
+        Long id,
+        String accountNumber,
+        String accountPassword,
+        Long memberId,
+        int balanceSlots
+) {
+
+    public boolean usesBalanceSlots() {
+        return balanceSlots > 0;
+    }
+
+    public boolean matchPassword(String password) {
+        return accountPassword.equals(password);
+    }
+}
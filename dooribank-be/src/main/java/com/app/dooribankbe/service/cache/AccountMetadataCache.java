@@ -0,0 +1,107 @@
+package com.app.dooribankbe.service.cache;
+
+import com.app.dooribankbe.domain.repository.MemberAccountRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 계좌번호 → 계좌 메타데이터 캐시
+ *
+ * 결제/이체마다 하던 account_num 조회를 대신합니다. 없는 계좌도 짧게 캐시해서(negative cache)
+ * 잘못된 계좌번호나 비밀번호로 들어온 요청은 DB에 가지 않고 거절됩니다.
+ * 계좌번호나 비밀번호를 바꾸는 코드는 반드시 {@link #invalidate(String)}를 호출해야 합니다.
+ *
+ * 캐시 항목은 항상 기본(primary) DB 에서 읽습니다. readOnly 트랜잭션은 복제본으로 갈 수 있어서, 그 안에서 캐시가 비면
+ * 별도의 쓰기 가능 트랜잭션으로 읽습니다. (아직 복제되지 않은 새 계좌를 없는 계좌로 캐시해 결제가 404 가 되지 않도록)
+ */
+@Component
+@Slf4j
+public class AccountMetadataCache {
+
+    private final MemberAccountRepository memberAccountRepository;
+    private final TransactionTemplate primaryTransactionTemplate;
+    private final LoadingCache<String, Optional<AccountMetadata>> cache;
+
+    @Autowired
+    public AccountMetadataCache(MemberAccountRepository memberAccountRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${dooribank.cache.account.max-size:100000}") long maxSize,
+                                @Value("${dooribank.cache.account.ttl-ms:600000}") long ttlMillis,
+                                @Value("${dooribank.cache.account.negative-ttl-ms:5000}") long negativeTtlMillis) {
+        this(memberAccountRepository, transactionManager, meterRegistry, maxSize, ttlMillis, negativeTtlMillis,
+                Ticker.systemTicker());
+    }
+
+    /**
+     * 만료 시각을 ticker 로 잽니다. (테스트에서 시간을 직접 넘길 때 씁니다)
+     */
+    AccountMetadataCache(MemberAccountRepository memberAccountRepository, PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry, long maxSize, long ttlMillis, long negativeTtlMillis, Ticker ticker) {
+        this.memberAccountRepository = memberAccountRepository;
+        this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.primaryTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primaryTransactionTemplate.setReadOnly(false);
+        long ttlNanos = Duration.ofMillis(ttlMillis).toNanos();
+        long negativeTtlNanos = Duration.ofMillis(negativeTtlMillis).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Optional<AccountMetadata>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<AccountMetadata> value, long currentTime) {
+                        return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<AccountMetadata> value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<AccountMetadata> value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accountMetadata");
+    }
+
+    public Optional<AccountMetadata> get(String accountNumber) {
+        return cache.get(accountNumber);
+    }
+
+    public void invalidate(String accountNumber) {
+        cache.invalidate(accountNumber);
+    }
+
+    public void invalidateAll() {
+        log.info("계좌 메타데이터 캐시 전체 무효화");
+        cache.invalidateAll();
+    }
+
+    private Optional<AccountMetadata> load(String accountNumber) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primaryTransactionTemplate.execute(status -> memberAccountRepository.findMetadataByAccountNumber(accountNumber));
+        }
+        return memberAccountRepository.findMetadataByAccountNumber(accountNumber);
+    }
+}
@@ -0,0 +1,175 @@
+package com.app.dooribankbe.service.groupcommit;
+
+import com.app.dooribankbe.controller.dto.PaymentRequest;
+import com.app.dooribankbe.controller.dto.PaymentResponse;
+import com.app.dooribankbe.service.AccountService;
+import com.app.dooribankbe.service.PaymentResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 같은 계좌 결제의 그룹 커밋 (dooribank.group-commit.enabled=true 일 때만)
+ *
+ * 같은 계좌로 동시에 들어온 결제를 계좌별 대기열에 모으고, 요청 스레드 중 하나(리더)가
+ * 최대 max-batch-size 건을 {@link AccountService#processPaymentGroup} 트랜잭션 하나로 적용합니다.
+ * (잠금 1회, 잔액 UPDATE 1회, 내역 배치 INSERT) 나머지 요청은 자기 결과가 나올 때까지 기다립니다.
+ * 리더가 커밋하는 동안 들어온 요청은 다음 묶음이 되므로, 붐비는 계좌의 처리량이 커밋 지연이 아닌 묶음 크기에 따라 늘어납니다.
+ * 직전 묶음이 2건 이상이었던 계좌는 리더가 max-wait-micros 만큼 더 모은 뒤 적용합니다. (한가한 계좌는 기다리지 않습니다)
+ *
+ * 결과와 예외는 processPayment 와 같습니다. 건별 실패(비밀번호, 잔액 부족, 한도 초과)는 그 건만 실패하고,
+ * 계좌 단위 실패(계좌 없음, 잠금 대기 초과, 커밋 실패)는 묶음의 모든 건이 같은 예외로 실패합니다.
+ * 이미 트랜잭션 안에서 불리면 (Idempotency-Key 요청은 응답을 거래와 같은 트랜잭션에 저장합니다) 묶지 않고 바로 처리합니다.
+ */
+@Service
+@Slf4j
+public class PaymentGroupCommitter {
+
+    private final AccountService accountService;
+    private final DistributionSummary batchSizes;
+    private final ConcurrentHashMap<String, AccountQueue> queues = new ConcurrentHashMap<>();
+
+    @Value("${dooribank.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dooribank.group-commit.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${dooribank.group-commit.max-wait-micros:200}")
+    private long maxWaitMicros;
+
+    public PaymentGroupCommitter(AccountService accountService, MeterRegistry meterRegistry) {
+        this.accountService = accountService;
+        this.batchSizes = DistributionSummary.builder("dooribank.group-commit.batch.size")
+                .description("트랜잭션 하나로 적용한 같은 계좌 결제 수")
+                .register(meterRegistry);
+    }
+
+    public PaymentResponse processPayment(PaymentRequest request) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return accountService.processPayment(request);
+        }
+        String accountNumber = request.accountNumber();
+        AccountQueue queue = queues.computeIfAbsent(accountNumber, key -> new AccountQueue());
+        Pending mine = new Pending(request, Thread.currentThread());
+        queue.add(mine);
+        while (!mine.done) {
+            if (queue.leading.compareAndSet(false, true)) {
+                try {
+                    commitBatch(accountNumber, queue);
+                } finally {
+                    queue.leading.set(false);
+                    handOff(accountNumber, queue);
+                }
+            } else {
+                // 결과가 나오거나 리더 차례가 오면 깨웁니다. (시간 제한은 깨우기를 놓친 경우 대비)
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        if (mine.error != null) {
+            throw mine.error;
+        }
+        return mine.response;
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    private void commitBatch(String accountNumber, AccountQueue queue) {
+        if (queue.lastBatchSize > 1 && queue.size.get() < maxBatchSize && maxWaitMicros > 0) {
+            LockSupport.parkNanos(this, TimeUnit.MICROSECONDS.toNanos(maxWaitMicros));
+        }
+        List<Pending> batch = queue.poll(maxBatchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+        queue.lastBatchSize = batch.size();
+        batchSizes.record(batch.size());
+        try {
+            List<PaymentResult> results = accountService.processPaymentGroup(
+                    accountNumber, batch.stream().map(Pending::request).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                PaymentResult result = results.get(i);
+                batch.get(i).complete(result.response(), result.error());
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.complete(null, e));
+        } catch (Error e) {
+            batch.forEach(pending -> pending.complete(null, new IllegalStateException("결제 그룹 커밋 실패", e)));
+            throw e;
+        }
+    }
+
+    /**
+     * 리더를 내려놓은 뒤 대기열 맨 앞의 요청을 깨워 다음 리더가 되게 합니다. 비었으면 대기열을 지웁니다.
+     */
+    private void handOff(String accountNumber, AccountQueue queue) {
+        Pending next = queue.items.peek();
+        if (next != null) {
+            LockSupport.unpark(next.thread);
+        } else {
+            // 지운 뒤에 이 대기열에 들어온 요청은 자기가 리더가 되어 처리하므로 잃어버리지 않습니다.
+            queues.remove(accountNumber, queue);
+        }
+    }
+
+    private static final class AccountQueue {
+
+        private final ConcurrentLinkedQueue<Pending> items = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean leading = new AtomicBoolean();
+        // 리더만 읽고 씁니다. (leading CAS 가 가시성을 보장)
+        private int lastBatchSize;
+
+        void add(Pending pending) {
+            items.add(pending);
+            size.incrementAndGet();
+        }
+
+        List<Pending> poll(int max) {
+            List<Pending> batch = new ArrayList<>(Math.min(max, Math.max(1, size.get())));
+            Pending pending;
+            while (batch.size() < max && (pending = items.poll()) != null) {
+                batch.add(pending);
+            }
+            size.addAndGet(-batch.size());
+            return batch;
+        }
+    }
+
+    private static final class Pending {
+
+        private final PaymentRequest request;
+        private final Thread thread;
+        private PaymentResponse response;
+        private RuntimeException error;
+        private volatile boolean done;
+
+        Pending(PaymentRequest request, Thread thread) {
+            this.request = request;
+            this.thread = thread;
+        }
+
+        PaymentRequest request() {
+            return request;
+        }
+
+        void complete(PaymentResponse response, RuntimeException error) {
+            this.response = response;
+            this.error = error;
+            this.done = true;
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.app.dooribankbe.service.history;
+
+import com.app.dooribankbe.config.SchedulingConfig;
+import com.app.dooribankbe.controller.dto.AccountHistoryDto;
+import com.app.dooribankbe.domain.entity.HistoryArchiveSegment;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import com.app.dooribankbe.domain.repository.HistoryArchiveSegmentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 닫힌 달의 account_history 를 압축 세그먼트 파일로 옮깁니다. (dooribank.history.archive.enabled=true 일 때만 자동 실행)
+ *
+ * 최근 hot-months 개월(이번 달 제외)보다 오래된 달을 오래된 순으로 한 달씩 처리합니다.
+ * 세그먼트 파일을 임시 파일로 쓰고 fsync 한 뒤 이름을 바꾸고, 다시 열어 행 수를 확인한 다음에야 DB 에서 그달 행을 지웁니다.
+ * (파티션을 쓰면 파티션째, 아니면 ID 구간 단위 DELETE)
+ * 시간순 ID 이전(IDENTITY)의 행은 ID에 시각이 없으므로 history_date 로 달을 나눠 같은 세그먼트에 넣고 따로 지웁니다.
+ * 세그먼트 파일은 directory 에 있어야 하므로 인스턴스가 여럿이면 공유 볼륨을 지정해야 합니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HistoryArchiveService {
+
+    private static final String MONTH_ROWS_SQL = """
+            SELECT id, account_id, history_date, history_price, history_status, history_category,
+                   history_name, history_transfer_target
+            FROM account_history
+            WHERE id >= ? AND id < ?
+            UNION ALL
+            SELECT id, account_id, history_date, history_price, history_status, history_category,
+                   history_name, history_transfer_target
+            FROM account_history
+            WHERE id < ? AND history_date >= ? AND history_date < ?
+            ORDER BY account_id, history_date, id
+            """;
+
+    private static final String MONTH_COUNT_SQL = """
+            SELECT (SELECT COUNT(*) FROM account_history WHERE id >= ? AND id < ?)
+                 + (SELECT COUNT(*) FROM account_history WHERE id < ? AND history_date >= ? AND history_date < ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HistoryArchiveSegmentRepository historyArchiveSegmentRepository;
+    private final HistoryPartitionManager historyPartitionManager;
+
+    private final Map<LocalDate, HistorySegment> openSegments = new ConcurrentHashMap<>();
+
+    @Value("${dooribank.history.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dooribank.history.archive.directory:./data/history-archive}")
+    private String directory;
+
+    @Value("${dooribank.history.archive.hot-months:3}")
+    private int hotMonths;
+
+    @Value("${dooribank.history.archive.delete-batch-size:5000}")
+    private int deleteBatchSize;
+
+    @Scheduled(cron = "${dooribank.history.archive.cron:0 30 3 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void archiveClosedMonths() {
+        if (enabled) {
+            archiveBefore(YearMonth.now().minusMonths(hotMonths));
+        }
+    }
+
+    /**
+     * cutoff 이전 달을 모두 보관합니다.
+     *
+     * @return 보관한 달 수
+     */
+    public synchronized int archiveBefore(YearMonth cutoff) {
+        Optional<HistoryArchiveSegment> latest = historyArchiveSegmentRepository.findFirstByOrderByMonthStartDesc();
+        long idFrom = Math.max(TimeOrderedIdSource.LEGACY_ID_LIMIT, latest.map(HistoryArchiveSegment::getIdTo).orElse(0L));
+        YearMonth month;
+        if (latest.isPresent()) {
+            month = YearMonth.from(latest.get().getMonthStart()).plusMonths(1);
+        } else {
+            month = oldestMonth();
+            if (month == null) {
+                return 0;
+            }
+        }
+
+        int archived = 0;
+        for (; month.isBefore(cutoff); month = month.plusMonths(1)) {
+            long idTo = Math.max(idFrom, HistoryPartitionManager.boundaryOf(month.plusMonths(1)));
+            try {
+                archiveMonth(month, idFrom, idTo);
+            } catch (IOException e) {
+                throw new UncheckedIOException("거래 내역 보관 실패: " + month, e);
+            }
+            idFrom = idTo;
+            archived++;
+        }
+        return archived;
+    }
+
+    /**
+     * 보관된 내역 중 계좌의 (cursorDate, cursorId) 이전 행을 최신순으로 limit 건까지 읽습니다.
+     * 커서보다 늦은 달과 account_id 범위에 계좌가 없는 달은 파일을 열지 않습니다.
+     */
+    public List<AccountHistoryDto> readNewestFirst(Long accountId, LocalDateTime cursorDate, Long cursorId,
+                                                   TransactionType status, HistoryCategory category, int limit) {
+        Predicate<AccountHistoryDto> filter = row -> (status == null || row.historyStatus() == status)
+                && (category == null || row.historyCategory() == category);
+        // 보관된 달은 모두 지난달 이전이므로 커서가 없으면 오늘까지 봅니다.
+        LocalDate notAfter = cursorDate != null ? cursorDate.toLocalDate() : LocalDate.now();
+        List<AccountHistoryDto> rows = new ArrayList<>();
+        for (HistoryArchiveSegment archive : historyArchiveSegmentRepository.findCandidatesNewestFirst(accountId, notAfter)) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            try {
+                rows.addAll(segment(archive).readNewestFirst(accountId, cursorDate, cursorId, filter, limit - rows.size()));
+            } catch (IOException | UncheckedIOException e) {
+                throw unavailable(archive, e);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 보관된 내역 중 계좌의 [from, to) 구간을 오래된 순으로 읽습니다.
+     */
+    public List<AccountHistoryDto> readRange(Long accountId, LocalDateTime from, LocalDateTime to) {
+        List<AccountHistoryDto> rows = new ArrayList<>();
+        forEachInRange(segmentsBetween(from, to), accountId, from, to, rows::add);
+        return rows;
+    }
+
+    /**
+     * [from, to) 와 겹치는 보관된 달을 오래된 순으로 돌려줍니다. (null 이면 그쪽 끝은 열려 있습니다)
+     */
+    public List<HistoryArchiveSegment> segmentsBetween(LocalDateTime from, LocalDateTime to) {
+        List<HistoryArchiveSegment> archives = new ArrayList<>();
+        for (HistoryArchiveSegment archive : historyArchiveSegmentRepository.findAllByOrderByMonthStartDesc()) {
+            LocalDateTime monthStart = archive.getMonthStart().atStartOfDay();
+            if ((to == null || monthStart.isBefore(to)) && (from == null || monthStart.plusMonths(1).isAfter(from))) {
+                archives.add(0, archive);
+            }
+        }
+        return archives;
+    }
+
+    /**
+     * archives 에서 계좌의 [from, to) 구간 행을 오래된 순으로 action 에 넘깁니다. DB 를 읽지 않으므로 다른 커서를 연 채로 불러도 됩니다.
+     */
+    public void forEachInRange(List<HistoryArchiveSegment> archives, Long accountId, LocalDateTime from, LocalDateTime to,
+                               Consumer<AccountHistoryDto> action) {
+        for (HistoryArchiveSegment archive : archives) {
+            HistorySegment segment;
+            try {
+                segment = segment(archive);
+            } catch (UncheckedIOException e) {
+                throw unavailable(archive, e);
+            }
+            try {
+                segment.forEachInRange(accountId, from, to, action);
+            } catch (IOException e) {
+                throw unavailable(archive, e);
+            }
+        }
+    }
+
+    /**
+     * account_history 에 남아 있는 가장 오래된 달의 1일. 보관한 달이 없으면 비어 있습니다.
+     */
+    public Optional<LocalDate> hotFrom() {
+        return historyArchiveSegmentRepository.findFirstByOrderByMonthStartDesc()
+                .map(latest -> latest.getMonthStart().plusMonths(1));
+    }
+
+    @PreDestroy
+    void closeSegments() {
+        for (HistorySegment segment : openSegments.values()) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                log.warn("세그먼트 파일 닫기 실패", e);
+            }
+        }
+        openSegments.clear();
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    /**
+     * 가장 오래된 행의 달. 시간순 ID 는 ID 로, IDENTITY 시절 행은 history_date 로 봅니다. 행이 없으면 null 입니다.
+     */
+    private YearMonth oldestMonth() {
+        Long minId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM account_history WHERE id >= ?", Long.class, TimeOrderedIdSource.LEGACY_ID_LIMIT);
+        LocalDateTime legacyMin = jdbcTemplate.queryForObject(
+                "SELECT MIN(history_date) FROM account_history WHERE id < ?", LocalDateTime.class, TimeOrderedIdSource.LEGACY_ID_LIMIT);
+        YearMonth month = minId != null
+                ? YearMonth.from(TimeOrderedIdSource.timestampOf(minId).atZone(ZoneId.systemDefault()))
+                : null;
+        if (legacyMin != null && (month == null || YearMonth.from(legacyMin).isBefore(month))) {
+            month = YearMonth.from(legacyMin);
+        }
+        return month;
+    }
+
+    private void archiveMonth(YearMonth month, long idFrom, long idTo) throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        String fileName = "history-" + month + ".seg";
+        Path file = dir.resolve(fileName);
+        Path temp = dir.resolve(fileName + ".tmp");
+
+        int written;
+        Long minAccountId;
+        Long maxAccountId;
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             BufferedOutputStream out = new BufferedOutputStream(fileOut, 256 * 1024);
+             HistorySegment.Writer writer = new HistorySegment.Writer(out)) {
+            boolean mysql = historyPartitionManager.isMySql();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(MONTH_ROWS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // MySQL Connector/J 는 Integer.MIN_VALUE 일 때만 결과를 한 행씩 스트리밍합니다.
+                ps.setFetchSize(mysql ? Integer.MIN_VALUE : 1000);
+                ps.setLong(1, idFrom);
+                ps.setLong(2, idTo);
+                ps.setLong(3, TimeOrderedIdSource.LEGACY_ID_LIMIT);
+                ps.setTimestamp(4, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+                ps.setTimestamp(5, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+                return ps;
+            }, rs -> {
+                try {
+                    writer.append(rs.getLong("account_id"), toDto(rs));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+            out.flush();
+            fileOut.getFD().sync();
+            written = writer.rowCount();
+            minAccountId = writer.minAccountId();
+            maxAccountId = writer.maxAccountId();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        long rowCount;
+        try (HistorySegment segment = HistorySegment.open(file)) {
+            rowCount = segment.rowCount();
+        }
+        Long hotCount = jdbcTemplate.queryForObject(MONTH_COUNT_SQL, Long.class, idFrom, idTo,
+                TimeOrderedIdSource.LEGACY_ID_LIMIT, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+        if (rowCount != written || hotCount == null || rowCount != hotCount) {
+            throw new IOException("세그먼트 행 수가 맞지 않습니다: month=" + month + ", file=" + rowCount + ", db=" + hotCount);
+        }
+
+        LocalDate monthStart = month.atDay(1);
+        openSegments.remove(monthStart);
+        historyArchiveSegmentRepository.save(HistoryArchiveSegment.builder()
+                .monthStart(monthStart)
+                .fileName(fileName)
+                .idFrom(idFrom)
+                .idTo(idTo)
+                .rowCount(rowCount)
+                .minAccountId(minAccountId)
+                .maxAccountId(maxAccountId)
+                .fileSize(Files.size(file))
+                .archivedAt(LocalDateTime.now())
+                .build());
+
+        if (!historyPartitionManager.dropPartition(month)) {
+            deleteRange(idFrom, idTo);
+        }
+        deleteLegacyRows(month);
+        log.info("거래 내역 보관 완료: month={}, rows={}, bytes={}", month, rowCount, Files.size(file));
+    }
+
+    /**
+     * 한 번에 deleteBatchSize 행씩 지워 긴 잠금과 큰 undo 로그를 피합니다.
+     */
+    private void deleteRange(long idFrom, long idTo) {
+        long from = idFrom;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM account_history WHERE id >= ? AND id < ? ORDER BY id LIMIT ?",
+                    Long.class, from, idTo, deleteBatchSize);
+            if (ids.isEmpty()) {
+                return;
+            }
+            long last = ids.get(ids.size() - 1);
+            jdbcTemplate.update("DELETE FROM account_history WHERE id >= ? AND id <= ?", from, last);
+            from = last + 1;
+        }
+    }
+
+    /**
+     * 그달 history_date 의 IDENTITY 시절 행을 deleteBatchSize 행씩 지웁니다. (파티션을 써도 plegacy 에 남아 있습니다)
+     */
+    private void deleteLegacyRows(YearMonth month) {
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList("""
+                    SELECT id FROM account_history
+                    WHERE id < ? AND history_date >= ? AND history_date < ?
+                    ORDER BY id LIMIT ?
+                    """, Long.class, TimeOrderedIdSource.LEGACY_ID_LIMIT, month.atDay(1).atStartOfDay(),
+                    month.plusMonths(1).atDay(1).atStartOfDay(), deleteBatchSize);
+            if (ids.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.update("DELETE FROM account_history WHERE id IN ("
+                    + String.join(",", Collections.nCopies(ids.size(), "?")) + ")", ids.toArray());
+        }
+    }
+
+    private HistorySegment segment(HistoryArchiveSegment archive) {
+        return openSegments.computeIfAbsent(archive.getMonthStart(), monthStart -> {
+            try {
+                return HistorySegment.open(Paths.get(directory).resolve(archive.getFileName()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private ResponseStatusException unavailable(HistoryArchiveSegment archive, Exception e) {
+        log.error("보관된 거래 내역을 읽을 수 없습니다: file={}", archive.getFileName(), e);
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "보관된 거래 내역을 읽을 수 없습니다.", e);
+    }
+
+    private static AccountHistoryDto toDto(ResultSet rs) throws SQLException {
+        return new AccountHistoryDto(
+                rs.getLong("id"),
+                rs.getObject("history_date", LocalDateTime.class),
+                rs.getLong("history_price"),
+                TransactionType.valueOf(rs.getString("history_status")),
+                HistoryCategory.valueOf(rs.getString("history_category")),
+                rs.getString("history_name"),
+                rs.getString("history_transfer_target"));
+    }
+}
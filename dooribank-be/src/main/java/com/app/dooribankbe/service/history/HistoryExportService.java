@@ -0,0 +1,379 @@
+package com.app.dooribankbe.service.history;
+
+import com.app.dooribankbe.controller.dto.AccountHistoryDto;
+import com.app.dooribankbe.controller.dto.AccountHistoryExportDto;
+import com.app.dooribankbe.domain.entity.HistoryArchiveSegment;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.repository.MemberAccountRepository;
+import com.app.dooribankbe.service.cache.AccountMetadata;
+import com.app.dooribankbe.service.statement.StatementService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 거래 내역 내보내기 (감사 자료, 우리두리 백필용 CSV / NDJSON)
+ *
+ * 계좌를 ID 순으로 page-size 개씩 읽고, 그 구간의 account_history 를 (account_id, history_date, id) 순의
+ * forward-only 커서로 흘려 읽으며 한 행씩 바로 응답 스트림에 씁니다.
+ * 힙에는 계좌 한 페이지와 출력 버퍼(buffer-bytes)만 두므로 행 수와 상관없이 메모리가 일정하고,
+ * 클라이언트가 늦게 읽으면 쓰기가 막혀 커서도 그만큼 천천히 읽습니다.
+ * 계좌마다 보관된 달(세그먼트 파일)의 행을 먼저 쓰고 DB 에 남은 행을 이어 씁니다.
+ * 계좌 페이지마다 읽기 전용 REPEATABLE READ 트랜잭션 하나에서 (복제본이 있으면 복제본에서) 보관된 달 목록과 DB 행을 함께 읽으므로,
+ * 실행 중에 보관 작업이 돌아도 한 계좌의 행이 빠지거나 겹치지 않습니다. 스냅샷을 페이지마다 새로 잡아
+ * 긴 내보내기가 undo 로그를 오래 붙잡지 않는 대신, 페이지마다 다른 시점을 봅니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HistoryExportService {
+
+    static final String CSV_HEADER = "account_num,history_id,history_date,history_status,history_category,"
+            + "history_price,history_name,history_transfer_target\n";
+
+    // 기간을 생략했을 때 쓰는 MySQL DATETIME 범위
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final String ACCOUNTS_SQL = """
+            SELECT id, account_num
+            FROM tbl_member_account
+            WHERE id > ? AND id <= ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String HISTORY_SQL = """
+            SELECT account_id, id, history_date, history_price, history_status, history_category,
+                   history_name, history_transfer_target
+            FROM account_history
+            WHERE account_id >= ? AND account_id <= ? AND history_date >= ? AND history_date < ?
+            ORDER BY account_id, history_date, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final MemberAccountRepository memberAccountRepository;
+    private final HistoryArchiveService historyArchiveService;
+    private final MeterRegistry meterRegistry;
+
+    private TransactionTemplate snapshotTemplate;
+    private Counter rowCounter;
+
+    @Value("${dooribank.export.page-size:1000}")
+    private int pageSize;
+
+    @Value("${dooribank.export.history.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${dooribank.export.history.buffer-bytes:65536}")
+    private int bufferBytes;
+
+    @PostConstruct
+    void init() {
+        snapshotTemplate = new TransactionTemplate(transactionManager);
+        snapshotTemplate.setReadOnly(true);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        rowCounter = Counter.builder("dooribank.history.export.rows")
+                .description("내보낸 거래 내역 행 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 응답을 쓰기 시작하기 전에 요청을 검사합니다.
+     *
+     * @return accountNumber 의 계좌 ID. accountNumber 가 null 이면 null (모든 계좌)
+     */
+    public Long prepare(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from 은 to 보다 이전이어야 합니다.");
+        }
+        if (accountNumber == null) {
+            return null;
+        }
+        return memberAccountRepository.findMetadataByAccountNumber(accountNumber)
+                .map(AccountMetadata::id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "계좌를 찾을 수 없습니다."));
+    }
+
+    /**
+     * 계좌(null 이면 모든 계좌)의 [from, to) 거래 내역을 out 에 씁니다. out 은 닫지 않습니다.
+     *
+     * @param from null 이면 처음부터
+     * @param to null 이면 끝까지
+     * @return 쓴 행 수
+     */
+    public long export(Long accountId, LocalDateTime from, LocalDateTime to, boolean ndjson, boolean gzip,
+                       OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, bufferBytes) : null;
+        BufferedOutputStream buffered = new BufferedOutputStream(compressed != null ? compressed : out, bufferBytes);
+        RowWriter writer = ndjson ? new NdjsonWriter(buffered) : new CsvWriter(buffered);
+        if (!ndjson) {
+            buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        LocalDateTime start = from != null ? from : MIN_DATE;
+        LocalDateTime end = to != null ? to : MAX_DATE;
+
+        long rows;
+        try {
+            rows = writeAll(accountId, start, end, writer);
+        } catch (UncheckedIOException e) {
+            log.warn("거래 내역 내보내기 중단: accountId={}, cause={}", accountId, e.getCause().toString());
+            throw e.getCause();
+        }
+        buffered.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        log.info("거래 내역 내보내기 완료: accountId={}, from={}, to={}, format={}, gzip={}, rows={}, elapsedMs={}",
+                accountId, from, to, ndjson ? "ndjson" : "csv", gzip, rows, System.currentTimeMillis() - started);
+        return rows;
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    private long writeAll(Long accountId, LocalDateTime from, LocalDateTime to, RowWriter writer) {
+        long[] lastId = {accountId != null ? accountId - 1 : Long.MIN_VALUE};
+        long maxId = accountId != null ? accountId : Long.MAX_VALUE;
+        long rows = 0;
+        while (true) {
+            ChunkWriter chunk = snapshotTemplate.execute(status -> writePage(lastId[0], maxId, from, to, writer));
+            if (chunk == null) {
+                break;
+            }
+            rowCounter.increment(chunk.rows);
+            rows += chunk.rows;
+            lastId[0] = chunk.accounts.get(chunk.accounts.size() - 1).id();
+            if (chunk.accounts.size() < pageSize) {
+                break;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * (lastId, maxId] 의 계좌 한 페이지를 한 스냅샷에서 씁니다. 남은 계좌가 없으면 null 입니다.
+     */
+    private ChunkWriter writePage(long lastId, long maxId, LocalDateTime from, LocalDateTime to, RowWriter writer) {
+        List<Account> accounts = jdbcTemplate.query(ACCOUNTS_SQL,
+                (rs, rowNum) -> new Account(rs.getLong("id"), rs.getString("account_num")),
+                lastId, maxId, pageSize);
+        if (accounts.isEmpty()) {
+            return null;
+        }
+        // MySQL 스트리밍 커서를 연 동안에는 같은 커넥션으로 다른 쿼리를 못 하므로 보관된 달 목록을 먼저 읽습니다.
+        List<HistoryArchiveSegment> archives = historyArchiveService.segmentsBetween(from, to);
+        ChunkWriter chunk = new ChunkWriter(accounts, archives, from, to, writer);
+        writeChunk(chunk);
+        return chunk;
+    }
+
+    private void writeChunk(ChunkWriter chunk) {
+        Statement[] statement = new Statement[1];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(HISTORY_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL Connector/J 는 useCursorFetch=true 일 때만 fetch 크기대로 서버 커서에서 나눠 읽고,
+            // 그렇지 않으면 전체 결과를 받아 두므로 Integer.MIN_VALUE 로 한 행씩 스트리밍합니다.
+            ps.setFetchSize(streamsRowByRow(con) ? Integer.MIN_VALUE : fetchSize);
+            ps.setLong(1, chunk.accounts.get(0).id());
+            ps.setLong(2, chunk.accounts.get(chunk.accounts.size() - 1).id());
+            ps.setTimestamp(3, Timestamp.valueOf(chunk.from));
+            ps.setTimestamp(4, Timestamp.valueOf(chunk.to));
+            statement[0] = ps;
+            return ps;
+        }, rs -> {
+            try {
+                chunk.row(rs.getLong("account_id"), toDto(rs));
+            } catch (IOException e) {
+                cancel(statement[0]);
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                cancel(statement[0]);
+                throw e;
+            }
+        });
+        try {
+            chunk.advanceTo(Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean streamsRowByRow(Connection con) throws SQLException {
+        DatabaseMetaData metaData = con.getMetaData();
+        return metaData.getDatabaseProductName().toLowerCase().contains("mysql")
+                && !metaData.getURL().toLowerCase().contains("usecursorfetch=true");
+    }
+
+    /**
+     * MySQL 스트리밍 결과는 닫을 때 남은 행을 모두 읽어 버리므로, 클라이언트가 끊겼으면 먼저 쿼리를 취소합니다.
+     */
+    private static void cancel(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            log.debug("내보내기 쿼리 취소 실패", e);
+        }
+    }
+
+    private static AccountHistoryDto toDto(ResultSet rs) throws SQLException {
+        return new AccountHistoryDto(
+                rs.getLong("id"),
+                rs.getObject("history_date", LocalDateTime.class),
+                rs.getLong("history_price"),
+                TransactionType.valueOf(rs.getString("history_status")),
+                HistoryCategory.valueOf(rs.getString("history_category")),
+                rs.getString("history_name"),
+                rs.getString("history_transfer_target"));
+    }
+
+    private record Account(long id, String accountNumber) {
+    }
+
+    /**
+     * 계좌 한 페이지와 그 구간의 DB 커서를 계좌 ID 순으로 맞춰 가며 씁니다. (계좌마다 보관된 행 → DB 행)
+     */
+    private final class ChunkWriter {
+
+        private final List<Account> accounts;
+        private final List<HistoryArchiveSegment> archives;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final RowWriter writer;
+        private int next;
+        private Account current;
+        private long rows;
+
+        ChunkWriter(List<Account> accounts, List<HistoryArchiveSegment> archives,
+                    LocalDateTime from, LocalDateTime to, RowWriter writer) {
+            this.accounts = accounts;
+            this.archives = archives;
+            this.from = from;
+            this.to = to;
+            this.writer = writer;
+        }
+
+        void row(long accountId, AccountHistoryDto history) throws IOException {
+            if (current == null || current.id() != accountId) {
+                advanceTo(accountId);
+            }
+            // 계좌 목록을 읽은 뒤 생긴 계좌의 행은 건너뜁니다.
+            if (current != null && current.id() == accountId) {
+                write(current, history);
+            }
+        }
+
+        /**
+         * accountId 앞의 (DB 에 남은 행이 없는) 계좌는 보관된 행만 쓰고, accountId 계좌의 보관된 행을 씁니다.
+         */
+        void advanceTo(long accountId) throws IOException {
+            current = null;
+            while (next < accounts.size() && accounts.get(next).id() <= accountId) {
+                current = accounts.get(next++);
+                writeArchived(current);
+            }
+        }
+
+        private void writeArchived(Account account) {
+            if (archives.isEmpty()) {
+                return;
+            }
+            historyArchiveService.forEachInRange(archives, account.id(), from, to, history -> {
+                try {
+                    write(account, history);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        private void write(Account account, AccountHistoryDto history) throws IOException {
+            writer.write(account.accountNumber(), history);
+            rows++;
+        }
+    }
+
+    private interface RowWriter {
+
+        void write(String accountNumber, AccountHistoryDto history) throws IOException;
+    }
+
+    private static final class CsvWriter implements RowWriter {
+
+        private final OutputStream out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        CsvWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(String accountNumber, AccountHistoryDto history) throws IOException {
+            line.setLength(0);
+            StatementService.appendCsv(line, accountNumber);
+            line.append(',').append(history.historyId());
+            line.append(',').append(history.historyDate());
+            line.append(',').append(history.historyStatus().name());
+            line.append(',').append(history.historyCategory().name());
+            line.append(',').append(history.historyPrice());
+            line.append(',');
+            StatementService.appendCsv(line, history.historyName());
+            line.append(',');
+            StatementService.appendCsv(line, history.historyTransferTarget());
+            line.append('\n');
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private final class NdjsonWriter implements RowWriter {
+
+        private final OutputStream out;
+        // 행마다 스트림을 닫거나 flush 하지 않도록 끕니다. (flush 는 버퍼가 찰 때만)
+        private final ObjectWriter json = objectMapper.writerFor(AccountHistoryExportDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        NdjsonWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(String accountNumber, AccountHistoryDto history) throws IOException {
+            json.writeValue(out, AccountHistoryExportDto.of(accountNumber, history));
+            out.write('\n');
+        }
+    }
+}
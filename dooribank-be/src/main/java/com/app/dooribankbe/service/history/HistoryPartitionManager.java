@@ -0,0 +1,160 @@
+package com.app.dooribankbe.service.history;
+
+import com.app.dooribankbe.config.SchedulingConfig;
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * account_history 월별 파티션 관리 (MySQL 전용, dooribank.history.partitioning.enabled=true 일 때만)
+ *
+ * ID가 발급 시각을 담고 있으므로(TimeOrderedIdSource) PK 변경 없이 RANGE (id) 로 나눕니다. 파티션 pYYYYMM 은 그달 말까지의 ID를 담고,
+ * 마지막 pmax 에서 다가올 달의 파티션을 미리 잘라 둡니다. 보관이 끝난 달은 DELETE 대신 파티션째 지웁니다. (HistoryArchiveService)
+ * 처음 켜면 테이블을 다시 만드는 ALTER 가 실행되므로 큰 테이블은 점검 시간에 켜야 합니다.
+ * MySQL 파티션 테이블은 외래 키를 지원하지 않아 account_history 의 FK 를 먼저 지웁니다.
+ * 시간순 ID 이전(IDENTITY)의 행은 ID로 달을 알 수 없으므로 plegacy 파티션에 두고 지우지 않습니다. (보관은 history_date 기준 DELETE)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HistoryPartitionManager {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'uuuuMM");
+    private static final String LEGACY_PARTITION = "plegacy";
+
+    private static final String PARTITIONS_SQL = """
+            SELECT PARTITION_NAME
+            FROM information_schema.PARTITIONS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'account_history' AND PARTITION_NAME IS NOT NULL
+            ORDER BY PARTITION_ORDINAL_POSITION
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${dooribank.history.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dooribank.history.partitioning.future-months:3}")
+    private int futureMonths;
+
+    private volatile boolean active;
+
+    /**
+     * 그달 1일 0시(시스템 시간대) 이후에 발급된 ID는 모두 이 값 이상입니다.
+     */
+    public static long boundaryOf(YearMonth month) {
+        return TimeOrderedIdSource.minIdAt(month.atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    public boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("mysql");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        if (!isMySql()) {
+            log.warn("account_history 파티션은 MySQL 에서만 지원합니다. 파티션 관리를 건너뜁니다.");
+            return;
+        }
+        if (partitions().isEmpty()) {
+            partitionTable();
+        }
+        active = true;
+        addFuturePartitions();
+    }
+
+    @Scheduled(cron = "${dooribank.history.partitioning.cron:0 0 3 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void maintain() {
+        if (active) {
+            addFuturePartitions();
+        }
+    }
+
+    /**
+     * 그달의 파티션을 지웁니다. 보관이 끝난 달에만 호출해야 합니다.
+     *
+     * @return 파티션을 쓰지 않거나 그달 파티션이 없으면 false (호출한 쪽에서 DELETE 로 지웁니다)
+     */
+    public boolean dropPartition(YearMonth month) {
+        if (!active) {
+            return false;
+        }
+        String name = month.format(PARTITION_NAME);
+        if (!partitions().contains(name)) {
+            return false;
+        }
+        jdbcTemplate.execute("ALTER TABLE account_history DROP PARTITION " + name);
+        log.info("account_history 파티션 삭제: {}", name);
+        return true;
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class);
+    }
+
+    private void partitionTable() {
+        List<String> foreignKeys = jdbcTemplate.queryForList("""
+                SELECT CONSTRAINT_NAME
+                FROM information_schema.REFERENTIAL_CONSTRAINTS
+                WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'account_history'
+                """, String.class);
+        for (String foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE account_history DROP FOREIGN KEY " + foreignKey);
+        }
+
+        Long minId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM account_history WHERE id >= ?", Long.class, TimeOrderedIdSource.LEGACY_ID_LIMIT);
+        YearMonth first = minId != null
+                ? YearMonth.from(TimeOrderedIdSource.timestampOf(minId).atZone(ZoneId.systemDefault()))
+                : YearMonth.now();
+        YearMonth last = YearMonth.now().plusMonths(futureMonths);
+        StringJoiner definitions = new StringJoiner(", ", "(", ")");
+        definitions.add("PARTITION " + LEGACY_PARTITION + " VALUES LESS THAN (" + TimeOrderedIdSource.LEGACY_ID_LIMIT + ")");
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        definitions.add("PARTITION pmax VALUES LESS THAN MAXVALUE");
+        log.info("account_history 를 월별 파티션으로 변환합니다: {} ~ {}", first, last);
+        jdbcTemplate.execute("ALTER TABLE account_history PARTITION BY RANGE (id) " + definitions);
+    }
+
+    private void addFuturePartitions() {
+        YearMonth latest = partitions().stream()
+                .filter(name -> !"pmax".equals(name) && !LEGACY_PARTITION.equals(name))
+                .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                .max(YearMonth::compareTo)
+                .orElseGet(() -> YearMonth.now().minusMonths(1));
+        YearMonth last = YearMonth.now().plusMonths(futureMonths);
+        for (YearMonth month = latest.plusMonths(1); !month.isAfter(last); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("ALTER TABLE account_history REORGANIZE PARTITION pmax INTO ("
+                    + definition(month) + ", PARTITION pmax VALUES LESS THAN MAXVALUE)");
+            log.info("account_history 파티션 추가: {}", month.format(PARTITION_NAME));
+        }
+    }
+
+    /**
+     * 파티션 pYYYYMM 은 다음 달 1일 경계보다 작은 ID를 담습니다.
+     */
+    private static String definition(YearMonth month) {
+        return "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN (" + boundaryOf(month.plusMonths(1)) + ")";
+    }
+}
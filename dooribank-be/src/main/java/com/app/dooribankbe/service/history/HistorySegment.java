@@ -0,0 +1,420 @@
+package com.app.dooribankbe.service.history;
+
+import com.app.dooribankbe.controller.dto.AccountHistoryDto;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 보관된 거래 내역 세그먼트 파일 (한 달치 account_history)
+ *
+ * <pre>
+ * [블록]* [인덱스] [푸터]
+ * 블록   : deflate 로 압축한 행 묶음. 한 블록에는 한 계좌의 행만 (account_id, history_date, id) 순으로 최대 BLOCK_ROWS 개 들어갑니다.
+ *          행 = id·일시(마이크로초)는 앞 행과의 차이를 varint 로, 금액은 varint, 상태·카테고리는 1바이트, 이름·상대 계좌는 길이+UTF-8
+ * 인덱스 : 블록마다 (account_id, 첫/마지막 일시, 위치, 길이, 행 수, CRC32). 행이 아니라 블록 단위라 계좌 수에 비례해 작습니다.
+ * 푸터   : 인덱스 위치, 블록 수, 전체 행 수, MAGIC
+ * </pre>
+ *
+ * 읽을 때는 인덱스만 메모리에 올리고, 요청한 계좌의 블록만 위치 지정 읽기로 가져와 압축을 풉니다. (여러 스레드에서 함께 써도 됩니다)
+ */
+public final class HistorySegment implements Closeable {
+
+    static final int BLOCK_ROWS = 512;
+
+    private static final int MAGIC = 0x44485331; // "DHS1"
+    private static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES * 3;
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES * 4 + Integer.BYTES * 3;
+    private static final TransactionType[] STATUSES = TransactionType.values();
+    private static final HistoryCategory[] CATEGORIES = HistoryCategory.values();
+
+    private final FileChannel channel;
+    private final long[] accountIds;
+    private final long[] firstMicros;
+    private final long[] lastMicros;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final int[] rowCounts;
+    private final int[] checksums;
+    private final long rowCount;
+
+    private HistorySegment(FileChannel channel, int blocks, long rowCount) {
+        this.channel = channel;
+        this.accountIds = new long[blocks];
+        this.firstMicros = new long[blocks];
+        this.lastMicros = new long[blocks];
+        this.offsets = new long[blocks];
+        this.lengths = new int[blocks];
+        this.rowCounts = new int[blocks];
+        this.checksums = new int[blocks];
+        this.rowCount = rowCount;
+    }
+
+    public static HistorySegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < FOOTER_BYTES) {
+                throw new IOException("세그먼트 파일이 손상되었습니다: " + path);
+            }
+            ByteBuffer footer = readFully(channel, size - FOOTER_BYTES, FOOTER_BYTES);
+            long indexOffset = footer.getLong();
+            int blocks = footer.getInt();
+            int rows = footer.getInt();
+            if (footer.getInt() != MAGIC || indexOffset + (long) blocks * INDEX_ENTRY_BYTES != size - FOOTER_BYTES) {
+                throw new IOException("세그먼트 파일이 손상되었습니다: " + path);
+            }
+            HistorySegment segment = new HistorySegment(channel, blocks, rows);
+            ByteBuffer index = readFully(channel, indexOffset, blocks * INDEX_ENTRY_BYTES);
+            for (int i = 0; i < blocks; i++) {
+                segment.accountIds[i] = index.getLong();
+                segment.firstMicros[i] = index.getLong();
+                segment.lastMicros[i] = index.getLong();
+                segment.offsets[i] = index.getLong();
+                segment.lengths[i] = index.getInt();
+                segment.rowCounts[i] = index.getInt();
+                segment.checksums[i] = index.getInt();
+            }
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 계좌의 내역을 최신순((history_date, id) 내림차순)으로 limit 건까지 읽습니다.
+     *
+     * @param cursorDate 이 (일시, ID) 보다 이전 행만 읽습니다. null 이면 처음부터
+     * @param filter 상태·카테고리 같은 추가 조건
+     */
+    public List<AccountHistoryDto> readNewestFirst(long accountId, LocalDateTime cursorDate, Long cursorId,
+                                                   Predicate<AccountHistoryDto> filter, int limit) throws IOException {
+        List<AccountHistoryDto> result = new ArrayList<>();
+        int[] range = blockRange(accountId);
+        long cursorMicros = cursorDate != null ? toMicros(cursorDate) : Long.MAX_VALUE;
+        for (int block = range[1] - 1; block >= range[0] && result.size() < limit; block--) {
+            if (firstMicros[block] > cursorMicros) {
+                continue;
+            }
+            List<AccountHistoryDto> rows = readBlock(block);
+            for (int i = rows.size() - 1; i >= 0 && result.size() < limit; i--) {
+                AccountHistoryDto row = rows.get(i);
+                if (cursorDate != null && !isBefore(row, cursorDate, cursorId)) {
+                    continue;
+                }
+                if (filter.test(row)) {
+                    result.add(row);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 계좌의 내역 중 [fromInclusive, toExclusive) 구간을 오래된 순으로 모두 읽습니다.
+     */
+    public List<AccountHistoryDto> readRange(long accountId, LocalDateTime fromInclusive, LocalDateTime toExclusive)
+            throws IOException {
+        List<AccountHistoryDto> result = new ArrayList<>();
+        forEachInRange(accountId, fromInclusive, toExclusive, result::add);
+        return result;
+    }
+
+    /**
+     * readRange 와 같은 순서로 행을 action 에 넘깁니다. 한 번에 블록 하나만 메모리에 올립니다.
+     *
+     * @param fromInclusive null 이면 처음부터
+     * @param toExclusive null 이면 끝까지
+     */
+    public void forEachInRange(long accountId, LocalDateTime fromInclusive, LocalDateTime toExclusive,
+                               Consumer<AccountHistoryDto> action) throws IOException {
+        long from = fromInclusive != null ? toMicros(fromInclusive) : Long.MIN_VALUE;
+        long to = toExclusive != null ? toMicros(toExclusive) : Long.MAX_VALUE;
+        int[] range = blockRange(accountId);
+        for (int block = range[0]; block < range[1]; block++) {
+            if (lastMicros[block] < from || firstMicros[block] >= to) {
+                continue;
+            }
+            for (AccountHistoryDto row : readBlock(block)) {
+                long micros = toMicros(row.historyDate());
+                if (micros >= from && micros < to) {
+                    action.accept(row);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    /**
+     * 계좌의 블록 구간 [start, end). 인덱스는 account_id 순으로 정렬되어 있습니다.
+     */
+    private int[] blockRange(long accountId) {
+        int found = Arrays.binarySearch(accountIds, accountId);
+        if (found < 0) {
+            return new int[]{0, 0};
+        }
+        int start = found;
+        while (start > 0 && accountIds[start - 1] == accountId) {
+            start--;
+        }
+        int end = found + 1;
+        while (end < accountIds.length && accountIds[end] == accountId) {
+            end++;
+        }
+        return new int[]{start, end};
+    }
+
+    private List<AccountHistoryDto> readBlock(int block) throws IOException {
+        ByteBuffer compressed = readFully(channel, offsets[block], lengths[block]);
+        CRC32 crc = new CRC32();
+        crc.update(compressed.duplicate());
+        if ((int) crc.getValue() != checksums[block]) {
+            throw new IOException("세그먼트 블록 체크섬이 맞지 않습니다: block=" + block);
+        }
+        List<AccountHistoryDto> rows = new ArrayList<>(rowCounts[block]);
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                new ByteArrayInputStream(compressed.array(), 0, compressed.limit()), inflater))) {
+            long id = 0;
+            long micros = 0;
+            for (int i = 0; i < rowCounts[block]; i++) {
+                id += readVarLong(in);
+                micros += readVarLong(in);
+                long price = readVarLong(in);
+                TransactionType status = STATUSES[in.readUnsignedByte()];
+                HistoryCategory category = CATEGORIES[in.readUnsignedByte()];
+                String name = readString(in);
+                String target = readString(in);
+                rows.add(new AccountHistoryDto(id, fromMicros(micros), price, status, category, name, target));
+            }
+        } finally {
+            inflater.end();
+        }
+        return rows;
+    }
+
+    private static boolean isBefore(AccountHistoryDto row, LocalDateTime cursorDate, Long cursorId) {
+        int compared = row.historyDate().compareTo(cursorDate);
+        return compared < 0 || (compared == 0 && row.historyId() < cursorId);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("세그먼트 파일이 예상보다 짧습니다.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException("varint 가 너무 깁니다.");
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 세그먼트 쓰기. append 는 (account_id, history_date, id) 오름차순으로 호출해야 합니다.
+     * 한 번에 한 블록만 메모리에 두므로 한 달치 내역을 스트리밍으로 쓸 수 있습니다.
+     */
+    public static final class Writer implements Closeable {
+
+        private final OutputStream out;
+        private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(64 * 1024);
+        private final DataOutputStream block = new DataOutputStream(blockBytes);
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final DataOutputStream indexOut = new DataOutputStream(index);
+
+        private long position;
+        private int blocks;
+        private int rows;
+        private long blockAccountId;
+        private int blockRows;
+        private long blockFirstMicros;
+        private long previousId;
+        private long previousMicros;
+        private long firstAccountId;
+        private long previousAccountId = Long.MIN_VALUE;
+
+        public Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        public void append(long accountId, AccountHistoryDto row) throws IOException {
+            long micros = toMicros(row.historyDate());
+            if (accountId < previousAccountId) {
+                throw new IllegalArgumentException("세그먼트 행은 account_id 순으로 추가해야 합니다.");
+            }
+            if (rows == 0) {
+                firstAccountId = accountId;
+            }
+            previousAccountId = accountId;
+            if (blockRows > 0 && (accountId != blockAccountId || blockRows == BLOCK_ROWS)) {
+                flushBlock();
+            }
+            if (blockRows == 0) {
+                blockAccountId = accountId;
+                blockFirstMicros = micros;
+                previousId = 0;
+                previousMicros = 0;
+            }
+            writeVarLong(block, row.historyId() - previousId);
+            writeVarLong(block, micros - previousMicros);
+            writeVarLong(block, row.historyPrice());
+            block.writeByte(row.historyStatus().ordinal());
+            block.writeByte(row.historyCategory().ordinal());
+            writeString(block, row.historyName());
+            writeString(block, row.historyTransferTarget());
+            previousId = row.historyId();
+            previousMicros = micros;
+            blockRows++;
+            rows++;
+        }
+
+        public int rowCount() {
+            return rows;
+        }
+
+        /**
+         * 지금까지 쓴 행의 가장 작은/큰 account_id. 행이 없으면 null 입니다.
+         */
+        public Long minAccountId() {
+            return rows > 0 ? firstAccountId : null;
+        }
+
+        public Long maxAccountId() {
+            return rows > 0 ? previousAccountId : null;
+        }
+
+        /**
+         * 남은 블록과 인덱스, 푸터를 씁니다. 출력 스트림은 닫지 않습니다.
+         */
+        public void finish() throws IOException {
+            if (blockRows > 0) {
+                flushBlock();
+            }
+            long indexOffset = position;
+            indexOut.flush();
+            index.writeTo(out);
+            DataOutputStream footer = new DataOutputStream(out);
+            footer.writeLong(indexOffset);
+            footer.writeInt(blocks);
+            footer.writeInt(rows);
+            footer.writeInt(MAGIC);
+            footer.flush();
+        }
+
+        @Override
+        public void close() {
+            deflater.end();
+        }
+
+        private void flushBlock() throws IOException {
+            block.flush();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(blockBytes.size() / 3 + 64);
+            deflater.reset();
+            try (DeflaterOutputStream deflating = new DeflaterOutputStream(compressed, deflater)) {
+                blockBytes.writeTo(deflating);
+            }
+            byte[] bytes = compressed.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            out.write(bytes);
+
+            indexOut.writeLong(blockAccountId);
+            indexOut.writeLong(blockFirstMicros);
+            indexOut.writeLong(previousMicros);
+            indexOut.writeLong(position);
+            indexOut.writeInt(bytes.length);
+            indexOut.writeInt(blockRows);
+            indexOut.writeInt((int) crc.getValue());
+
+            position += bytes.length;
+            blocks++;
+            blockBytes.reset();
+            blockRows = 0;
+        }
+    }
+}
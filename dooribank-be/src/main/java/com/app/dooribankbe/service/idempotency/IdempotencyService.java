@@ -0,0 +1,263 @@
+package com.app.dooribankbe.service.idempotency;
+
+import com.app.dooribankbe.domain.entity.IdempotencyRecord;
+import com.app.dooribankbe.domain.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 처리 (2단계 저장소)
+ *
+ * 1단계: 최근 키 → 진행 중/완료된 결과(CompletableFuture)를 담는 메모리 LRU+TTL 캐시.
+ *        같은 인스턴스로 동시에 들어온 재시도는 DB에 가지 않고 먼저 들어온 요청의 결과를 기다립니다.
+ * 2단계: idempotency_key 테이블. 키를 별도 트랜잭션으로 먼저 선점하고, 응답은 거래와 같은 트랜잭션에서 저장하므로
+ *        거래가 커밋되면 응답도 반드시 남습니다. 다른 인스턴스나 캐시에서 밀려난 키의 재시도는 저장된 응답을 돌려줍니다.
+ *
+ * 같은 키로 다른 요청 본문이 오면 422, 처리 중인 요청을 wait-timeout 안에 기다리지 못하면 409 를 돌려줍니다.
+ * 선점마다 토큰을 새로 발급하고 응답 저장은 토큰이 맞을 때만 반영하므로, stale-claim-ms 보다 오래 걸린 요청의 키를
+ * 다른 요청이 다시 선점하면 먼저 실행된 쪽의 거래는 409 와 함께 롤백됩니다. (같은 키로 두 번 출금되지 않도록)
+ * 실패한 요청은 기록을 남기지 않으므로 같은 키로 다시 시도할 수 있습니다.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate claimTransactionTemplate;
+    private final Cache<String, InFlight> recent;
+    private final Duration waitTimeout;
+    private final Duration staleClaimAfter;
+    private final Counter memoryReplays;
+    private final Counter databaseReplays;
+
+    @Value("${dooribank.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${dooribank.idempotency.cache.max-size:100000}") long maxSize,
+                              @Value("${dooribank.idempotency.cache.ttl-ms:600000}") long ttlMillis,
+                              @Value("${dooribank.idempotency.wait-timeout-ms:5000}") long waitTimeoutMillis,
+                              @Value("${dooribank.idempotency.stale-claim-ms:60000}") long staleClaimMillis) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMillis);
+        this.staleClaimAfter = Duration.ofMillis(staleClaimMillis);
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, "idempotency");
+        this.memoryReplays = Counter.builder("dooribank.idempotency.replays")
+                .description("Idempotency-Key 재시도에 저장된 응답을 돌려준 횟수")
+                .tag("tier", "memory")
+                .register(meterRegistry);
+        this.databaseReplays = Counter.builder("dooribank.idempotency.replays")
+                .description("Idempotency-Key 재시도에 저장된 응답을 돌려준 횟수")
+                .tag("tier", "db")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 키가 없으면 바로 실행하고, 있으면 같은 키의 요청이 한 번만 실행되도록 합니다.
+     *
+     * @param key Idempotency-Key 헤더 값 (없으면 null)
+     * @param operation 거래 종류 (PAYMENT, TRANSFER). 요청 해시에 포함됩니다.
+     * @param request 요청 본문. 같은 키의 요청이 같은 요청인지 비교하는 데 씁니다.
+     * @param responseType DB에 저장된 응답을 되살릴 타입
+     * @param action 실제 거래. 이 메서드가 연 트랜잭션에 참여합니다.
+     */
+    public <T> T execute(String key, String operation, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " 는 1~" + MAX_KEY_LENGTH + "자여야 합니다.");
+        }
+        String requestHash = hash(operation, request);
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight existing = recent.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            return awaitExisting(existing, requestHash, responseType);
+        }
+
+        try {
+            T response = claimAndRun(key, operation, requestHash, responseType, action);
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            recent.asMap().remove(key, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dooribank.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("만료된 Idempotency-Key {}건 삭제", deleted);
+        }
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    private <T> T awaitExisting(InFlight existing, String requestHash, Class<T> responseType) {
+        if (!existing.requestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "같은 " + HEADER + " 로 다른 요청이 이미 처리되었습니다.");
+        }
+        try {
+            Object response = existing.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            memoryReplays.increment();
+            return responseType.cast(response);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "같은 " + HEADER + " 요청이 아직 처리 중입니다.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "요청 처리가 중단되었습니다.");
+        }
+    }
+
+    private <T> T claimAndRun(String key, String operation, String requestHash, Class<T> responseType, Supplier<T> action) {
+        String claimToken = UUID.randomUUID().toString();
+        if (!claim(key, operation, requestHash, claimToken)) {
+            IdempotencyRecord record = claimTransactionTemplate.execute(status ->
+                    idempotencyRecordRepository.findById(key).orElse(null));
+            if (record == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "같은 " + HEADER + " 요청이 아직 처리 중입니다.");
+            }
+            if (!record.getRequestHash().equals(requestHash)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "같은 " + HEADER + " 로 다른 요청이 이미 처리되었습니다.");
+            }
+            if (record.isCompleted()) {
+                databaseReplays.increment();
+                return fromJson(record.getResponseBody(), responseType);
+            }
+            if (!reclaimStale(key, requestHash, claimToken)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "같은 " + HEADER + " 요청이 아직 처리 중입니다.");
+            }
+            log.warn("응답 없이 남은 Idempotency-Key 재선점: key={}", key);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                T response = action.get();
+                if (idempotencyRecordRepository.complete(key, claimToken, toJson(response), LocalDateTime.now()) != 1) {
+                    // 예외로 거래 트랜잭션을 롤백합니다. 응답은 키를 다시 선점한 요청이 남깁니다.
+                    log.warn("Idempotency-Key 선점을 다른 요청이 가져가 거래를 롤백합니다: key={}", key);
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "같은 " + HEADER + " 요청을 다른 요청이 처리하고 있습니다.");
+                }
+                return response;
+            });
+        } catch (RuntimeException e) {
+            releaseClaim(key, claimToken);
+            throw e;
+        }
+    }
+
+    private boolean claim(String key, String operation, String requestHash, String claimToken) {
+        try {
+            claimTransactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepository.insertClaim(key, operation, requestHash, claimToken, LocalDateTime.now()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private boolean reclaimStale(String key, String requestHash, String claimToken) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = claimTransactionTemplate.execute(status ->
+                idempotencyRecordRepository.reclaimStale(key, requestHash, claimToken, now, now.minus(staleClaimAfter)));
+        return updated != null && updated == 1;
+    }
+
+    private void releaseClaim(String key, String claimToken) {
+        try {
+            claimTransactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.releaseClaim(key, claimToken));
+        } catch (RuntimeException e) {
+            // 남은 선점은 stale-claim-ms 가 지나면 재시도가 다시 가져갑니다.
+            log.warn("Idempotency-Key 선점 해제 실패: key={}", key, e);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ':');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("요청 해시 계산 실패", e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("응답 직렬화 실패", e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(json, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("저장된 응답 역직렬화 실패", e);
+        }
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,345 @@
+package com.app.dooribankbe.service.ledger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 잔액을 메모리에 보관하는 샤드 원장 (dooribank.ledger.enabled=true 일 때만 동작)
+ *
+ * - 계좌번호 해시로 샤드를 고르고, 각 샤드는 단일 스레드가 자기 맵만 변경합니다. (single-writer)
+ * - 내구성은 AccountHistory가 담당합니다. 잔액은 커밋된 변경만 모아 주기적으로 tbl_member_account에 씁니다. (write-behind)
+ * - 잔액 부족 판단은 "확정 잔액 - 진행 중인 출금" 으로 합니다. 진행 중인 입금은 롤백될 수 있으므로 세지 않습니다.
+ * - tbl_member_account.ledger_history_id 는 "이 잔액이 반영한 마지막 history ID" 입니다.
+ *   장애로 write-behind가 유실되어도 그 이후 history를 재생해 잔액을 복구합니다.
+ *
+ * 인스턴스 하나가 잔액의 주인이라는 전제이므로, 여러 인스턴스로 띄울 때는 사용하지 않습니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceLedger {
+
+    // history 행의 잔액 변화량 (입금 +, 결제·출금 -)
+    public static final String SIGNED_PRICE =
+            "CASE WHEN history_status = 'TRANSFER_IN' THEN history_price ELSE -history_price END";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${dooribank.ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dooribank.ledger.shards:8}")
+    private int shardCount;
+
+    @Value("${dooribank.ledger.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${dooribank.ledger.idle-evict-ms:600000}")
+    private long idleEvictMillis;
+
+    private Shard[] shards;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        log.info("인메모리 잔액 원장 활성화: shards={}", shardCount);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 잔액을 차감합니다. 잔액이 부족하면 MemberAccount.withdraw 와 같은 예외를 던집니다.
+     */
+    public LedgerPosting debit(String accountNumber, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("출금 금액은 0보다 커야 합니다.");
+        }
+        return post(accountNumber, -amount);
+    }
+
+    /**
+     * 잔액을 증가시킵니다.
+     */
+    public LedgerPosting credit(String accountNumber, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("입금 금액은 0보다 커야 합니다.");
+        }
+        return post(accountNumber, amount);
+    }
+
+    /**
+     * 트랜잭션 종료 시 호출합니다. 커밋이면 확정 잔액에 반영하고, 롤백이면 진행 중인 변경에서 뺍니다.
+     * 반영이 끝난 뒤에 돌아오므로, 계좌 잠금을 풀기 전에 호출해야 다음 트랜잭션이 이 결과를 보고 잔액을 판단합니다.
+     */
+    public void complete(LedgerPosting posting, boolean committed) {
+        Shard shard = shardOf(posting.getAccountNumber());
+        shard.call(() -> {
+            Entry entry = shard.entries.get(posting.getAccountNumber());
+            entry.pending--;
+            long delta = posting.getDelta();
+            if (delta < 0) {
+                entry.pendingDebits += delta;
+            } else {
+                entry.pendingCredits -= delta;
+            }
+            if (committed) {
+                entry.committedBalance += delta;
+                if (posting.getHistoryId() != null) {
+                    entry.lastHistoryId = Math.max(entry.lastHistoryId, posting.getHistoryId());
+                }
+                entry.dirty = true;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 커밋된 잔액을 tbl_member_account 에 일괄 반영합니다.
+     * 진행 중인 변경이 있는 계좌는 history ID 기준점이 어긋날 수 있으므로 다음 주기로 미룹니다.
+     */
+    @Scheduled(fixedDelayString = "${dooribank.ledger.flush-interval-ms:100}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        for (Shard shard : shards) {
+            List<FlushRow> rows = shard.call(shard::drainDirty);
+            if (rows.isEmpty()) {
+                continue;
+            }
+            try {
+                jdbcTemplate.batchUpdate(
+                        "UPDATE tbl_member_account SET balance = ?, ledger_history_id = ? WHERE id = ?",
+                        rows.stream()
+                                .map(row -> new Object[]{row.balance(), row.lastHistoryId(), row.accountId()})
+                                .toList());
+            } catch (RuntimeException e) {
+                log.error("원장 write-behind 실패, 다음 주기에 재시도합니다: shard={}, rows={}", shard.index, rows.size(), e);
+                shard.execute(() -> {
+                    shard.markDirty(rows);
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * 원장이 꺼진 채로 기동되면, 이전에 원장이 관리하던 계좌의 잔액을 history 재생으로 맞춘 뒤 관리 표시를 지웁니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverIfDisabled() {
+        if (enabled) {
+            return;
+        }
+        int recovered = jdbcTemplate.update(
+                "UPDATE tbl_member_account a SET "
+                        + "a.balance = a.balance + (SELECT COALESCE(SUM(" + SIGNED_PRICE + "), 0) FROM account_history h "
+                        + "WHERE h.account_id = a.id AND h.id > a.ledger_history_id), "
+                        + "a.ledger_history_id = NULL "
+                        + "WHERE a.ledger_history_id IS NOT NULL");
+        if (recovered > 0) {
+            log.info("원장 비활성화 상태로 기동: {}개 계좌 잔액을 history 기준으로 복구했습니다.", recovered);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    private LedgerPosting post(String accountNumber, long delta) {
+        if (!enabled) {
+            throw new IllegalStateException("원장이 비활성화되어 있습니다.");
+        }
+        Shard shard = shardOf(accountNumber);
+        if (shard.executor.getQueue().size() >= queueCapacity) {
+            throw new RejectedExecutionException("원장 샤드 대기열이 가득 찼습니다: shard=" + shard.index);
+        }
+        return shard.call(() -> {
+            Entry entry = shard.entries.get(accountNumber);
+            if (entry == null) {
+                entry = load(accountNumber);
+                shard.entries.put(accountNumber, entry);
+            }
+            if (delta < 0) {
+                if (entry.committedBalance - entry.pendingDebits + delta < 0) {
+                    throw new IllegalStateException("계좌 잔액이 부족합니다.");
+                }
+                entry.pendingDebits -= delta;
+            } else {
+                entry.pendingCredits += delta;
+            }
+            entry.pending++;
+            entry.lastTouched = System.currentTimeMillis();
+            return new LedgerPosting(accountNumber, delta,
+                    entry.committedBalance - entry.pendingDebits + entry.pendingCredits);
+        });
+    }
+
+    /**
+     * 샤드 스레드에서만 호출됩니다. DB 잔액에 ledger_history_id 이후의 history를 재생해 현재 잔액을 구합니다.
+     */
+    private Entry load(String accountNumber) {
+        Map<String, Object> row = jdbcTemplate.queryForList(
+                        "SELECT id, balance, ledger_history_id FROM tbl_member_account WHERE account_num = ?",
+                        accountNumber)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("계좌를 찾을 수 없습니다."));
+
+        long accountId = ((Number) row.get("id")).longValue();
+        long balance = ((Number) row.get("balance")).longValue();
+        Number ledgerHistoryId = (Number) row.get("ledger_history_id");
+
+        Entry entry = new Entry(accountId);
+        if (ledgerHistoryId == null) {
+            long baseline = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(id), 0) FROM account_history WHERE account_id = ?", Long.class, accountId);
+            jdbcTemplate.update(
+                    "UPDATE tbl_member_account SET ledger_history_id = ? WHERE id = ? AND ledger_history_id IS NULL",
+                    baseline, accountId);
+            entry.lastHistoryId = baseline;
+        } else {
+            Map<String, Object> replay = jdbcTemplate.queryForMap(
+                    "SELECT COALESCE(SUM(" + SIGNED_PRICE + "), 0) AS delta, MAX(id) AS last_id "
+                            + "FROM account_history WHERE account_id = ? AND id > ?",
+                    accountId, ledgerHistoryId.longValue());
+            balance += ((Number) replay.get("delta")).longValue();
+            Number lastId = (Number) replay.get("last_id");
+            entry.lastHistoryId = lastId != null ? lastId.longValue() : ledgerHistoryId.longValue();
+            entry.dirty = lastId != null;
+        }
+        entry.committedBalance = balance;
+        return entry;
+    }
+
+    private Shard shardOf(String accountNumber) {
+        return shards[Math.floorMod(accountNumber.hashCode(), shards.length)];
+    }
+
+    private record FlushRow(String accountNumber, long accountId, long balance, long lastHistoryId) {
+    }
+
+    private static final class Entry {
+        private final long accountId;
+        private long committedBalance;
+        // 아직 커밋되지 않은 출금 합계와 입금 합계 (둘 다 양수)
+        private long pendingDebits;
+        private long pendingCredits;
+        private long lastHistoryId;
+        private int pending;
+        private boolean dirty;
+        private long lastTouched = System.currentTimeMillis();
+
+        private Entry(long accountId) {
+            this.accountId = accountId;
+        }
+    }
+
+    private final class Shard {
+        private final int index;
+        private final ThreadPoolExecutor executor;
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        private Shard(int index) {
+            this.index = index;
+            // 확정/취소 작업은 버려지면 안 되므로 대기열은 무제한으로 두고, 새 변경만 post()에서 수용량을 확인합니다.
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "ledger-shard-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+
+        private <T> T call(Callable<T> task) {
+            try {
+                return execute(task).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        private <T> CompletableFuture<T> execute(Callable<T> task) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+        }
+
+        private List<FlushRow> drainDirty() {
+            List<FlushRow> rows = new ArrayList<>();
+            long evictBefore = System.currentTimeMillis() - idleEvictMillis;
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> item = iterator.next();
+                Entry entry = item.getValue();
+                if (entry.pending > 0) {
+                    continue;
+                }
+                if (entry.dirty) {
+                    rows.add(new FlushRow(item.getKey(), entry.accountId, entry.committedBalance, entry.lastHistoryId));
+                    entry.dirty = false;
+                } else if (entry.lastTouched < evictBefore) {
+                    iterator.remove();
+                }
+            }
+            return rows;
+        }
+
+        private void markDirty(List<FlushRow> rows) {
+            for (FlushRow row : rows) {
+                Entry entry = entries.get(row.accountNumber());
+                if (entry != null) {
+                    entry.dirty = true;
+                }
+            }
+        }
+    }
+}
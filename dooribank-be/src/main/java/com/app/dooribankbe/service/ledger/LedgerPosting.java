@@ -0,0 +1,29 @@
+package com.app.dooribankbe.service.ledger;
+
+import lombok.Getter;
+
+/**
+ * 원장에 반영된 잔액 변경 한 건.
+ * 트랜잭션이 끝나면 {@link BalanceLedger#complete(LedgerPosting, boolean)}로 확정 또는 취소합니다.
+ */
+@Getter
+public final class LedgerPosting {
+
+    private final String accountNumber;
+    private final long delta;
+    private final long balanceAfter;
+    private Long historyId;
+
+    LedgerPosting(String accountNumber, long delta, long balanceAfter) {
+        this.accountNumber = accountNumber;
+        this.delta = delta;
+        this.balanceAfter = balanceAfter;
+    }
+
+    /**
+     * 이 변경을 기록한 AccountHistory ID를 연결합니다. (복구 시 재생 기준점)
+     */
+    public void attach(Long historyId) {
+        this.historyId = historyId;
+    }
+}
@@ -0,0 +1,302 @@
+package com.app.dooribankbe.service.limit;
+
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 계좌별 거래 한도 (메모리, 잠금 없음)
+ *
+ * - 결제 속도: 최근 payment-window-ms 동안 결제 시도가 max-payments 건을 넘으면 거절합니다.
+ *   계좌마다 max-payments 칸에 허용한 결제 시각을 두고, 구간 밖 시각이 남은 칸을 CAS 로 차지해야 허용합니다. (정확한 슬라이딩 윈도)
+ * - 하루 이체 출금 합계: 오늘 TRANSFER_OUT 합계가 daily-transfer-out 을 넘으면 거절합니다.
+ *   (날짜, 합계)를 long 하나에 묶어 CAS 로 바꾸므로 날짜가 바뀌는 순간에도 합계가 섞이지 않습니다.
+ * 둘 다 HashMap 조회와 CAS 한두 번이라 결제/이체 경로에 DB 조회를 더하지 않습니다. 거절은 429 입니다.
+ *
+ * 한도는 인스턴스마다 따로 셉니다. 기동할 때 오늘 이체 출금 합계와 최근 구간의 결제를 account_history 에서 읽어 채웁니다.
+ * 결제 속도는 시도 횟수 기준이라 잔액 부족 등으로 실패한 결제도 셉니다. 이체 출금 합계는 롤백되면 돌려놓습니다. ({@link #releaseTransferOut})
+ */
+@Component
+@Slf4j
+public class TransactionLimiter {
+
+    // (epochDay << TOTAL_BITS) | 합계. 합계는 2^43 - 1 원(약 8.7조)까지 담습니다.
+    private static final int TOTAL_BITS = 43;
+    private static final long TOTAL_MASK = (1L << TOTAL_BITS) - 1;
+
+    private static final String RECENT_PAYMENTS_SQL = """
+            SELECT a.account_num, h.id
+            FROM account_history h
+            JOIN tbl_member_account a ON a.id = h.account_id
+            WHERE h.id >= ? AND h.id < ? AND h.history_status = 'PAYMENT'
+            ORDER BY h.id
+            """;
+
+    private static final String TODAY_TRANSFER_OUT_SQL = """
+            SELECT a.account_num, SUM(h.history_price) AS total
+            FROM account_history h
+            JOIN tbl_member_account a ON a.id = h.account_id
+            WHERE h.id >= ? AND h.id < ? AND h.history_status = 'TRANSFER_OUT'
+            GROUP BY a.account_num
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int maxPayments;
+    private final long paymentWindowMillis;
+    private final long dailyTransferOut;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ConcurrentHashMap<String, AccountLimit> accounts = new ConcurrentHashMap<>();
+    private final Counter paymentRejections;
+    private final Counter transferRejections;
+    // 이 시각 이후의 거래는 메모리에서 셉니다. (기동 시 채우기는 이 시각 이전 내역만 읽습니다)
+    private final long countingSince = System.currentTimeMillis();
+
+    private volatile Day day;
+
+    public TransactionLimiter(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${dooribank.limits.enabled:false}") boolean enabled,
+                              @Value("${dooribank.limits.max-payments:0}") int maxPayments,
+                              @Value("${dooribank.limits.payment-window-ms:60000}") long paymentWindowMillis,
+                              @Value("${dooribank.limits.daily-transfer-out:0}") long dailyTransferOut) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxPayments = maxPayments;
+        this.paymentWindowMillis = paymentWindowMillis;
+        this.dailyTransferOut = Math.min(dailyTransferOut, TOTAL_MASK);
+        this.paymentRejections = Counter.builder("dooribank.limit.rejections")
+                .description("한도 초과로 거절한 거래 수")
+                .tag("limit", "payment_velocity")
+                .register(meterRegistry);
+        this.transferRejections = Counter.builder("dooribank.limit.rejections")
+                .description("한도 초과로 거절한 거래 수")
+                .tag("limit", "daily_transfer_out")
+                .register(meterRegistry);
+        Gauge.builder("dooribank.limit.accounts", accounts, ConcurrentHashMap::size)
+                .description("한도 상태를 메모리에 둔 계좌 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 결제 한 건을 셉니다. 구간 안의 결제가 이미 max-payments 건이면 429 를 던집니다.
+     */
+    public void acquirePayment(String accountNumber) {
+        if (!enabled || maxPayments <= 0) {
+            return;
+        }
+        if (!limitOf(accountNumber).tryAcquirePayment(System.currentTimeMillis(), paymentWindowMillis)) {
+            paymentRejections.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "결제 한도를 초과했습니다. (" + paymentWindowMillis / 1000 + "초에 " + maxPayments + "건)");
+        }
+    }
+
+    /**
+     * 오늘 이체 출금 합계에 amount 를 더합니다. 한도를 넘으면 더하지 않고 429 를 던집니다.
+     *
+     * @return 더했으면 true. 거래가 롤백되면 같은 금액으로 {@link #releaseTransferOut} 를 불러야 합니다.
+     */
+    public boolean reserveTransferOut(String accountNumber, Long amount) {
+        if (!enabled || dailyTransferOut <= 0 || amount == null || amount <= 0) {
+            return false;
+        }
+        if (!limitOf(accountNumber).tryAddTransferOut(today(System.currentTimeMillis()), amount, dailyTransferOut)) {
+            transferRejections.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "하루 이체 한도를 초과했습니다. (" + dailyTransferOut + "원)");
+        }
+        return true;
+    }
+
+    public void releaseTransferOut(String accountNumber, long amount) {
+        AccountLimit limit = accounts.get(accountNumber);
+        if (limit != null) {
+            limit.subtractTransferOut(today(System.currentTimeMillis()), amount);
+        }
+    }
+
+    /**
+     * 기동 전 내역으로 오늘 이체 출금 합계와 최근 구간의 결제를 채웁니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long idTo = TimeOrderedIdSource.minIdAt(Instant.ofEpochMilli(countingSince));
+        int[] loaded = new int[2];
+        if (maxPayments > 0) {
+            long idFrom = TimeOrderedIdSource.minIdAt(Instant.ofEpochMilli(countingSince - paymentWindowMillis));
+            jdbcTemplate.query(RECENT_PAYMENTS_SQL, rs -> {
+                long at = TimeOrderedIdSource.timestampOf(rs.getLong("id")).toEpochMilli();
+                limitOf(rs.getString("account_num")).recordPayment(at);
+                loaded[0]++;
+            }, idFrom, idTo);
+        }
+        if (dailyTransferOut > 0) {
+            LocalDate today = LocalDate.ofEpochDay(today(countingSince));
+            long idFrom = TimeOrderedIdSource.minIdAt(today.atStartOfDay(zone).toInstant());
+            jdbcTemplate.query(TODAY_TRANSFER_OUT_SQL, rs -> {
+                limitOf(rs.getString("account_num")).addTransferOut(today.toEpochDay(), rs.getLong("total"));
+                loaded[1]++;
+            }, idFrom, idTo);
+        }
+        log.info("거래 한도 상태 채움: payments={}, transferAccounts={}, elapsedMs={}",
+                loaded[0], loaded[1], System.currentTimeMillis() - started);
+    }
+
+    /**
+     * 결제 구간이 지났고 오늘 이체 출금도 없는 계좌의 상태를 지웁니다.
+     * 지우는 순간 같은 계좌로 들어온 거래 한 건은 지워진 상태에 셀 수 있습니다. (다음 거래부터는 새 상태로 셉니다)
+     */
+    @Scheduled(fixedDelayString = "${dooribank.limits.cleanup-interval-ms:600000}")
+    public void evictIdle() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long today = today(now);
+        int before = accounts.size();
+        accounts.values().removeIf(limit -> limit.idle(now - paymentWindowMillis, today));
+        int evicted = before - accounts.size();
+        if (evicted > 0) {
+            log.debug("거래 한도 상태 {}개 정리", evicted);
+        }
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    private AccountLimit limitOf(String accountNumber) {
+        AccountLimit limit = accounts.get(accountNumber);
+        if (limit == null) {
+            limit = accounts.computeIfAbsent(accountNumber, key -> new AccountLimit(maxPayments));
+        }
+        return limit;
+    }
+
+    /**
+     * 현재 날짜(epochDay). 날짜가 바뀔 때만 시간대 계산을 합니다.
+     */
+    private long today(long nowMillis) {
+        Day current = day;
+        if (current == null || nowMillis < current.startMillis() || nowMillis >= current.endMillis()) {
+            LocalDate date = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+            current = new Day(date.toEpochDay(),
+                    date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                    date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            day = current;
+        }
+        return current.epochDay();
+    }
+
+    private record Day(long epochDay, long startMillis, long endMillis) {
+    }
+
+    /**
+     * 계좌 하나의 한도 상태
+     */
+    static final class AccountLimit {
+
+        // 허용한 결제 시각(ms). 칸의 값은 CAS 로만 바꿉니다.
+        private final AtomicLongArray payments;
+        // 다음에 먼저 볼 칸을 고르는 힌트 (정확할 필요는 없습니다)
+        private final AtomicLong paymentCount = new AtomicLong();
+        private final AtomicLong transferOut = new AtomicLong();
+
+        AccountLimit(int maxPayments) {
+            this.payments = maxPayments > 0 ? new AtomicLongArray(maxPayments) : null;
+        }
+
+        /**
+         * 구간 밖 시각이 남은 칸 하나를 본 값 그대로일 때만 now 로 바꾸면(CAS) 허용하고, 모든 칸이 구간 안이면 거절합니다.
+         * 칸의 값은 이전 값이 구간 밖일 때만 바뀌므로 같은 칸에 들어간 두 결제는 구간 이상 떨어져 있고,
+         * 한 구간 안에 허용되는 결제는 칸 수를 넘지 않습니다.
+         */
+        boolean tryAcquirePayment(long now, long windowMillis) {
+            int length = payments.length();
+            long start = paymentCount.get();
+            for (int i = 0; i < length; i++) {
+                int slot = (int) ((start + i) % length);
+                long observed = payments.get(slot);
+                while (observed <= now - windowMillis) {
+                    if (payments.compareAndSet(slot, observed, now)) {
+                        paymentCount.incrementAndGet();
+                        return true;
+                    }
+                    observed = payments.get(slot);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 기동 전 결제를 채웁니다. 칸에 더 늦은 시각이 있으면 덮어쓰지 않습니다.
+         */
+        void recordPayment(long at) {
+            if (payments != null) {
+                int slot = (int) (paymentCount.getAndIncrement() % payments.length());
+                payments.accumulateAndGet(slot, at, Math::max);
+            }
+        }
+
+        boolean tryAddTransferOut(long today, long amount, long limit) {
+            while (true) {
+                long packed = transferOut.get();
+                long total = (packed >>> TOTAL_BITS) == today ? packed & TOTAL_MASK : 0;
+                if (total + amount > limit) {
+                    return false;
+                }
+                if (transferOut.compareAndSet(packed, (today << TOTAL_BITS) | (total + amount))) {
+                    return true;
+                }
+            }
+        }
+
+        void addTransferOut(long today, long amount) {
+            transferOut.updateAndGet(packed -> {
+                long total = (packed >>> TOTAL_BITS) == today ? packed & TOTAL_MASK : 0;
+                return (today << TOTAL_BITS) | Math.min(total + amount, TOTAL_MASK);
+            });
+        }
+
+        /**
+         * 날짜가 이미 바뀌었으면 (어제 거래의 롤백) 아무것도 하지 않습니다.
+         */
+        void subtractTransferOut(long today, long amount) {
+            transferOut.updateAndGet(packed -> (packed >>> TOTAL_BITS) == today
+                    ? (today << TOTAL_BITS) | Math.max(0, (packed & TOTAL_MASK) - amount)
+                    : packed);
+        }
+
+        boolean idle(long windowStart, long today) {
+            if (payments != null) {
+                for (int i = 0; i < payments.length(); i++) {
+                    if (payments.get(i) > windowStart) {
+                        return false;
+                    }
+                }
+            }
+            long packed = transferOut.get();
+            return (packed >>> TOTAL_BITS) != today || (packed & TOTAL_MASK) == 0;
+        }
+    }
+}
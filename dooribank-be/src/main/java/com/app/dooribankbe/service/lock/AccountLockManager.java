@@ -0,0 +1,93 @@
+package com.app.dooribankbe.service.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계좌번호 기준 스트라이프 잠금 (JVM 내부)
+ *
+ * 계좌번호 해시로 고정 개수의 잠금 중 하나를 고르고, 여러 계좌를 잠글 때는 항상 스트라이프 번호 오름차순으로 획득합니다.
+ * 획득 순서가 하나로 정해져 있으므로 A→B, B→A 이체가 동시에 들어와도 교착 상태가 생기지 않습니다.
+ */
+@Component
+@Slf4j
+public class AccountLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final Timer waitTimer;
+    private final Counter timeoutCounter;
+
+    public AccountLockManager(MeterRegistry meterRegistry,
+                              @Value("${dooribank.lock.stripes:1024}") int stripeCount,
+                              @Value("${dooribank.lock.timeout-ms:3000}") long timeoutMillis) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.waitTimer = Timer.builder("dooribank.account.lock.wait")
+                .description("계좌 잠금 획득 대기 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("dooribank.account.lock.timeouts")
+                .description("계좌 잠금 획득 시간 초과 횟수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 주어진 계좌들을 정해진 순서로 잠급니다. 제한 시간 안에 모두 획득하지 못하면 이미 잡은 잠금을 풀고 503을 던집니다.
+     */
+    public AccountLocks lock(String... accountNumbers) {
+        int[] indexes = Arrays.stream(accountNumbers)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        List<ReentrantLock> acquired = new ArrayList<>(indexes.length);
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    timeoutCounter.increment();
+                    throw lockUnavailable(accountNumbers);
+                }
+                acquired.add(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw lockUnavailable(accountNumbers);
+        } finally {
+            if (acquired.size() != indexes.length) {
+                new AccountLocks(acquired).close();
+            }
+        }
+
+        waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return new AccountLocks(acquired);
+    }
+
+    private int stripeOf(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), stripes.length);
+    }
+
+    private ResponseStatusException lockUnavailable(String... accountNumbers) {
+        log.warn("계좌 잠금 획득 실패: accounts={}, timeoutMs={}", Arrays.toString(accountNumbers), timeoutMillis);
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+    }
+}
@@ -0,0 +1,28 @@
+package com.app.dooribankbe.service.lock;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link AccountLockManager}가 획득한 잠금 묶음. 획득한 스레드에서 역순으로 해제합니다.
+ */
+public final class AccountLocks implements AutoCloseable {
+
+    private final List<ReentrantLock> locks;
+    private boolean released;
+
+    AccountLocks(List<ReentrantLock> locks) {
+        this.locks = locks;
+    }
+
+    @Override
+    public void close() {
+        if (released) {
+            return;
+        }
+        released = true;
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.app.dooribankbe.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 결제/이체 처리 시간과 결과 메트릭
+ *
+ * dooribank.transaction (Timer): type=payment|transfer|batch_payment, outcome=success|insufficient_funds|bad_password|not_found|...
+ * dooribank.transaction.batch.items (Counter): 일괄 결제의 건별 결과, outcome 태그는 위와 같습니다.
+ */
+@Component
+public class TransactionMetrics {
+
+    private final Meter.MeterProvider<Timer> transactionTimer;
+    private final Meter.MeterProvider<Counter> batchItemCounter;
+
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        this.transactionTimer = Timer.builder("dooribank.transaction")
+                .description("결제/이체 처리 시간 (트랜잭션 커밋 포함)")
+                .withRegistry(meterRegistry);
+        this.batchItemCounter = Counter.builder("dooribank.transaction.batch.items")
+                .description("일괄 결제 건별 처리 결과")
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * action 의 실행 시간을 결과별로 기록합니다. 예외는 그대로 다시 던집니다.
+     */
+    public <T> T record(String type, Supplier<T> action) {
+        long startedAt = System.nanoTime();
+        TransactionOutcome outcome = TransactionOutcome.ERROR;
+        try {
+            T result = action.get();
+            outcome = TransactionOutcome.SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = TransactionOutcome.of(e);
+            throw e;
+        } finally {
+            transactionTimer.withTags(Tags.of("type", type, "outcome", outcome.tag()))
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordBatchItems(TransactionOutcome outcome, int count) {
+        if (count > 0) {
+            batchItemCounter.withTags(Tags.of("outcome", outcome.tag())).increment(count);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.app.dooribankbe.service.metrics;
+
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+/**
+ * 결제/이체 결과 분류 (메트릭 outcome 태그)
+ */
+public enum TransactionOutcome {
+    SUCCESS,
+    INSUFFICIENT_FUNDS,
+    INVALID_AMOUNT,
+    BAD_PASSWORD,
+    NOT_FOUND,
+    INVALID_REQUEST,
+    CONFLICT,
+    LIMIT_EXCEEDED,
+    UNAVAILABLE,
+    ERROR;
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * 예외로 결과를 분류합니다. 잔액 부족(IllegalStateException)과 금액 오류(IllegalArgumentException)는
+     * AccountService 가 원인(cause)으로 넘긴 도메인 예외로 구분합니다.
+     */
+    public static TransactionOutcome of(Throwable error) {
+        if (!(error instanceof ResponseStatusException e)) {
+            return ERROR;
+        }
+        return switch (e.getStatusCode().value()) {
+            case 400 -> e.getCause() instanceof IllegalStateException ? INSUFFICIENT_FUNDS
+                    : e.getCause() instanceof IllegalArgumentException ? INVALID_AMOUNT
+                    : INVALID_REQUEST;
+            case 401 -> BAD_PASSWORD;
+            case 404 -> NOT_FOUND;
+            case 409, 422 -> CONFLICT;
+            case 429 -> LIMIT_EXCEEDED;
+            case 503 -> UNAVAILABLE;
+            default -> ERROR;
+        };
+    }
+}
@@ -0,0 +1,351 @@
+package com.app.dooribankbe.service.reconciliation;
+
+import com.app.dooribankbe.config.SchedulingConfig;
+import com.app.dooribankbe.controller.dto.ReconciliationMismatchDto;
+import com.app.dooribankbe.controller.dto.ReconciliationRunResponse;
+import com.app.dooribankbe.domain.entity.ReconciliationStatus;
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import com.app.dooribankbe.domain.repository.BalanceReconciliationRepository;
+import com.app.dooribankbe.service.ledger.BalanceLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌 잔액 대사 (계좌 잔액 == 시작 잔액 + history 합계 인지 확인)
+ *
+ * 계좌마다 balance_reconciliation 에 "verifiedThroughId 미만의 history 까지 더한 잔액(verifiedBalance)"을 남기고,
+ * 다음 실행에서는 그 이후의 history 만 더해 실제 잔액과 비교합니다. 계좌를 ID 구간(chunk)으로 나눠 ForkJoinPool 에서 병렬로 처리합니다.
+ *
+ * 비교 기준점(watermark)은 지금보다 settle 만큼 이전 시각의 최소 ID 입니다. ID 는 INSERT 시점에 정해지고 커밋은 그 뒤라서,
+ * 바로 직전 ID 까지 확인하면 아직 커밋되지 않은 더 작은 ID 의 행을 다음 실행에서 놓칩니다.
+ * 청크 하나는 읽기 전용 REPEATABLE READ 트랜잭션 하나에서 실제 잔액과 history 합계를 함께 읽으므로,
+ * 실행 중에 들어오는 거래는 watermark 이후 변화분으로 빼서 watermark 시점의 잔액끼리 비교합니다.
+ *
+ * 처음 확인하는 계좌는 history 로 설명되지 않는 시작 잔액(계좌 개설/이관 잔액)을 기준으로 삼습니다.
+ * 이 시작 잔액이 음수이면 history 만으로 만들 수 없는 잔액이므로 불일치로 기록합니다.
+ * 불일치는 차이가 0 이 될 때까지(잔액 정정 또는 정정 거래) 계속 MISMATCH 로 남습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceReconciliationService {
+
+    // 실제 잔액 = 계좌 잔액 + 아직 모으지 않은 잔액 슬롯 + 인메모리 원장 변화분 (StatementService 와 같은 계산)
+    private static final String ACCOUNTS_SQL = """
+            SELECT a.id,
+                   a.balance
+                   + COALESCE((SELECT SUM(s.balance) FROM account_balance_slot s WHERE s.account_id = a.id), 0)
+                   + COALESCE((SELECT SUM(%1$s) FROM account_history h
+                               WHERE h.account_id = a.id AND a.ledger_history_id IS NOT NULL AND h.id > a.ledger_history_id), 0)
+                     AS actual_balance,
+                   c.verified_through_id, c.verified_balance, c.difference, c.status
+            FROM tbl_member_account a
+            LEFT JOIN balance_reconciliation c ON c.account_id = a.id
+            WHERE a.id >= ? AND a.id < ?
+            ORDER BY a.id
+            """.formatted(BalanceLedger.SIGNED_PRICE);
+
+    // h.id >= ? (청크의 가장 오래된 체크포인트) 조건으로 PK/월 파티션 범위만 읽습니다.
+    private static final String DELTAS_SQL = """
+            SELECT h.account_id,
+                   COALESCE(SUM(CASE WHEN h.id < ? THEN 1 ELSE 0 END), 0) AS new_rows,
+                   COALESCE(SUM(CASE WHEN h.id < ? THEN %1$s ELSE 0 END), 0) AS verified_delta,
+                   COALESCE(SUM(CASE WHEN h.id >= ? THEN %1$s ELSE 0 END), 0) AS pending_delta
+            FROM account_history h
+            LEFT JOIN balance_reconciliation c ON c.account_id = h.account_id
+            WHERE h.account_id >= ? AND h.account_id < ? AND h.id >= ?
+              AND (c.verified_through_id IS NULL OR h.id >= c.verified_through_id)
+            GROUP BY h.account_id
+            """.formatted(BalanceLedger.SIGNED_PRICE);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO balance_reconciliation
+                (account_id, verified_through_id, verified_balance, actual_balance, difference, status, checked_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                verified_through_id = VALUES(verified_through_id),
+                verified_balance = VALUES(verified_balance),
+                actual_balance = VALUES(actual_balance),
+                difference = VALUES(difference),
+                status = VALUES(status),
+                checked_at = VALUES(checked_at)
+            """;
+
+    // 변화가 없던 계좌는 체크포인트 위치만 옮깁니다.
+    private static final String ADVANCE_SQL = """
+            UPDATE balance_reconciliation SET verified_through_id = ?, checked_at = ?
+            WHERE account_id >= ? AND account_id < ? AND verified_through_id < ?
+            """;
+
+    private static final String MISMATCHES_SQL = """
+            SELECT a.account_num, c.verified_balance, c.actual_balance, c.difference, c.verified_through_id, c.checked_at
+            FROM balance_reconciliation c
+            JOIN tbl_member_account a ON a.id = c.account_id
+            WHERE c.status = 'MISMATCH'
+            ORDER BY c.account_id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceReconciliationRepository balanceReconciliationRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong mismatchCount = new AtomicLong();
+
+    private TransactionTemplate snapshotTemplate;
+    private Counter detectedCounter;
+    private Counter checkedCounter;
+    private Timer runTimer;
+
+    @Value("${dooribank.reconciliation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dooribank.reconciliation.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${dooribank.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${dooribank.reconciliation.settle-seconds:60}")
+    private long settleSeconds;
+
+    @PostConstruct
+    void init() {
+        snapshotTemplate = new TransactionTemplate(transactionManager);
+        snapshotTemplate.setReadOnly(true);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        Gauge.builder("dooribank.reconciliation.mismatches", mismatchCount, AtomicLong::get)
+                .description("마지막 대사 후 잔액이 history 와 맞지 않는 계좌 수")
+                .register(meterRegistry);
+        detectedCounter = Counter.builder("dooribank.reconciliation.mismatches.detected")
+                .description("새로 발견되었거나 차이가 바뀐 불일치 건수")
+                .register(meterRegistry);
+        checkedCounter = Counter.builder("dooribank.reconciliation.accounts")
+                .description("대사한 계좌 수")
+                .register(meterRegistry);
+        runTimer = Timer.builder("dooribank.reconciliation.run")
+                .description("잔액 대사 한 번의 실행 시간")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${dooribank.reconciliation.cron:0 0 3 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void reconcileNightly() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    /**
+     * 모든 계좌를 대사합니다. 실패한 청크는 체크포인트가 그대로라 다음 실행에서 다시 확인합니다.
+     */
+    public synchronized ReconciliationRunResponse reconcile() {
+        long started = System.currentTimeMillis();
+        long watermark = TimeOrderedIdSource.minIdAt(Instant.now().minus(Duration.ofSeconds(settleSeconds)));
+
+        List<Callable<ChunkResult>> tasks = planChunks().stream()
+                .map(chunk -> (Callable<ChunkResult>) () -> reconcileChunk(chunk[0], chunk[1], watermark))
+                .toList();
+
+        int failed = 0;
+        long accounts = 0;
+        long newRows = 0;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            for (Future<ChunkResult> future : pool.invokeAll(tasks)) {
+                try {
+                    ChunkResult result = future.get();
+                    accounts += result.accounts();
+                    newRows += result.newRows();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("잔액 대사 청크 실패", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "잔액 대사가 중단되었습니다.", e);
+        } finally {
+            pool.shutdown();
+        }
+
+        long mismatches = balanceReconciliationRepository.countByStatus(ReconciliationStatus.MISMATCH);
+        mismatchCount.set(mismatches);
+        long elapsed = System.currentTimeMillis() - started;
+        runTimer.record(Duration.ofMillis(elapsed));
+        if (mismatches > 0 || failed > 0) {
+            log.warn("잔액 대사 완료: chunks={}, failed={}, accounts={}, newRows={}, mismatches={}, elapsedMs={}",
+                    tasks.size(), failed, accounts, newRows, mismatches, elapsed);
+        } else {
+            log.info("잔액 대사 완료: chunks={}, accounts={}, newRows={}, elapsedMs={}", tasks.size(), accounts, newRows, elapsed);
+        }
+        return new ReconciliationRunResponse(tasks.size(), failed, accounts, newRows, mismatches, elapsed);
+    }
+
+    /**
+     * 불일치 계좌를 계좌 ID 순으로 최대 limit 건 돌려줍니다.
+     */
+    public List<ReconciliationMismatchDto> findMismatches(int limit) {
+        return jdbcTemplate.query(MISMATCHES_SQL, (rs, rowNum) -> new ReconciliationMismatchDto(
+                rs.getString("account_num"),
+                rs.getLong("verified_balance"),
+                rs.getLong("actual_balance"),
+                rs.getLong("difference"),
+                rs.getLong("verified_through_id"),
+                rs.getObject("checked_at", LocalDateTime.class)), limit);
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    /**
+     * 계좌 ID 를 chunkSize 개씩 끊어 [from, to) 구간을 만듭니다. 마지막 구간은 이후에 생긴 계좌까지 포함합니다.
+     */
+    private List<long[]> planChunks() {
+        List<long[]> chunks = new ArrayList<>();
+        long idFrom = Long.MIN_VALUE;
+        while (true) {
+            Long last = jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM (SELECT id FROM tbl_member_account WHERE id >= ? ORDER BY id LIMIT ?) t",
+                    Long.class, idFrom, chunkSize);
+            if (last == null) {
+                break;
+            }
+            chunks.add(new long[]{idFrom, last + 1});
+            idFrom = last + 1;
+        }
+        if (!chunks.isEmpty()) {
+            chunks.get(chunks.size() - 1)[1] = Long.MAX_VALUE;
+        }
+        return chunks;
+    }
+
+    private ChunkResult reconcileChunk(long idFrom, long idTo, long watermark) {
+        Map<Long, AccountState> states = snapshotTemplate.execute(status -> readChunk(idFrom, idTo, watermark));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> upserts = new ArrayList<>();
+        long newRows = 0;
+        for (AccountState state : states.values()) {
+            newRows += state.newRows;
+            long actual = state.actualBalance - state.pendingDelta;
+            long verified;
+            if (state.verifiedThroughId == null) {
+                // 첫 대사: history 로 설명되지 않는 시작 잔액이 음수가 아니면 지금 잔액을 기준으로 삼습니다.
+                long opening = actual - state.verifiedDelta;
+                verified = opening < 0 ? state.verifiedDelta : actual;
+            } else {
+                verified = state.verifiedBalance + state.verifiedDelta;
+            }
+            long difference = actual - verified;
+            ReconciliationStatus status = difference == 0 ? ReconciliationStatus.OK : ReconciliationStatus.MISMATCH;
+            boolean changed = state.verifiedThroughId == null || state.newRows > 0
+                    || !status.name().equals(state.status) || !Objects.equals(difference, state.difference);
+            if (!changed) {
+                continue;
+            }
+            if (status == ReconciliationStatus.MISMATCH && !Objects.equals(difference, state.difference)) {
+                detectedCounter.increment();
+                log.warn("잔액 불일치: accountId={}, expected={}, actual={}, difference={}",
+                        state.id, verified, actual, difference);
+            }
+            upserts.add(new Object[]{state.id, watermark, verified, actual, difference, status.name(), now});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!upserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+            }
+            jdbcTemplate.update(ADVANCE_SQL, watermark, now, idFrom, idTo, watermark);
+        });
+        checkedCounter.increment(states.size());
+        return new ChunkResult(states.size(), newRows);
+    }
+
+    private Map<Long, AccountState> readChunk(long idFrom, long idTo, long watermark) {
+        Map<Long, AccountState> states = new LinkedHashMap<>();
+        jdbcTemplate.query(ACCOUNTS_SQL, rs -> {
+            AccountState state = new AccountState(
+                    rs.getLong("id"),
+                    rs.getLong("actual_balance"),
+                    rs.getObject("verified_through_id", Long.class),
+                    rs.getObject("verified_balance", Long.class),
+                    rs.getObject("difference", Long.class),
+                    rs.getString("status"));
+            states.put(state.id, state);
+        }, idFrom, idTo);
+        if (states.isEmpty()) {
+            return states;
+        }
+
+        // 처음 대사하는 계좌가 있으면 처음부터, 아니면 가장 오래된 체크포인트부터 읽습니다.
+        long scanFrom = states.values().stream()
+                .mapToLong(state -> state.verifiedThroughId == null ? Long.MIN_VALUE : state.verifiedThroughId)
+                .min()
+                .orElse(Long.MIN_VALUE);
+        jdbcTemplate.query(DELTAS_SQL, rs -> {
+            AccountState state = states.get(rs.getLong("account_id"));
+            if (state != null) {
+                state.newRows = rs.getLong("new_rows");
+                state.verifiedDelta = rs.getLong("verified_delta");
+                state.pendingDelta = rs.getLong("pending_delta");
+            }
+        }, watermark, watermark, watermark, idFrom, idTo, scanFrom);
+        return states;
+    }
+
+    private record ChunkResult(long accounts, long newRows) {
+    }
+
+    private static final class AccountState {
+
+        private final long id;
+        private final long actualBalance;
+        private final Long verifiedThroughId;
+        private final Long verifiedBalance;
+        private final Long difference;
+        private final String status;
+        private long newRows;
+        private long verifiedDelta;
+        private long pendingDelta;
+
+        AccountState(long id, long actualBalance, Long verifiedThroughId, Long verifiedBalance, Long difference, String status) {
+            this.id = id;
+            this.actualBalance = actualBalance;
+            this.verifiedThroughId = verifiedThroughId;
+            this.verifiedBalance = verifiedBalance;
+            this.difference = difference;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.app.dooribankbe.service.rollup;
+
+import com.app.dooribankbe.controller.dto.SpendingRollupDto;
+import com.app.dooribankbe.controller.dto.SpendingSummaryResponse;
+import com.app.dooribankbe.domain.entity.AccountHistory;
+import com.app.dooribankbe.domain.entity.RollupPeriod;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.repository.SpendingRollupRepository;
+import com.app.dooribankbe.service.cache.AccountMetadata;
+import com.app.dooribankbe.service.cache.AccountMetadataCache;
+import com.app.dooribankbe.service.history.HistoryArchiveService;
+import com.app.dooribankbe.service.lock.AccountLockManager;
+import com.app.dooribankbe.service.lock.AccountLocks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 계좌별 일/월 지출 집계 (account_spending_rollup)
+ *
+ * 결제(PAYMENT)와 이체 출금(TRANSFER_OUT) 내역을 저장하는 트랜잭션 안에서 일·월 집계 행을 함께 upsert 합니다.
+ * 같은 계좌의 거래는 AccountLockManager 로 직렬화되므로 집계 행 잠금 경합은 계좌 안에서만 생깁니다.
+ * 기존 내역은 rebuild 로 계좌 단위로 다시 계산합니다. 세그먼트로 보관된 달의 집계는 다시 계산하지 않고 그대로 둡니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpendingRollupService {
+
+    public static final long MAX_DAY_RANGE = 366;
+    public static final long MAX_MONTH_RANGE = 120;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO account_spending_rollup
+                (account_id, period_type, period_start, history_category, txn_count, total_amount)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                txn_count = txn_count + VALUES(txn_count),
+                total_amount = total_amount + VALUES(total_amount)
+            """;
+
+    private static final String DAILY_SPENDING_SQL = """
+            SELECT CAST(history_date AS DATE) AS spent_on, history_category, COUNT(*) AS txn_count,
+                   SUM(history_price) AS total_amount
+            FROM account_history
+            WHERE account_id = ? AND history_date >= ? AND history_status IN ('PAYMENT', 'TRANSFER_OUT')
+            GROUP BY CAST(history_date AS DATE), history_category
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final AccountMetadataCache accountMetadataCache;
+    private final HistoryArchiveService historyArchiveService;
+    private final AccountLockManager accountLockManager;
+
+    /**
+     * 지출 내역이면 해당 일·월 집계에 더합니다. 두 행은 한 번의 배치로 전송됩니다.
+     * 호출한 트랜잭션(내역 저장)과 함께 커밋/롤백됩니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long accountId, AccountHistory history) {
+        recordAll(accountId, List.of(history));
+    }
+
+    /**
+     * 같은 계좌의 여러 내역을 일·월·카테고리별로 먼저 합친 뒤 한 번의 배치로 더합니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Long accountId, List<AccountHistory> histories) {
+        Map<RollupKey, long[]> totals = new LinkedHashMap<>();
+        for (AccountHistory history : histories) {
+            if (!isSpending(history.getHistoryStatus())) {
+                continue;
+            }
+            LocalDate day = history.getHistoryDate().toLocalDate();
+            String category = history.getHistoryCategory().name();
+            add(totals, new RollupKey(RollupPeriod.DAY, day, category), 1L, history.getHistoryPrice());
+            add(totals, new RollupKey(RollupPeriod.MONTH, day.withDayOfMonth(1), category), 1L, history.getHistoryPrice());
+        }
+        if (!totals.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, toRows(accountId, totals));
+        }
+    }
+
+    /**
+     * 기간별 카테고리 지출 집계를 조회합니다. 내역을 읽지 않고 집계 행만 읽습니다.
+     *
+     * @param period DAY 면 일별, MONTH 면 월별 (from/to 는 해당 월의 1일로 맞춥니다)
+     */
+    @Transactional(readOnly = true)
+    public SpendingSummaryResponse getSummary(String accountNumber, RollupPeriod period, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "조회 시작일이 종료일보다 늦습니다.");
+        }
+        if (period == RollupPeriod.MONTH) {
+            from = from.withDayOfMonth(1);
+            to = to.withDayOfMonth(1);
+            if (ChronoUnit.MONTHS.between(from, to) >= MAX_MONTH_RANGE) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "월별 조회는 최대 " + MAX_MONTH_RANGE + "개월까지 가능합니다.");
+            }
+        } else if (ChronoUnit.DAYS.between(from, to) >= MAX_DAY_RANGE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "일별 조회는 최대 " + MAX_DAY_RANGE + "일까지 가능합니다.");
+        }
+        AccountMetadata account = accountMetadataCache.get(accountNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "계좌를 찾을 수 없습니다."));
+
+        List<SpendingRollupDto> items = spendingRollupRepository.findRange(account.id(), period, from, to).stream()
+                .map(rollup -> new SpendingRollupDto(
+                        rollup.getId().getPeriodStart(),
+                        rollup.getId().getHistoryCategory(),
+                        rollup.getTxnCount(),
+                        rollup.getTotalAmount()))
+                .toList();
+        long totalCount = items.stream().mapToLong(SpendingRollupDto::count).sum();
+        long totalAmount = items.stream().mapToLong(SpendingRollupDto::totalAmount).sum();
+        return new SpendingSummaryResponse(accountNumber, period, from, to, items, totalCount, totalAmount);
+    }
+
+    /**
+     * 계좌 하나의 집계를 내역에서 다시 계산합니다. 계좌 잠금을 잡은 채 지우고 다시 쓰므로
+     * 그 사이에 들어온 결제가 빠지거나 두 번 더해지지 않습니다.
+     */
+    public void rebuild(String accountNumber) {
+        AccountMetadata account = accountMetadataCache.get(accountNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "계좌를 찾을 수 없습니다."));
+        try (AccountLocks ignored = accountLockManager.lock(accountNumber)) {
+            transactionTemplate.executeWithoutResult(status -> rebuildAccount(account.id()));
+        }
+    }
+
+    /**
+     * 모든 계좌의 집계를 계좌 ID 순으로 다시 계산합니다. (백필용)
+     *
+     * @return 다시 계산한 계좌 수
+     */
+    public int rebuildAll(int pageSize) {
+        long lastId = 0L;
+        int rebuilt = 0;
+        while (true) {
+            List<String> accountNumbers = new ArrayList<>(pageSize);
+            List<Long> ids = new ArrayList<>(pageSize);
+            jdbcTemplate.query("SELECT id, account_num FROM tbl_member_account WHERE id > ? ORDER BY id LIMIT ?",
+                    rs -> {
+                        ids.add(rs.getLong("id"));
+                        accountNumbers.add(rs.getString("account_num"));
+                    }, lastId, pageSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                Long accountId = ids.get(i);
+                try (AccountLocks ignored = accountLockManager.lock(accountNumbers.get(i))) {
+                    transactionTemplate.executeWithoutResult(status -> rebuildAccount(accountId));
+                }
+                rebuilt++;
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+        log.info("지출 집계 재계산 완료: accounts={}", rebuilt);
+        return rebuilt;
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    private void rebuildAccount(Long accountId) {
+        LocalDate hotFrom = historyArchiveService.hotFrom().orElse(LocalDate.EPOCH);
+        jdbcTemplate.update("DELETE FROM account_spending_rollup WHERE account_id = ? AND period_start >= ?",
+                accountId, Date.valueOf(hotFrom));
+
+        Map<RollupKey, long[]> totals = new LinkedHashMap<>();
+        jdbcTemplate.query(DAILY_SPENDING_SQL, rs -> {
+            LocalDate day = rs.getDate("spent_on").toLocalDate();
+            String category = rs.getString("history_category");
+            long count = rs.getLong("txn_count");
+            long amount = rs.getLong("total_amount");
+            add(totals, new RollupKey(RollupPeriod.DAY, day, category), count, amount);
+            add(totals, new RollupKey(RollupPeriod.MONTH, day.withDayOfMonth(1), category), count, amount);
+        }, accountId, Timestamp.valueOf(hotFrom.atStartOfDay()));
+        if (!totals.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, toRows(accountId, totals));
+        }
+    }
+
+    private static void add(Map<RollupKey, long[]> totals, RollupKey key, long count, long amount) {
+        long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+        total[0] += count;
+        total[1] += amount;
+    }
+
+    private static List<Object[]> toRows(Long accountId, Map<RollupKey, long[]> totals) {
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> rows.add(new Object[]{
+                accountId, key.period().name(), Date.valueOf(key.periodStart()), key.category(), total[0], total[1]}));
+        return rows;
+    }
+
+    private record RollupKey(RollupPeriod period, LocalDate periodStart, String category) {
+    }
+
+    private static boolean isSpending(TransactionType type) {
+        return type == TransactionType.PAYMENT || type == TransactionType.TRANSFER_OUT;
+    }
+}
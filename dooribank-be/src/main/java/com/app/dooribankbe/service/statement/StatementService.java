@@ -0,0 +1,371 @@
+package com.app.dooribankbe.service.statement;
+
+import com.app.dooribankbe.config.SchedulingConfig;
+import com.app.dooribankbe.controller.dto.StatementRunResponse;
+import com.app.dooribankbe.domain.entity.StatementCheckpoint;
+import com.app.dooribankbe.domain.entity.StatementCheckpointId;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.repository.StatementCheckpointRepository;
+import com.app.dooribankbe.service.history.HistoryArchiveService;
+import com.app.dooribankbe.service.ledger.BalanceLedger;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * 일별 거래명세서 (계좌별 시작 잔액, 그날의 모든 거래, 마감 잔액)
+ *
+ * 계좌를 ID 구간별 파티션으로 나눠 ForkJoinPool 에서 병렬로 만들고, 파티션마다 {directory}/{날짜}/part-NNNNN.csv 파일 하나를 씁니다.
+ * 파티션 하나는 읽기 전용 REPEATABLE READ 트랜잭션 하나에서
+ * (1) 마감 잔액 = 현재 잔액 - 다음 날 이후 거래 합계 와 그날 변화량을 계좌별로 한 번에 읽고
+ * (2) 그날 거래를 (account_id, history_date, id) 순의 forward-only 커서로 흘려 읽으며 한 줄씩 바로 파일에 씁니다.
+ * 같은 스냅샷에서 읽으므로 실행 중에 들어오는 거래가 있어도 잔액과 거래 목록이 맞습니다.
+ * 파티션 파일을 다 쓰면 statement_checkpoint 에 완료를 남기며, 중간에 멈춰도 다시 실행하면 남은 파티션만 처리합니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementService {
+
+    static final String HEADER = "record_type,account_num,history_id,history_date,history_status,history_category,"
+            + "amount,balance,history_name,history_transfer_target\n";
+
+    // 아직 계좌 잔액에 반영되지 않은 잔액 슬롯과 인메모리 원장 변화분을 더해 실제 잔액을 구합니다.
+    private static final String CLOSING_SQL = """
+            SELECT a.id, a.account_num,
+                   a.balance
+                   + COALESCE((SELECT SUM(s.balance) FROM account_balance_slot s WHERE s.account_id = a.id), 0)
+                   + COALESCE((SELECT SUM(%1$s) FROM account_history h
+                               WHERE h.account_id = a.id AND a.ledger_history_id IS NOT NULL AND h.id > a.ledger_history_id), 0)
+                   - COALESCE((SELECT SUM(%1$s) FROM account_history h
+                               WHERE h.account_id = a.id AND h.history_date >= ?), 0) AS closing_balance,
+                   COALESCE((SELECT SUM(%1$s) FROM account_history h
+                             WHERE h.account_id = a.id AND h.history_date >= ? AND h.history_date < ?), 0) AS day_net
+            FROM tbl_member_account a
+            WHERE a.id >= ? AND a.id < ?
+            ORDER BY a.id
+            """.formatted(BalanceLedger.SIGNED_PRICE);
+
+    private static final String DAY_HISTORY_SQL = """
+            SELECT account_id, id, history_date, history_price, history_status, history_category,
+                   history_name, history_transfer_target
+            FROM account_history
+            WHERE account_id >= ? AND account_id < ? AND history_date >= ? AND history_date < ?
+            ORDER BY account_id, history_date, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final StatementCheckpointRepository statementCheckpointRepository;
+    private final HistoryArchiveService historyArchiveService;
+
+    private TransactionTemplate snapshotTemplate;
+
+    @Value("${dooribank.statement.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dooribank.statement.directory:./data/statements}")
+    private String directory;
+
+    @Value("${dooribank.statement.partition-size:5000}")
+    private int partitionSize;
+
+    @Value("${dooribank.statement.parallelism:4}")
+    private int parallelism;
+
+    @Value("${dooribank.statement.include-inactive:false}")
+    private boolean includeInactive;
+
+    @PostConstruct
+    void init() {
+        snapshotTemplate = new TransactionTemplate(transactionManager);
+        snapshotTemplate.setReadOnly(true);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Scheduled(cron = "${dooribank.statement.cron:0 30 0 * * *}", scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void generateYesterday() {
+        if (enabled) {
+            generate(LocalDate.now().minusDays(1));
+        }
+    }
+
+    /**
+     * date 의 명세서를 만듭니다. 이미 완료된 파티션은 건너뜁니다.
+     */
+    public synchronized StatementRunResponse generate(LocalDate date) {
+        if (!date.isBefore(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지난 날짜의 명세서만 만들 수 있습니다.");
+        }
+        if (historyArchiveService.hotFrom().filter(date::isBefore).isPresent()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "보관된 달의 명세서는 만들 수 없습니다.");
+        }
+        long started = System.currentTimeMillis();
+        Path dir = Paths.get(directory).resolve(date.toString());
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<StatementCheckpoint> plan = statementCheckpointRepository.findByIdStatementDateOrderByIdPartitionNo(date);
+        if (plan.isEmpty()) {
+            plan = createPlan(date);
+        }
+        List<Callable<StatementCheckpoint>> tasks = plan.stream()
+                .filter(checkpoint -> !checkpoint.isCompleted())
+                .map(checkpoint -> (Callable<StatementCheckpoint>) () -> generatePartition(date, dir, checkpoint))
+                .toList();
+
+        int failed = 0;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            for (Future<StatementCheckpoint> future : pool.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("명세서 파티션 생성 실패: date={}", date, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "명세서 생성이 중단되었습니다.", e);
+        } finally {
+            pool.shutdown();
+        }
+        if (failed > 0) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "명세서 파티션 " + failed + "개를 만들지 못했습니다. 다시 실행하면 남은 파티션만 처리합니다.");
+        }
+
+        List<StatementCheckpoint> completed = statementCheckpointRepository.findByIdStatementDateOrderByIdPartitionNo(date);
+        long accounts = completed.stream().mapToLong(StatementCheckpoint::getAccountCount).sum();
+        long entries = completed.stream().mapToLong(StatementCheckpoint::getEntryCount).sum();
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("명세서 생성 완료: date={}, partitions={}, generated={}, accounts={}, entries={}, elapsedMs={}",
+                date, completed.size(), tasks.size(), accounts, entries, elapsed);
+        return new StatementRunResponse(date, dir.toString(), completed.size(), tasks.size(), accounts, entries, elapsed);
+    }
+
+    // ========== Private 헬퍼 메서드 ==========
+
+    /**
+     * 계좌 ID 를 partitionSize 개씩 끊어 파티션 구간을 정합니다. 마지막 파티션은 이후에 생긴 계좌까지 포함합니다.
+     */
+    private List<StatementCheckpoint> createPlan(LocalDate date) {
+        List<StatementCheckpoint> plan = new ArrayList<>();
+        long idFrom = Long.MIN_VALUE;
+        while (true) {
+            Long last = jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM (SELECT id FROM tbl_member_account WHERE id >= ? ORDER BY id LIMIT ?) t",
+                    Long.class, idFrom, partitionSize);
+            if (last == null) {
+                break;
+            }
+            plan.add(new StatementCheckpoint(new StatementCheckpointId(date, plan.size()), idFrom, last + 1));
+            idFrom = last + 1;
+        }
+        if (plan.isEmpty()) {
+            plan.add(new StatementCheckpoint(new StatementCheckpointId(date, 0), Long.MIN_VALUE, Long.MAX_VALUE));
+        } else {
+            StatementCheckpoint tail = plan.remove(plan.size() - 1);
+            plan.add(new StatementCheckpoint(tail.getId(), tail.getIdFrom(), Long.MAX_VALUE));
+        }
+        return statementCheckpointRepository.saveAll(plan);
+    }
+
+    private StatementCheckpoint generatePartition(LocalDate date, Path dir, StatementCheckpoint checkpoint) throws IOException {
+        Path file = dir.resolve(String.format("part-%05d.csv", checkpoint.getId().getPartitionNo()));
+        PartitionWriter partition;
+        try (StatementFileWriter writer = new StatementFileWriter(file)) {
+            partition = new PartitionWriter(writer, date);
+            writer.write(HEADER);
+            try {
+                snapshotTemplate.executeWithoutResult(status -> writePartition(date, checkpoint, partition));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.commit();
+        }
+        checkpoint.complete(partition.accountCount, partition.entries, LocalDateTime.now());
+        return statementCheckpointRepository.save(checkpoint);
+    }
+
+    private void writePartition(LocalDate date, StatementCheckpoint checkpoint, PartitionWriter partition) {
+        Timestamp dayStart = Timestamp.valueOf(date.atStartOfDay());
+        Timestamp dayEnd = Timestamp.valueOf(date.plusDays(1).atStartOfDay());
+
+        jdbcTemplate.query(CLOSING_SQL, rs -> {
+            partition.accounts.add(new Account(rs.getLong("id"), rs.getString("account_num"),
+                    rs.getLong("closing_balance"), rs.getLong("day_net")));
+        }, dayEnd, dayStart, dayEnd, checkpoint.getIdFrom(), checkpoint.getIdTo());
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(DAY_HISTORY_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MySQL Connector/J 는 Integer.MIN_VALUE 일 때만 결과를 한 행씩 스트리밍합니다.
+            boolean mysql = con.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            ps.setFetchSize(mysql ? Integer.MIN_VALUE : 1000);
+            ps.setLong(1, checkpoint.getIdFrom());
+            ps.setLong(2, checkpoint.getIdTo());
+            ps.setTimestamp(3, dayStart);
+            ps.setTimestamp(4, dayEnd);
+            return ps;
+        }, rs -> {
+            long accountId = rs.getLong("account_id");
+            if (partition.accountId == null || partition.accountId != accountId) {
+                partition.close();
+                partition.advanceTo(accountId);
+            }
+            long price = rs.getLong("history_price");
+            TransactionType status = TransactionType.valueOf(rs.getString("history_status"));
+            partition.transaction(
+                    String.valueOf(rs.getLong("id")),
+                    rs.getObject("history_date", LocalDateTime.class).toString(),
+                    status.name(),
+                    rs.getString("history_category"),
+                    status == TransactionType.TRANSFER_IN ? price : -price,
+                    rs.getString("history_name"),
+                    rs.getString("history_transfer_target"));
+        });
+        partition.close();
+        partition.advanceTo(Long.MAX_VALUE);
+    }
+
+    private record Account(long id, String accountNumber, long closingBalance, long dayNet) {
+    }
+
+    /**
+     * 커서에서 읽은 거래를 한 줄씩 바로 씁니다. 시작 잔액(마감 잔액 - 그날 변화량)을 미리 알고 있으므로
+     * 계좌의 거래를 모아 둘 필요가 없습니다. (거래가 많은 가맹점·정산 계좌도 메모리 사용량이 같습니다)
+     */
+    private final class PartitionWriter {
+
+        private final StatementFileWriter writer;
+        private final String dayStart;
+        private final String dayEnd;
+        private final List<Account> accounts = new ArrayList<>();
+        private final StringBuilder line = new StringBuilder(256);
+        private int next;
+        private Long accountId;
+        private Account account;
+        private long balance;
+        private int accountCount;
+        private long entries;
+
+        PartitionWriter(StatementFileWriter writer, LocalDate date) {
+            this.writer = writer;
+            this.dayStart = date.atStartOfDay().toString();
+            this.dayEnd = date.plusDays(1).atStartOfDay().toString();
+        }
+
+        /**
+         * accountId 앞의 (그날 거래가 없던) 계좌를 지나가고 accountId 의 시작 잔액을 씁니다.
+         */
+        void advanceTo(long accountId) {
+            while (next < accounts.size() && accounts.get(next).id() < accountId) {
+                Account inactive = accounts.get(next++);
+                if (includeInactive) {
+                    open(inactive);
+                    close();
+                }
+            }
+            this.accountId = accountId;
+            if (next < accounts.size() && accounts.get(next).id() == accountId) {
+                open(accounts.get(next++));
+            }
+        }
+
+        void transaction(String historyId, String historyDate, String status, String category, long amount,
+                         String name, String transferTarget) {
+            // 계좌 ID 구간 밖에서 온 행(파티션 계획 뒤 삭제된 계좌 등)은 건너뜁니다.
+            if (account == null) {
+                return;
+            }
+            balance += amount;
+            record("TXN", account.accountNumber(), historyId, historyDate, status, category,
+                    String.valueOf(amount), String.valueOf(balance), name, transferTarget);
+            entries++;
+        }
+
+        void close() {
+            if (account != null) {
+                record("CLOSE", account.accountNumber(), null, dayEnd, null, null, String.valueOf(account.dayNet()),
+                        String.valueOf(account.closingBalance()), null, null);
+                accountCount++;
+            }
+            accountId = null;
+            account = null;
+        }
+
+        private void open(Account target) {
+            account = target;
+            balance = target.closingBalance() - target.dayNet();
+            record("OPEN", target.accountNumber(), null, dayStart, null, null, null, String.valueOf(balance), null, null);
+        }
+
+        private void record(String... fields) {
+            line.setLength(0);
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendCsv(line, fields[i]);
+            }
+            line.append('\n');
+            try {
+                writer.write(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * value 를 CSV 필드로 붙입니다. 쉼표·따옴표·줄바꿈이 있으면 따옴표로 감쌉니다. (null 은 빈 필드)
+     */
+    public static void appendCsv(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,35 @@
+package com.app.dooribankbe.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 비동기로 이어지는 요청이 끝날 때까지 수락 자리를 잡고 있는지 확인합니다.
+ */
+class DbAdmissionFilterTest {
+
+    @Test
+    void asyncRequestHoldsPermitUntilCompletion() throws Exception {
+        DbAdmissionFilter filter = new DbAdmissionFilter(1, 10, new SimpleMeterRegistry());
+        MockHttpServletRequest streaming = new MockHttpServletRequest("GET", "/api/admin/history/export");
+        streaming.setAsyncSupported(true);
+
+        filter.doFilter(streaming, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/accounts"), rejected, (request, response) -> {
+        });
+        assertThat(rejected.getStatus()).isEqualTo(503);
+
+        streaming.getAsyncContext().complete();
+
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/accounts"), admitted, (request, response) -> {
+        });
+        assertThat(admitted.getStatus()).isEqualTo(200);
+    }
+}
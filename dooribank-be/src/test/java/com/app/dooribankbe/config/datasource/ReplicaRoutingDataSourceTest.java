@@ -0,0 +1,99 @@
+package com.app.dooribankbe.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 인메모리 DB 두 개를 기본 DB/복제본으로 두고 readOnly 트랜잭션 라우팅과 지연 시 기본 DB 대체를 검증합니다.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        new JdbcTemplate(primary).execute("CREATE TABLE whoami (name VARCHAR(20))");
+        new JdbcTemplate(primary).update("INSERT INTO whoami VALUES ('primary')");
+        new JdbcTemplate(replica).execute("CREATE TABLE whoami (name VARCHAR(20))");
+        new JdbcTemplate(replica).update("INSERT INTO whoami VALUES ('replica')");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (seconds_behind_source BIGINT)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+
+        routing = new ReplicaRoutingDataSource(primary,
+                List.of(new ReplicaRoutingDataSource.ReplicaNode("replica-0", replica)),
+                5, "SELECT seconds_behind_source FROM replica_lag", new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToHealthyReplica() {
+        routing.refreshLag();
+
+        assertThat(whoami(readOnly)).isEqualTo("replica");
+        assertThat(whoami(readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        routing.refreshLag();
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds_behind_source = 30");
+        routing.refreshLag();
+
+        assertThat(whoami(readOnly)).isEqualTo("primary");
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds_behind_source = 1");
+        routing.refreshLag();
+
+        assertThat(whoami(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void stoppedReplicationOrFailedCheckFallsBackToPrimary() {
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds_behind_source = NULL");
+        routing.refreshLag();
+        assertThat(whoami(readOnly)).isEqualTo("primary");
+
+        new JdbcTemplate(replica).execute("DROP TABLE replica_lag");
+        routing.refreshLag();
+        assertThat(whoami(readOnly)).isEqualTo("primary");
+    }
+
+    private String whoami(TransactionTemplate template) {
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
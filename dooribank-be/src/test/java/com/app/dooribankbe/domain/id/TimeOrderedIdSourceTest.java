@@ -0,0 +1,50 @@
+package com.app.dooribankbe.domain.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedIdSourceTest {
+
+    @Test
+    void idsIncreaseWithinOneThread() {
+        long previous = TimeOrderedIdSource.next();
+        for (int i = 0; i < 100_000; i++) {
+            long next = TimeOrderedIdSource.next();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 400_000).parallel().forEach(i -> ids.add(TimeOrderedIdSource.next()));
+        assertThat(ids).hasSize(400_000);
+    }
+
+    @Test
+    void idEncodesIssueTime() {
+        Instant before = Instant.now();
+        long id = TimeOrderedIdSource.next();
+
+        assertThat(id).isGreaterThanOrEqualTo(TimeOrderedIdSource.minIdAt(before.minusSeconds(1)));
+        assertThat(TimeOrderedIdSource.timestampOf(id)).isBetween(before.minusSeconds(1), Instant.now().plusSeconds(1));
+    }
+
+    @Test
+    void historicalIdKeepsTimeOrderAndSequence() {
+        Instant at = Instant.parse("2026-01-15T09:30:00.123Z");
+
+        long first = TimeOrderedIdSource.idAt(at, 0);
+        long second = TimeOrderedIdSource.idAt(at, 1);
+
+        assertThat(TimeOrderedIdSource.timestampOf(second)).isEqualTo(at);
+        assertThat(second).isGreaterThan(first).isLessThan(TimeOrderedIdSource.minIdAt(at.plusMillis(1)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.app.dooribankbe.domain.repository;
+
+import com.app.dooribankbe.controller.dto.MemberInfoDto;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 회원 목록 조인 쿼리(첫 번째 계좌 = 가장 작은 계좌 ID, 계좌 없는 회원)와 회원 ID keyset 페이지 경계를 H2 에서 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MemberQueryRepositoryTest {
+
+    @Autowired
+    private MemberQueryRepository memberQueryRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pagesMembersWithTheirLowestIdAccount() {
+        long lastMemberId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tbl_member", Long.class);
+        Member noAccount = member("계좌없음");
+        Member twoAccounts = member("계좌둘");
+        Member oneAccount = member("계좌하나");
+        long firstId = TimeOrderedIdSource.next();
+        // ID 가 큰 계좌를 먼저 넣어, 넣은 순서가 아니라 ID 로 첫 계좌를 고르는지 확인합니다.
+        account(firstId + 100, twoAccounts, "1002-880-000002", "2222");
+        account(firstId, twoAccounts, "1002-880-000001", "1111");
+        account(firstId + 200, oneAccount, "1002-880-000003", "3333");
+
+        List<MemberInfoDto> firstPage = memberQueryRepository.findMemberInfoPage(lastMemberId, 2);
+        List<MemberInfoDto> secondPage = memberQueryRepository.findMemberInfoPage(firstPage.get(1).getId(), 2);
+
+        assertThat(firstPage)
+                .extracting(MemberInfoDto::getId, MemberInfoDto::getName, MemberInfoDto::getAccountNumber, MemberInfoDto::getAccountPassword)
+                .containsExactly(
+                        tuple(noAccount.getId(), "계좌없음", null, null),
+                        tuple(twoAccounts.getId(), "계좌둘", "1002-880-000001", "1111"));
+        assertThat(secondPage)
+                .extracting(MemberInfoDto::getId, MemberInfoDto::getAccountNumber)
+                .containsExactly(tuple(oneAccount.getId(), "1002-880-000003"));
+        assertThat(memberQueryRepository.findMemberInfoPage(oneAccount.getId(), 2)).isEmpty();
+    }
+
+    private Member member(String name) {
+        return memberRepository.save(Member.builder().name(name).phone("010-8888-8888").memberRegistNum("888888-8888888").build());
+    }
+
+    private void account(long id, Member member, String accountNumber, String password) {
+        jdbcTemplate.update("""
+                INSERT INTO tbl_member_account (id, member_id, account_num, account_password, account_create_at, balance)
+                VALUES (?, ?, ?, ?, ?, 0)
+                """, id, member.getId(), accountNumber, password, Date.valueOf(LocalDate.now()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.app.dooribankbe.service;
+
+import com.app.dooribankbe.controller.dto.AccountHistoryDto;
+import com.app.dooribankbe.controller.dto.AccountHistoryPageResponse;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * keyset 커서로 내역을 끝까지 넘겼을 때 빠지거나 겹치는 행이 없는지, 상태·카테고리 필터가 커서와 함께 동작하는지 H2 에서 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountHistoryServiceTest {
+
+    private static final TransactionType[] STATUSES = {TransactionType.PAYMENT, TransactionType.TRANSFER_IN, TransactionType.TRANSFER_OUT};
+    private static final HistoryCategory[] CATEGORIES = {HistoryCategory.CAFE, HistoryCategory.FOOD};
+    private static final int ROWS = 30;
+
+    @Autowired
+    private AccountHistoryService accountHistoryService;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Test
+    void keysetCursorWalksEveryRowOnceWithFilters() {
+        MemberAccount account = testAccounts.account("1002-860-000000", 0L);
+        // 세 건씩 같은 시각이므로, 같은 시각 안에서는 ID 로 이어서 넘겨야 합니다.
+        LocalDateTime base = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<AccountHistoryDto> inserted = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            inserted.add(insertHistory(account.getId(), base.plusMinutes(i / 3), STATUSES[i % 3], CATEGORIES[i % 2], i));
+        }
+        Comparator<AccountHistoryDto> newestFirst = Comparator.comparing(AccountHistoryDto::historyDate)
+                .thenComparing(AccountHistoryDto::historyId)
+                .reversed();
+
+        List<AccountHistoryDto> all = readAll(account.getAccountNumber(), null, null, 4);
+        assertThat(all).extracting(AccountHistoryDto::historyId)
+                .containsExactlyElementsOf(inserted.stream().sorted(newestFirst).map(AccountHistoryDto::historyId).toList());
+
+        List<AccountHistoryDto> cafePayments = readAll(account.getAccountNumber(), TransactionType.PAYMENT, HistoryCategory.CAFE, 2);
+        assertThat(cafePayments).extracting(AccountHistoryDto::historyId)
+                .containsExactlyElementsOf(inserted.stream()
+                        .filter(row -> row.historyStatus() == TransactionType.PAYMENT && row.historyCategory() == HistoryCategory.CAFE)
+                        .sorted(newestFirst)
+                        .map(AccountHistoryDto::historyId)
+                        .toList());
+
+        // ALL 은 카테고리 필터를 끕니다.
+        assertThat(readAll(account.getAccountNumber(), TransactionType.TRANSFER_IN, HistoryCategory.ALL, 100))
+                .hasSize(ROWS / 3)
+                .allSatisfy(row -> assertThat(row.historyStatus()).isEqualTo(TransactionType.TRANSFER_IN));
+
+        AccountHistoryPageResponse last = accountHistoryService.getHistory(account.getAccountNumber(), null, null, null, null, ROWS);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.nextCursorDate()).isNull();
+        assertThat(last.nextCursorId()).isNull();
+    }
+
+    @Test
+    void rejectsInvalidPagingRequests() {
+        assertThatThrownBy(() -> accountHistoryService.getHistory("1002-860-999999", null, null, null, null, 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThatThrownBy(() -> accountHistoryService.getHistory("1002-860-999999", null, null, null, null, 0))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThatThrownBy(() -> accountHistoryService.getHistory("1002-860-999999", null, null, LocalDateTime.now(), null, 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private List<AccountHistoryDto> readAll(String accountNumber, TransactionType status, HistoryCategory category, int size) {
+        List<AccountHistoryDto> all = new ArrayList<>();
+        AccountHistoryPageResponse page = accountHistoryService.getHistory(accountNumber, status, category, null, null, size);
+        all.addAll(page.items());
+        while (page.hasNext()) {
+            assertThat(page.items()).hasSize(size);
+            page = accountHistoryService.getHistory(accountNumber, status, category, page.nextCursorDate(), page.nextCursorId(), size);
+            all.addAll(page.items());
+        }
+        return all;
+    }
+
+    private AccountHistoryDto insertHistory(Long accountId, LocalDateTime date, TransactionType status, HistoryCategory category, int i) {
+        // 같은 시각의 행끼리는 ID 순서가 입력 순서와 다르도록 뒤섞습니다.
+        long id = TimeOrderedIdSource.minIdAt(date.atZone(ZoneId.systemDefault()).toInstant()) + 100 - i;
+        testAccounts.history(id, accountId, date, 1_000L + i, status, category, "내역-" + i);
+        return new AccountHistoryDto(id, date, 1_000L + i, status, category, "내역-" + i, null);
+    }
+}
@@ -0,0 +1,260 @@
+package com.app.dooribankbe.service;
+
+import com.app.dooribankbe.controller.dto.BatchPaymentItemResult;
+import com.app.dooribankbe.controller.dto.BatchPaymentResponse;
+import com.app.dooribankbe.controller.dto.PaymentRequest;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.repository.MemberAccountRepository;
+import com.app.dooribankbe.service.lock.AccountLockManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.app.dooribankbe.service.TestAccounts.payment;
+import static com.app.dooribankbe.service.TestAccounts.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * AccountService 의 계좌 잠금이 실제 DB 잔액 갱신을 지키는지(잠근 뒤 잠금 읽기로 잔액을 읽는지), 일괄 결제가 건별로 실패하고 요청 순서대로 결과를 돌려주는지,
+ * 회원 내보내기가 페이지 경계와 상관없이 모든 회원을 올바른 NDJSON/JSON 배열로 쓰는지 H2 에서 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 40;
+    private static final long INITIAL_BALANCE = 10_000L;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MemberAccountRepository memberAccountRepository;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void concurrentTransfersAndPaymentsKeepTotalBalance() throws Exception {
+        Member member = testAccounts.member("동시성");
+        List<MemberAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accounts.add(testAccounts.account(member, "1002-850-00000" + i, INITIAL_BALANCE));
+        }
+
+        AtomicLong paid = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int n = 0; n < OPERATIONS_PER_THREAD; n++) {
+                        int from = random.nextInt(accounts.size());
+                        int to = (from + 1 + random.nextInt(accounts.size() - 1)) % accounts.size();
+                        long amount = 1 + random.nextInt(500);
+                        try {
+                            if (n % 4 == 0) {
+                                accountService.processPayment(payment(accounts.get(from), amount));
+                                paid.addAndGet(amount);
+                            } else {
+                                // 서로 반대 방향의 이체가 섞여도 교착 없이 끝나야 합니다.
+                                accountService.transfer(transfer(accounts.get(from), accounts.get(to), amount));
+                            }
+                        } catch (ResponseStatusException e) {
+                            // 잔액 부족은 정상 결과입니다.
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long total = 0;
+        for (MemberAccount account : accounts) {
+            long balance = memberAccountRepository.findById(account.getId()).orElseThrow().getBalance();
+            // 갱신이 유실되면 계좌 잔액이 history 와 어긋납니다.
+            assertThat(balance).isEqualTo(INITIAL_BALANCE + historyDelta(account));
+            assertThat(balance).isNotNegative();
+            total += balance;
+        }
+        assertThat(total).isEqualTo(INITIAL_BALANCE * accounts.size() - paid.get());
+    }
+
+    @Test
+    void balanceIsReadWithALockingReadAfterTheAccountLock() {
+        Member member = testAccounts.member("동시성");
+        MemberAccount from = testAccounts.account(member, "1002-850-000300", 1_000L);
+        MemberAccount to = testAccounts.account(member, "1002-850-000301", 0L);
+        Object lockManager = ReflectionTestUtils.getField(accountService, "accountLockManager");
+        AccountLockManager lockSpy = mock(AccountLockManager.class, delegatesTo(lockManager));
+        MemberAccountRepository repositorySpy = mock(MemberAccountRepository.class, delegatesTo(memberAccountRepository));
+        ReflectionTestUtils.setField(accountService, "accountLockManager", lockSpy);
+        ReflectionTestUtils.setField(accountService, "memberAccountRepository", repositorySpy);
+        try {
+            accountService.processPayment(payment(from, 100L));
+            accountService.transfer(transfer(from, to, 100L));
+        } finally {
+            ReflectionTestUtils.setField(accountService, "accountLockManager", lockManager);
+            ReflectionTestUtils.setField(accountService, "memberAccountRepository", memberAccountRepository);
+        }
+
+        // 계좌 정보 조회(캐시 미스)가 트랜잭션 스냅숏을 먼저 정하더라도, 잔액은 잠금을 잡은 뒤 잠금 읽기로 최신 커밋 값을 읽어야 합니다.
+        InOrder order = inOrder(lockSpy, repositorySpy);
+        order.verify(lockSpy).lock(from.getAccountNumber());
+        order.verify(repositorySpy).findByIdForUpdate(from.getId());
+        order.verify(lockSpy).lock(from.getAccountNumber(), to.getAccountNumber());
+        order.verify(repositorySpy).findByIdForUpdate(from.getId());
+        order.verify(repositorySpy).findByIdForUpdate(to.getId());
+        verify(repositorySpy, never()).findById(any());
+        assertThat(memberAccountRepository.findById(from.getId()).orElseThrow().getBalance()).isEqualTo(800L);
+        assertThat(memberAccountRepository.findById(to.getId()).orElseThrow().getBalance()).isEqualTo(100L);
+    }
+
+    @Test
+    void batchPaymentsFailPerItemAndKeepRequestOrder() {
+        Member member = testAccounts.member("동시성");
+        MemberAccount first = testAccounts.account(member, "1002-850-000100", 1_000L);
+        MemberAccount second = testAccounts.account(member, "1002-850-000101", 500L);
+
+        BatchPaymentResponse response = accountService.processPayments(List.of(
+                payment(first, 300L),
+                payment(second, 200L),
+                payment(first.getAccountNumber(), "0000", 100L),
+                payment("1002-850-999999", TestAccounts.PASSWORD, 100L),
+                payment(second, 400L),
+                payment(first, 300L),
+                payment(second, 100L)));
+
+        // 계좌별로 묶어 처리해도 결과는 요청 순서이고, 건마다 그 시점의 잔액을 담습니다.
+        assertThat(response.succeeded()).isEqualTo(4);
+        assertThat(response.failed()).isEqualTo(3);
+        assertThat(response.results())
+                .extracting(BatchPaymentItemResult::index, BatchPaymentItemResult::success,
+                        BatchPaymentItemResult::status, BatchPaymentItemResult::balance)
+                .containsExactly(
+                        tuple(0, true, 200, 700L),
+                        tuple(1, true, 200, 300L),
+                        tuple(2, false, 401, null),
+                        tuple(3, false, 404, null),
+                        tuple(4, false, 400, null),
+                        tuple(5, true, 200, 400L),
+                        tuple(6, true, 200, 200L));
+
+        // 실패한 건만 빠지고 같은 계좌의 나머지 건은 적용됩니다.
+        assertThat(memberAccountRepository.findById(first.getId()).orElseThrow().getBalance()).isEqualTo(400L);
+        assertThat(memberAccountRepository.findById(second.getId()).orElseThrow().getBalance()).isEqualTo(200L);
+        assertThat(historyDelta(first)).isEqualTo(-600L);
+        assertThat(historyDelta(second)).isEqualTo(-300L);
+    }
+
+    @Test
+    void batchPaymentsRejectOversizedRequests() {
+        int maxBatchPayments = (int) ReflectionTestUtils.getField(accountService, "maxBatchPayments");
+        ReflectionTestUtils.setField(accountService, "maxBatchPayments", 2);
+        try {
+            PaymentRequest payment = payment("1002-850-999999", TestAccounts.PASSWORD, 100L);
+            assertThatThrownBy(() -> accountService.processPayments(List.of(payment, payment, payment)))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
+        } finally {
+            ReflectionTestUtils.setField(accountService, "maxBatchPayments", maxBatchPayments);
+        }
+    }
+
+    @Test
+    void exportMembersWritesEveryMemberAsNdjsonAndJsonArray() throws IOException {
+        Member withAccount = testAccounts.member("동시성");
+        testAccounts.account(withAccount, "1002-850-000200", 0L);
+        Member withoutAccount = testAccounts.member("동시성");
+        // 회원 수를 페이지 크기(2)의 배수로 맞춰, 마지막 페이지가 가득 찬 뒤 빈 페이지로 끝나는 경계를 지나게 합니다.
+        if (memberCount() % 2 == 1) {
+            testAccounts.member("동시성");
+        }
+        int exportPageSize = (int) ReflectionTestUtils.getField(accountService, "exportPageSize");
+        ReflectionTestUtils.setField(accountService, "exportPageSize", 2);
+        try {
+            ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+            accountService.exportMembers(ndjson, true);
+            List<JsonNode> lines = new ArrayList<>();
+            for (String line : ndjson.toString(StandardCharsets.UTF_8).split("\n")) {
+                lines.add(objectMapper.readTree(line));
+            }
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            accountService.exportMembers(json, false);
+            JsonNode array = objectMapper.readTree(json.toByteArray());
+
+            assertThat(ndjson.toString(StandardCharsets.UTF_8)).endsWith("}\n");
+            assertThat(lines).hasSize((int) memberCount());
+            List<Long> ids = lines.stream().map(member -> member.get("id").asLong()).toList();
+            assertThat(ids).isSorted().doesNotHaveDuplicates();
+            assertThat(array.isArray()).isTrue();
+            assertThat(array).hasSize(lines.size());
+            assertThat(array).extracting(member -> member.get("id").asLong()).containsExactlyElementsOf(ids);
+            assertThat(lines).filteredOn(member -> member.get("id").asLong() == withAccount.getId())
+                    .singleElement()
+                    .satisfies(member -> assertThat(member.get("accountNumber").asText()).isEqualTo("1002-850-000200"));
+            assertThat(lines).filteredOn(member -> member.get("id").asLong() == withoutAccount.getId())
+                    .singleElement()
+                    .satisfies(member -> assertThat(member.get("accountNumber").isNull()).isTrue());
+        } finally {
+            ReflectionTestUtils.setField(accountService, "exportPageSize", exportPageSize);
+        }
+    }
+
+    private long memberCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_member", Long.class);
+    }
+
+    private long historyDelta(MemberAccount account) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(CASE WHEN history_status = 'TRANSFER_IN' THEN history_price ELSE -history_price END), 0) "
+                        + "FROM account_history WHERE account_id = ?",
+                Long.class, account.getId());
+    }
+}
@@ -0,0 +1,163 @@
+package com.app.dooribankbe.service;
+
+import com.app.dooribankbe.domain.entity.SyncOutbox;
+import com.app.dooribankbe.domain.repository.SyncOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * outbox 배치의 잡기(SKIP LOCKED + 잡아 둔 기간) → 트랜잭션 밖 전송 → 결과 기록 순서와 지수 백오프, 전송 완료 건 삭제를 H2 에서 확인합니다.
+ * 스케줄러와 겹치지 않도록 dispatch() 대신 배치 하나(dispatchBatch)를 직접 실행합니다. (테스트 프로파일은 outbox 전송이 꺼져 있습니다)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SyncOutboxServiceTest {
+
+    private static final AtomicLong HISTORY_IDS = new AtomicLong(9_000_000L);
+
+    @Autowired
+    private SyncOutboxService syncOutboxService;
+
+    @Autowired
+    private SyncOutboxRepository syncOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final WooriDooriSyncService wooriDooriSyncService = mock(WooriDooriSyncService.class);
+    private Object realSyncService;
+    private Object realBatchSize;
+
+    @BeforeEach
+    void replaceSyncService() {
+        realSyncService = ReflectionTestUtils.getField(syncOutboxService, "wooriDooriSyncService");
+        realBatchSize = ReflectionTestUtils.getField(syncOutboxService, "batchSize");
+        ReflectionTestUtils.setField(syncOutboxService, "wooriDooriSyncService", wooriDooriSyncService);
+        // 다른 테스트가 남긴 대기 건까지 한 배치에 담아, 이 테스트의 행이 항상 배치에 들어가게 합니다.
+        ReflectionTestUtils.setField(syncOutboxService, "batchSize", 100_000);
+    }
+
+    @AfterEach
+    void restoreSyncService() {
+        ReflectionTestUtils.setField(syncOutboxService, "wooriDooriSyncService", realSyncService);
+        ReflectionTestUtils.setField(syncOutboxService, "batchSize", realBatchSize);
+    }
+
+    @Test
+    void sentRowIsDispatchedAndFailedRowBacksOff() {
+        SyncOutbox sent = pending(0);
+        SyncOutbox failed = pending(2);
+        List<Long> claimedDuringSend = new ArrayList<>();
+        when(wooriDooriSyncService.syncAll(anyList())).thenAnswer(invocation -> {
+            // 전송은 트랜잭션 밖에서 합니다. 이 사이에 다른 디스패처가 잡아도 잡아 둔 행은 나오지 않습니다.
+            claimedDuringSend.addAll(claimableIds(LocalDateTime.now()));
+            List<SyncOutbox> batch = invocation.getArgument(0);
+            return batch.stream().map(event -> !event.getHistoryId().equals(failed.getHistoryId())).toList();
+        });
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatchBatch();
+        LocalDateTime after = LocalDateTime.now();
+
+        assertThat(claimedDuringSend).doesNotContain(sent.getId(), failed.getId());
+        SyncOutbox sentRow = syncOutboxRepository.findById(sent.getId()).orElseThrow();
+        assertThat(sentRow.getDispatchedAt()).isBetween(before, after);
+        assertThat(sentRow.getAttempts()).isZero();
+
+        // 두 번 실패한 건의 세 번째 실패: base-backoff-ms(1초) × 2^2
+        SyncOutbox failedRow = syncOutboxRepository.findById(failed.getId()).orElseThrow();
+        assertThat(failedRow.getDispatchedAt()).isNull();
+        assertThat(failedRow.getAttempts()).isEqualTo(3);
+        assertThat(failedRow.getLastError()).startsWith("동기화 실패");
+        assertThat(failedRow.getNextAttemptAt()).isBetween(before.plusSeconds(4), after.plusSeconds(4));
+    }
+
+    @Test
+    void claimedRowIsNotReclaimedUntilTheLeaseExpires() {
+        SyncOutbox event = pending(0);
+        // 보내는 도중 인스턴스가 죽어 결과를 기록하지 못한 경우입니다.
+        when(wooriDooriSyncService.syncAll(anyList())).thenThrow(new IllegalStateException("전송 중 장애"));
+
+        LocalDateTime claimedAt = LocalDateTime.now();
+        assertThatThrownBy(this::dispatchBatch).isInstanceOf(IllegalStateException.class);
+
+        SyncOutbox claimed = syncOutboxRepository.findById(event.getId()).orElseThrow();
+        assertThat(claimed.getDispatchedAt()).isNull();
+        assertThat(claimed.getAttempts()).isZero();
+        assertThat(claimableIds(LocalDateTime.now())).doesNotContain(event.getId());
+        Duration lease = Duration.ofMillis((long) ReflectionTestUtils.getField(syncOutboxService, "claimLeaseMillis"));
+        assertThat(claimableIds(claimedAt.plus(lease).minusSeconds(1))).doesNotContain(event.getId());
+        assertThat(claimableIds(LocalDateTime.now().plus(lease).plusSeconds(1))).contains(event.getId());
+    }
+
+    @Test
+    void purgeRemovesOnlyDispatchedRowsOlderThanRetention() {
+        LocalDateTime now = LocalDateTime.now();
+        SyncOutbox old = save(now.minusHours(30), now.minusHours(25));
+        SyncOutbox recent = save(now.minusHours(2), now.minusHours(1));
+        SyncOutbox stillPending = save(now.minusHours(48), null);
+
+        syncOutboxService.purgeDispatched();
+
+        assertThat(syncOutboxRepository.existsById(old.getId())).isFalse();
+        assertThat(syncOutboxRepository.existsById(recent.getId())).isTrue();
+        assertThat(syncOutboxRepository.existsById(stillPending.getId())).isTrue();
+    }
+
+    private void dispatchBatch() {
+        ReflectionTestUtils.invokeMethod(syncOutboxService, "dispatchBatch");
+    }
+
+    private List<Long> claimableIds(LocalDateTime now) {
+        return transactionTemplate.execute(status -> syncOutboxRepository.claimPending(now, PageRequest.of(0, 10_000))
+                .stream()
+                .map(SyncOutbox::getId)
+                .toList());
+    }
+
+    private SyncOutbox pending(int attempts) {
+        LocalDateTime now = LocalDateTime.now();
+        return syncOutboxRepository.save(builder(now.minusSeconds(1))
+                .attempts(attempts)
+                .nextAttemptAt(now.minusSeconds(1))
+                .build());
+    }
+
+    private SyncOutbox save(LocalDateTime createdAt, LocalDateTime dispatchedAt) {
+        return syncOutboxRepository.save(builder(createdAt)
+                .nextAttemptAt(createdAt)
+                .dispatchedAt(dispatchedAt)
+                .build());
+    }
+
+    private static SyncOutbox.SyncOutboxBuilder builder(LocalDateTime createdAt) {
+        return SyncOutbox.builder()
+                .historyId(HISTORY_IDS.incrementAndGet())
+                .accountNumber("1002-870-000001")
+                .historyDate(createdAt)
+                .historyPrice(1_000L)
+                .historyStatus("PAYMENT")
+                .historyCategory("CAFE")
+                .historyName("outbox 테스트")
+                .createdAt(createdAt);
+    }
+}
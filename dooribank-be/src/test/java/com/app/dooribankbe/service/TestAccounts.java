@@ -0,0 +1,86 @@
+package com.app.dooribankbe.service;
+
+import com.app.dooribankbe.controller.dto.PaymentRequest;
+import com.app.dooribankbe.controller.dto.TransferRequest;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import com.app.dooribankbe.domain.repository.MemberAccountRepository;
+import com.app.dooribankbe.domain.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 서비스 테스트가 함께 쓰는 회원/계좌/요청/거래내역 픽스처. 계좌 비밀번호는 모두 {@link #PASSWORD} 입니다.
+ * 거래내역은 AccountService 를 거치지 않고 account_history 에 바로 넣으므로 ID 와 시각을 테스트가 정할 수 있습니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestAccounts {
+
+    public static final String PASSWORD = "1234";
+
+    private final MemberRepository memberRepository;
+    private final MemberAccountRepository memberAccountRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public Member member(String name) {
+        return memberRepository.save(Member.builder().name(name).phone("010-0000-0000").memberRegistNum("000000-0000000").build());
+    }
+
+    public MemberAccount account(Member member, String accountNumber, long balance) {
+        return memberAccountRepository.save(MemberAccount.builder()
+                .member(member).accountNumber(accountNumber).accountPassword(PASSWORD).balance(balance).build());
+    }
+
+    /**
+     * 계좌마다 새 회원을 만들어 엽니다.
+     */
+    public MemberAccount account(String accountNumber, long balance) {
+        return account(member("테스트"), accountNumber, balance);
+    }
+
+    public static PaymentRequest payment(MemberAccount account, long amount) {
+        return payment(account, amount, HistoryCategory.CAFE);
+    }
+
+    public static PaymentRequest payment(MemberAccount account, long amount, HistoryCategory category) {
+        return new PaymentRequest(account.getAccountNumber(), PASSWORD, amount, category, "두리가맹점");
+    }
+
+    /**
+     * 없는 계좌나 틀린 비밀번호처럼 계좌 객체 없이 만드는 결제 요청.
+     */
+    public static PaymentRequest payment(String accountNumber, String password, long amount) {
+        return new PaymentRequest(accountNumber, password, amount, HistoryCategory.CAFE, "두리가맹점");
+    }
+
+    public static TransferRequest transfer(MemberAccount from, MemberAccount to, long amount) {
+        return new TransferRequest(from.getAccountNumber(), PASSWORD, to.getAccountNumber(), amount, null);
+    }
+
+    /**
+     * 지금 시각의 ID 로 거래내역을 넣고 그 ID 를 돌려줍니다. 입금이면 TRANSFER, 나머지는 CAFE 분류입니다.
+     */
+    public long history(MemberAccount account, LocalDateTime date, long price, TransactionType status, String name) {
+        long id = TimeOrderedIdSource.next();
+        history(id, account.getId(), date, price, status,
+                status == TransactionType.TRANSFER_IN ? HistoryCategory.TRANSFER : HistoryCategory.CAFE, name);
+        return id;
+    }
+
+    public void history(long id, Long accountId, LocalDateTime date, long price,
+                        TransactionType status, HistoryCategory category, String name) {
+        jdbcTemplate.update("""
+                INSERT INTO account_history (id, account_id, history_date, history_price, history_status,
+                                             history_category, history_name, history_transfer_target)
+                VALUES (?, ?, ?, ?, ?, ?, ?, NULL)
+                """, id, accountId, Timestamp.valueOf(date), price, status.name(), category.name(), name);
+    }
+}
@@ -0,0 +1,160 @@
+package com.app.dooribankbe.service;
+
+import com.app.dooribankbe.config.RestTemplateConfig;
+import com.app.dooribankbe.domain.entity.AccountHistory;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.SyncOutbox;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 스텁 서버(JDK HttpServer)를 우리두리 8080 서버 대신 띄워 동기화 클라이언트를 검증합니다.
+ */
+class WooriDooriSyncServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> received = new CopyOnWriteArrayList<>();
+    private final List<String> contentEncodings = new CopyOnWriteArrayList<>();
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private HttpServer stub;
+    private volatile int responseStatus = 200;
+    private volatile long responseDelayMillis;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(Executors.newFixedThreadPool(4));
+        stub.createContext("/history/calendar/sync", exchange -> {
+            hits.incrementAndGet();
+            String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            contentEncodings.add(String.valueOf(encoding));
+            try (InputStream body = "gzip".equals(encoding)
+                    ? new GZIPInputStream(exchange.getRequestBody())
+                    : exchange.getRequestBody()) {
+                received.add(objectMapper.readTree(body));
+            }
+            sleep(responseDelayMillis);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            byte[] response = "{}".getBytes();
+            exchange.sendResponseHeaders(responseStatus, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void bulkModeSendsOneGzippedRequestForManyEvents() {
+        WooriDooriSyncService service = newService(WooriDooriSyncService.DispatchMode.BULK, true, 500);
+
+        List<Boolean> results = service.syncAll(List.of(event(1L), event(2L), event(3L)));
+
+        assertThat(results).containsExactly(true, true, true);
+        assertThat(hits.get()).isEqualTo(1);
+        assertThat(contentEncodings).containsExactly("gzip");
+        JsonNode body = received.get(0);
+        assertThat(body.isArray()).isTrue();
+        assertThat(body).extracting(node -> node.get("historyId").asLong()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void asyncModeSendsEveryEvent() {
+        WooriDooriSyncService service = newService(WooriDooriSyncService.DispatchMode.ASYNC, false, 500);
+
+        List<Boolean> results = service.syncAll(List.of(event(1L), event(2L), event(3L), event(4L)));
+
+        assertThat(results).containsOnly(true).hasSize(4);
+        assertThat(hits.get()).isEqualTo(4);
+    }
+
+    @Test
+    void slowServerTimesOutAndOpensCircuit() {
+        responseDelayMillis = 1_000;
+        WooriDooriSyncService service = newService(WooriDooriSyncService.DispatchMode.SINGLE, false, 200);
+
+        assertThat(service.sync(event(1L))).isFalse();
+        assertThat(service.sync(event(2L))).isFalse();
+        assertThat(service.getCircuitState()).isEqualTo(SyncCircuitBreaker.State.OPEN);
+
+        // 서킷이 열려 있는 동안에는 스텁 서버까지 가지 않습니다.
+        int hitsWhenOpened = hits.get();
+        assertThat(service.sync(event(3L))).isFalse();
+        assertThat(hits.get()).isEqualTo(hitsWhenOpened);
+    }
+
+    @Test
+    void serverErrorsOpenCircuit() {
+        responseStatus = 500;
+        WooriDooriSyncService service = newService(WooriDooriSyncService.DispatchMode.SINGLE, false, 500);
+
+        assertThat(service.syncAll(List.of(event(1L), event(2L), event(3L)))).containsOnly(false);
+        assertThat(hits.get()).isEqualTo(2);
+        assertThat(service.getCircuitState()).isEqualTo(SyncCircuitBreaker.State.OPEN);
+    }
+
+    private WooriDooriSyncService newService(WooriDooriSyncService.DispatchMode mode, boolean gzip, long readTimeoutMillis) {
+        RestTemplate restTemplate = new RestTemplate(RestTemplateConfig.pooledRequestFactory(
+                4, 4, Duration.ofMillis(500), Duration.ofMillis(readTimeoutMillis), Duration.ofSeconds(30)));
+        WooriDooriSyncService service = new WooriDooriSyncService(restTemplate, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "wooriDooriApiUrl", "http://127.0.0.1:" + stub.getAddress().getPort());
+        ReflectionTestUtils.setField(service, "dispatchMode", mode);
+        ReflectionTestUtils.setField(service, "bulkPath", "/history/calendar/sync/bulk");
+        ReflectionTestUtils.setField(service, "gzip", gzip);
+        ReflectionTestUtils.setField(service, "asyncThreads", 4);
+        ReflectionTestUtils.setField(service, "asyncQueueCapacity", 100);
+        ReflectionTestUtils.setField(service, "circuitFailureThreshold", 2);
+        ReflectionTestUtils.setField(service, "circuitSlowCallMillis", 2_000L);
+        ReflectionTestUtils.setField(service, "circuitOpenMillis", 60_000L);
+        service.init();
+        return service;
+    }
+
+    private static SyncOutbox event(Long historyId) {
+        AccountHistory history = AccountHistory.builder()
+                .id(historyId)
+                .historyDate(LocalDateTime.of(2026, 10, 18, 12, 0))
+                .historyPrice(5_000L)
+                .historyStatus(TransactionType.PAYMENT)
+                .historyCategory(HistoryCategory.CAFE)
+                .historyName("두리카페")
+                .build();
+        return SyncOutbox.from(history, "1002-000-0001");
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.app.dooribankbe.service.balance;
+
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.repository.MemberAccountRepository;
+import com.app.dooribankbe.service.AccountService;
+import com.app.dooribankbe.service.TestAccounts;
+import com.app.dooribankbe.service.lock.AccountLockManager;
+import com.app.dooribankbe.service.lock.AccountLocks;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.app.dooribankbe.service.TestAccounts.payment;
+import static com.app.dooribankbe.service.TestAccounts.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 잔액 슬롯 계좌로 동시에 입금한 뒤 출금·슬롯 해제까지 잔액 합이 맞는지,
+ * 슬롯 계좌끼리 서로 이체해도 교착 상태가 생기지 않는지 H2 에서 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StripedBalanceServiceTest {
+
+    private static final int PAYERS = 8;
+    private static final int TRANSFERS_PER_PAYER = 10;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private StripedBalanceService stripedBalanceService;
+
+    @Autowired
+    private MemberAccountRepository memberAccountRepository;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountLockManager accountLockManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentCreditsLandOnSlotsAndDebitsSweepThem() throws Exception {
+        Member member = testAccounts.member("가맹점");
+        MemberAccount merchant = testAccounts.account(member, "1002-900-000000", 1_000L);
+        List<MemberAccount> payers = new ArrayList<>();
+        for (int i = 0; i < PAYERS; i++) {
+            payers.add(testAccounts.account(member, "1002-900-00010" + i, 10_000L));
+        }
+        stripedBalanceService.configure(merchant.getAccountNumber(), 4);
+
+        ExecutorService executor = Executors.newFixedThreadPool(PAYERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (MemberAccount payer : payers) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < TRANSFERS_PER_PAYER; i++) {
+                        accountService.transfer(transfer(payer, merchant, 100L));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long credited = PAYERS * TRANSFERS_PER_PAYER * 100L;
+        assertThat(memberAccountRepository.findById(merchant.getId()).orElseThrow().getBalance()).isEqualTo(1_000L);
+        assertThat(stripedBalanceService.slotTotal(merchant.getId())).isEqualTo(credited);
+
+        // 계좌 잔액(1,000)보다 큰 결제는 슬롯을 모은 뒤 처리되고, 실제 잔액을 넘는 결제는 거절됩니다.
+        long balance = accountService.processPayment(payment(merchant, 5_000L)).balance();
+        assertThat(balance).isEqualTo(1_000L + credited - 5_000L);
+        assertThat(stripedBalanceService.slotTotal(merchant.getId())).isZero();
+        assertThatThrownBy(() -> accountService.processPayment(payment(merchant, balance + 1)))
+                .isInstanceOf(ResponseStatusException.class);
+
+        accountService.transfer(transfer(payers.get(0), merchant, 500L));
+        stripedBalanceService.configure(merchant.getAccountNumber(), 0);
+        MemberAccount unstriped = memberAccountRepository.findById(merchant.getId()).orElseThrow();
+        assertThat(unstriped.getBalanceSlots()).isNull();
+        assertThat(unstriped.getBalance()).isEqualTo(balance + 500L);
+        assertThat(stripedBalanceService.slotTotal(merchant.getId())).isZero();
+    }
+
+    @Test
+    void slottedAccountsTransferToEachOtherWithoutDeadlock() throws Exception {
+        Member member = testAccounts.member("가맹점");
+        MemberAccount first = testAccounts.account(member, "1002-900-000200", 0L);
+        MemberAccount second = testAccounts.account(member, "1002-900-000201", 0L);
+        stripedBalanceService.configure(first.getAccountNumber(), 4);
+        stripedBalanceService.configure(second.getAccountNumber(), 4);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                // 두 계좌 모두 계좌 잔액은 0, 슬롯에만 돈이 있어 양쪽 출금이 모두 슬롯을 모읍니다.
+                jdbcTemplate.update("UPDATE tbl_member_account SET balance = 0 WHERE id IN (?, ?)", first.getId(), second.getId());
+                jdbcTemplate.update("UPDATE account_balance_slot SET balance = CASE WHEN slot_no = 0 THEN 100 ELSE 0 END "
+                        + "WHERE account_id IN (?, ?)", first.getId(), second.getId());
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?> forward = executor.submit(() -> {
+                    start.await();
+                    return accountService.transfer(transfer(first, second, 100L));
+                });
+                Future<?> backward = executor.submit(() -> {
+                    start.await();
+                    return accountService.transfer(transfer(second, first, 100L));
+                });
+                start.countDown();
+                forward.get();
+                backward.get();
+
+                assertThat(jdbcTemplate.queryForObject("""
+                        SELECT SUM(a.balance) + (SELECT SUM(s.balance) FROM account_balance_slot s WHERE s.account_id IN (?, ?))
+                        FROM tbl_member_account a WHERE a.id IN (?, ?)
+                        """, Long.class, first.getId(), second.getId(), first.getId(), second.getId())).isEqualTo(200L);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void transferIntoASlottedAccountWaitsForItsSweep() throws Exception {
+        Member member = testAccounts.member("가맹점");
+        MemberAccount first = testAccounts.account(member, "1002-900-000300", 0L);
+        MemberAccount second = testAccounts.account(member, "1002-900-000301", 0L);
+        stripedBalanceService.configure(first.getAccountNumber(), 2);
+        stripedBalanceService.configure(second.getAccountNumber(), 2);
+        jdbcTemplate.update("UPDATE account_balance_slot SET balance = 100 WHERE account_id IN (?, ?) AND slot_no = 0",
+                first.getId(), second.getId());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (AccountLocks ignored = accountLockManager.lock(second.getAccountNumber())) {
+            // second → first 이체가 second 의 슬롯을 모은 뒤 first 의 슬롯에 입금하려는 순간을 재현합니다.
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("SELECT balance FROM account_balance_slot WHERE account_id = ? FOR UPDATE",
+                        Long.class, second.getId());
+                Future<?> forward = executor.submit(() -> accountService.transfer(transfer(first, second, 100L)));
+                sleep(300);
+                jdbcTemplate.update("UPDATE account_balance_slot SET balance = balance + 1 WHERE account_id = ?", first.getId());
+                assertThat(forward).isNotDone();
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(memberAccountRepository.findById(first.getId()).orElseThrow().getBalance()
+                + stripedBalanceService.slotTotal(first.getId())).isEqualTo(2L);
+        assertThat(stripedBalanceService.slotTotal(second.getId())).isEqualTo(200L);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.app.dooribankbe.service.bulk;
+
+import com.app.dooribankbe.controller.dto.BulkLoadResponse;
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import com.app.dooribankbe.service.history.HistoryArchiveService;
+import com.app.dooribankbe.service.ledger.BalanceLedger;
+import com.app.dooribankbe.service.reconciliation.BalanceReconciliationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 생성 적재의 건수/잔액 일관성, CSV 적재(따옴표 포함), 반복 적재의 ID 충돌과 import 디렉터리 제한,
+ * 보관된 달 거절과 대사 체크포인트 초기화, 실패한 청크 뒤의 적재 중단과 이어서 적재하기를 H2 에서 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkLoadServiceTest {
+
+    @TempDir
+    Path csvDir;
+
+    @Autowired
+    private BulkLoadService bulkLoadService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BalanceReconciliationService balanceReconciliationService;
+
+    @Test
+    void generatesConsistentBalancesAndLoadsCsv() throws IOException {
+        ReflectionTestUtils.setField(bulkLoadService, "enabled", true);
+        ReflectionTestUtils.setField(bulkLoadService, "rowsPerStatement", 7);
+        long lastMemberId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tbl_member", Long.class);
+
+        BulkLoadResponse result = bulkLoadService.generate(5, 2, 20, 10_000L, 30);
+
+        assertThat(result.members()).isEqualTo(5);
+        assertThat(result.accounts()).isEqualTo(10);
+        assertThat(result.historyRows()).isEqualTo(200);
+        // 계좌 잔액 = 시작 잔액 + 내역 합계, 내역은 모두 어제까지입니다.
+        List<Map<String, Object>> accounts = jdbcTemplate.queryForList("""
+                SELECT a.account_num, a.balance,
+                       (SELECT COALESCE(SUM(%s), 0) FROM account_history h WHERE h.account_id = a.id) AS net,
+                       (SELECT MAX(h.history_date) FROM account_history h WHERE h.account_id = a.id) AS last_date
+                FROM tbl_member_account a WHERE a.member_id > ? ORDER BY a.account_num
+                """.formatted(BalanceLedger.SIGNED_PRICE), lastMemberId);
+        assertThat(accounts).hasSize(10).allSatisfy(account -> {
+            assertThat(((Number) account.get("balance")).longValue())
+                    .isEqualTo(10_000L + ((Number) account.get("net")).longValue())
+                    .isNotNegative();
+            assertThat(account.get("last_date").toString()).isLessThan(LocalDate.now().toString());
+        });
+
+        String accountNumber = (String) accounts.get(0).get("account_num");
+        long balance = ((Number) accounts.get(0).get("balance")).longValue();
+        LocalDate day = LocalDate.now().minusDays(2);
+        Path csv = csvDir.resolve("history.csv");
+        Files.writeString(csv, BulkLoadService.HISTORY_CSV_HEADER + "\n"
+                + accountNumber + "," + day.atTime(10, 0) + ",TRANSFER_IN,TRANSFER,5000,\"급여, \"\"1월\"\"\",1002-999-000001\n"
+                + accountNumber + "," + day.atTime(12, 30) + ",PAYMENT,CAFE,1500,두리카페,\n");
+
+        ReflectionTestUtils.setField(bulkLoadService, "importDirectory", csvDir.toString());
+        BulkLoadResponse loaded = bulkLoadService.loadHistoryCsv("history.csv");
+
+        assertThat(loaded.historyRows()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT balance FROM tbl_member_account WHERE account_num = ?",
+                Long.class, accountNumber)).isEqualTo(balance + 3_500L);
+        assertThat(jdbcTemplate.queryForList("""
+                SELECT h.history_name FROM account_history h JOIN tbl_member_account a ON a.id = h.account_id
+                WHERE a.account_num = ? AND h.history_name IN ('두리카페', '급여, "1월"')
+                ORDER BY h.id
+                """, String.class, accountNumber)).containsExactly("급여, \"1월\"", "두리카페");
+    }
+
+    @Test
+    void repeatedLoadsOfTheSamePeriodDoNotCollide() throws IOException {
+        ReflectionTestUtils.setField(bulkLoadService, "enabled", true);
+        ReflectionTestUtils.setField(bulkLoadService, "importDirectory", csvDir.toString());
+        long historyBefore = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_history", Long.class);
+
+        // 같은 인자로 두 번 생성하면 거래 시각과 순번이 모두 같습니다.
+        bulkLoadService.generate(2, 1, 30, 10_000L, 1);
+        bulkLoadService.generate(2, 1, 30, 10_000L, 1);
+
+        String accountNumber = jdbcTemplate.queryForObject(
+                "SELECT account_num FROM tbl_member_account ORDER BY id DESC LIMIT 1", String.class);
+        LocalDate day = LocalDate.now().minusDays(1);
+        StringBuilder rows = new StringBuilder(BulkLoadService.HISTORY_CSV_HEADER).append('\n');
+        for (int i = 0; i < 3; i++) {
+            // 세 행 모두 같은 밀리초입니다.
+            rows.append(accountNumber).append(',').append(day.atTime(9, 0)).append(",TRANSFER_IN,TRANSFER,100,반복,\n");
+        }
+        Files.writeString(csvDir.resolve("repeat.csv"), rows.toString());
+        bulkLoadService.loadHistoryCsv("repeat.csv");
+        bulkLoadService.loadHistoryCsv("repeat.csv");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_history", Long.class))
+                .isEqualTo(historyBefore + 2 * 60 + 2 * 3);
+    }
+
+    @Test
+    void rejectsFilesOutsideTheImportDirectory() throws IOException {
+        ReflectionTestUtils.setField(bulkLoadService, "enabled", true);
+        Path importDir = Files.createDirectory(csvDir.resolve("import"));
+        Path outside = Files.writeString(csvDir.resolve("outside.csv"), BulkLoadService.HISTORY_CSV_HEADER + "\n");
+        ReflectionTestUtils.setField(bulkLoadService, "importDirectory", importDir.toString());
+
+        for (String path : List.of("../outside.csv", outside.toString(), "missing.csv")) {
+            assertThatThrownBy(() -> bulkLoadService.loadHistoryCsv(path))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    @Test
+    void csvBehindAReconciliationCheckpointResetsIt() throws IOException {
+        ReflectionTestUtils.setField(bulkLoadService, "enabled", true);
+        ReflectionTestUtils.setField(bulkLoadService, "importDirectory", csvDir.toString());
+        bulkLoadService.generate(1, 1, 0, 10_000L, 1);
+        Map<String, Object> account = jdbcTemplate.queryForMap(
+                "SELECT id, account_num FROM tbl_member_account ORDER BY id DESC LIMIT 1");
+        long accountId = ((Number) account.get("id")).longValue();
+        // 이미 지금까지 대사한 계좌입니다.
+        jdbcTemplate.update("""
+                INSERT INTO balance_reconciliation
+                    (account_id, verified_through_id, verified_balance, actual_balance, difference, status, checked_at)
+                VALUES (?, ?, 10000, 10000, 0, 'OK', ?)
+                """, accountId, TimeOrderedIdSource.minIdAt(Instant.now()), Timestamp.valueOf(LocalDateTime.now()));
+        Files.writeString(csvDir.resolve("checkpoint.csv"), BulkLoadService.HISTORY_CSV_HEADER + "\n"
+                + account.get("account_num") + "," + LocalDate.now().minusDays(2).atTime(10, 0) + ",TRANSFER_IN,TRANSFER,700,지난입금,\n");
+
+        bulkLoadService.loadHistoryCsv("checkpoint.csv");
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM balance_reconciliation WHERE account_id = ?", Long.class, accountId)).isZero();
+        balanceReconciliationService.reconcile();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM balance_reconciliation WHERE account_id = ?", String.class, accountId)).isEqualTo("OK");
+    }
+
+    @Test
+    void rejectsRowsInArchivedMonths() throws IOException {
+        ReflectionTestUtils.setField(bulkLoadService, "enabled", true);
+        ReflectionTestUtils.setField(bulkLoadService, "importDirectory", csvDir.toString());
+        Object archiveService = ReflectionTestUtils.getField(bulkLoadService, "historyArchiveService");
+        HistoryArchiveService archived = mock(HistoryArchiveService.class);
+        LocalDate hotFrom = LocalDate.now().minusMonths(1).withDayOfMonth(1);
+        when(archived.hotFrom()).thenReturn(Optional.of(hotFrom));
+        ReflectionTestUtils.setField(bulkLoadService, "historyArchiveService", archived);
+        try {
+            Files.writeString(csvDir.resolve("archived.csv"), BulkLoadService.HISTORY_CSV_HEADER + "\n"
+                    + "1002-999-000001," + hotFrom.minusDays(1).atTime(10, 0) + ",PAYMENT,CAFE,100,보관된달,\n");
+
+            assertThatThrownBy(() -> bulkLoadService.loadHistoryCsv("archived.csv"))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+            assertThatThrownBy(() -> bulkLoadService.generate(1, 1, 1, 10_000L, 70))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        } finally {
+            ReflectionTestUtils.setField(bulkLoadService, "historyArchiveService", archiveService);
+        }
+    }
+
+    @Test
+    void failedChunkStopsTheLoadAndReportsCommittedRows() throws IOException {
+        ReflectionTestUtils.setField(bulkLoadService, "enabled", true);
+        ReflectionTestUtils.setField(bulkLoadService, "importDirectory", csvDir.toString());
+        ReflectionTestUtils.setField(bulkLoadService, "parallelism", 1);
+        ReflectionTestUtils.setField(bulkLoadService, "csvChunkRows", 2);
+        try {
+            bulkLoadService.generate(1, 1, 0, 10_000L, 1);
+            String accountNumber = jdbcTemplate.queryForObject(
+                    "SELECT account_num FROM tbl_member_account ORDER BY id DESC LIMIT 1", String.class);
+            // 3행의 계좌가 없어 두 번째 청크(3~4행)가 실패합니다.
+            Files.writeString(csvDir.resolve("partial.csv"), partialCsv(accountNumber, "1002-999-999999"));
+
+            assertThatThrownBy(() -> bulkLoadService.loadHistoryCsv("partial.csv"))
+                    .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                        assertThat(e.getReason()).contains("3행").contains("skipRows=1-2 ");
+                    });
+            // 실패한 청크 뒤의 청크는 쓰지 않습니다.
+            assertThat(balanceOf(accountNumber)).isEqualTo(10_000L + 2 * 100L);
+            assertThat(historyCountOf(accountNumber)).isEqualTo(2L);
+
+            Files.writeString(csvDir.resolve("partial.csv"), partialCsv(accountNumber, accountNumber));
+            BulkLoadResponse resumed = bulkLoadService.loadHistoryCsv("partial.csv", "1-2");
+
+            assertThat(resumed.historyRows()).isEqualTo(4);
+            assertThat(balanceOf(accountNumber)).isEqualTo(10_000L + 6 * 100L);
+            assertThat(historyCountOf(accountNumber)).isEqualTo(6L);
+        } finally {
+            ReflectionTestUtils.setField(bulkLoadService, "parallelism", 4);
+            ReflectionTestUtils.setField(bulkLoadService, "csvChunkRows", 20_000);
+        }
+    }
+
+    @Test
+    void failedIndexRestoreKeepsTheLoadError() throws IOException {
+        ReflectionTestUtils.setField(bulkLoadService, "enabled", true);
+        ReflectionTestUtils.setField(bulkLoadService, "importDirectory", csvDir.toString());
+        // 이전 적재가 멈춰 남은 기록입니다. 다시 만들 수 없는 정의라 복구는 실패합니다.
+        jdbcTemplate.update("INSERT INTO bulk_load_dropped_index (index_name, column_list, dropped_at) VALUES (?, ?, ?)",
+                "idx_left_behind", "no_such_column", Timestamp.valueOf(LocalDateTime.now()));
+        try {
+            Files.writeString(csvDir.resolve("unknown.csv"), BulkLoadService.HISTORY_CSV_HEADER + "\n"
+                    + "1002-999-999999," + LocalDate.now().minusDays(1).atTime(9, 0) + ",PAYMENT,CAFE,100,없는계좌,\n");
+
+            assertThatThrownBy(() -> bulkLoadService.loadHistoryCsv("unknown.csv"))
+                    .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                        assertThat(e.getReason()).contains("없는 계좌번호");
+                    });
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM bulk_load_dropped_index WHERE index_name = 'idx_left_behind'", Long.class)).isEqualTo(1L);
+        } finally {
+            jdbcTemplate.update("DELETE FROM bulk_load_dropped_index");
+        }
+    }
+
+    private static String partialCsv(String accountNumber, String thirdRowAccount) {
+        LocalDate day = LocalDate.now().minusDays(1);
+        StringBuilder rows = new StringBuilder(BulkLoadService.HISTORY_CSV_HEADER).append('\n');
+        for (int row = 1; row <= 6; row++) {
+            rows.append(row == 3 ? thirdRowAccount : accountNumber).append(',').append(day.atTime(9, row))
+                    .append(",TRANSFER_IN,TRANSFER,100,이관").append(row).append(",\n");
+        }
+        return rows.toString();
+    }
+
+    private long balanceOf(String accountNumber) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM tbl_member_account WHERE account_num = ?", Long.class, accountNumber);
+    }
+
+    private long historyCountOf(String accountNumber) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM account_history h JOIN tbl_member_account a ON a.id = h.account_id
+                WHERE a.account_num = ?
+                """, Long.class, accountNumber);
+    }
+}
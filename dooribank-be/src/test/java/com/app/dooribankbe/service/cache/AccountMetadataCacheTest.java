@@ -0,0 +1,127 @@
+package com.app.dooribankbe.service.cache;
+
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.repository.MemberAccountRepository;
+import com.app.dooribankbe.service.TestAccounts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 계좌 메타데이터 캐시의 TTL(있는 계좌)과 negative TTL(없는 계좌), invalidate, readOnly 트랜잭션 안의 캐시 미스가
+ * 쓰기 가능 트랜잭션(기본 DB)에서 읽히는지를 H2 의 실제 조회로 확인합니다.
+ * 시간은 캐시에 넘긴 가짜 ticker 로 직접 넘깁니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountMetadataCacheTest {
+
+    private static final long TTL_MS = 60_000;
+    private static final long NEGATIVE_TTL_MS = 500;
+
+    @Autowired
+    private MemberAccountRepository memberAccountRepository;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void missIsCachedOnlyForTheNegativeTtl() {
+        AccountMetadataCache cache = newCache();
+        String accountNumber = "1002-890-000001";
+        assertThat(cache.get(accountNumber)).isEmpty();
+
+        MemberAccount account = testAccounts.account(accountNumber, 0L);
+        advance(NEGATIVE_TTL_MS - 1);
+        assertThat(cache.get(accountNumber)).isEmpty();
+
+        advance(2);
+        assertThat(cache.get(accountNumber)).map(AccountMetadata::id).contains(account.getId());
+    }
+
+    @Test
+    void hitIsCachedForTheTtl() {
+        AccountMetadataCache cache = newCache();
+        String accountNumber = "1002-890-000002";
+        testAccounts.account(accountNumber, 0L);
+        assertThat(cache.get(accountNumber)).map(AccountMetadata::accountPassword).contains(TestAccounts.PASSWORD);
+
+        jdbcTemplate.update("UPDATE tbl_member_account SET account_password = '9999' WHERE account_num = ?", accountNumber);
+        advance(TTL_MS - 1);
+        assertThat(cache.get(accountNumber)).map(AccountMetadata::accountPassword).contains(TestAccounts.PASSWORD);
+
+        advance(2);
+        assertThat(cache.get(accountNumber)).map(AccountMetadata::accountPassword).contains("9999");
+    }
+
+    @Test
+    void newAccountIsVisibleRightAfterInvalidate() {
+        AccountMetadataCache cache = newCache();
+        String accountNumber = "1002-890-000003";
+        assertThat(cache.get(accountNumber)).isEmpty();
+
+        MemberAccount account = testAccounts.account(accountNumber, 0L);
+        assertThat(cache.get(accountNumber)).isEmpty();
+
+        cache.invalidate(accountNumber);
+        assertThat(cache.get(accountNumber)).map(AccountMetadata::id).contains(account.getId());
+    }
+
+    @Test
+    void missInsideReadOnlyTransactionIsLoadedFromPrimary() {
+        // readOnly 트랜잭션은 복제본으로 라우팅될 수 있으므로, 캐시를 채우는 조회는 쓰기 가능 트랜잭션에서 해야 합니다.
+        List<Boolean> readOnlyAtLoad = new ArrayList<>();
+        MemberAccountRepository repository = mock(MemberAccountRepository.class, delegatesTo(memberAccountRepository));
+        doAnswer(invocation -> {
+            readOnlyAtLoad.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return memberAccountRepository.findMetadataByAccountNumber(invocation.getArgument(0));
+        }).when(repository).findMetadataByAccountNumber(anyString());
+        AccountMetadataCache cache = newCache(repository);
+        String accountNumber = "1002-890-000004";
+        MemberAccount account = testAccounts.account(accountNumber, 0L);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        assertThat(readOnly.execute(status -> cache.get(accountNumber))).map(AccountMetadata::id).contains(account.getId());
+        assertThat(readOnly.execute(status -> cache.get("1002-890-999999"))).isEmpty();
+        assertThat(readOnlyAtLoad).containsExactly(false, false);
+    }
+
+    private AccountMetadataCache newCache() {
+        return newCache(memberAccountRepository);
+    }
+
+    private AccountMetadataCache newCache(MemberAccountRepository repository) {
+        return new AccountMetadataCache(repository, transactionManager, new SimpleMeterRegistry(),
+                1_000, TTL_MS, NEGATIVE_TTL_MS, nanos::get);
+    }
+
+    private void advance(long millis) {
+        nanos.addAndGet(Duration.ofMillis(millis).toNanos());
+    }
+}
@@ -0,0 +1,121 @@
+package com.app.dooribankbe.service.groupcommit;
+
+import com.app.dooribankbe.controller.dto.PaymentResponse;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.service.TestAccounts;
+import com.app.dooribankbe.service.metrics.TransactionOutcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static com.app.dooribankbe.service.TestAccounts.payment;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 계좌로 동시에 들어온 결제가 묶여서 커밋되어도 건마다 올바른 잔액을 돌려받는지 H2 에서 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentGroupCommitterTest {
+
+    private static final int THREADS = 16;
+    private static final int PAYMENTS_PER_THREAD = 25;
+
+    @Autowired
+    private PaymentGroupCommitter paymentGroupCommitter;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void enable() {
+        ReflectionTestUtils.setField(paymentGroupCommitter, "enabled", true);
+    }
+
+    @AfterEach
+    void disable() {
+        ReflectionTestUtils.setField(paymentGroupCommitter, "enabled", false);
+    }
+
+    @Test
+    void concurrentPaymentsOnHotAccountGetRunningBalances() throws Exception {
+        int total = THREADS * PAYMENTS_PER_THREAD;
+        MemberAccount account = testAccounts.account("1002-830-000000", 1_000_000L);
+        double batchesBefore = meterRegistry.get("dooribank.group-commit.batch.size").summary().count();
+
+        List<Future<List<PaymentResponse>>> futures = runConcurrently(THREADS, PAYMENTS_PER_THREAD, account, 100L);
+        List<PaymentResponse> responses = new ArrayList<>();
+        for (Future<List<PaymentResponse>> future : futures) {
+            responses.addAll(future.get());
+        }
+
+        // 건마다 자기 차례의 잔액을 받으므로 잔액이 겹치지 않고 100원씩 빠짐없이 줄어듭니다.
+        assertThat(responses).extracting(PaymentResponse::balance)
+                .containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, total).map(n -> 1_000_000L - n * 100).boxed().toList());
+        assertThat(jdbcTemplate.queryForObject("SELECT balance FROM tbl_member_account WHERE id = ?", Long.class, account.getId()))
+                .isEqualTo(1_000_000L - total * 100L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_history WHERE account_id = ?", Long.class, account.getId()))
+                .isEqualTo((long) total);
+        double batches = meterRegistry.get("dooribank.group-commit.batch.size").summary().count() - batchesBefore;
+        assertThat(batches).isLessThan(total);
+    }
+
+    @Test
+    void insufficientFundsFailsOnlyThatPayment() throws Exception {
+        MemberAccount account = testAccounts.account("1002-830-000001", 250L);
+
+        List<Future<List<PaymentResponse>>> futures = runConcurrently(5, 1, account, 100L);
+        int succeeded = 0;
+        List<TransactionOutcome> failures = new ArrayList<>();
+        for (Future<List<PaymentResponse>> future : futures) {
+            try {
+                future.get();
+                succeeded++;
+            } catch (Exception e) {
+                failures.add(TransactionOutcome.of(e.getCause()));
+            }
+        }
+
+        assertThat(succeeded).isEqualTo(2);
+        assertThat(failures).containsOnly(TransactionOutcome.INSUFFICIENT_FUNDS).hasSize(3);
+    }
+
+    private List<Future<List<PaymentResponse>>> runConcurrently(int threads, int perThread, MemberAccount account, long amount) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<PaymentResponse>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<PaymentResponse> responses = new ArrayList<>();
+                for (int n = 0; n < perThread; n++) {
+                    responses.add(paymentGroupCommitter.processPayment(payment(account, amount)));
+                }
+                return responses;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        return futures;
+    }
+}
@@ -0,0 +1,170 @@
+package com.app.dooribankbe.service.history;
+
+import com.app.dooribankbe.controller.dto.AccountHistoryDto;
+import com.app.dooribankbe.controller.dto.AccountHistoryPageResponse;
+import com.app.dooribankbe.controller.dto.PaymentRequest;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.service.AccountHistoryService;
+import com.app.dooribankbe.service.AccountService;
+import com.app.dooribankbe.service.TestAccounts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 지난달 내역을 세그먼트로 옮긴 뒤 내역 조회가 DB 와 세그먼트를 이어서 읽는지,
+ * 세그먼트에 없는 계좌는 파일을 열지 않는지 H2 에서 확인합니다.
+ * 시간순 ID 이전(IDENTITY)의 행은 ID 가 아니라 history_date 의 달로 보관되는지도 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HistoryArchiveServiceTest {
+
+    private static final int ARCHIVED_PER_MONTH = 30;
+
+    @TempDir
+    Path archiveDir;
+
+    @Autowired
+    private HistoryArchiveService historyArchiveService;
+
+    @Autowired
+    private AccountHistoryService accountHistoryService;
+
+    @Autowired
+    private HistoryExportService historyExportService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archivedMonthsAreReadBehindHotRows() throws IOException {
+        ReflectionTestUtils.setField(historyArchiveService, "directory", archiveDir.toString());
+        Member member = testAccounts.member("보관");
+        MemberAccount account = testAccounts.account(member, "1002-800-000000", 100_000L);
+
+        YearMonth oldest = YearMonth.now().minusMonths(6);
+        for (YearMonth month : List.of(oldest, oldest.plusMonths(1))) {
+            insertHistory(account.getId(), month);
+        }
+        // IDENTITY 시절의 작은 ID: 하나는 보관할 달, 하나는 지난주 날짜입니다.
+        MemberAccount legacyAccount = testAccounts.account(member, "1002-800-000001", 100_000L);
+        LocalDateTime legacyOld = oldest.atDay(15).atTime(12, 0);
+        LocalDateTime legacyRecent = LocalDateTime.now().minusWeeks(1).withNano(0);
+        insertLegacyHistory(800_001L, legacyAccount.getId(), legacyOld, "옛날식당");
+        insertLegacyHistory(800_002L, legacyAccount.getId(), legacyRecent, "지난주식당");
+        for (int i = 0; i < 3; i++) {
+            accountService.processPayment(new PaymentRequest(account.getAccountNumber(), TestAccounts.PASSWORD, 100L, HistoryCategory.FOOD, "두리식당"));
+        }
+
+        int archived = historyArchiveService.archiveBefore(YearMonth.now().minusMonths(3));
+
+        assertThat(archived).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_history WHERE account_id = ?", Long.class, account.getId())).isEqualTo(3L);
+
+        List<AccountHistoryDto> all = new ArrayList<>();
+        AccountHistoryPageResponse page = accountHistoryService.getHistory(account.getAccountNumber(), null, null, null, null, 7);
+        // 첫 페이지는 DB 의 3건 뒤에 세그먼트의 최신 4건이 이어지고, 커서는 세그먼트 안을 가리킵니다.
+        assertThat(page.items()).extracting(AccountHistoryDto::historyName)
+                .containsExactly("두리식당", "두리식당", "두리식당",
+                        cafe(oldest.plusMonths(1), 29), cafe(oldest.plusMonths(1), 28),
+                        cafe(oldest.plusMonths(1), 27), cafe(oldest.plusMonths(1), 26));
+        assertThat(page.nextCursorId()).isEqualTo(page.items().get(6).historyId());
+        all.addAll(page.items());
+        while (page.hasNext()) {
+            page = accountHistoryService.getHistory(account.getAccountNumber(), null, null,
+                    page.nextCursorDate(), page.nextCursorId(), 7);
+            all.addAll(page.items());
+        }
+        assertThat(all).hasSize(3 + 2 * ARCHIVED_PER_MONTH);
+        assertThat(all).extracting(AccountHistoryDto::historyDate).isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(all.subList(0, 3)).allSatisfy(row -> assertThat(row.historyName()).isEqualTo("두리식당"));
+        assertThat(all.get(all.size() - 1).historyDate()).isEqualTo(oldest.atDay(1).atTime(9, 0));
+
+        // 필터는 세그먼트에서 이어 읽을 때도 적용됩니다.
+        AccountHistoryPageResponse food = accountHistoryService.getHistory(
+                account.getAccountNumber(), TransactionType.PAYMENT, HistoryCategory.FOOD, null, null, 7);
+        assertThat(food.items()).hasSize(3);
+        assertThat(food.hasNext()).isFalse();
+        AccountHistoryPageResponse cafe = accountHistoryService.getHistory(
+                account.getAccountNumber(), null, HistoryCategory.CAFE, null, null, 50);
+        assertThat(cafe.items()).hasSize(50).allSatisfy(row -> assertThat(row.historyCategory()).isEqualTo(HistoryCategory.CAFE));
+        assertThat(accountHistoryService.getHistory(account.getAccountNumber(), null, HistoryCategory.CAFE,
+                cafe.nextCursorDate(), cafe.nextCursorId(), 50).items()).hasSize(2 * ARCHIVED_PER_MONTH - 50);
+        assertThat(accountHistoryService.getHistory(
+                account.getAccountNumber(), TransactionType.TRANSFER_IN, null, null, null, 7).items()).isEmpty();
+
+        // 내보내기는 보관된 행을 먼저, DB 에 남은 행을 이어서 오래된 순으로 씁니다.
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        long rows = historyExportService.export(account.getId(), null, null, false, false, exported);
+        List<String> lines = exported.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).isEqualTo(3 + 2 * ARCHIVED_PER_MONTH);
+        assertThat(lines).hasSize(1 + 3 + 2 * ARCHIVED_PER_MONTH);
+        assertThat(lines.get(1)).contains("," + oldest.atDay(1).atTime(9, 0) + ",");
+        assertThat(lines.get(lines.size() - 1)).contains(",두리식당,");
+
+        // IDENTITY 시절 행은 history_date 의 달로 보관되고, 최근 날짜의 행은 DB 에 남습니다.
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT id FROM account_history WHERE account_id = ?", Long.class, legacyAccount.getId())).containsExactly(800_002L);
+        assertThat(historyArchiveService.readRange(legacyAccount.getId(), oldest.atDay(1).atStartOfDay(), null))
+                .extracting(AccountHistoryDto::historyName).containsExactly("옛날식당");
+        assertThat(accountHistoryService.getHistory(legacyAccount.getAccountNumber(), null, null, null, null, 10).items())
+                .extracting(AccountHistoryDto::historyDate).containsExactly(legacyRecent, legacyOld);
+        ByteArrayOutputStream legacyExport = new ByteArrayOutputStream();
+        assertThat(historyExportService.export(legacyAccount.getId(), null, null, false, false, legacyExport)).isEqualTo(2);
+
+        // 보관 뒤에 만든 계좌는 세그먼트의 account_id 범위 밖이므로 마지막 페이지에서도 세그먼트 파일을 열지 않습니다.
+        MemberAccount newAccount = testAccounts.account(member, "1002-800-000002", 0L);
+        ReflectionTestUtils.invokeMethod(historyArchiveService, "closeSegments");
+        assertThat(accountHistoryService.getHistory(newAccount.getAccountNumber(), null, null, null, null, 10).items()).isEmpty();
+        assertThat(openSegments()).isEmpty();
+        accountHistoryService.getHistory(account.getAccountNumber(), null, null, null, null, 10);
+        assertThat(openSegments()).isNotEmpty();
+    }
+
+    private Map<?, ?> openSegments() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(historyArchiveService, "openSegments");
+    }
+
+    private static String cafe(YearMonth month, int i) {
+        return "두리카페-" + month + "-" + i;
+    }
+
+    private void insertLegacyHistory(long id, Long accountId, LocalDateTime date, String name) {
+        testAccounts.history(id, accountId, date, 1_000L, TransactionType.PAYMENT, HistoryCategory.FOOD, name);
+    }
+
+    private void insertHistory(Long accountId, YearMonth month) {
+        long baseId = HistoryPartitionManager.boundaryOf(month);
+        for (int i = 0; i < ARCHIVED_PER_MONTH; i++) {
+            LocalDateTime date = month.atDay(1).atTime(9, 0).plusHours(i);
+            testAccounts.history(baseId + i, accountId, date, 1_000L + i, TransactionType.PAYMENT, HistoryCategory.CAFE, cafe(month, i));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.app.dooribankbe.service.history;
+
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import com.app.dooribankbe.service.TestAccounts;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 계좌 페이지를 나눠 읽어도 계좌·시간 순으로 빠짐없이 쓰는지, CSV 따옴표와 gzip NDJSON 을 H2 에서 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HistoryExportServiceTest {
+
+    @Autowired
+    private HistoryExportService historyExportService;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportsAccountsInOrderAsCsvAndGzippedNdjson() throws Exception {
+        ReflectionTestUtils.setField(historyExportService, "pageSize", 1);
+        Member member = testAccounts.member("내보내기");
+        List<MemberAccount> accounts = List.of(account(member, 0), account(member, 1), account(member, 2));
+        LocalDateTime base = LocalDateTime.now().minusDays(2).truncatedTo(ChronoUnit.SECONDS);
+        insertHistory(accounts.get(1).getId(), base, "두리, \"카페\"");
+        insertHistory(accounts.get(1).getId(), base.minusHours(1), "두리식당");
+        insertHistory(accounts.get(0).getId(), base.plusHours(1), "두리마트");
+
+        LocalDateTime from = LocalDateTime.now().minusDays(7);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long rows = historyExportService.export(null, from, to, false, false, csv);
+
+        List<String> lines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(0) + "\n").isEqualTo(HistoryExportService.CSV_HEADER);
+        List<String> ours = lines.stream().filter(line -> line.startsWith("1002-820-")).toList();
+        assertThat(rows).isGreaterThanOrEqualTo(3);
+        assertThat(ours).hasSize(3);
+        assertThat(ours.get(0)).startsWith("1002-820-000000,").endsWith(",두리마트,");
+        assertThat(ours.get(1)).startsWith("1002-820-000001,").endsWith(",두리식당,");
+        assertThat(ours.get(2)).startsWith("1002-820-000001,").endsWith(",\"두리, \"\"카페\"\"\",");
+
+        Long accountId = historyExportService.prepare("1002-820-000001", from, to);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        historyExportService.export(accountId, from, to, true, true, gzipped);
+
+        String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<JsonNode> json = ndjson.lines().map(this::readTree).toList();
+        assertThat(json).extracting(node -> node.get("historyName").asText()).containsExactly("두리식당", "두리, \"카페\"");
+        assertThat(json).allSatisfy(node -> assertThat(node.get("accountNumber").asText()).isEqualTo("1002-820-000001"));
+    }
+
+    private MemberAccount account(Member member, int index) {
+        return testAccounts.account(member, String.format("1002-820-%06d", index), 0L);
+    }
+
+    private void insertHistory(Long accountId, LocalDateTime date, String name) {
+        testAccounts.history(TimeOrderedIdSource.idAt(date.atZone(ZoneId.systemDefault()).toInstant(), accountId),
+                accountId, date, 1_000L, TransactionType.TRANSFER_IN, HistoryCategory.ETC, name);
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
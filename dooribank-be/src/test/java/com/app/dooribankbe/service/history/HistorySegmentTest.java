@@ -0,0 +1,101 @@
+package com.app.dooribankbe.service.history;
+
+import com.app.dooribankbe.controller.dto.AccountHistoryDto;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HistorySegmentTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 1, 0, 0, 0, 123_456_000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsAccountNewestFirstAcrossBlocksWithCursorAndFilter() throws IOException {
+        int rows = HistorySegment.BLOCK_ROWS * 2 + 10;
+        Path file = write(List.of(1L, 2L, 3L), rows);
+
+        try (HistorySegment segment = HistorySegment.open(file)) {
+            assertThat(segment.rowCount()).isEqualTo(3L * rows);
+
+            List<AccountHistoryDto> page = segment.readNewestFirst(2L, null, null, row -> true, 5);
+            assertThat(page).extracting(AccountHistoryDto::historyId)
+                    .containsExactly(2_000L + rows - 1, 2_000L + rows - 2, 2_000L + rows - 3, 2_000L + rows - 4, 2_000L + rows - 5);
+            assertThat(page.get(0)).isEqualTo(row(2L, rows - 1));
+
+            // 블록 경계를 넘는 커서
+            AccountHistoryDto cursor = row(2L, HistorySegment.BLOCK_ROWS);
+            List<AccountHistoryDto> next = segment.readNewestFirst(2L, cursor.historyDate(), cursor.historyId(), row -> true, 3);
+            assertThat(next).extracting(AccountHistoryDto::historyId)
+                    .containsExactly(2_000L + HistorySegment.BLOCK_ROWS - 1, 2_000L + HistorySegment.BLOCK_ROWS - 2,
+                            2_000L + HistorySegment.BLOCK_ROWS - 3);
+
+            List<AccountHistoryDto> payments = segment.readNewestFirst(3L, null, null,
+                    row -> row.historyStatus() == TransactionType.TRANSFER_IN, 1_000);
+            assertThat(payments).isNotEmpty().allSatisfy(row -> {
+                assertThat(row.historyStatus()).isEqualTo(TransactionType.TRANSFER_IN);
+                assertThat(row.historyTransferTarget()).isEqualTo("1002-000-000000");
+            });
+
+            assertThat(segment.readNewestFirst(4L, null, null, row -> true, 10)).isEmpty();
+            assertThat(segment.readRange(1L, START.plusMinutes(10), START.plusMinutes(20)))
+                    .extracting(AccountHistoryDto::historyId)
+                    .containsExactly(1_010L, 1_011L, 1_012L, 1_013L, 1_014L, 1_015L, 1_016L, 1_017L, 1_018L, 1_019L);
+        }
+    }
+
+    @Test
+    void corruptedBlockIsDetected() throws IOException {
+        Path file = write(List.of(1L), 100);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(10);
+            raf.write(raf.read() ^ 0xFF);
+        }
+
+        try (HistorySegment segment = HistorySegment.open(file)) {
+            assertThatThrownBy(() -> segment.readNewestFirst(1L, null, null, row -> true, 10))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    private Path write(List<Long> accountIds, int rowsPerAccount) throws IOException {
+        Path file = dir.resolve("segment.seg");
+        try (OutputStream out = Files.newOutputStream(file);
+             HistorySegment.Writer writer = new HistorySegment.Writer(out)) {
+            for (long accountId : accountIds) {
+                for (int i = 0; i < rowsPerAccount; i++) {
+                    writer.append(accountId, row(accountId, i));
+                }
+            }
+            writer.finish();
+        }
+        return file;
+    }
+
+    private static AccountHistoryDto row(long accountId, int i) {
+        boolean transferIn = i % 3 == 0;
+        return new AccountHistoryDto(
+                accountId * 1_000 + i,
+                START.plusMinutes(i),
+                1_000L + i,
+                transferIn ? TransactionType.TRANSFER_IN : TransactionType.PAYMENT,
+                transferIn ? HistoryCategory.TRANSFER : HistoryCategory.values()[i % 10],
+                "가맹점-" + i,
+                transferIn ? "1002-000-000000" : null);
+    }
+}
@@ -0,0 +1,164 @@
+package com.app.dooribankbe.service.idempotency;
+
+import com.app.dooribankbe.controller.dto.PaymentResponse;
+import com.app.dooribankbe.domain.entity.IdempotencyRecord;
+import com.app.dooribankbe.domain.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(repository.complete(anyString(), anyString(), anyString(), any())).thenReturn(1);
+        service = new IdempotencyService(repository, objectMapper, transactionManager, new SimpleMeterRegistry(),
+                1_000, 60_000, 5_000, 60_000);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForInFlightResult() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PaymentResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return service.execute("key-1", "PAYMENT", Map.of("amount", 1000), PaymentResponse.class, () -> {
+                        executions.incrementAndGet();
+                        sleep(100);
+                        return new PaymentResponse(1L, 9_000L);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<PaymentResponse> future : futures) {
+                assertThat(future.get()).isEqualTo(new PaymentResponse(1L, 9_000L));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() {
+        service.execute("key-2", "PAYMENT", Map.of("amount", 1000), PaymentResponse.class,
+                () -> new PaymentResponse(1L, 9_000L));
+
+        assertThatThrownBy(() -> service.execute("key-2", "PAYMENT", Map.of("amount", 2000), PaymentResponse.class,
+                () -> new PaymentResponse(2L, 7_000L)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    void completedKeyInDatabaseIsReplayedWithoutExecuting() throws Exception {
+        Map<String, Integer> body = Map.of("amount", 1000);
+        // 다른 인스턴스가 이미 처리한 키: 메모리에는 없고 DB에만 응답이 있습니다.
+        String requestHash = ReflectionTestUtils.invokeMethod(service, "hash", "PAYMENT", body);
+        IdempotencyRecord record = newRecord("key-3", requestHash, objectMapper.writeValueAsString(new PaymentResponse(3L, 5_000L)));
+        when(repository.insertClaim(anyString(), anyString(), anyString(), anyString(), any())).thenThrow(new DuplicateKeyException("dup"));
+        when(repository.findById("key-3")).thenReturn(Optional.of(record));
+
+        PaymentResponse response = service.execute("key-3", "PAYMENT", body, PaymentResponse.class, () -> {
+            throw new AssertionError("이미 처리된 요청을 다시 실행했습니다.");
+        });
+
+        assertThat(response).isEqualTo(new PaymentResponse(3L, 5_000L));
+    }
+
+    @Test
+    void staleClaimIsTakenOverWithANewToken() throws Exception {
+        Map<String, Integer> body = Map.of("amount", 1000);
+        String requestHash = ReflectionTestUtils.invokeMethod(service, "hash", "PAYMENT", body);
+        when(repository.insertClaim(anyString(), anyString(), anyString(), anyString(), any())).thenThrow(new DuplicateKeyException("dup"));
+        when(repository.findById("key-4")).thenReturn(Optional.of(newRecord("key-4", requestHash, null)));
+        when(repository.reclaimStale(eq("key-4"), eq(requestHash), anyString(), any(), any())).thenReturn(1);
+
+        PaymentResponse response = service.execute("key-4", "PAYMENT", body, PaymentResponse.class,
+                () -> new PaymentResponse(4L, 8_000L));
+
+        assertThat(response).isEqualTo(new PaymentResponse(4L, 8_000L));
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(repository).reclaimStale(eq("key-4"), eq(requestHash), token.capture(), any(), any());
+        verify(repository).complete(eq("key-4"), eq(token.getValue()), anyString(), any());
+    }
+
+    @Test
+    void runWhoseClaimWasTakenOverIsRolledBack() {
+        // stale-claim-ms 보다 오래 걸리는 동안 다른 요청이 키를 다시 선점해 토큰이 바뀐 경우
+        when(repository.complete(anyString(), anyString(), anyString(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> service.execute("key-5", "PAYMENT", Map.of("amount", 1000), PaymentResponse.class,
+                () -> new PaymentResponse(5L, 9_000L)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(repository).insertClaim(eq("key-5"), anyString(), anyString(), token.capture(), any());
+        verify(repository).complete(eq("key-5"), eq(token.getValue()), anyString(), any());
+        verify(transactionManager).rollback(any());
+        verify(repository).releaseClaim("key-5", token.getValue());
+    }
+
+    private static IdempotencyRecord newRecord(String key, String requestHash, String responseBody) throws Exception {
+        var constructor = IdempotencyRecord.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        IdempotencyRecord record = constructor.newInstance();
+        LocalDateTime now = LocalDateTime.now();
+        ReflectionTestUtils.setField(record, "idempotencyKey", key);
+        ReflectionTestUtils.setField(record, "operation", "PAYMENT");
+        ReflectionTestUtils.setField(record, "requestHash", requestHash);
+        ReflectionTestUtils.setField(record, "responseBody", responseBody);
+        ReflectionTestUtils.setField(record, "createdAt", now);
+        ReflectionTestUtils.setField(record, "claimedAt", now);
+        ReflectionTestUtils.setField(record, "claimToken", "other-token");
+        ReflectionTestUtils.setField(record, "completedAt", responseBody != null ? now : null);
+        return record;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.app.dooribankbe.service.ledger;
+
+import com.app.dooribankbe.service.TestAccounts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 롤백될 수 있는 입금으로 출금이 승인되지 않는지 H2 에서 확인합니다.
+ * (컨텍스트의 원장은 꺼 둔 채, 같은 DB 를 쓰는 원장을 따로 띄웁니다)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceLedgerTest {
+
+    private static final int ROUNDS = 2_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    private BalanceLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new BalanceLedger(jdbcTemplate);
+        ReflectionTestUtils.setField(ledger, "enabled", true);
+        ReflectionTestUtils.setField(ledger, "shardCount", 2);
+        ReflectionTestUtils.setField(ledger, "queueCapacity", 10_000);
+        ReflectionTestUtils.setField(ledger, "idleEvictMillis", 600_000L);
+        ledger.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledger.stop();
+    }
+
+    @Test
+    void pendingCreditIsNotSpendable() {
+        String account = emptyAccount("1002-840-000000");
+        LedgerPosting credit = ledger.credit(account, 100L);
+
+        assertThatThrownBy(() -> ledger.debit(account, 100L)).isInstanceOf(IllegalStateException.class);
+
+        ledger.complete(credit, false);
+        assertThatThrownBy(() -> ledger.debit(account, 100L)).isInstanceOf(IllegalStateException.class);
+
+        ledger.complete(ledger.credit(account, 100L), true);
+        LedgerPosting debit = ledger.debit(account, 100L);
+        assertThat(debit.getBalanceAfter()).isZero();
+        // 진행 중인 출금도 잔액에서 빼고 판단합니다.
+        assertThatThrownBy(() -> ledger.debit(account, 1L)).isInstanceOf(IllegalStateException.class);
+        ledger.complete(debit, true);
+    }
+
+    @Test
+    void concurrentRollbackThenDebitNeverOverdraws() throws Exception {
+        String account = emptyAccount("1002-840-000001");
+        AtomicInteger approvedDebits = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // 입금 후 롤백을 반복하는 동안, 다른 스레드가 같은 금액의 출금을 계속 시도합니다.
+            Future<?> credits = executor.submit(() -> {
+                for (int i = 0; i < ROUNDS; i++) {
+                    ledger.complete(ledger.credit(account, 100L), false);
+                }
+            });
+            Future<?> debits = executor.submit(() -> {
+                for (int i = 0; i < ROUNDS; i++) {
+                    try {
+                        ledger.complete(ledger.debit(account, 100L), true);
+                        approvedDebits.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // 잔액 부족 (기대한 결과)
+                    }
+                }
+            });
+            credits.get();
+            debits.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(approvedDebits.get()).isZero();
+        ledger.flush();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT balance FROM tbl_member_account WHERE account_num = ?", Long.class, account)).isZero();
+    }
+
+    private String emptyAccount(String accountNumber) {
+        return testAccounts.account(accountNumber, 0L).getAccountNumber();
+    }
+}
@@ -0,0 +1,116 @@
+package com.app.dooribankbe.service.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionLimiterTest {
+
+    private static final String ACCOUNT = "1002-000-0001";
+
+    @Test
+    void concurrentPaymentsNeverExceedWindowLimit() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransactionLimiter limiter = new TransactionLimiter(null, registry, true, 100, 60_000, 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int n = 0; n < 1_000; n++) {
+                    try {
+                        limiter.acquirePayment(ACCOUNT);
+                        accepted.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(accepted.get()).isEqualTo(100);
+        assertThat(registry.get("dooribank.limit.rejections").tag("limit", "payment_velocity").counter().count())
+                .isEqualTo(8 * 1_000 - 100);
+    }
+
+    @Test
+    void simultaneousPaymentsNeverPassASingleSlotLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 5_000; round++) {
+                // 한 칸짜리 한도에 여덟 스레드가 동시에 첫 결제를 시도합니다.
+                TransactionLimiter limiter = new TransactionLimiter(null, new SimpleMeterRegistry(), true, 1, 60_000, 0);
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger accepted = new AtomicInteger();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            limiter.acquirePayment(ACCOUNT);
+                            accepted.incrementAndGet();
+                        } catch (ResponseStatusException e) {
+                            // 한도 초과 (기대한 결과)
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                assertThat(accepted.get()).as("round %d", round).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void paymentWindowSlides() throws Exception {
+        TransactionLimiter limiter = new TransactionLimiter(null, new SimpleMeterRegistry(), true, 2, 200, 0);
+
+        limiter.acquirePayment(ACCOUNT);
+        limiter.acquirePayment(ACCOUNT);
+        assertThatThrownBy(() -> limiter.acquirePayment(ACCOUNT)).isInstanceOf(ResponseStatusException.class);
+
+        Thread.sleep(250);
+        limiter.acquirePayment(ACCOUNT);
+    }
+
+    @Test
+    void dailyTransferOutIsReservedAndReleased() {
+        TransactionLimiter limiter = new TransactionLimiter(null, new SimpleMeterRegistry(), true, 0, 60_000, 10_000);
+
+        assertThat(limiter.reserveTransferOut(ACCOUNT, 6_000L)).isTrue();
+        assertThatThrownBy(() -> limiter.reserveTransferOut(ACCOUNT, 5_000L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+
+        // 롤백된 이체는 한도를 돌려받습니다.
+        limiter.releaseTransferOut(ACCOUNT, 6_000L);
+        assertThat(limiter.reserveTransferOut(ACCOUNT, 10_000L)).isTrue();
+        assertThat(limiter.reserveTransferOut("1002-000-0002", 10_000L)).isTrue();
+    }
+}
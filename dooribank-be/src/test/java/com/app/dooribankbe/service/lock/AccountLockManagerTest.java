@@ -0,0 +1,124 @@
+package com.app.dooribankbe.service.lock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountLockManagerTest {
+
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 50_000;
+    private static final long INITIAL_BALANCE = 1_000_000L;
+
+    @Test
+    void concurrentTransfersOnHotAccountsLoseNoUpdates() throws Exception {
+        AccountLockManager lockManager = new AccountLockManager(new SimpleMeterRegistry(), 1024, 5_000);
+        String[] accounts = {"1002-000-0001", "1002-000-0002", "1002-000-0003", "1002-000-0004"};
+        long[] balances = new long[accounts.length];
+        AtomicLong[] expected = new AtomicLong[accounts.length];
+        for (int i = 0; i < accounts.length; i++) {
+            balances[i] = INITIAL_BALANCE;
+            expected[i] = new AtomicLong(INITIAL_BALANCE);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int n = 0; n < TRANSFERS_PER_THREAD; n++) {
+                    int from = random.nextInt(accounts.length);
+                    int to = (from + 1 + random.nextInt(accounts.length - 1)) % accounts.length;
+                    long amount = 1 + random.nextInt(100);
+                    try (AccountLocks ignored = lockManager.lock(accounts[from], accounts[to])) {
+                        // 잠금이 없으면 이 read-modify-write 에서 갱신이 유실됩니다.
+                        if (balances[from] >= amount) {
+                            balances[from] -= amount;
+                            balances[to] += amount;
+                            expected[from].addAndGet(-amount);
+                            expected[to].addAndGet(amount);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        long total = 0;
+        for (int i = 0; i < accounts.length; i++) {
+            assertThat(balances[i]).isEqualTo(expected[i].get());
+            total += balances[i];
+        }
+        assertThat(total).isEqualTo(INITIAL_BALANCE * accounts.length);
+    }
+
+    @Test
+    void opposingTransfersDoNotDeadlock() throws Exception {
+        AccountLockManager lockManager = new AccountLockManager(new SimpleMeterRegistry(), 1024, 1_000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<?> aToB = executor.submit(() -> repeatLock(lockManager, "1002-000-0001", "1002-000-0002"));
+        Future<?> bToA = executor.submit(() -> repeatLock(lockManager, "1002-000-0002", "1002-000-0001"));
+
+        aToB.get(30, TimeUnit.SECONDS);
+        bToA.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    void lockTimesOutWithServiceUnavailable() throws Exception {
+        AccountLockManager lockManager = new AccountLockManager(new SimpleMeterRegistry(), 1024, 50);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try (AccountLocks ignored = lockManager.lock("1002-000-0001")) {
+                held.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        holder.start();
+        held.await();
+
+        assertThatThrownBy(() -> lockManager.lock("1002-000-0002", "1002-000-0001"))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        release.countDown();
+        holder.join();
+        // 실패한 시도에서 잡았던 잠금은 모두 풀려 있어야 합니다.
+        lockManager.lock("1002-000-0002", "1002-000-0001").close();
+    }
+
+    private static void repeatLock(AccountLockManager lockManager, String first, String second) {
+        for (int i = 0; i < 100_000; i++) {
+            try (AccountLocks ignored = lockManager.lock(first, second)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
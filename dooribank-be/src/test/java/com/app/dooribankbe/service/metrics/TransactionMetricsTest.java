@@ -0,0 +1,77 @@
+package com.app.dooribankbe.service.metrics;
+
+import com.app.dooribankbe.controller.dto.PaymentRequest;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.service.AccountService;
+import com.app.dooribankbe.service.TestAccounts;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import static com.app.dooribankbe.service.TestAccounts.payment;
+import static com.app.dooribankbe.service.TestAccounts.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 실제 AccountService 의 실패한 결제/이체가 dooribank.transaction 타이머에 어떤 outcome 태그로 남는지 확인합니다.
+ * (잔액 부족 구분은 AccountService 가 400 의 원인으로 넘기는 도메인 예외에 달려 있습니다)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionMetricsTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TransactionMetrics transactionMetrics = new TransactionMetrics(meterRegistry);
+
+    @Test
+    void failedPaymentsAreTaggedByCause() {
+        MemberAccount account = testAccounts.account("1002-860-000001", 1_000L);
+
+        pay(payment(account, 300L));
+        assertThatThrownBy(() -> pay(payment(account, 5_000L)))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> pay(payment(account.getAccountNumber(), "0000", 100L)))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> pay(payment("1002-860-999999", TestAccounts.PASSWORD, 100L)))
+                .isInstanceOf(ResponseStatusException.class);
+
+        assertThat(count("payment", TransactionOutcome.SUCCESS)).isEqualTo(1);
+        assertThat(count("payment", TransactionOutcome.INSUFFICIENT_FUNDS)).isEqualTo(1);
+        assertThat(count("payment", TransactionOutcome.BAD_PASSWORD)).isEqualTo(1);
+        assertThat(count("payment", TransactionOutcome.NOT_FOUND)).isEqualTo(1);
+        assertThat(count("payment", TransactionOutcome.INVALID_REQUEST)).isZero();
+    }
+
+    @Test
+    void transferWithoutFundsIsTaggedInsufficientFunds() {
+        Member member = testAccounts.member("메트릭");
+        MemberAccount from = testAccounts.account(member, "1002-860-000002", 100L);
+        MemberAccount to = testAccounts.account(member, "1002-860-000003", 0L);
+
+        assertThatThrownBy(() -> transactionMetrics.record("transfer", () -> accountService.transfer(transfer(from, to, 1_000L))))
+                .isInstanceOf(ResponseStatusException.class);
+
+        assertThat(count("transfer", TransactionOutcome.INSUFFICIENT_FUNDS)).isEqualTo(1);
+    }
+
+    private void pay(PaymentRequest request) {
+        transactionMetrics.record("payment", () -> accountService.processPayment(request));
+    }
+
+    private long count(String type, TransactionOutcome outcome) {
+        Timer timer = meterRegistry.find("dooribank.transaction").tags("type", type, "outcome", outcome.tag()).timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
@@ -0,0 +1,97 @@
+package com.app.dooribankbe.service.reconciliation;
+
+import com.app.dooribankbe.controller.dto.ReconciliationMismatchDto;
+import com.app.dooribankbe.controller.dto.ReconciliationRunResponse;
+import com.app.dooribankbe.domain.entity.BalanceReconciliation;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.entity.ReconciliationStatus;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.repository.BalanceReconciliationRepository;
+import com.app.dooribankbe.service.TestAccounts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 첫 대사의 기준 잔액, 이후 실행의 증분 확인, history 없이 바뀐 잔액 감지를 H2 에서 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceReconciliationServiceTest {
+
+    @Autowired
+    private BalanceReconciliationService balanceReconciliationService;
+
+    @Autowired
+    private BalanceReconciliationRepository balanceReconciliationRepository;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void verifiesIncrementallyAndReportsDrift() throws InterruptedException {
+        ReflectionTestUtils.setField(balanceReconciliationService, "chunkSize", 1);
+        ReflectionTestUtils.setField(balanceReconciliationService, "settleSeconds", 0L);
+
+        Member member = testAccounts.member("대사");
+        MemberAccount healthy = testAccounts.account(member, "1002-810-000000", 10_000L);
+        MemberAccount broken = testAccounts.account(member, "1002-810-000001", 500L);
+        history(healthy, 5_000L, TransactionType.TRANSFER_IN);
+        history(healthy, 2_000L, TransactionType.PAYMENT);
+        // 잔액 500 에 입금 1,000 만 있으면 시작 잔액이 -500 이어야 하므로 불일치입니다.
+        history(broken, 1_000L, TransactionType.TRANSFER_IN);
+        Thread.sleep(5);
+
+        ReconciliationRunResponse first = balanceReconciliationService.reconcile();
+
+        assertThat(first.failedChunks()).isZero();
+        assertThat(first.chunks()).isGreaterThan(1);
+        assertThat(checkpoint(healthy).getStatus()).isEqualTo(ReconciliationStatus.OK);
+        assertThat(checkpoint(healthy).getVerifiedBalance()).isEqualTo(10_000L);
+        assertThat(checkpoint(broken).getStatus()).isEqualTo(ReconciliationStatus.MISMATCH);
+        assertThat(checkpoint(broken).getDifference()).isEqualTo(-500L);
+
+        // history 와 함께 바뀐 잔액은 새 행만 더해 맞춰 봅니다.
+        history(healthy, 1_000L, TransactionType.PAYMENT);
+        jdbcTemplate.update("UPDATE tbl_member_account SET balance = balance - 1000 WHERE id = ?", healthy.getId());
+        Thread.sleep(5);
+        ReconciliationRunResponse second = balanceReconciliationService.reconcile();
+
+        assertThat(second.newHistoryRows()).isEqualTo(1);
+        assertThat(checkpoint(healthy).getStatus()).isEqualTo(ReconciliationStatus.OK);
+        assertThat(checkpoint(healthy).getVerifiedBalance()).isEqualTo(9_000L);
+
+        // history 없이 바뀐 잔액은 불일치로 남습니다.
+        jdbcTemplate.update("UPDATE tbl_member_account SET balance = balance + 300 WHERE id = ?", healthy.getId());
+        balanceReconciliationService.reconcile();
+
+        List<ReconciliationMismatchDto> mismatches = balanceReconciliationService.findMismatches(1000);
+        assertThat(mismatches)
+                .filteredOn(mismatch -> mismatch.accountNumber().startsWith("1002-810-"))
+                .extracting(ReconciliationMismatchDto::accountNumber, ReconciliationMismatchDto::difference)
+                .containsExactly(
+                        tuple("1002-810-000000", 300L),
+                        tuple("1002-810-000001", -500L));
+    }
+
+    private void history(MemberAccount account, long price, TransactionType status) {
+        testAccounts.history(account, LocalDateTime.now(), price, status, "대사");
+    }
+
+    private BalanceReconciliation checkpoint(MemberAccount account) {
+        return balanceReconciliationRepository.findById(account.getId()).orElseThrow();
+    }
+}
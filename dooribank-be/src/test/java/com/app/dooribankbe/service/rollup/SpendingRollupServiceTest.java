@@ -0,0 +1,97 @@
+package com.app.dooribankbe.service.rollup;
+
+import com.app.dooribankbe.controller.dto.SpendingRollupDto;
+import com.app.dooribankbe.controller.dto.SpendingSummaryResponse;
+import com.app.dooribankbe.domain.entity.HistoryCategory;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.entity.RollupPeriod;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.domain.id.TimeOrderedIdSource;
+import com.app.dooribankbe.service.AccountService;
+import com.app.dooribankbe.service.TestAccounts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.app.dooribankbe.service.TestAccounts.payment;
+import static com.app.dooribankbe.service.TestAccounts.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 결제·이체와 함께 쌓인 지출 집계가 account_history 를 직접 합친 값과 같은지, rebuild 가 집계를 되돌리는지 H2 에서 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SpendingRollupServiceTest {
+
+    @Autowired
+    private SpendingRollupService spendingRollupService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollupMatchesHistoryAndRebuildRestoresIt() {
+        Member member = testAccounts.member("집계");
+        MemberAccount spender = testAccounts.account(member, "1002-870-000000", 100_000L);
+        MemberAccount receiver = testAccounts.account(member, "1002-870-000001", 0L);
+
+        for (int i = 0; i < 3; i++) {
+            accountService.processPayment(payment(spender, 100L + i, HistoryCategory.CAFE));
+        }
+        // 한 트랜잭션의 여러 결제는 같은 집계 행에 한 번에 더해집니다. (ON DUPLICATE KEY UPDATE)
+        accountService.processPaymentGroup(spender.getAccountNumber(), List.of(
+                payment(spender, 250L, HistoryCategory.FOOD),
+                payment(spender, 350L, HistoryCategory.FOOD),
+                payment(spender, 10L, HistoryCategory.CAFE)));
+        accountService.transfer(transfer(spender, receiver, 1_000L));
+
+        LocalDate today = LocalDate.now();
+        assertMatchesHistory(spender, today);
+        SpendingSummaryResponse month = spendingRollupService.getSummary(spender.getAccountNumber(), RollupPeriod.MONTH, today, today);
+        assertThat(month.totalCount()).isEqualTo(7);
+        assertThat(month.totalAmount()).isEqualTo(100L + 101L + 102L + 250L + 350L + 10L + 1_000L);
+        // 입금은 지출이 아닙니다.
+        assertThat(spendingRollupService.getSummary(receiver.getAccountNumber(), RollupPeriod.DAY, today, today).items()).isEmpty();
+
+        // 집계 없이 들어온 내역과 어긋난 집계 행을 rebuild 가 내역 기준으로 다시 맞춥니다.
+        testAccounts.history(TimeOrderedIdSource.next(), spender.getId(), today.atTime(0, 0, 1), 500L,
+                TransactionType.PAYMENT, HistoryCategory.FOOD, "두리식당");
+        jdbcTemplate.update("UPDATE account_spending_rollup SET total_amount = 0 WHERE account_id = ?", spender.getId());
+
+        spendingRollupService.rebuild(spender.getAccountNumber());
+
+        assertMatchesHistory(spender, today);
+        assertThat(spendingRollupService.getSummary(spender.getAccountNumber(), RollupPeriod.MONTH, today, today).totalAmount())
+                .isEqualTo(month.totalAmount() + 500L);
+    }
+
+    private void assertMatchesHistory(MemberAccount account, LocalDate day) {
+        List<String> expected = jdbcTemplate.queryForList("""
+                SELECT CONCAT(history_category, ':', COUNT(*), ':', SUM(history_price))
+                FROM account_history
+                WHERE account_id = ? AND history_status IN ('PAYMENT', 'TRANSFER_OUT') AND CAST(history_date AS DATE) = ?
+                GROUP BY history_category
+                """, String.class, account.getId(), Date.valueOf(day));
+        SpendingSummaryResponse summary = spendingRollupService.getSummary(account.getAccountNumber(), RollupPeriod.DAY, day, day);
+        assertThat(summary.items())
+                .extracting(SpendingRollupDto::periodStart)
+                .containsOnly(day);
+        assertThat(summary.items())
+                .extracting(item -> item.category().name() + ":" + item.count() + ":" + item.totalAmount())
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+}
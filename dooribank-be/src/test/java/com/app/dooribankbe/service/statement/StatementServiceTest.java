@@ -0,0 +1,110 @@
+package com.app.dooribankbe.service.statement;
+
+import com.app.dooribankbe.controller.dto.StatementRunResponse;
+import com.app.dooribankbe.domain.entity.Member;
+import com.app.dooribankbe.domain.entity.MemberAccount;
+import com.app.dooribankbe.domain.entity.TransactionType;
+import com.app.dooribankbe.service.TestAccounts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 여러 파티션으로 나눠 만든 명세서의 잔액이 맞는지, 다시 실행하면 완료된 파티션을 건너뛰는지 H2 에서 확인합니다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StatementServiceTest {
+
+    @TempDir
+    Path statementDir;
+
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private TestAccounts testAccounts;
+
+    private final List<Long> historyIds = new ArrayList<>();
+    private final List<Long> historyAccounts = new ArrayList<>();
+
+    @Test
+    void writesOpeningEntriesAndClosingPerAccountAndResumes() throws IOException {
+        ReflectionTestUtils.setField(statementService, "directory", statementDir.toString());
+        ReflectionTestUtils.setField(statementService, "partitionSize", 2);
+        LocalDate day = LocalDate.now().minusDays(2);
+
+        Member member = testAccounts.member("명세");
+        MemberAccount first = testAccounts.account(member, "1002-700-000000", 10_000L);
+        MemberAccount second = testAccounts.account(member, "1002-700-000001", 3_000L);
+        testAccounts.account(member, "1002-700-000002", 500L);
+
+        history(first, day.atTime(9, 0), 5_000L, TransactionType.TRANSFER_IN, "입금, \"월급\"");
+        history(first, day.atTime(12, 30), 2_000L, TransactionType.PAYMENT, "두리식당");
+        history(first, day.plusDays(1).atTime(8, 0), 1_000L, TransactionType.PAYMENT, "두리카페");
+        history(second, day.atTime(23, 59, 59), 700L, TransactionType.TRANSFER_OUT, "이체");
+
+        StatementRunResponse result = statementService.generate(day);
+
+        assertThat(result.partitions()).isGreaterThan(1);
+        assertThat(result.generated()).isEqualTo(result.partitions());
+        List<String> lines = readAll(Path.of(result.directory()));
+        assertThat(linesOf(lines, first.getAccountNumber())).containsExactly(
+                "OPEN,1002-700-000000,," + day.atStartOfDay() + ",,,,8000,,",
+                "TXN,1002-700-000000,%d,%s,TRANSFER_IN,TRANSFER,5000,13000,\"입금, \"\"월급\"\"\",".formatted(
+                        idOf(first, 0), day.atTime(9, 0)),
+                "TXN,1002-700-000000,%d,%s,PAYMENT,CAFE,-2000,11000,두리식당,".formatted(idOf(first, 1), day.atTime(12, 30)),
+                "CLOSE,1002-700-000000,," + day.plusDays(1).atStartOfDay() + ",,,3000,11000,,");
+        assertThat(linesOf(lines, second.getAccountNumber())).first().asString().endsWith(",3700,,");
+        assertThat(linesOf(lines, "1002-700-000002")).isEmpty();
+
+        StatementRunResponse rerun = statementService.generate(day);
+        assertThat(rerun.generated()).isZero();
+        assertThat(rerun.entries()).isEqualTo(result.entries());
+    }
+
+    private void history(MemberAccount account, LocalDateTime date, long price, TransactionType status, String name) {
+        historyIds.add(testAccounts.history(account, date, price, status, name));
+        historyAccounts.add(account.getId());
+    }
+
+    private long idOf(MemberAccount account, int index) {
+        int seen = 0;
+        for (int i = 0; i < historyIds.size(); i++) {
+            if (historyAccounts.get(i).equals(account.getId()) && seen++ == index) {
+                return historyIds.get(i);
+            }
+        }
+        throw new IllegalArgumentException();
+    }
+
+    private static List<String> readAll(Path dir) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.sorted().toList()) {
+                List<String> fileLines = Files.readAllLines(file);
+                assertThat(fileLines.get(0)).isEqualTo(StatementService.HEADER.strip());
+                lines.addAll(fileLines.subList(1, fileLines.size()));
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> linesOf(List<String> lines, String accountNumber) {
+        return lines.stream().filter(line -> line.split(",")[1].equals(accountNumber)).toList();
+    }
+}